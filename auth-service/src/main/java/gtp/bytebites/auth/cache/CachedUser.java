@@ -0,0 +1,46 @@
+package gtp.bytebites.auth.cache;
+
+import gtp.bytebites.auth.model.User;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Immutable copy of a {@link User} as held by {@link UserCache}.
+ * <p>
+ * Every read hands out a fresh, detached {@link User} built from it, so nothing a caller
+ * does to the entity it receives can leak into the cache or into another request. The
+ * password hash is left out: this is what {@link UserCache} writes to Redis, and hashes
+ * stay in the memory of the instance that read them.
+ * </p>
+ */
+public record CachedUser(
+        UUID id,
+        String name,
+        String email,
+        User.Role role,
+        boolean oauth2User,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+    public static CachedUser from(User user) {
+        return new CachedUser(user.getId(), user.getName(), user.getEmail(), user.getRole(),
+                user.isOauth2user(), user.getCreatedAt(), user.getUpdatedAt());
+    }
+
+    /**
+     * @return the user without a password
+     */
+    public User toUser() {
+        return toUser(null);
+    }
+
+    public User toUser(String password) {
+        User user = new User(name, email, password, role);
+        user.setId(id);
+        user.setOauth2user(oauth2User);
+        user.setCreatedAt(createdAt);
+        user.setUpdatedAt(updatedAt);
+        return user;
+    }
+}
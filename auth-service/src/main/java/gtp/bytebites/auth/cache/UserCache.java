@@ -0,0 +1,249 @@
+package gtp.bytebites.auth.cache;
+
+import gtp.bytebites.auth.config.UserCacheConfig;
+import gtp.bytebites.auth.event.UserEventPublisher;
+import gtp.bytebites.auth.model.User;
+import gtp.bytebites.auth.repository.UserRepository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Two-tier cache of users by id and by email.
+ * <p>
+ * Lookups try this instance's Caffeine cache, then Redis if {@code app.cache.users.redis-enabled}
+ * is set, and only then the users table, filling the tiers they missed on the way back.
+ * Users are held once, by id; the email index only maps an email to an id, and a hit through
+ * it counts only if the cached user still has that email, so a changed email can never serve
+ * the wrong user. Redis failures fall through to the database.
+ * </p>
+ * <p>
+ * Users are cached without their password hash. Only {@link #findWithPasswordByEmail(String)},
+ * the authentication lookup, hands one out, and hashes are kept solely in this instance's
+ * Caffeine cache, never in Redis, so that a shared cache never holds credentials.
+ * </p>
+ * <p>
+ * {@link #invalidate(UUID)} evicts a changed user here at once and, through
+ * {@link UserEventPublisher}, from every instance once the change commits. Lookups are
+ * counted by the tier that answered them as {@code auth.user.cache.requests}, so the hit
+ * ratio is {@code (local + redis) / total}.
+ * </p>
+ */
+@Component
+public class UserCache {
+    private static final Logger log = LoggerFactory.getLogger(UserCache.class);
+
+    public static final String CACHE_NAME = "auth.users";
+
+    static final String ID_KEY_PREFIX = "auth:user:id:";
+    static final String EMAIL_KEY_PREFIX = "auth:user:email:";
+
+    private final Cache<UUID, CachedUser> users;
+    private final Cache<String, UUID> idsByEmail;
+    private final Cache<UUID, String> passwords;
+    private final UserRepository userRepository;
+    private final UserEventPublisher userEventPublisher;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration redisTtl;
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter databaseLoads;
+
+    public UserCache(UserCacheConfig config,
+                     UserRepository userRepository,
+                     UserEventPublisher userEventPublisher,
+                     ObjectProvider<StringRedisTemplate> redisTemplate,
+                     ObjectMapper objectMapper,
+                     MeterRegistry meterRegistry) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(config.getTtl())
+                .build();
+        this.passwords = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(config.getTtl())
+                .build();
+        this.userRepository = userRepository;
+        this.userEventPublisher = userEventPublisher;
+        this.redisTemplate = config.isRedisEnabled() ? redisTemplate.getObject() : null;
+        this.objectMapper = objectMapper;
+        this.redisTtl = config.getRedisTtl();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, users, CACHE_NAME);
+        this.localHits = meterRegistry.counter("auth.user.cache.requests", "tier", "local");
+        this.redisHits = meterRegistry.counter("auth.user.cache.requests", "tier", "redis");
+        this.databaseLoads = meterRegistry.counter("auth.user.cache.requests", "tier", "database");
+    }
+
+    public Optional<User> findById(UUID id) {
+        CachedUser cached = users.getIfPresent(id);
+        if (cached == null) {
+            cached = fromRedis(id);
+        } else {
+            localHits.increment();
+        }
+        if (cached == null) {
+            cached = load(userRepository.findById(id));
+        }
+        return Optional.ofNullable(cached).map(CachedUser::toUser);
+    }
+
+    public Optional<User> findByEmail(String email) {
+        UUID id = idsByEmail.getIfPresent(email);
+        CachedUser cached = id != null ? users.getIfPresent(id) : null;
+        if (cached != null && cached.email().equals(email)) {
+            localHits.increment();
+            return Optional.of(cached.toUser());
+        }
+
+        cached = fromRedis(email);
+        if (cached == null) {
+            cached = load(userRepository.findByEmail(email));
+        }
+        return Optional.ofNullable(cached).map(CachedUser::toUser);
+    }
+
+    /**
+     * Looks up a user to authenticate, with their password hash. The hash is only ever
+     * held here, so a user whose hash this instance has not read yet, or whose cached copy
+     * came from Redis, is read from the users table.
+     */
+    public Optional<User> findWithPasswordByEmail(String email) {
+        UUID id = idsByEmail.getIfPresent(email);
+        CachedUser cached = id != null ? users.getIfPresent(id) : null;
+        String password = id != null ? passwords.getIfPresent(id) : null;
+        if (cached != null && password != null && cached.email().equals(email)) {
+            localHits.increment();
+            return Optional.of(cached.toUser(password));
+        }
+
+        Optional<User> user = userRepository.findByEmail(email);
+        cached = load(user);
+        return Optional.ofNullable(cached).map(found -> found.toUser(user.get().getPassword()));
+    }
+
+    /**
+     * Drops a user whose account changed, here straight away and on every instance once
+     * the surrounding transaction, if any, commits.
+     */
+    public void invalidate(UUID id) {
+        evict(id);
+        userEventPublisher.publishUserChanged(id);
+    }
+
+    /**
+     * Drops a user from this instance's cache and from Redis.
+     */
+    public void evict(UUID id) {
+        users.invalidate(id);
+        passwords.invalidate(id);
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.delete(ID_KEY_PREFIX + id);
+            } catch (DataAccessException e) {
+                log.warn("Failed to evict user {} from Redis: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    private CachedUser load(Optional<User> user) {
+        databaseLoads.increment();
+        if (user.isEmpty()) {
+            return null;
+        }
+        CachedUser cached = CachedUser.from(user.get());
+        putLocal(cached);
+        if (user.get().getPassword() != null) {
+            passwords.put(cached.id(), user.get().getPassword());
+        }
+        putRedis(cached);
+        return cached;
+    }
+
+    private void putLocal(CachedUser user) {
+        users.put(user.id(), user);
+        idsByEmail.put(user.email(), user.id());
+    }
+
+    private CachedUser fromRedis(UUID id) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            return readRedis(redisTemplate.opsForValue().get(ID_KEY_PREFIX + id), null);
+        } catch (DataAccessException e) {
+            log.warn("Redis user cache unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private CachedUser fromRedis(String email) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            String id = redisTemplate.opsForValue().get(EMAIL_KEY_PREFIX + email);
+            return id != null ? readRedis(redisTemplate.opsForValue().get(ID_KEY_PREFIX + id), email) : null;
+        } catch (DataAccessException e) {
+            log.warn("Redis user cache unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param email the email the user was looked up by, or {@code null} for a lookup by id
+     */
+    private CachedUser readRedis(String json, String email) {
+        if (json == null) {
+            return null;
+        }
+        CachedUser user;
+        try {
+            user = objectMapper.readValue(json, CachedUser.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable cached user: {}", e.getMessage());
+            return null;
+        }
+        if (email != null && !email.equals(user.email())) {
+            return null;
+        }
+        redisHits.increment();
+        putLocal(user);
+        return user;
+    }
+
+    private void putRedis(CachedUser user) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            String json = objectMapper.writeValueAsString(user);
+            redisTemplate.opsForValue().set(ID_KEY_PREFIX + user.id(), json, redisTtl);
+            redisTemplate.opsForValue().set(EMAIL_KEY_PREFIX + user.email(), user.id().toString(), redisTtl);
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.warn("Failed to cache user {} in Redis: {}", user.id(), e.getMessage());
+        }
+    }
+}
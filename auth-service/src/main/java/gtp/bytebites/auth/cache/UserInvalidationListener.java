@@ -0,0 +1,24 @@
+package gtp.bytebites.auth.cache;
+
+import gtp.bytebites.events.event.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserInvalidationListener {
+    private static final Logger log = LoggerFactory.getLogger(UserInvalidationListener.class);
+
+    private final UserCache userCache;
+
+    public UserInvalidationListener(UserCache userCache) {
+        this.userCache = userCache;
+    }
+
+    @RabbitListener(queues = "#{userInvalidationQueue.name}")
+    public void handleUserChanged(UserChangedEvent event) {
+        log.debug("Auth service received user change for user: {}", event.userId());
+        userCache.evict(event.userId());
+    }
+}
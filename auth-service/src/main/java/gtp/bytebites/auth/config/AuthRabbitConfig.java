@@ -0,0 +1,60 @@
+package gtp.bytebites.auth.config;
+
+import gtp.bytebites.events.config.AuthEventConfig;
+import gtp.bytebites.events.config.UserEventConfig;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+@Configuration
+@Import({UserEventConfig.class, AuthEventConfig.class})
+public class AuthRabbitConfig {
+
+    /**
+     * Every auth-service instance holds its own user cache, so each one gets a private,
+     * auto-deleted queue and receives every user change.
+     */
+    @Bean
+    public Queue userInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    /**
+     * Binds this instance's queue to the user exchange for change events.
+     * @param userInvalidationQueue The queue bean for this instance.
+     * @param userExchange The shared exchange bean from UserEventConfig.
+     */
+    @Bean
+    public Binding userInvalidationBinding(Queue userInvalidationQueue, TopicExchange userExchange) {
+        return BindingBuilder.bind(userInvalidationQueue)
+                .to(userExchange)
+                .with(UserEventConfig.USER_CHANGED_ROUTING_KEY);
+    }
+
+    /**
+     * Every auth-service instance keeps its own revocation list, so each one gets a
+     * private, auto-deleted queue and receives every token revocation.
+     */
+    @Bean
+    public Queue tokenRevocationQueue() {
+        return new AnonymousQueue();
+    }
+
+    /**
+     * Binds this instance's queue to the auth exchange for token revocations.
+     * @param tokenRevocationQueue The queue bean for this instance.
+     * @param authExchange The shared exchange bean from AuthEventConfig.
+     */
+    @Bean
+    public Binding tokenRevocationBinding(Queue tokenRevocationQueue, TopicExchange authExchange) {
+        return BindingBuilder.bind(tokenRevocationQueue)
+                .to(authExchange)
+                .with(AuthEventConfig.TOKEN_REVOKED_ROUTING_KEY);
+    }
+}
@@ -0,0 +1,71 @@
+package gtp.bytebites.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the user cache in front of the users table.
+ *
+ * <p>Properties are bound from the {@code app.cache.users} prefix:</p>
+ * <ul>
+ *   <li><b>maxSize</b>: Users held in each instance's local cache, defaults to 10000</li>
+ *   <li><b>ttl</b>: How long a user stays in the local cache, defaults to 5m</li>
+ *   <li><b>redisEnabled</b>: Whether a Redis tier shared by every instance sits behind
+ *   the local cache, defaults to false</li>
+ *   <li><b>redisTtl</b>: How long a user stays in Redis, defaults to 30m</li>
+ * </ul>
+ *
+ * <p>Changes are pushed to every instance, so the TTLs only bound staleness when a
+ * change notification is lost.</p>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.cache.users")
+public class UserCacheConfig {
+    private long maxSize = 10_000;
+    private Duration ttl = Duration.ofMinutes(5);
+    private boolean redisEnabled = false;
+    private Duration redisTtl = Duration.ofMinutes(30);
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("User cache size must not be negative: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("User cache TTL must be positive: " + ttl);
+        }
+        this.ttl = ttl;
+    }
+
+    public boolean isRedisEnabled() {
+        return redisEnabled;
+    }
+
+    public void setRedisEnabled(boolean redisEnabled) {
+        this.redisEnabled = redisEnabled;
+    }
+
+    public Duration getRedisTtl() {
+        return redisTtl;
+    }
+
+    public void setRedisTtl(Duration redisTtl) {
+        if (redisTtl == null || redisTtl.isNegative() || redisTtl.isZero()) {
+            throw new IllegalArgumentException("User cache Redis TTL must be positive: " + redisTtl);
+        }
+        this.redisTtl = redisTtl;
+    }
+}
@@ -0,0 +1,59 @@
+package gtp.bytebites.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration for bulk user imports.
+ *
+ * <p>Properties are bound from the {@code app.users.import} prefix:</p>
+ * <ul>
+ *   <li><b>chunkSize</b>: Rows checked, hashed and inserted together, one query and one
+ *   batch insert per chunk, defaults to 500</li>
+ *   <li><b>maxRows</b>: Rows accepted by a single import, defaults to 100000</li>
+ *   <li><b>chunkTimeout</b>: Time budget of each chunk, which replaces the request's own
+ *   deadline so an import is not cut short by the gateway's default budget, defaults to 60s</li>
+ * </ul>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.users.import")
+public class UserImportConfig {
+    private int chunkSize = 500;
+    private long maxRows = 100_000;
+    private Duration chunkTimeout = Duration.ofSeconds(60);
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("User import chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public long getMaxRows() {
+        return maxRows;
+    }
+
+    public void setMaxRows(long maxRows) {
+        if (maxRows < 1) {
+            throw new IllegalArgumentException("User import row limit must be positive: " + maxRows);
+        }
+        this.maxRows = maxRows;
+    }
+
+    public Duration getChunkTimeout() {
+        return chunkTimeout;
+    }
+
+    public void setChunkTimeout(Duration chunkTimeout) {
+        if (chunkTimeout.isNegative() || chunkTimeout.isZero()) {
+            throw new IllegalArgumentException("User import chunk timeout must be positive: " + chunkTimeout);
+        }
+        this.chunkTimeout = chunkTimeout;
+    }
+}
@@ -1,19 +1,26 @@
 package gtp.bytebites.auth.controller;
 
 import gtp.bytebites.auth.dto.request.LoginRequest;
+import gtp.bytebites.auth.dto.request.LogoutRequest;
+import gtp.bytebites.auth.dto.request.RefreshTokenRequest;
 import gtp.bytebites.auth.dto.request.RegisterRequest;
 import gtp.bytebites.auth.dto.response.ErrorResponse;
 import gtp.bytebites.auth.dto.response.JwtResponse;
 import gtp.bytebites.auth.exception.EmailExistException;
+import gtp.bytebites.auth.exception.InvalidRefreshTokenException;
+import gtp.bytebites.auth.exception.LoginThrottledException;
+import gtp.bytebites.auth.exception.PasswordHashingRejectedException;
 import gtp.bytebites.auth.service.AuthService;
 
 import gtp.bytebites.util.dto.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
 import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -48,6 +55,8 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class AuthController {
     private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
 
     private final AuthService authService;
     private final Validator validator;
@@ -102,6 +111,8 @@ public class AuthController {
         } catch (EmailExistException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT)
                     .body(ApiResponse.error(e.getMessage()));
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(e);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -113,14 +124,19 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<JwtResponse>> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<ApiResponse<JwtResponse>> login(@Valid @RequestBody LoginRequest request,
+                                                          HttpServletRequest httpRequest) {
         try {
-            JwtResponse response = authService.login(request);
+            JwtResponse response = authService.login(request, clientAddress(httpRequest));
             return ResponseEntity.ok(ApiResponse.success(response, "Login successful"));
         } catch (BadCredentialsException e) {
             log.warn("Login failed for email: {}", request.email());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ApiResponse.error("Invalid email or password"));
+        } catch (LoginThrottledException e) {
+            return tooManyRequests(e.getMessage(), e.getRetryAfterSeconds());
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             log.error("Login error", e);
             return ResponseEntity.internalServerError()
@@ -128,9 +144,36 @@ public class AuthController {
         }
     }
 
+    /**
+     * Ends the caller's login.
+     * <p>
+     * The bearer access token, if any, is revoked until it expires, at this service and at
+     * the gateway. The refresh token in the body, if any, is revoked with every token
+     * rotated from the same login.
+     * </p>
+     *
+     * @param authorization the {@code Authorization} header carrying the access token
+     * @param request the refresh token of the login, optional
+     * @return ResponseEntity containing either:
+     *         <ul>
+     *           <li>Confirmation (200 OK)</li>
+     *           <li>Error for a malformed refresh token (401 Unauthorized)</li>
+     *         </ul>
+     */
     @PostMapping("/logout")
-    public ResponseEntity<ApiResponse<String>> logout() {
-        return ResponseEntity.ok(ApiResponse.success("Logged out successfully"));
+    public ResponseEntity<ApiResponse<String>> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) LogoutRequest request) {
+        String accessToken = authorization != null && authorization.startsWith(BEARER_PREFIX)
+                ? authorization.substring(BEARER_PREFIX.length())
+                : null;
+        try {
+            authService.logout(accessToken, request != null ? request.refreshToken() : null);
+            return ResponseEntity.ok(ApiResponse.success("Logged out successfully"));
+        } catch (InvalidRefreshTokenException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
     }
 
     @GetMapping("/oauth2/login/success")
@@ -167,11 +210,50 @@ public class AuthController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     * <p>
+     * Each refresh token can be used once. Reusing one revokes every token issued since the
+     * login it came from.
+     * </p>
+     *
+     * @param request the refresh token issued by login, register or the previous refresh
+     * @return ResponseEntity containing either:
+     *         <ul>
+     *           <li>JwtResponse with the new tokens on success (200 OK)</li>
+     *           <li>Error for an invalid, expired or reused token (401 Unauthorized)</li>
+     *         </ul>
+     */
     @PostMapping("/token-refresh")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> refreshToken() {
-        return ResponseEntity.ok(ApiResponse.success(
-                Map.of("expires_in", 3600),
-                "Token refreshed successfully"
-        ));
+    public ResponseEntity<ApiResponse<JwtResponse>> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            JwtResponse response = authService.refresh(request.refreshToken());
+            return ResponseEntity.ok(ApiResponse.success(response, "Token refreshed successfully"));
+        } catch (InvalidRefreshTokenException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> tooManyRequests(PasswordHashingRejectedException e) {
+        return tooManyRequests(e.getMessage(), e.getRetryAfterSeconds());
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> tooManyRequests(String message, long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(ApiResponse.error(message));
+    }
+
+    /**
+     * The address the gateway received the request from: the last {@code X-Forwarded-For}
+     * entry, which the gateway appends, since earlier entries are whatever the client sent.
+     */
+    private static String clientAddress(HttpServletRequest request) {
+        String forwardedFor = request.getHeader(FORWARDED_FOR_HEADER);
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            return forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+        }
+        return request.getRemoteAddr();
     }
 }
\ No newline at end of file
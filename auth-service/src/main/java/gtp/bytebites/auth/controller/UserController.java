@@ -1,20 +1,35 @@
 package gtp.bytebites.auth.controller;
 
+import gtp.bytebites.auth.dto.response.UserImportResult;
 import gtp.bytebites.auth.dto.response.UserResponse;
 import gtp.bytebites.auth.dto.response.UserSummaryResponse;
 import gtp.bytebites.auth.model.User;
+import gtp.bytebites.auth.service.TokenRevocationService;
+import gtp.bytebites.auth.service.UserImportService;
 import gtp.bytebites.auth.service.UserService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
 /**
  * REST controller for user-related operations and user management.
  * <p>
@@ -47,15 +62,27 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/v1/users")
 public class UserController {
     private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Constructs a new UserController with the required service dependency.
+     * Constructs a new UserController with the required service dependencies.
      *
      * @param userService the user service implementation for business logic operations
+     * @param tokenRevocationService the service revoking a user's tokens
+     * @param userImportService the service importing users in bulk
+     * @param objectMapper the mapper writing import results
      */
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService,
+                          TokenRevocationService tokenRevocationService,
+                          UserImportService userImportService,
+                          ObjectMapper objectMapper) {
         this.userService = userService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userImportService = userImportService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -95,4 +122,66 @@ public class UserController {
     public ResponseEntity<Page<UserSummaryResponse>> getAllUsers(@PageableDefault(size = 10) Pageable pageable) {
         return ResponseEntity.ok(userService.getAllUsers(pageable));
     }
-}
\ No newline at end of file
+
+    /**
+     * Revokes every access and refresh token issued to a user so far (Admin-only endpoint).
+     * <p>
+     * The user has to log in again on every device. Tokens issued after the call are not
+     * affected.
+     * </p>
+     *
+     * @param id the user whose tokens to revoke
+     * @return an empty response (204 No Content)
+     * @throws org.springframework.security.access.AccessDeniedException if not authorized
+     */
+    @PostMapping("/admin/users/{id}/revoke-tokens")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Void> revokeTokens(@PathVariable UUID id) {
+        tokenRevocationService.revokeUser(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Imports users in bulk from a CSV or NDJSON body (Admin-only endpoint).
+     * <p>
+     * The body is read and imported a chunk at a time, and the result of every row is
+     * streamed back as one NDJSON line per row as soon as its chunk is stored, so neither
+     * side has to hold the whole import. Admins cannot be imported.
+     * </p>
+     *
+     * @param request the request whose body holds the users
+     * @param response the response the results are streamed to
+     * @throws IOException if the body cannot be read or the results cannot be written
+     * @throws org.springframework.security.access.AccessDeniedException if not authorized
+     * @see UserImportResult
+     */
+    @PostMapping(value = "/admin/users/import",
+            consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        try {
+            userImportService.importUsers(request.getInputStream(), contentType, results -> {
+                try {
+                    for (UserImportResult result : results) {
+                        out.write(objectMapper.writeValueAsBytes(result));
+                        out.write('\n');
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (IllegalArgumentException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+        }
+    }
+}
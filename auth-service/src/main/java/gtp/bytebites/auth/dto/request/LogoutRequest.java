@@ -0,0 +1,12 @@
+package gtp.bytebites.auth.dto.request;
+
+/**
+ * DTO for ending a login.
+ *
+ * @param refreshToken the refresh token of the login to end, if the client holds one
+ * @apiNote Used in POST /auth/logout endpoint
+ */
+public record LogoutRequest(
+        String refreshToken
+) {
+}
@@ -0,0 +1,14 @@
+package gtp.bytebites.auth.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * DTO for exchanging a refresh token for new tokens.
+ *
+ * @apiNote Used in POST /auth/token-refresh endpoint
+ */
+public record RefreshTokenRequest(
+        @NotBlank(message = "Refresh token is required")
+        String refreshToken
+) {
+}
@@ -0,0 +1,45 @@
+package gtp.bytebites.auth.dto.request;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * One user of a bulk import, read from a CSV row or an NDJSON line.
+ * <p>
+ * Each row carries either a raw {@code password}, hashed during the import, or a
+ * {@code passwordHash} migrated from another system, stored as is and upgraded on the
+ * user's first login. {@code role} defaults to {@code ROLE_CUSTOMER}.
+ * </p>
+ *
+ * @apiNote Used in POST /api/v1/users/admin/users/import endpoint
+ */
+public record UserImportRow(
+        @NotBlank(message = "Email is required")
+        @Email(message = "Invalid email format")
+        String email,
+
+        @NotBlank(message = "Name is required")
+        @Size(min = 3, max = 60, message = "Name must be 3-60 characters")
+        String name,
+
+        @Size(min = 8, max = 64, message = "Password must be 8-64 characters")
+        String password,
+
+        String passwordHash,
+
+        String role
+) {
+    /**
+     * Returns a sanitised copy with trimmed strings and lowercase email
+     */
+    public UserImportRow sanitized() {
+        return new UserImportRow(
+                email != null ? email.trim().toLowerCase() : null,
+                name != null ? name.trim() : null,
+                password != null ? password.trim() : null,
+                passwordHash != null ? passwordHash.trim() : null,
+                role != null ? role.trim().toUpperCase() : null
+        );
+    }
+}
@@ -9,6 +9,7 @@ import java.util.UUID;
  * JWT authentication response containing token and user details
  *
  * @param token JWT access token
+ * @param refreshToken One-time-use token for obtaining the next access token
  * @param userId Authenticated user's ID
  * @param email Authenticated user's email
  * @param role User's assigned role (ADMIN/DEVELOPER/etc.)
@@ -20,6 +21,9 @@ public record JwtResponse(
         @Schema(description = "JWT access token", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
         String token,
 
+        @Schema(description = "One-time-use refresh token, exchanged at /api/v1/auth/token-refresh")
+        String refreshToken,
+
         @Schema(description = "Authenticated user's ID", example = "123")
         UUID userId,
 
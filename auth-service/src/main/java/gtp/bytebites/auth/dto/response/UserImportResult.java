@@ -0,0 +1,40 @@
+package gtp.bytebites.auth.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+/**
+ * What became of one row of a bulk user import.
+ *
+ * @param line the row's line in the imported body, counting from 1
+ * @param email the row's email, as stored
+ * @param userId the new user's id, only for {@link Status#CREATED}
+ * @param error why the row was not imported
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserImportResult(
+        long line,
+        String email,
+        Status status,
+        UUID userId,
+        String error
+) {
+    public enum Status { CREATED, DUPLICATE, INVALID, FAILED }
+
+    public static UserImportResult created(long line, String email, UUID userId) {
+        return new UserImportResult(line, email, Status.CREATED, userId, null);
+    }
+
+    public static UserImportResult duplicate(long line, String email, String error) {
+        return new UserImportResult(line, email, Status.DUPLICATE, null, error);
+    }
+
+    public static UserImportResult invalid(long line, String email, String error) {
+        return new UserImportResult(line, email, Status.INVALID, null, error);
+    }
+
+    public static UserImportResult failed(long line, String email, String error) {
+        return new UserImportResult(line, email, Status.FAILED, null, error);
+    }
+}
@@ -0,0 +1,54 @@
+package gtp.bytebites.auth.event;
+
+import gtp.bytebites.events.config.AuthEventConfig;
+import gtp.bytebites.events.event.TokenRevokedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+public class TokenEventPublisher {
+    private static final Logger log = LoggerFactory.getLogger(TokenEventPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+
+    public TokenEventPublisher(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    /**
+     * Publishes a TokenRevokedEvent to every auth-service instance and every gateway.
+     * When called inside a transaction the event is only sent once the transaction commits.
+     * @param event The tokens that may no longer be used.
+     */
+    public void publishTokenRevoked(TokenRevokedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    private void send(TokenRevokedEvent event) {
+        log.debug("Publishing TokenRevokedEvent: token {}, user {}", event.tokenId(), event.userId());
+        try {
+            rabbitTemplate.convertAndSend(
+                    AuthEventConfig.AUTH_EXCHANGE,
+                    AuthEventConfig.TOKEN_REVOKED_ROUTING_KEY,
+                    event
+            );
+        } catch (AmqpException e) {
+            // Other instances and the gateways keep accepting the tokens until they expire.
+            log.error("Failed to publish TokenRevokedEvent: token {}, user {}", event.tokenId(), event.userId(), e);
+        }
+    }
+}
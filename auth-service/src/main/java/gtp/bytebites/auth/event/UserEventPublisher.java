@@ -0,0 +1,57 @@
+package gtp.bytebites.auth.event;
+
+import gtp.bytebites.events.config.UserEventConfig;
+import gtp.bytebites.events.event.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+@Service
+public class UserEventPublisher {
+    private static final Logger log = LoggerFactory.getLogger(UserEventPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+
+    public UserEventPublisher(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    /**
+     * Publishes a UserChangedEvent so that every auth-service instance drops its
+     * cached copy of the user. When called inside a transaction the event is only
+     * sent once the transaction commits, so no instance re-reads the old row.
+     * @param userId The user whose account changed.
+     */
+    public void publishUserChanged(UUID userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(userId);
+                }
+            });
+        } else {
+            send(userId);
+        }
+    }
+
+    private void send(UUID userId) {
+        log.debug("Publishing UserChangedEvent for User ID: {}", userId);
+        try {
+            rabbitTemplate.convertAndSend(
+                    UserEventConfig.USER_EXCHANGE,
+                    UserEventConfig.USER_CHANGED_ROUTING_KEY,
+                    new UserChangedEvent(userId)
+            );
+        } catch (AmqpException e) {
+            // The change is already committed; other instances fall back to their cache TTL.
+            log.error("Failed to publish UserChangedEvent for User ID: {}", userId, e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package gtp.bytebites.auth.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a refresh token is unknown, expired, malformed or has already been used
+ */
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException() {
+        super("Invalid or expired refresh token");
+    }
+}
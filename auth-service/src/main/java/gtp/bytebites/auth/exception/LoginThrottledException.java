@@ -0,0 +1,22 @@
+package gtp.bytebites.auth.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a login is turned away because of too many recent failed attempts
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        super("Too many failed sign-in attempts, please retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,22 @@
+package gtp.bytebites.auth.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when password hashing is at capacity and the request is turned away
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(long retryAfterSeconds) {
+        super("Too many sign-in attempts in progress, please retry shortly");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -5,10 +5,15 @@ import gtp.bytebites.auth.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -17,9 +22,16 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     boolean existsByEmail(String email);
 
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     @NonNull
     Page<User> findAll(@NonNull Pageable pageable);
 
     @NonNull
     boolean existsById(UUID userId);
+
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") UUID id, @Param("password") String password);
 }
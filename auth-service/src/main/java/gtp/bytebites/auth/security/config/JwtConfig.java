@@ -17,6 +17,8 @@ import java.util.Base64;
  *   <li><b>secret</b>: The base secret key used for JWT signing and verification</li>
  *   <li><b>expirationMs</b>: Expiration time for regular access tokens in milliseconds</li>
  *   <li><b>refreshExpirationMs</b>: Expiration time for refresh tokens in milliseconds</li>
+ *   <li><b>statelessAuthentication</b>: Whether requests are authenticated from the token's
+ *   claims alone instead of loading the user from the database, defaults to true</li>
  * </ul>
  *
  * @see ConfigurationProperties
@@ -28,6 +30,7 @@ public class JwtConfig {
     private String secret;
     private long expirationMs;
     private long refreshExpirationMs;
+    private boolean statelessAuthentication = true;
 
     /**
      * Gets the JWT secret key as a byte array in Base64 encoded format.
@@ -67,4 +70,12 @@ public class JwtConfig {
     public void setRefreshExpirationMs(long refreshExpirationMs) {
         this.refreshExpirationMs = refreshExpirationMs;
     }
+
+    public boolean isStatelessAuthentication() {
+        return statelessAuthentication;
+    }
+
+    public void setStatelessAuthentication(boolean statelessAuthentication) {
+        this.statelessAuthentication = statelessAuthentication;
+    }
 }
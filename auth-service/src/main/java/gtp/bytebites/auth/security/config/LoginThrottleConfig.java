@@ -0,0 +1,113 @@
+package gtp.bytebites.auth.security.config;
+
+import gtp.bytebites.auth.security.throttle.InMemoryLoginAttemptStore;
+import gtp.bytebites.auth.security.throttle.LoginAttemptStore;
+import gtp.bytebites.auth.security.throttle.RedisLoginAttemptStore;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * Configuration for turning away logins after repeated failures.
+ *
+ * <p>Properties are bound from the {@code app.security.login-throttle} prefix:</p>
+ * <ul>
+ *   <li><b>enabled</b>: whether logins are throttled at all</li>
+ *   <li><b>store</b>: {@code in-memory} (per instance) or {@code redis} (shared by every
+ *   instance)</li>
+ *   <li><b>window</b>: length of the sliding window failures are counted over</li>
+ *   <li><b>maxFailuresPerEmail</b>: failures for one account before its logins are
+ *   turned away</li>
+ *   <li><b>maxFailuresPerAddress</b>: failures from one client address, across accounts,
+ *   before its logins are turned away</li>
+ *   <li><b>shards</b>: Independent partitions of the in-memory store</li>
+ * </ul>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.security.login-throttle")
+public class LoginThrottleConfig {
+    private boolean enabled = true;
+    private String store = "in-memory";
+    private Duration window = Duration.ofMinutes(15);
+    private int maxFailuresPerEmail = 5;
+    private int maxFailuresPerAddress = 50;
+    private int shards = 16;
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.security.login-throttle", name = "store",
+            havingValue = "in-memory", matchIfMissing = true)
+    public LoginAttemptStore inMemoryLoginAttemptStore() {
+        return new InMemoryLoginAttemptStore(window, shards);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.security.login-throttle", name = "store", havingValue = "redis")
+    public LoginAttemptStore redisLoginAttemptStore(StringRedisTemplate redisTemplate) {
+        return new RedisLoginAttemptStore(redisTemplate, window);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getStore() {
+        return store;
+    }
+
+    public void setStore(String store) {
+        this.store = store;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        if (window.toMillis() < 1000) {
+            throw new IllegalArgumentException("Login throttle window must be at least one second: " + window);
+        }
+        this.window = window;
+    }
+
+    public int getMaxFailuresPerEmail() {
+        return maxFailuresPerEmail;
+    }
+
+    public void setMaxFailuresPerEmail(int maxFailuresPerEmail) {
+        if (maxFailuresPerEmail < 1) {
+            throw new IllegalArgumentException("Max failures per email must be at least 1: " + maxFailuresPerEmail);
+        }
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+    }
+
+    public int getMaxFailuresPerAddress() {
+        return maxFailuresPerAddress;
+    }
+
+    public void setMaxFailuresPerAddress(int maxFailuresPerAddress) {
+        if (maxFailuresPerAddress < 1) {
+            throw new IllegalArgumentException("Max failures per address must be at least 1: " + maxFailuresPerAddress);
+        }
+        this.maxFailuresPerAddress = maxFailuresPerAddress;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public void setShards(int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Login attempt store shards must be at least 1: " + shards);
+        }
+        this.shards = shards;
+    }
+}
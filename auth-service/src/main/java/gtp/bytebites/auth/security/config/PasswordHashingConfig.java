@@ -0,0 +1,117 @@
+package gtp.bytebites.auth.security.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration for how passwords are hashed and the executor hashing and verification run on.
+ *
+ * <p>Properties are bound from the {@code app.security.password-hashing} prefix:</p>
+ * <ul>
+ *   <li><b>threads</b>: Hashes computed at once, defaults to the number of cores</li>
+ *   <li><b>queueCapacity</b>: Hashes allowed to wait for a thread before requests are
+ *   rejected with 429, defaults to 64</li>
+ *   <li><b>maxWait</b>: Longest a request waits for its hash before it is rejected,
+ *   defaults to 5s</li>
+ *   <li><b>targetHashTime</b>: How long one hash should take; the BCrypt strength is
+ *   calibrated to it at startup, defaults to 250ms</li>
+ *   <li><b>minStrength</b>, <b>maxStrength</b>: Bounds of the calibrated strength,
+ *   default to 10 and 14</li>
+ *   <li><b>strength</b>: Fixed strength that skips calibration, for fleets of mixed
+ *   instance types that should all hash alike</li>
+ * </ul>
+ *
+ * <p>Stored hashes weaker than the current strength are upgraded on the next successful
+ * login; stronger ones are kept.</p>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.security.password-hashing")
+public class PasswordHashingConfig {
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 64;
+    private Duration maxWait = Duration.ofSeconds(5);
+    private Duration targetHashTime = Duration.ofMillis(250);
+    private int minStrength = 10;
+    private int maxStrength = 14;
+    private Integer strength;
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Password hashing threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Password hashing queue capacity must be at least 1: " + queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        if (maxWait == null || maxWait.isNegative() || maxWait.isZero()) {
+            throw new IllegalArgumentException("Password hashing max wait must be positive: " + maxWait);
+        }
+        this.maxWait = maxWait;
+    }
+
+    public Duration getTargetHashTime() {
+        return targetHashTime;
+    }
+
+    public void setTargetHashTime(Duration targetHashTime) {
+        if (targetHashTime == null || targetHashTime.isNegative() || targetHashTime.isZero()) {
+            throw new IllegalArgumentException("Password hashing target hash time must be positive: " + targetHashTime);
+        }
+        this.targetHashTime = targetHashTime;
+    }
+
+    public int getMinStrength() {
+        return minStrength;
+    }
+
+    public void setMinStrength(int minStrength) {
+        this.minStrength = checkStrength(minStrength);
+    }
+
+    public int getMaxStrength() {
+        return maxStrength;
+    }
+
+    public void setMaxStrength(int maxStrength) {
+        this.maxStrength = checkStrength(maxStrength);
+    }
+
+    /**
+     * @return the fixed strength, or {@code null} to calibrate one
+     */
+    public Integer getStrength() {
+        return strength;
+    }
+
+    public void setStrength(Integer strength) {
+        this.strength = strength == null ? null : checkStrength(strength);
+    }
+
+    private static int checkStrength(int strength) {
+        if (strength < 4 || strength > 31) {
+            throw new IllegalArgumentException("BCrypt strength must be between 4 and 31: " + strength);
+        }
+        return strength;
+    }
+}
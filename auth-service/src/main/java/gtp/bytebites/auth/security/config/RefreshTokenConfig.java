@@ -0,0 +1,62 @@
+package gtp.bytebites.auth.security.config;
+
+import gtp.bytebites.auth.security.refresh.InMemoryRefreshTokenStore;
+import gtp.bytebites.auth.security.refresh.RedisRefreshTokenStore;
+import gtp.bytebites.auth.security.refresh.RefreshTokenStore;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Configuration for where refresh tokens are kept.
+ *
+ * <p>Properties are bound from the {@code app.jwt.refresh-token} prefix:</p>
+ * <ul>
+ *   <li><b>store</b>: {@code in-memory} (per instance) or {@code redis} (shared by every
+ *   instance)</li>
+ *   <li><b>stripes</b>: Independently locked partitions of the in-memory store</li>
+ * </ul>
+ *
+ * <p>Token lifetime comes from {@code app.jwt.refresh-expiration-ms}.</p>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.jwt.refresh-token")
+public class RefreshTokenConfig {
+    private String store = "in-memory";
+    private int stripes = 16;
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.jwt.refresh-token", name = "store",
+            havingValue = "in-memory", matchIfMissing = true)
+    public RefreshTokenStore inMemoryRefreshTokenStore() {
+        return new InMemoryRefreshTokenStore(stripes);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.jwt.refresh-token", name = "store", havingValue = "redis")
+    public RefreshTokenStore redisRefreshTokenStore(StringRedisTemplate redisTemplate) {
+        return new RedisRefreshTokenStore(redisTemplate);
+    }
+
+    public String getStore() {
+        return store;
+    }
+
+    public void setStore(String store) {
+        this.store = store;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Refresh token store stripes must be at least 1: " + stripes);
+        }
+        this.stripes = stripes;
+    }
+}
@@ -1,8 +1,15 @@
 package gtp.bytebites.auth.security.config;
 
+import gtp.bytebites.auth.security.hashing.BCryptStrengthCalibrator;
+import gtp.bytebites.auth.security.hashing.BoundedPasswordEncoder;
+import gtp.bytebites.auth.security.hashing.PasswordHashingExecutor;
+import gtp.bytebites.auth.security.hashing.RehashingAuthenticationProvider;
 import gtp.bytebites.auth.security.jwt.JwtAuthEntryPoint;
 import gtp.bytebites.auth.security.jwt.JwtAuthFilter;
+import gtp.bytebites.auth.service.UserDetailsServiceImpl;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
@@ -15,10 +22,13 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 
 import static org.springframework.security.config.Customizer.withDefaults;
 
@@ -48,6 +58,7 @@ import static org.springframework.security.config.Customizer.withDefaults;
 public class SecurityConfig {
 
     private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+    private static final String BCRYPT_ID = "bcrypt";
 
     JwtAuthEntryPoint jwtAuthEntryPoint;
     JwtAuthFilter jwtAuthFilter;
@@ -111,13 +122,49 @@ public class SecurityConfig {
 
     /**
      * Provides a password encoder bean for hashing and verifying passwords.
-     * Uses BCrypt hashing algorithm with default strength.
+     * Uses BCrypt at the strength fixed in {@code app.security.password-hashing.strength}, or
+     * else calibrated at startup to the target hash time, run on the bounded
+     * {@link PasswordHashingExecutor} rather than on request threads.
+     * <p>
+     * New hashes are stored with a {@code {bcrypt}} prefix, as by {@link DelegatingPasswordEncoder}.
+     * Unprefixed hashes from before are still verified as BCrypt, and they and hashes of a lower
+     * strength are upgraded on the user's next successful login. The strength in use is published
+     * as {@code auth.password.hashing.strength}.
+     * </p>
+     *
+     * @param passwordHashingExecutor the pool hashes are computed on
+     * @param config the hashing settings
+     * @param meterRegistry registry the strength gauge is published to
+     * @return BCrypt encoder bounded by the hashing pool
+     */
+    @Bean
+    BoundedPasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor,
+                                    PasswordHashingConfig config,
+                                    MeterRegistry meterRegistry) {
+        int strength = config.getStrength() != null
+                ? config.getStrength()
+                : BCryptStrengthCalibrator.calibrate(config.getTargetHashTime(),
+                        config.getMinStrength(), config.getMaxStrength());
+        Gauge.builder("auth.password.hashing.strength", () -> strength).register(meterRegistry);
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(encoder, passwordHashingExecutor);
+    }
+
+    /**
+     * Provides the provider that checks a login's email and password, upgrading an outdated
+     * password hash on the way when the hashing pool has room for it.
      *
-     * @return BCryptPasswordEncoder instance
+     * @param userDetailsService loads users and stores their upgraded hashes
+     * @param passwordEncoder the bounded encoder passwords are checked with
+     * @return the provider the AuthenticationManager authenticates logins with
      */
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    RehashingAuthenticationProvider authenticationProvider(UserDetailsServiceImpl userDetailsService,
+                                                           BoundedPasswordEncoder passwordEncoder) {
+        return new RehashingAuthenticationProvider(userDetailsService, userDetailsService, passwordEncoder);
     }
 
     /**
@@ -0,0 +1,58 @@
+package gtp.bytebites.auth.security.hashing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks the BCrypt strength that suits the hardware the service runs on.
+ * <p>
+ * One hash is timed at the lowest allowed strength, best of a few runs after a warm-up.
+ * Each step up in strength doubles the work, so the highest strength whose projected
+ * time stays within the target is chosen, capped at the highest allowed strength.
+ * </p>
+ */
+public final class BCryptStrengthCalibrator {
+    private static final Logger log = LoggerFactory.getLogger(BCryptStrengthCalibrator.class);
+
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "calibration-sample";
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    /**
+     * @param targetHashTime how long one hash should take at most
+     * @return a strength between {@code minStrength} and {@code maxStrength}, inclusive
+     */
+    public static int calibrate(Duration targetHashTime, int minStrength, int maxStrength) {
+        if (minStrength > maxStrength) {
+            throw new IllegalArgumentException(
+                    "BCrypt min strength " + minStrength + " exceeds max strength " + maxStrength);
+        }
+        long hashNanos = measure(minStrength);
+        int strength = minStrength;
+        while (strength < maxStrength && hashNanos * 2 <= targetHashTime.toNanos()) {
+            strength++;
+            hashNanos *= 2;
+        }
+        log.info("Calibrated BCrypt strength {}, about {} ms per hash (target {} ms)",
+                strength, TimeUnit.NANOSECONDS.toMillis(hashNanos), targetHashTime.toMillis());
+        return strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String hash = encoder.encode(SAMPLE_PASSWORD);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.matches(SAMPLE_PASSWORD, hash);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
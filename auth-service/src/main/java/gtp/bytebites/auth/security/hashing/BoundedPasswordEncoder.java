@@ -0,0 +1,54 @@
+package gtp.bytebites.auth.security.hashing;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * {@link PasswordEncoder} that runs the delegate's hashing on a {@link PasswordHashingExecutor}.
+ * <p>
+ * Both {@code register} and {@code login}, through the authentication manager, go through
+ * the application's single encoder bean, so wrapping it bounds every hash the service
+ * computes. An outdated hash is only reported as needing an upgrade while the pool has
+ * spare capacity, so rehashing on login never pushes other requests into rejection; it is
+ * left for a later login instead.
+ * </p>
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute("encode", () -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * Hashes many passwords in parallel, as a batch on the hashing pool.
+     *
+     * @return the hashes, in the order of the passwords
+     * @see PasswordHashingExecutor#executeAll(String, List)
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<Supplier<String>> tasks = rawPasswords.stream()
+                .<Supplier<String>>map(rawPassword -> () -> delegate.encode(rawPassword))
+                .toList();
+        return executor.executeAll("encode", tasks);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute("matches", () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword) && executor.hasSpareCapacity();
+    }
+}
@@ -0,0 +1,235 @@
+package gtp.bytebites.auth.security.hashing;
+
+import gtp.bytebites.auth.exception.PasswordHashingRejectedException;
+import gtp.bytebites.auth.security.config.PasswordHashingConfig;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a dedicated pool sized to the cores.
+ * <p>
+ * BCrypt is deliberately slow, so a login storm run on request threads would take every
+ * one of them. Here at most {@code threads} hashes run at once and at most
+ * {@code queueCapacity} wait for a thread; anything beyond that, or a hash still waiting
+ * after {@code maxWait}, is rejected with {@link PasswordHashingRejectedException} straight
+ * away. Request threads therefore only ever block on a bounded amount of hashing work, and
+ * cheap endpoints stay responsive.
+ * </p>
+ * <p>
+ * Time spent queued and time spent hashing are recorded separately as
+ * {@code auth.password.hashing.queue} and {@code auth.password.hashing.duration}.
+ * </p>
+ */
+@Component
+public class PasswordHashingExecutor {
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private static final double HASH_TIME_DECAY = 0.1;
+
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitNanos;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueTimer;
+    private final Map<String, Timer> hashTimers = new ConcurrentHashMap<>();
+
+    private volatile double hashTimeNanos;
+
+    public PasswordHashingExecutor(PasswordHashingConfig config, MeterRegistry meterRegistry) {
+        this.executor = new ThreadPoolExecutor(config.getThreads(), config.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                threadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxWaitNanos = config.getMaxWait().toNanos();
+        this.meterRegistry = meterRegistry;
+        this.queueTimer = Timer.builder("auth.password.hashing.queue")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs one hashing operation and waits for its result.
+     *
+     * @param operation name the operation's duration is recorded under
+     * @throws PasswordHashingRejectedException if the pool is at capacity or the hash did not
+     *         start and finish within {@code maxWait}
+     */
+    public <T> T execute(String operation, Supplier<T> task) {
+        Timer hashTimer = hashTimer(operation);
+
+        Future<T> future;
+        try {
+            future = executor.submit(timed(task, hashTimer, System.nanoTime()));
+        } catch (RejectedExecutionException e) {
+            throw reject("full");
+        }
+
+        try {
+            return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw reject("timeout");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    /**
+     * Runs a batch of hashing operations in parallel and waits for all of them.
+     * <p>
+     * At most {@code threads} operations of the batch are queued or running at any time,
+     * so a batch never fills the queue that logins wait in and only takes its share of the
+     * pool. When the queue is full regardless, the batch waits for it to drain instead of
+     * being rejected. There is no {@code maxWait} for a batch.
+     * </p>
+     *
+     * @param operation name the operations' durations are recorded under
+     * @return the results, in the order of the tasks
+     */
+    public <T> List<T> executeAll(String operation, List<? extends Supplier<T>> tasks) {
+        Timer hashTimer = hashTimer(operation);
+        Semaphore inFlight = new Semaphore(executor.getMaximumPoolSize());
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Supplier<T> task : tasks) {
+                inFlight.acquire();
+                Callable<T> timed = timed(task, hashTimer, System.nanoTime());
+                futures.add(submitWhenQueueHasRoom(() -> {
+                    try {
+                        return timed.call();
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * @return whether no hash is waiting for a thread, so optional hashing such as
+     *         upgrading an outdated password delays nobody
+     */
+    public boolean hasSpareCapacity() {
+        return executor.getQueue().isEmpty();
+    }
+
+    private Timer hashTimer(String operation) {
+        return hashTimers.computeIfAbsent(operation, name -> Timer.builder("auth.password.hashing.duration")
+                .tag("operation", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private <T> Callable<T> timed(Supplier<T> task, Timer hashTimer, long submittedAt) {
+        return () -> {
+            long startedAt = System.nanoTime();
+            queueTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+            try {
+                return task.get();
+            } finally {
+                long elapsed = System.nanoTime() - startedAt;
+                hashTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                recordHashTime(elapsed);
+            }
+        };
+    }
+
+    private <T> Future<T> submitWhenQueueHasRoom(Callable<T> task) throws InterruptedException {
+        while (true) {
+            try {
+                return executor.submit(task);
+            } catch (RejectedExecutionException e) {
+                if (executor.isShutdown()) {
+                    throw e;
+                }
+                TimeUnit.NANOSECONDS.sleep(Math.max((long) hashTimeNanos, TimeUnit.MILLISECONDS.toNanos(1)));
+            }
+        }
+    }
+
+    private PasswordHashingRejectedException reject(String reason) {
+        meterRegistry.counter("auth.password.hashing.rejections", "reason", reason).increment();
+        log.warn("Rejected password hashing request ({}), {} queued", reason, executor.getQueue().size());
+        return new PasswordHashingRejectedException(retryAfterSeconds());
+    }
+
+    /**
+     * @return roughly how long the work already queued will take to drain
+     */
+    private long retryAfterSeconds() {
+        double drainNanos = hashTimeNanos * executor.getQueue().size() / executor.getMaximumPoolSize();
+        return Math.max(1L, (long) Math.ceil(drainNanos / TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private void recordHashTime(long nanos) {
+        double current = hashTimeNanos;
+        hashTimeNanos = current == 0 ? nanos : current + (nanos - current) * HASH_TIME_DECAY;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
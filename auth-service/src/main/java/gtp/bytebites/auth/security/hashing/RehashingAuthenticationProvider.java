@@ -0,0 +1,47 @@
+package gtp.bytebites.auth.security.hashing;
+
+import gtp.bytebites.auth.exception.PasswordHashingRejectedException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * {@link DaoAuthenticationProvider} whose rehash of an outdated password is best effort.
+ * <p>
+ * {@link BoundedPasswordEncoder} only asks for an upgrade while the hashing pool has spare
+ * capacity, but the pool can fill up before the new hash is queued. The login has been
+ * verified by then, so instead of failing it with {@link PasswordHashingRejectedException}
+ * the upgrade is skipped and left for a later login.
+ * </p>
+ */
+public class RehashingAuthenticationProvider extends DaoAuthenticationProvider {
+    private static final Logger log = LoggerFactory.getLogger(RehashingAuthenticationProvider.class);
+
+    public RehashingAuthenticationProvider(UserDetailsService userDetailsService,
+                                           UserDetailsPasswordService userDetailsPasswordService,
+                                           BoundedPasswordEncoder passwordEncoder) {
+        super(userDetailsService);
+        setUserDetailsPasswordService(userDetailsPasswordService);
+        setPasswordEncoder(passwordEncoder);
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         UserDetails user) {
+        try {
+            return super.createSuccessAuthentication(principal, authentication, user);
+        } catch (PasswordHashingRejectedException e) {
+            log.debug("Hashing pool is full, left the password hash of {} for a later login", user.getUsername());
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    principal, authentication.getCredentials(), user.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+    }
+}
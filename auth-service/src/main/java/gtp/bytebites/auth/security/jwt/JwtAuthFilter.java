@@ -1,14 +1,19 @@
 package gtp.bytebites.auth.security.jwt;
 
+import gtp.bytebites.auth.security.config.JwtConfig;
 import gtp.bytebites.auth.service.UserDetailsServiceImpl;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,21 +21,42 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Authenticates requests carrying a bearer access token.
+ * <p>
+ * The token is parsed and verified once. With {@code app.jwt.stateless-authentication}
+ * enabled, the default, the principal is a {@link JwtPrincipal} built from the
+ * {@code userId}, subject and {@code roles} claims, so authenticating a request never
+ * reaches the database. Otherwise the user is loaded by email through
+ * {@link UserDetailsServiceImpl}. Any {@link TokenRevocationChecker} beans are consulted
+ * before the token is accepted.
+ * </p>
+ */
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
     private static final Logger log = LoggerFactory.getLogger(JwtAuthFilter.class);
     private static final String AUTH_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
+    private static final String USER_ID_CLAIM = "userId";
+    private static final String ROLES_CLAIM = "roles";
 
     private final JwtProvider jwtProvider;
+    private final JwtConfig jwtConfig;
     private final UserDetailsServiceImpl userDetailsService;
+    private final List<TokenRevocationChecker> revocationCheckers;
     private final WebAuthenticationDetailsSource authDetailsSource;
 
     public JwtAuthFilter(JwtProvider jwtProvider,
-                         UserDetailsServiceImpl userDetailsService) {
+                         JwtConfig jwtConfig,
+                         UserDetailsServiceImpl userDetailsService,
+                         ObjectProvider<TokenRevocationChecker> revocationCheckers) {
         this.jwtProvider = jwtProvider;
+        this.jwtConfig = jwtConfig;
         this.userDetailsService = userDetailsService;
+        this.revocationCheckers = revocationCheckers.orderedStream().toList();
         this.authDetailsSource = new WebAuthenticationDetailsSource();
     }
 
@@ -45,18 +71,34 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                 return;
             }
 
-            if (!jwtProvider.validateToken(jwt)) {
+            Claims claims = jwtProvider.parseClaims(jwt);
+            if (claims == null) {
                 sendError(response, "Invalid token");
                 return;
             }
 
-            String email = jwtProvider.getEmailFromJwt(jwt);
+            String email = claims.getSubject();
             if (email == null || email.isEmpty()) {
                 sendError(response, "Missing email in token");
                 return;
             }
 
-            authenticateUser(request, email);
+            if (isRevoked(claims)) {
+                sendError(response, "Token has been revoked");
+                return;
+            }
+
+            UsernamePasswordAuthenticationToken authentication = jwtConfig.isStatelessAuthentication()
+                    ? authenticationFromClaims(claims, email)
+                    : authenticationFromDatabase(email);
+            if (authentication == null) {
+                sendError(response, "Missing user id in token");
+                return;
+            }
+
+            authentication.setDetails(authDetailsSource.buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            log.debug("Authenticated user: {}", email);
         } catch (Exception e) {
             log.error("Authentication error", e);
             sendError(response, e.getMessage());
@@ -66,18 +108,45 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private void authenticateUser(HttpServletRequest request, String email) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+    private boolean isRevoked(Claims claims) {
+        for (TokenRevocationChecker checker : revocationCheckers) {
+            if (checker.isRevoked(claims)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the authentication, or {@code null} if the token has no usable user id
+     */
+    private UsernamePasswordAuthenticationToken authenticationFromClaims(Claims claims, String email) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        if (userId == null) {
+            return null;
+        }
+        UUID id;
+        try {
+            id = UUID.fromString(userId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
 
-        UsernamePasswordAuthenticationToken authentication =
-                new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities());
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        List<GrantedAuthority> authorities = roles == null
+                ? List.of()
+                : roles.stream()
+                        .<GrantedAuthority>map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                        .toList();
+        return new UsernamePasswordAuthenticationToken(new JwtPrincipal(id, email), null, authorities);
+    }
 
-        authentication.setDetails(authDetailsSource.buildDetails(request));
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        log.debug("Authenticated user: {}", email);
+    private UsernamePasswordAuthenticationToken authenticationFromDatabase(String email) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+        return new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities());
     }
 
     private String parseJwt(HttpServletRequest request) {
@@ -92,4 +161,4 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         log.error(message);
         response.sendError(HttpServletResponse.SC_UNAUTHORIZED, message);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package gtp.bytebites.auth.security.jwt;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.util.UUID;
+
+/**
+ * The caller of a request authenticated from the claims of its access token alone.
+ * <p>
+ * {@link #getName()} is the email, as for database-loaded users, so code reading
+ * {@code Authentication.getName()} works with either.
+ * </p>
+ *
+ * @param userId the {@code userId} claim
+ * @param email the token subject
+ */
+public record JwtPrincipal(UUID userId, String email) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -18,7 +18,9 @@ import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
@@ -62,17 +64,25 @@ public class JwtProvider {
 
     public String generateToken(UserDetails userDetails) {
         UserDetailsImpl user = (UserDetailsImpl) userDetails;
-
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", user.getUser().getId());
-        claims.put("email", user.getUsername());
-        claims.put("roles", userDetails.getAuthorities().stream()
+        return generateToken(user.getUser().getId(), user.getUsername(), userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList()));
+    }
+
+    /**
+     * Signs an access token for an already authenticated user, without loading the user.
+     * Every token gets a random {@code jti} so it can be revoked on its own.
+     */
+    public String generateToken(UUID userId, String email, List<String> roles) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", userId);
+        claims.put("email", email);
+        claims.put("roles", roles);
 
         return Jwts.builder()
                 .setClaims(claims)
-                .setSubject(user.getUsername())
+                .setSubject(email)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtConfig.getExpirationMs()))
                 .signWith(signingKey, SignatureAlgorithm.HS512)
@@ -89,6 +99,20 @@ public class JwtProvider {
         }
     }
 
+    /**
+     * Verifies the token and returns its claims from a single parse.
+     *
+     * @return the claims, or {@code null} if the token is invalid or expired
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return jwtParser.parseClaimsJws(token).getBody();
+        } catch (io.jsonwebtoken.JwtException | IllegalArgumentException e) {
+            log.error("Invalid JWT token: {}", e.getMessage());
+            return null;
+        }
+    }
+
     public long getExpirationDuration() {
         return jwtConfig.getExpirationMs();
     }
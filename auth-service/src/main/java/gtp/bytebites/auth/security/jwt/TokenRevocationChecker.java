@@ -0,0 +1,21 @@
+package gtp.bytebites.auth.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Decides whether a validly signed access token may no longer be used.
+ * <p>
+ * Consulted by {@link JwtAuthFilter} after the token's signature and expiry have been
+ * verified. Tokens are accepted without any revocation check unless a bean implementing
+ * this interface is present.
+ * </p>
+ */
+@FunctionalInterface
+public interface TokenRevocationChecker {
+
+    /**
+     * @param claims the verified claims of the token
+     * @return {@code true} if the token must be rejected
+     */
+    boolean isRevoked(Claims claims);
+}
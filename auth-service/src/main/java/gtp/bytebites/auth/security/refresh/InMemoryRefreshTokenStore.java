@@ -0,0 +1,145 @@
+package gtp.bytebites.auth.security.refresh;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Refresh tokens held in this instance's memory.
+ * <p>
+ * Tokens are spread over independently locked stripes by family, so a family's tokens
+ * always share a stripe and rotating or revoking one never contends with unrelated
+ * families. Each stripe drops its expired tokens at most once per sweep interval, on the
+ * next write after it elapses. Tokens do not survive a restart and are not shared between
+ * instances; use {@link RedisRefreshTokenStore} for that.
+ * </p>
+ */
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+    private static final Duration SWEEP_INTERVAL = Duration.ofMinutes(1);
+
+    private final Stripe[] stripes;
+    private final Clock clock;
+
+    public InMemoryRefreshTokenStore(int stripes) {
+        this(stripes, Clock.systemUTC());
+    }
+
+    public InMemoryRefreshTokenStore(int stripes, Clock clock) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Refresh token store needs at least one stripe: " + stripes);
+        }
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.clock = clock;
+    }
+
+    @Override
+    public void save(RefreshToken token) {
+        Stripe stripe = stripeFor(token.familyId());
+        synchronized (stripe) {
+            stripe.sweep(clock.instant());
+            stripe.put(token);
+        }
+    }
+
+    @Override
+    public Rotation rotate(String familyId, String tokenId, String nextId) {
+        Instant now = clock.instant();
+        Stripe stripe = stripeFor(familyId);
+        synchronized (stripe) {
+            stripe.sweep(now);
+            RefreshToken token = stripe.tokens.get(tokenId);
+            if (token == null || !token.familyId().equals(familyId) || token.isExpired(now)) {
+                return Rotation.NOT_FOUND;
+            }
+            if (token.used()) {
+                stripe.removeFamily(familyId);
+                return new Rotation(Outcome.REUSED, token);
+            }
+            stripe.tokens.put(tokenId, new RefreshToken(token.id(), familyId, token.userId(), token.email(),
+                    token.roles(), token.expiresAt(), true));
+            stripe.put(token.rotate(nextId));
+            return new Rotation(Outcome.ROTATED, token);
+        }
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        Stripe stripe = stripeFor(familyId);
+        synchronized (stripe) {
+            stripe.removeFamily(familyId);
+        }
+    }
+
+    @Override
+    public void revokeUser(UUID userId) {
+        // A user's families are spread over every stripe, but this is rare enough to scan
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.removeUser(userId);
+            }
+        }
+    }
+
+    private Stripe stripeFor(String familyId) {
+        return stripes[Math.floorMod(familyId.hashCode(), stripes.length)];
+    }
+
+    /**
+     * Guarded by its own monitor.
+     */
+    private static final class Stripe {
+        private final Map<String, RefreshToken> tokens = new HashMap<>();
+        private final Map<String, Set<String>> families = new HashMap<>();
+        private Instant nextSweepAt = Instant.MIN;
+
+        void put(RefreshToken token) {
+            tokens.put(token.id(), token);
+            families.computeIfAbsent(token.familyId(), family -> new HashSet<>()).add(token.id());
+        }
+
+        void removeFamily(String familyId) {
+            Set<String> ids = families.remove(familyId);
+            if (ids != null) {
+                ids.forEach(tokens::remove);
+            }
+        }
+
+        void removeUser(UUID userId) {
+            Iterator<Map.Entry<String, Set<String>>> families = this.families.entrySet().iterator();
+            while (families.hasNext()) {
+                Set<String> ids = families.next().getValue();
+                RefreshToken any = ids.isEmpty() ? null : tokens.get(ids.iterator().next());
+                if (any != null && any.userId().equals(userId)) {
+                    ids.forEach(tokens::remove);
+                    families.remove();
+                }
+            }
+        }
+
+        void sweep(Instant now) {
+            if (now.isBefore(nextSweepAt)) {
+                return;
+            }
+            nextSweepAt = now.plus(SWEEP_INTERVAL);
+            // A family's tokens all expire together, so whole families go at once
+            Iterator<Map.Entry<String, Set<String>>> families = this.families.entrySet().iterator();
+            while (families.hasNext()) {
+                Set<String> ids = families.next().getValue();
+                RefreshToken any = ids.isEmpty() ? null : tokens.get(ids.iterator().next());
+                if (any == null || any.isExpired(now)) {
+                    ids.forEach(tokens::remove);
+                    families.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package gtp.bytebites.auth.security.refresh;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Refresh tokens shared by every auth-service instance through Redis.
+ * <p>
+ * Each token is a hash under {@code auth:refresh:{familyId}:token:<id>} and each family a
+ * set of token ids under {@code auth:refresh:{familyId}:family}. The hash tag keeps a
+ * family in one slot, so rotation and revocation run as single Lua scripts even on a
+ * cluster. Keys expire with the family.
+ * </p>
+ * <p>
+ * The ids of a user's families are kept in a set under {@code auth:refresh:user:<userId>},
+ * which expires with the user's latest family, so revoking a user survives a restart of
+ * every instance. The set lives in its own slot and is written apart from the family.
+ * </p>
+ */
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+    static final String KEY_PREFIX = "auth:refresh:";
+
+    private static final RedisScript<Long> SAVE_SCRIPT = RedisScript.of("""
+            redis.call('HSET', KEYS[1], 'userId', ARGV[2], 'email', ARGV[3], 'roles', ARGV[4],
+                'exp', ARGV[5], 'used', '0')
+            redis.call('PEXPIREAT', KEYS[1], ARGV[5])
+            redis.call('SADD', KEYS[2], ARGV[1])
+            redis.call('PEXPIREAT', KEYS[2], ARGV[5])
+            return 1
+            """, Long.class);
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisScript<List<String>> ROTATE_SCRIPT = (RedisScript) RedisScript.of("""
+            local fields = redis.call('HGETALL', KEYS[1])
+            if #fields == 0 then
+              return {'NOT_FOUND'}
+            end
+            local token = {}
+            for i = 1, #fields, 2 do
+              token[fields[i]] = fields[i + 1]
+            end
+            if tonumber(token.exp) <= tonumber(ARGV[2]) then
+              return {'NOT_FOUND'}
+            end
+            local result = {'ROTATED', token.userId, token.email, token.roles, token.exp}
+            if token.used == '1' then
+              for _, id in ipairs(redis.call('SMEMBERS', KEYS[2])) do
+                redis.call('DEL', ARGV[3] .. id)
+              end
+              redis.call('DEL', KEYS[2])
+              result[1] = 'REUSED'
+              return result
+            end
+            redis.call('HSET', KEYS[1], 'used', '1')
+            redis.call('HSET', KEYS[3], 'userId', token.userId, 'email', token.email, 'roles', token.roles,
+                'exp', token.exp, 'used', '0')
+            redis.call('PEXPIREAT', KEYS[3], token.exp)
+            redis.call('SADD', KEYS[2], ARGV[1])
+            return result
+            """, List.class);
+
+    private static final RedisScript<Long> REVOKE_SCRIPT = RedisScript.of("""
+            for _, id in ipairs(redis.call('SMEMBERS', KEYS[1])) do
+              redis.call('DEL', ARGV[1] .. id)
+            end
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Clock clock;
+
+    public RedisRefreshTokenStore(StringRedisTemplate redisTemplate) {
+        this(redisTemplate, Clock.systemUTC());
+    }
+
+    public RedisRefreshTokenStore(StringRedisTemplate redisTemplate, Clock clock) {
+        this.redisTemplate = redisTemplate;
+        this.clock = clock;
+    }
+
+    @Override
+    public void save(RefreshToken token) {
+        String familyId = token.familyId();
+        redisTemplate.execute(SAVE_SCRIPT, List.of(tokenKey(familyId, token.id()), familyKey(familyId)),
+                token.id(), token.userId().toString(), token.email(), String.join(",", token.roles()),
+                Long.toString(token.expiresAt().toEpochMilli()));
+        // Families are saved in login order, so the latest always expires last
+        String userKey = userKey(token.userId());
+        redisTemplate.opsForSet().add(userKey, familyId);
+        redisTemplate.expireAt(userKey, token.expiresAt());
+    }
+
+    @Override
+    public Rotation rotate(String familyId, String tokenId, String nextId) {
+        List<String> result = redisTemplate.execute(ROTATE_SCRIPT,
+                List.of(tokenKey(familyId, tokenId), familyKey(familyId), tokenKey(familyId, nextId)),
+                nextId, Long.toString(clock.millis()), tokenKeyPrefix(familyId));
+        if (result == null || result.isEmpty() || Outcome.NOT_FOUND.name().equals(result.get(0))) {
+            return Rotation.NOT_FOUND;
+        }
+
+        Outcome outcome = Outcome.valueOf(result.get(0));
+        RefreshToken token = new RefreshToken(tokenId, familyId,
+                UUID.fromString(result.get(1)),
+                result.get(2),
+                result.get(3).isEmpty() ? List.of() : Arrays.asList(result.get(3).split(",")),
+                Instant.ofEpochMilli(Long.parseLong(result.get(4))),
+                outcome == Outcome.REUSED);
+        return new Rotation(outcome, token);
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        redisTemplate.execute(REVOKE_SCRIPT, List.of(familyKey(familyId)), tokenKeyPrefix(familyId));
+    }
+
+    @Override
+    public void revokeUser(UUID userId) {
+        String userKey = userKey(userId);
+        Set<String> familyIds = redisTemplate.opsForSet().members(userKey);
+        if (familyIds != null) {
+            familyIds.forEach(this::revokeFamily);
+        }
+        redisTemplate.delete(userKey);
+    }
+
+    private static String userKey(UUID userId) {
+        return KEY_PREFIX + "user:" + userId;
+    }
+
+    private static String tokenKeyPrefix(String familyId) {
+        return KEY_PREFIX + "{" + familyId + "}:token:";
+    }
+
+    private static String tokenKey(String familyId, String tokenId) {
+        return tokenKeyPrefix(familyId) + tokenId;
+    }
+
+    private static String familyKey(String familyId) {
+        return KEY_PREFIX + "{" + familyId + "}:family";
+    }
+}
@@ -0,0 +1,37 @@
+package gtp.bytebites.auth.security.refresh;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A stored refresh token.
+ * <p>
+ * Only a hash of the token is kept, as {@code id}. Every token rotated from the same login
+ * shares its {@code familyId} and {@code expiresAt}, so a family lives no longer than the
+ * refresh lifetime counted from that login. The email and roles are those the family was
+ * issued with; a refresh signs its access token from the user as they are now.
+ * </p>
+ *
+ * @param used whether the token has already been exchanged for a new one
+ */
+public record RefreshToken(
+        String id,
+        String familyId,
+        UUID userId,
+        String email,
+        List<String> roles,
+        Instant expiresAt,
+        boolean used
+) {
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    /**
+     * @return the unused token that replaces this one in its family
+     */
+    public RefreshToken rotate(String nextId) {
+        return new RefreshToken(nextId, familyId, userId, email, roles, expiresAt, false);
+    }
+}
@@ -0,0 +1,46 @@
+package gtp.bytebites.auth.security.refresh;
+
+import java.util.UUID;
+
+/**
+ * Keeps refresh tokens and rotates them one use at a time.
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Stores the first token of a new family.
+     */
+    void save(RefreshToken token);
+
+    /**
+     * Atomically exchanges a token for its successor.
+     * <p>
+     * An unused token is marked used and {@code nextId} is stored in its place. A token
+     * that was already used is being replayed, so its whole family is revoked instead.
+     * </p>
+     *
+     * @param familyId the family the presented token claims to belong to
+     * @param tokenId hash of the presented token
+     * @param nextId hash of the token to issue in its place
+     */
+    Rotation rotate(String familyId, String tokenId, String nextId);
+
+    /**
+     * Removes every token of a family.
+     */
+    void revokeFamily(String familyId);
+
+    /**
+     * Removes every token of every family issued to a user.
+     */
+    void revokeUser(UUID userId);
+
+    enum Outcome { ROTATED, REUSED, NOT_FOUND }
+
+    /**
+     * @param token the presented token as it was stored, {@code null} when not found
+     */
+    record Rotation(Outcome outcome, RefreshToken token) {
+        static final Rotation NOT_FOUND = new Rotation(Outcome.NOT_FOUND, null);
+    }
+}
@@ -0,0 +1,97 @@
+package gtp.bytebites.auth.security.revocation;
+
+import gtp.bytebites.auth.security.config.JwtConfig;
+import gtp.bytebites.auth.security.jwt.TokenRevocationChecker;
+import gtp.bytebites.events.event.TokenRevokedEvent;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This instance's copy of the revoked access tokens and users.
+ * <p>
+ * Filled from {@link TokenRevokedEvent}s, its own and those of every other instance, so a
+ * token revoked through any instance is rejected by all of them. A revoked token is held
+ * until it expires. A revoked user is held for the longer of the access and refresh token
+ * lifetimes, because the refresh tokens of a revoked login must stop working as well.
+ * Nothing here survives a restart; a revoked user's refresh tokens are removed from the
+ * refresh token store as well, so only their access tokens, which expire within minutes,
+ * rely on this list alone.
+ * </p>
+ * <p>
+ * Tokens carry their issue time in whole seconds and a user revocation's cutoff is a whole
+ * second too, so only tokens issued strictly before the cutoff are rejected; a token the
+ * user obtains within the second of the revocation is not.
+ * </p>
+ */
+@Component
+public class TokenRevocationList implements TokenRevocationChecker {
+    private static final String USER_ID_CLAIM = "userId";
+
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<UUID, Instant> revokedUsers = new ConcurrentHashMap<>();
+    private final Duration userRetention;
+
+    public TokenRevocationList(JwtConfig jwtConfig) {
+        this.userRetention = Duration.ofMillis(
+                Math.max(jwtConfig.getExpirationMs(), jwtConfig.getRefreshExpirationMs()));
+    }
+
+    public void apply(TokenRevokedEvent event) {
+        Instant now = Instant.now();
+        if (event.tokenId() != null && event.expiresAt().isAfter(now)) {
+            revokedTokens.merge(event.tokenId(), event.expiresAt(), TokenRevocationList::later);
+        }
+        if (event.userId() != null) {
+            revokedUsers.merge(event.userId(), event.issuedBefore(), TokenRevocationList::later);
+        }
+        removeExpired(now);
+    }
+
+    @Override
+    public boolean isRevoked(Claims claims) {
+        if (revokedTokens.isEmpty() && revokedUsers.isEmpty()) {
+            return false;
+        }
+        String tokenId = claims.getId();
+        if (tokenId != null && revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        Date issuedAt = claims.getIssuedAt();
+        if (userId == null || issuedAt == null) {
+            return false;
+        }
+        try {
+            return isUserRevoked(UUID.fromString(userId), issuedAt.toInstant());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param issuedAt when the token or login in question was issued
+     * @return whether every token of the user issued at that time has been revoked
+     */
+    public boolean isUserRevoked(UUID userId, Instant issuedAt) {
+        Instant issuedBefore = revokedUsers.get(userId);
+        return issuedBefore != null && issuedAt.isBefore(issuedBefore);
+    }
+
+    private void removeExpired(Instant now) {
+        revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        Instant cutoff = now.minus(userRetention);
+        revokedUsers.values().removeIf(issuedBefore -> issuedBefore.isBefore(cutoff));
+    }
+
+    private static Instant later(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
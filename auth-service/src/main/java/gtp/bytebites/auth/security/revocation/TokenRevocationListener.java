@@ -0,0 +1,31 @@
+package gtp.bytebites.auth.security.revocation;
+
+import gtp.bytebites.auth.service.RefreshTokenService;
+import gtp.bytebites.events.event.TokenRevokedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TokenRevocationListener {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationListener.class);
+
+    private final TokenRevocationList tokenRevocationList;
+    private final RefreshTokenService refreshTokenService;
+
+    public TokenRevocationListener(TokenRevocationList tokenRevocationList, RefreshTokenService refreshTokenService) {
+        this.tokenRevocationList = tokenRevocationList;
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    @RabbitListener(queues = "#{tokenRevocationQueue.name}")
+    public void handleTokenRevoked(TokenRevokedEvent event) {
+        log.debug("Auth service received token revocation: token {}, user {}", event.tokenId(), event.userId());
+        tokenRevocationList.apply(event);
+        if (event.userId() != null) {
+            // Families held in another instance's memory are only reachable from there
+            refreshTokenService.revokeUser(event.userId());
+        }
+    }
+}
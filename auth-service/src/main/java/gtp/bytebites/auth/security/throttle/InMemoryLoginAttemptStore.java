@@ -0,0 +1,113 @@
+package gtp.bytebites.auth.security.throttle;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Failed login counters held in this instance's memory.
+ * <p>
+ * Each key's two windows live in one immutable {@link Window} swapped by compare-and-set,
+ * so counting never takes a lock and reading a count allocates nothing. Keys are spread
+ * over shards, each of which drops the keys that have been idle for two windows, and so
+ * count zero, at most once per window, on the next failure after that. A failure racing
+ * with that sweep can go uncounted. Counters are not shared between instances; use
+ * {@link RedisLoginAttemptStore} for that.
+ * </p>
+ */
+public class InMemoryLoginAttemptStore implements LoginAttemptStore {
+    private final long windowMillis;
+    private final Shard[] shards;
+    private final Clock clock;
+
+    public InMemoryLoginAttemptStore(Duration window, int shards) {
+        this(window, shards, Clock.systemUTC());
+    }
+
+    public InMemoryLoginAttemptStore(Duration window, int shards, Clock clock) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Login attempt store needs at least one shard: " + shards);
+        }
+        this.windowMillis = window.toMillis();
+        this.shards = new Shard[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new Shard();
+        }
+        this.clock = clock;
+    }
+
+    @Override
+    public double failures(String key) {
+        AtomicReference<Window> window = shardFor(key).windows.get(key);
+        return window == null ? 0 : window.get().count(clock.millis(), windowMillis);
+    }
+
+    @Override
+    public void recordFailure(String key) {
+        long now = clock.millis();
+        long index = now / windowMillis;
+        Shard shard = shardFor(key);
+        shard.sweep(now, index, windowMillis);
+
+        AtomicReference<Window> window = shard.windows.get(key);
+        if (window == null) {
+            AtomicReference<Window> created = new AtomicReference<>(Window.EMPTY);
+            window = shard.windows.putIfAbsent(key, created);
+            if (window == null) {
+                window = created;
+            }
+        }
+        Window current;
+        do {
+            current = window.get();
+        } while (!window.compareAndSet(current, current.increment(index)));
+    }
+
+    @Override
+    public void reset(String key) {
+        shardFor(key).windows.remove(key);
+    }
+
+    private Shard shardFor(String key) {
+        return shards[Math.floorMod(key.hashCode(), shards.length)];
+    }
+
+    private static final class Shard {
+        final Map<String, AtomicReference<Window>> windows = new ConcurrentHashMap<>();
+        final AtomicLong nextSweep = new AtomicLong();
+
+        void sweep(long now, long index, long windowMillis) {
+            long due = nextSweep.get();
+            if (now < due || !nextSweep.compareAndSet(due, now + windowMillis)) {
+                return;
+            }
+            windows.values().removeIf(window -> window.get().index() < index - 1);
+        }
+    }
+
+    /**
+     * @param index the fixed window {@code current} counts, in window lengths since the epoch
+     */
+    record Window(long index, int previous, int current) {
+        static final Window EMPTY = new Window(0, 0, 0);
+
+        Window increment(long now) {
+            if (now == index) {
+                return new Window(index, previous, current + 1);
+            }
+            return new Window(now, now == index + 1 ? current : 0, 1);
+        }
+
+        double count(long nowMillis, long windowMillis) {
+            long now = nowMillis / windowMillis;
+            double overlap = 1 - (double) (nowMillis % windowMillis) / windowMillis;
+            if (now == index) {
+                return current + previous * overlap;
+            }
+            return now == index + 1 ? current * overlap : 0;
+        }
+    }
+}
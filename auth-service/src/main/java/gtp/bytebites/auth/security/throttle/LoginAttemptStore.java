@@ -0,0 +1,24 @@
+package gtp.bytebites.auth.security.throttle;
+
+/**
+ * Counts failed logins per key over a sliding window.
+ * <p>
+ * The window is approximated from two fixed windows aligned to the epoch: every failure
+ * in the current one, plus the previous one's failures weighted by how much of it still
+ * overlaps the sliding window.
+ * </p>
+ */
+public interface LoginAttemptStore {
+
+    /**
+     * @return the failures recorded for the key within the sliding window
+     */
+    double failures(String key);
+
+    void recordFailure(String key);
+
+    /**
+     * Forgets every failure recorded for the key.
+     */
+    void reset(String key);
+}
@@ -0,0 +1,92 @@
+package gtp.bytebites.auth.security.throttle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Failed login counters shared by every auth-service instance through Redis.
+ * <p>
+ * Each fixed window of a key is a counter under {@code auth:login:{key}:<index>} that
+ * expires once it no longer overlaps the sliding window. The hash tag keeps a key's
+ * windows in one slot so both are read in a single {@code MGET}. If Redis is unavailable,
+ * failures go uncounted and logins are not throttled, rather than every login failing.
+ * </p>
+ */
+public class RedisLoginAttemptStore implements LoginAttemptStore {
+    private static final Logger log = LoggerFactory.getLogger(RedisLoginAttemptStore.class);
+
+    static final String KEY_PREFIX = "auth:login:";
+
+    private static final RedisScript<Long> RECORD_SCRIPT = RedisScript.of("""
+            local count = redis.call('INCR', KEYS[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return count
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final long windowMillis;
+    private final Clock clock;
+
+    public RedisLoginAttemptStore(StringRedisTemplate redisTemplate, Duration window) {
+        this(redisTemplate, window, Clock.systemUTC());
+    }
+
+    public RedisLoginAttemptStore(StringRedisTemplate redisTemplate, Duration window, Clock clock) {
+        this.redisTemplate = redisTemplate;
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    public double failures(String key) {
+        long now = clock.millis();
+        long index = now / windowMillis;
+        List<String> counts;
+        try {
+            counts = redisTemplate.opsForValue().multiGet(List.of(windowKey(key, index), windowKey(key, index - 1)));
+        } catch (DataAccessException e) {
+            log.warn("Redis login attempt store unavailable: {}", e.getMessage());
+            return 0;
+        }
+        if (counts == null) {
+            return 0;
+        }
+        double overlap = 1 - (double) (now % windowMillis) / windowMillis;
+        return parse(counts.get(0)) + parse(counts.get(1)) * overlap;
+    }
+
+    @Override
+    public void recordFailure(String key) {
+        long index = clock.millis() / windowMillis;
+        try {
+            redisTemplate.execute(RECORD_SCRIPT, List.of(windowKey(key, index)), Long.toString(2 * windowMillis));
+        } catch (DataAccessException e) {
+            log.warn("Failed to record login failure in Redis: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void reset(String key) {
+        long index = clock.millis() / windowMillis;
+        try {
+            redisTemplate.delete(List.of(windowKey(key, index), windowKey(key, index - 1)));
+        } catch (DataAccessException e) {
+            log.warn("Failed to reset login failures in Redis: {}", e.getMessage());
+        }
+    }
+
+    private static long parse(String count) {
+        return count == null ? 0 : Long.parseLong(count);
+    }
+
+    private static String windowKey(String key, long index) {
+        return KEY_PREFIX + "{" + key + "}:" + index;
+    }
+}
@@ -6,5 +6,7 @@ import gtp.bytebites.auth.dto.response.JwtResponse;
 
 public interface AuthService {
     JwtResponse register(RegisterRequest request);
-    JwtResponse login(LoginRequest request);
+    JwtResponse login(LoginRequest request, String clientAddress);
+    JwtResponse refresh(String refreshToken);
+    void logout(String accessToken, String refreshToken);
 }
\ No newline at end of file
@@ -1,13 +1,18 @@
 package gtp.bytebites.auth.service;
 
+import gtp.bytebites.auth.cache.UserCache;
 import gtp.bytebites.auth.dto.request.LoginRequest;
 import gtp.bytebites.auth.dto.request.RegisterRequest;
 import gtp.bytebites.auth.dto.response.JwtResponse;
+import gtp.bytebites.auth.exception.InvalidRefreshTokenException;
 import gtp.bytebites.auth.model.User;
 import gtp.bytebites.auth.model.User.Role;
 import gtp.bytebites.auth.repository.UserRepository;
+import gtp.bytebites.auth.security.refresh.RefreshToken;
 import gtp.bytebites.auth.security.jwt.JwtProvider;
+import gtp.bytebites.auth.security.throttle.LoginThrottle;
 
+import io.jsonwebtoken.Claims;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Validator;
@@ -22,6 +27,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Set;
 
 @Service
@@ -30,21 +36,33 @@ public class AuthServiceImpl implements AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
+    private final UserCache userCache;
     private final PasswordEncoder passwordEncoder;
     private final JwtProvider jwtProvider;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginThrottle loginThrottle;
     private final Validator validator;
 
     public AuthServiceImpl(
             AuthenticationManager authenticationManager,
             UserRepository userRepository,
+            UserCache userCache,
             PasswordEncoder passwordEncoder,
             JwtProvider jwtProvider,
+            RefreshTokenService refreshTokenService,
+            TokenRevocationService tokenRevocationService,
+            LoginThrottle loginThrottle,
             Validator validator
     ) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
+        this.userCache = userCache;
         this.passwordEncoder = passwordEncoder;
         this.jwtProvider = jwtProvider;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.loginThrottle = loginThrottle;
         this.validator = validator;
     }
 
@@ -70,14 +88,24 @@ public class AuthServiceImpl implements AuthService {
         user.setRole(determineDefaultRole());
 
         User savedUser = userRepository.save(user);
+        userCache.invalidate(savedUser.getId());
         UserDetailsImpl userDetails = new UserDetailsImpl(savedUser);
         return generateTokenResponse(userDetails);
     }
 
+    /**
+     * Authenticates a user by email and password. Accounts and addresses with too many
+     * recent failures are turned away by {@link LoginThrottle} before the password is
+     * checked.
+     *
+     * @param clientAddress the address the login came from, {@code null} if unknown
+     * @throws gtp.bytebites.auth.exception.LoginThrottledException if the login is throttled
+     */
     @Override
-    public JwtResponse login(LoginRequest request) {
+    public JwtResponse login(LoginRequest request, String clientAddress) {
+        LoginRequest sanitised = request.sanitized();
+        loginThrottle.check(sanitised.email(), clientAddress);
         try {
-            LoginRequest sanitised = request.sanitized();
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             sanitised.email(),
@@ -87,21 +115,79 @@ public class AuthServiceImpl implements AuthService {
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
+            loginThrottle.recordSuccess(sanitised.email());
+
             UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
             return generateTokenResponse(userDetails);
         } catch (BadCredentialsException ex) {
+            loginThrottle.recordFailure(sanitised.email(), clientAddress);
             throw ex;
         }
     }
 
+    /**
+     * Exchanges a refresh token for a new access token and refresh token. The user is
+     * looked up again, through {@link UserCache}, so the new access token carries their
+     * current email and role rather than those they logged in with. A family whose user
+     * no longer exists is revoked.
+     *
+     * @throws InvalidRefreshTokenException if the refresh token cannot be exchanged or its
+     *         user is gone
+     */
+    @Override
+    public JwtResponse refresh(String refreshToken) {
+        RefreshTokenService.IssuedToken next = refreshTokenService.rotate(refreshToken);
+        RefreshToken stored = next.stored();
+        User user = userCache.findById(stored.userId()).orElse(null);
+        if (user == null) {
+            log.warn("Refresh token presented for unknown user {}, revoked its token family", stored.userId());
+            refreshTokenService.revoke(next.token());
+            throw new InvalidRefreshTokenException();
+        }
+
+        String jwt = jwtProvider.generateToken(user.getId(), user.getEmail(), List.of(user.getRole().name()));
+        return new JwtResponse(
+                jwt,
+                next.token(),
+                user.getId(),
+                user.getEmail(),
+                user.getRole().name(),
+                jwtProvider.getExpirationDuration()
+        );
+    }
+
+    /**
+     * Ends a login: the access token is revoked until it expires and the refresh token's
+     * family is revoked. Either token may be absent, and an access token that no longer
+     * verifies needs no revoking.
+     *
+     * @throws gtp.bytebites.auth.exception.InvalidRefreshTokenException if the refresh
+     *         token is malformed
+     */
+    @Override
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            Claims claims = jwtProvider.parseClaims(accessToken);
+            if (claims != null) {
+                tokenRevocationService.revokeToken(claims);
+            }
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+    }
+
     private Role determineDefaultRole() {
         return Role.ROLE_CUSTOMER;
     }
 
     private JwtResponse generateTokenResponse(UserDetailsImpl user) {
         String jwt = jwtProvider.generateToken(user);
+        RefreshTokenService.IssuedToken refreshToken = refreshTokenService.issue(
+                user.getId(), user.getUsername(), List.of(user.getUser().getRole().name()));
         return new JwtResponse(
                 jwt,
+                refreshToken.token(),
                 user.getUser().getId(),
                 user.getUser().getEmail(),
                 user.getUser().getRole().name(),
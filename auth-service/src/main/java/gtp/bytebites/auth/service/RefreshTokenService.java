@@ -0,0 +1,153 @@
+package gtp.bytebites.auth.service;
+
+import gtp.bytebites.auth.exception.InvalidRefreshTokenException;
+import gtp.bytebites.auth.security.config.JwtConfig;
+import gtp.bytebites.auth.security.refresh.RefreshToken;
+import gtp.bytebites.auth.security.refresh.RefreshTokenStore;
+import gtp.bytebites.auth.security.revocation.TokenRevocationList;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Issues and rotates one-time-use refresh tokens.
+ * <p>
+ * A refresh token reads {@code <familyId>.<secret>}, both random and base64url encoded.
+ * Only its SHA-256 hash is stored. Every refresh exchanges the presented token for a new
+ * one in the same family, so a token is good for exactly one refresh. Presenting a token
+ * that was already exchanged means it was copied, so the whole family is revoked and both
+ * the legitimate client and whoever replayed it have to log in again. A family whose
+ * user had all their tokens revoked after its login is revoked the same way.
+ * </p>
+ */
+@Service
+public class RefreshTokenService {
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int FAMILY_BYTES = 16;
+    private static final int SECRET_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenStore refreshTokenStore;
+    private final TokenRevocationList tokenRevocationList;
+    private final JwtConfig jwtConfig;
+    private final MeterRegistry meterRegistry;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenStore refreshTokenStore,
+                               TokenRevocationList tokenRevocationList,
+                               JwtConfig jwtConfig,
+                               MeterRegistry meterRegistry) {
+        this.refreshTokenStore = refreshTokenStore;
+        this.tokenRevocationList = tokenRevocationList;
+        this.jwtConfig = jwtConfig;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Starts a new token family for a user who has just logged in.
+     */
+    public IssuedToken issue(UUID userId, String email, List<String> roles) {
+        String familyId = randomString(FAMILY_BYTES);
+        String token = familyId + '.' + randomString(SECRET_BYTES);
+        RefreshToken stored = new RefreshToken(hash(token), familyId, userId, email, List.copyOf(roles),
+                Instant.now().plusMillis(jwtConfig.getRefreshExpirationMs()), false);
+        refreshTokenStore.save(stored);
+        return new IssuedToken(token, stored);
+    }
+
+    /**
+     * Exchanges a refresh token for its successor.
+     *
+     * @throws InvalidRefreshTokenException if the token is malformed, unknown, expired or
+     *         has been used before
+     */
+    public IssuedToken rotate(String token) {
+        String familyId = familyOf(token);
+        String next = familyId + '.' + randomString(SECRET_BYTES);
+        RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(familyId, hash(token), hash(next));
+
+        if (rotation.outcome() == RefreshTokenStore.Outcome.ROTATED && isRevoked(rotation.token())) {
+            refreshTokenStore.revokeFamily(familyId);
+            meterRegistry.counter("auth.refresh.tokens", "outcome", "revoked").increment();
+            throw new InvalidRefreshTokenException();
+        }
+        meterRegistry.counter("auth.refresh.tokens",
+                "outcome", rotation.outcome().name().toLowerCase()).increment();
+        return switch (rotation.outcome()) {
+            case ROTATED -> new IssuedToken(next, rotation.token().rotate(hash(next)));
+            case REUSED -> {
+                log.warn("Refresh token reused for user {}, revoked its token family", rotation.token().userId());
+                throw new InvalidRefreshTokenException();
+            }
+            case NOT_FOUND -> throw new InvalidRefreshTokenException();
+        };
+    }
+
+    /**
+     * Revokes the family a refresh token belongs to, ending that login everywhere it was
+     * refreshed.
+     *
+     * @throws InvalidRefreshTokenException if the token is malformed
+     */
+    public void revoke(String token) {
+        refreshTokenStore.revokeFamily(familyOf(token));
+    }
+
+    /**
+     * Revokes every token family of a user, ending all their logins.
+     */
+    public void revokeUser(UUID userId) {
+        refreshTokenStore.revokeUser(userId);
+    }
+
+    /**
+     * Every token of a family shares the expiry counted from its login, which gives the
+     * time of that login.
+     */
+    private boolean isRevoked(RefreshToken token) {
+        Instant loggedInAt = token.expiresAt().minusMillis(jwtConfig.getRefreshExpirationMs());
+        return tokenRevocationList.isUserRevoked(token.userId(), loggedInAt);
+    }
+
+    private static String familyOf(String token) {
+        int separator = token != null ? token.indexOf('.') : -1;
+        if (separator <= 0 || separator == token.length() - 1) {
+            throw new InvalidRefreshTokenException();
+        }
+        return token.substring(0, separator);
+    }
+
+    private String randomString(int bytes) {
+        byte[] value = new byte[bytes];
+        random.nextBytes(value);
+        return ENCODER.encodeToString(value);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ENCODER.encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @param token the refresh token to hand to the client
+     * @param stored what the store keeps for it
+     */
+    public record IssuedToken(String token, RefreshToken stored) {
+    }
+}
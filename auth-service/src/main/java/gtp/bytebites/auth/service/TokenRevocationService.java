@@ -0,0 +1,87 @@
+package gtp.bytebites.auth.service;
+
+import gtp.bytebites.auth.event.TokenEventPublisher;
+import gtp.bytebites.auth.security.config.JwtConfig;
+import gtp.bytebites.auth.security.revocation.TokenRevocationList;
+import gtp.bytebites.events.event.TokenRevokedEvent;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Revokes access tokens before they expire.
+ * <p>
+ * A revocation takes effect on this instance at once and is published as a
+ * {@link TokenRevokedEvent} to the other auth-service instances and to the gateways.
+ * Revoking a user also removes their refresh token families from the
+ * {@link gtp.bytebites.auth.security.refresh.RefreshTokenStore}, so their logins stay
+ * ended when the in-memory revocations are lost to a restart.
+ * Revocations are counted as {@code auth.tokens.revoked}, tagged by what was revoked.
+ * </p>
+ */
+@Service
+public class TokenRevocationService {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final TokenRevocationList tokenRevocationList;
+    private final TokenEventPublisher tokenEventPublisher;
+    private final RefreshTokenService refreshTokenService;
+    private final JwtConfig jwtConfig;
+    private final MeterRegistry meterRegistry;
+
+    public TokenRevocationService(TokenRevocationList tokenRevocationList,
+                                  TokenEventPublisher tokenEventPublisher,
+                                  RefreshTokenService refreshTokenService,
+                                  JwtConfig jwtConfig,
+                                  MeterRegistry meterRegistry) {
+        this.tokenRevocationList = tokenRevocationList;
+        this.tokenEventPublisher = tokenEventPublisher;
+        this.refreshTokenService = refreshTokenService;
+        this.jwtConfig = jwtConfig;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Revokes a single access token until it expires.
+     *
+     * @param claims the verified claims of the token
+     * @return {@code false} if the token has no id and cannot be revoked on its own
+     */
+    public boolean revokeToken(Claims claims) {
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            log.debug("Token of {} has no id, it stays valid until it expires", claims.getSubject());
+            return false;
+        }
+        revoke(TokenRevokedEvent.forToken(claims.getId(), claims.getExpiration().toInstant()), "token");
+        return true;
+    }
+
+    /**
+     * Revokes every access and refresh token issued to a user so far.
+     * <p>
+     * Access tokens carry their {@code iat} in whole seconds, so the cutoff is the start of
+     * the current second: a token the user obtains right after the revocation, within the
+     * same second, stays valid. An access token issued earlier in that same second is
+     * missed as well; its login's refresh tokens are still removed.
+     * </p>
+     */
+    public void revokeUser(UUID userId) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        revoke(TokenRevokedEvent.forUser(userId, now, now.plusMillis(jwtConfig.getExpirationMs())), "user");
+        refreshTokenService.revokeUser(userId);
+        log.info("Revoked all tokens of user {}", userId);
+    }
+
+    private void revoke(TokenRevokedEvent event, String kind) {
+        tokenRevocationList.apply(event);
+        tokenEventPublisher.publishTokenRevoked(event);
+        meterRegistry.counter("auth.tokens.revoked", "kind", kind).increment();
+    }
+}
@@ -1,28 +1,60 @@
 package gtp.bytebites.auth.service;
 
+import gtp.bytebites.auth.cache.UserCache;
 import gtp.bytebites.auth.model.User;
 import gtp.bytebites.auth.repository.UserRepository;
-import org.springframework.cache.annotation.Cacheable;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Loads users for authentication and stores their rehashed passwords.
+ * <p>
+ * As the {@link UserDetailsPasswordService}, it is handed the password of a user who just
+ * logged in, hashed afresh, whenever the stored hash was made with older settings. Rehashes
+ * are counted as {@code auth.password.rehashes}.
+ * </p>
+ */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+    private static final Logger log = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
 
+    private final UserCache userCache;
     private final UserRepository userRepository;
+    private final Counter rehashes;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserCache userCache, UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userCache = userCache;
         this.userRepository = userRepository;
+        this.rehashes = meterRegistry.counter("auth.password.rehashes");
     }
 
-    @Cacheable(value = "users", key = "#email")
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        User user = userCache.findWithPasswordByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
         return new UserDetailsImpl(user);
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = ((UserDetailsImpl) userDetails).getUser();
+        if (userRepository.updatePassword(user.getId(), newPassword) > 0) {
+            userCache.invalidate(user.getId());
+            rehashes.increment();
+            log.debug("Upgraded password hash of user {}", user.getId());
+        }
+        user.setPassword(newPassword);
+        return new UserDetailsImpl(user);
+    }
+}
@@ -0,0 +1,177 @@
+package gtp.bytebites.auth.service;
+
+import gtp.bytebites.auth.dto.request.UserImportRow;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads the rows of a bulk user import one line at a time, so an import never has to fit
+ * in memory.
+ * <p>
+ * A CSV body starts with a header naming its columns, {@code email} and {@code name}
+ * required, {@code password}, {@code passwordHash} and {@code role} optional, in any order.
+ * Fields may be quoted, with {@code ""} for a quote, but not span lines. An NDJSON body
+ * holds one {@link UserImportRow} object per line. Blank lines are skipped in both.
+ * </p>
+ */
+final class UserImportReader {
+    static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+
+    private static final List<String> COLUMNS = List.of("email", "name", "password", "passwordhash", "role");
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private final int[] columns;
+    private long line;
+
+    private UserImportReader(BufferedReader reader, ObjectMapper objectMapper, int[] columns, long line) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+        this.columns = columns;
+        this.line = line;
+    }
+
+    /**
+     * Starts reading a body, reading a CSV body's header straight away.
+     *
+     * @throws IllegalArgumentException if the content type is not supported or the CSV
+     *         header is missing a required column
+     */
+    static UserImportReader open(InputStream body, MediaType contentType, ObjectMapper objectMapper)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return new UserImportReader(reader, objectMapper, null, 0);
+        }
+        if (!TEXT_CSV.isCompatibleWith(contentType)) {
+            throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+        }
+
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV import is empty");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        return new UserImportReader(reader, objectMapper, columnsOf(splitCsv(header)), 1);
+    }
+
+    /**
+     * @return the next row, or {@code null} once the body is exhausted
+     */
+    Row next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+
+        try {
+            return new Row(line, columns != null ? fromCsv(text) : fromJson(text), null);
+        } catch (IllegalArgumentException e) {
+            return new Row(line, null, e.getMessage());
+        } catch (JsonProcessingException e) {
+            return new Row(line, null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private UserImportRow fromCsv(String text) {
+        List<String> fields = splitCsv(text);
+        return new UserImportRow(field(fields, 0), field(fields, 1), field(fields, 2), field(fields, 3),
+                field(fields, 4));
+    }
+
+    private UserImportRow fromJson(String text) throws JsonProcessingException {
+        UserImportRow row = objectMapper.readValue(text, UserImportRow.class);
+        if (row == null) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        return row;
+    }
+
+    /**
+     * @return the field in the given column of {@link #COLUMNS}, {@code null} when the
+     *         column is absent or the field empty
+     */
+    private String field(List<String> fields, int column) {
+        int index = columns[column];
+        if (index < 0 || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    /**
+     * Maps each of {@link #COLUMNS} to its position in the header, {@code -1} when absent.
+     */
+    private static int[] columnsOf(List<String> header) {
+        int[] columns = new int[COLUMNS.size()];
+        for (int column = 0; column < columns.length; column++) {
+            columns[column] = -1;
+        }
+        for (int index = 0; index < header.size(); index++) {
+            String name = header.get(index).trim().replace("_", "").toLowerCase(Locale.ROOT);
+            int column = COLUMNS.indexOf(name);
+            if (column >= 0) {
+                columns[column] = index;
+            }
+        }
+        if (columns[0] < 0 || columns[1] < 0) {
+            throw new IllegalArgumentException("CSV header must name the email and name columns");
+        }
+        return columns;
+    }
+
+    private static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * @param row the row read, {@code null} when it could not be parsed
+     * @param error why the row could not be parsed
+     */
+    record Row(long line, UserImportRow row, String error) {
+    }
+}
@@ -0,0 +1,328 @@
+package gtp.bytebites.auth.service;
+
+import gtp.bytebites.auth.cache.UserCache;
+import gtp.bytebites.auth.config.UserImportConfig;
+import gtp.bytebites.auth.dto.request.UserImportRow;
+import gtp.bytebites.auth.dto.response.UserImportResult;
+import gtp.bytebites.auth.model.User.Role;
+import gtp.bytebites.auth.repository.UserRepository;
+import gtp.bytebites.auth.security.config.PasswordHashingConfig;
+import gtp.bytebites.auth.security.hashing.BoundedPasswordEncoder;
+import gtp.bytebites.util.deadline.RequestDeadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Imports users in bulk, a chunk of rows at a time.
+ * <p>
+ * Each chunk costs one query for the emails already registered, one parallel batch on the
+ * password hashing pool for the rows carrying a raw password and one JDBC batch insert in
+ * its own transaction, instead of a lookup, a hash and an insert per user. Rows carrying a
+ * BCrypt {@code passwordHash} skip hashing entirely and are upgraded to the current strength
+ * on their user's first login. Such a hash must have a cost between 4 and the highest
+ * strength the service would hash with, so no imported hash makes logins dearer than the
+ * service's own.
+ * </p>
+ * <p>
+ * Chunks commit independently, so an import that stops half-way keeps the chunks before
+ * it. Every row gets a {@link UserImportResult}, handed over a chunk at a time in the
+ * order of the rows. Results are counted as {@code auth.users.imported} by status.
+ * </p>
+ * <p>
+ * An import may take far longer than any request budget, so each chunk runs under its own
+ * {@link RequestDeadline} of {@link UserImportConfig#getChunkTimeout()} in place of the
+ * request's: a stuck statement still fails its chunk, a long import still completes.
+ * </p>
+ */
+@Service
+public class UserImportService {
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final Pattern BCRYPT_HASH =
+            Pattern.compile("^(\\{bcrypt})?\\$2[aby]?\\$(\\d{2})\\$[./A-Za-z0-9]{53}$");
+    private static final int MIN_HASH_COST = 4;
+    private static final String INSERT_USER = "insert into users "
+            + "(id, name, email, password, role, oauth2user, created_at, updated_at) "
+            + "values (?, ?, ?, ?, ?, false, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final UserImportConfig config;
+    private final int maxHashCost;
+    private final MeterRegistry meterRegistry;
+
+    public UserImportService(UserRepository userRepository,
+                             UserCache userCache,
+                             BoundedPasswordEncoder passwordEncoder,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             UserImportConfig config,
+                             PasswordHashingConfig passwordHashingConfig,
+                             MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.maxHashCost = passwordHashingConfig.getStrength() != null
+                ? Math.max(passwordHashingConfig.getStrength(), passwordHashingConfig.getMaxStrength())
+                : passwordHashingConfig.getMaxStrength();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Imports the users of a CSV or NDJSON body.
+     *
+     * @param results receives the results of each chunk once it is stored, outside the
+     *        chunk's budget; the request's deadline is cleared once the import ends
+     * @throws IllegalArgumentException before any row is imported, if the content type is
+     *         not supported or the CSV header is missing a required column
+     * @see UserImportReader
+     */
+    public void importUsers(InputStream body, MediaType contentType, Consumer<List<UserImportResult>> results)
+            throws IOException {
+        UserImportReader reader = UserImportReader.open(body, contentType, objectMapper);
+        Set<String> seen = new HashSet<>();
+        List<PendingUser> chunk = new ArrayList<>(config.getChunkSize());
+        long rows = 0;
+
+        try {
+            UserImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                if (++rows > config.getMaxRows()) {
+                    chunk.add(new PendingUser(UserImportResult.invalid(row.line(), null,
+                            "Import is limited to " + config.getMaxRows() + " rows, the rest was ignored")));
+                    break;
+                }
+                chunk.add(validate(row, seen));
+                if (chunk.size() == config.getChunkSize()) {
+                    results.accept(importChunk(chunk));
+                    chunk = new ArrayList<>(config.getChunkSize());
+                }
+            }
+            if (!chunk.isEmpty()) {
+                results.accept(importChunk(chunk));
+            }
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    private PendingUser validate(UserImportReader.Row row, Set<String> seen) {
+        if (row.error() != null) {
+            return new PendingUser(UserImportResult.invalid(row.line(), null, row.error()));
+        }
+        UserImportRow user = row.row().sanitized();
+        Set<ConstraintViolation<UserImportRow>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            return new PendingUser(UserImportResult.invalid(row.line(), user.email(), violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "))));
+        }
+        if ((user.password() == null) == (user.passwordHash() == null)) {
+            return new PendingUser(UserImportResult.invalid(row.line(), user.email(),
+                    "Exactly one of password and passwordHash is required"));
+        }
+        if (user.passwordHash() != null && !isAcceptedHash(user.passwordHash())) {
+            return new PendingUser(UserImportResult.invalid(row.line(), user.email(),
+                    "passwordHash must be a BCrypt hash of cost " + MIN_HASH_COST + " to " + maxHashCost));
+        }
+        Role role = roleOf(user.role());
+        if (role == null) {
+            return new PendingUser(UserImportResult.invalid(row.line(), user.email(),
+                    "Role must be CUSTOMER or RESTAURANT_OWNER"));
+        }
+        if (!seen.add(user.email())) {
+            return new PendingUser(UserImportResult.duplicate(row.line(), user.email(),
+                    "Email appears earlier in the import"));
+        }
+        return new PendingUser(row.line(), user, role);
+    }
+
+    private boolean isAcceptedHash(String passwordHash) {
+        Matcher matcher = BCRYPT_HASH.matcher(passwordHash);
+        if (!matcher.matches()) {
+            return false;
+        }
+        int cost = Integer.parseInt(matcher.group(2));
+        return cost >= MIN_HASH_COST && cost <= maxHashCost;
+    }
+
+    /**
+     * Admins are never created by an import.
+     *
+     * @return the role, {@code null} if unknown or not allowed
+     */
+    private static Role roleOf(String role) {
+        if (role == null) {
+            return Role.ROLE_CUSTOMER;
+        }
+        String name = role.startsWith("ROLE_") ? role : "ROLE_" + role;
+        if (name.equals(Role.ROLE_CUSTOMER.name())) {
+            return Role.ROLE_CUSTOMER;
+        }
+        if (name.equals(Role.ROLE_RESTAURANT_OWNER.name())) {
+            return Role.ROLE_RESTAURANT_OWNER;
+        }
+        return null;
+    }
+
+    private List<UserImportResult> importChunk(List<PendingUser> chunk) {
+        RequestDeadline.start(config.getChunkTimeout().toMillis());
+        List<PendingUser> candidates = chunk.stream().filter(user -> user.result == null).toList();
+        if (!candidates.isEmpty()) {
+            Set<String> registered = userRepository.findExistingEmails(
+                    candidates.stream().map(user -> user.row.email()).toList());
+            List<PendingUser> newUsers = new ArrayList<>(candidates.size());
+            for (PendingUser user : candidates) {
+                if (registered.contains(user.row.email())) {
+                    user.result = UserImportResult.duplicate(user.line, user.row.email(),
+                            "Email is already registered");
+                } else {
+                    newUsers.add(user);
+                }
+            }
+            insert(hash(newUsers));
+            newUsers.stream()
+                    .filter(user -> user.result.status() == UserImportResult.Status.CREATED)
+                    .forEach(user -> userCache.invalidate(user.id));
+        }
+
+        List<UserImportResult> results = chunk.stream().map(user -> user.result).toList();
+        results.forEach(result -> meterRegistry.counter("auth.users.imported",
+                "status", result.status().name().toLowerCase()).increment());
+        return results;
+    }
+
+    /**
+     * @return the users whose password is ready to store
+     */
+    private List<PendingUser> hash(List<PendingUser> users) {
+        List<PendingUser> raw = users.stream().filter(user -> user.row.password() != null).toList();
+        if (raw.isEmpty()) {
+            users.forEach(user -> user.password = user.row.passwordHash());
+            return users;
+        }
+        try {
+            List<String> hashes = passwordEncoder.encodeAll(raw.stream().map(user -> user.row.password()).toList());
+            for (int i = 0; i < raw.size(); i++) {
+                raw.get(i).password = hashes.get(i);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to hash {} imported passwords", raw.size(), e);
+            raw.forEach(user -> user.result = UserImportResult.failed(user.line, user.row.email(),
+                    "Password could not be hashed"));
+        }
+        users.stream().filter(user -> user.row.passwordHash() != null)
+                .forEach(user -> user.password = user.row.passwordHash());
+        return users.stream().filter(user -> user.result == null).toList();
+    }
+
+    /**
+     * Inserts the users as one batch, or one at a time if the batch hits a constraint, most
+     * likely an email registered since the chunk was checked.
+     */
+    private void insert(List<PendingUser> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        users.forEach(user -> user.id = UUID.randomUUID());
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_USER, users,
+                    users.size(), (statement, user) -> bind(statement, user, now)));
+            users.forEach(user -> user.result = UserImportResult.created(user.line, user.row.email(), user.id));
+            return;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Batch of {} imported users hit a constraint, inserting one by one", users.size());
+        } catch (DataAccessException e) {
+            log.error("Failed to insert {} imported users", users.size(), e);
+            users.forEach(user -> user.result = UserImportResult.failed(user.line, user.row.email(),
+                    "User could not be stored"));
+            return;
+        }
+
+        for (PendingUser user : users) {
+            try {
+                jdbcTemplate.update(INSERT_USER, statement -> bind(statement, user, now));
+                user.result = UserImportResult.created(user.line, user.row.email(), user.id);
+            } catch (DuplicateKeyException e) {
+                user.result = UserImportResult.duplicate(user.line, user.row.email(), "Email is already registered");
+            } catch (DataAccessException e) {
+                log.warn("Failed to insert imported user on line {}: {}", user.line, e.getMessage());
+                user.result = UserImportResult.failed(user.line, user.row.email(), "User could not be stored");
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement statement, PendingUser user, LocalDateTime now) throws SQLException {
+        statement.setObject(1, user.id);
+        statement.setString(2, user.row.name());
+        statement.setString(3, user.row.email());
+        statement.setString(4, user.password);
+        statement.setString(5, user.role.name());
+        statement.setObject(6, now);
+        statement.setObject(7, now);
+    }
+
+    /**
+     * A row on its way through a chunk, done once it has a result.
+     */
+    private static final class PendingUser {
+        private final long line;
+        private final UserImportRow row;
+        private final Role role;
+        private UUID id;
+        private String password;
+        private UserImportResult result;
+
+        PendingUser(long line, UserImportRow row, Role role) {
+            this.line = line;
+            this.row = row;
+            this.role = role;
+        }
+
+        PendingUser(UserImportResult result) {
+            this(result.line(), null, null);
+            this.result = result;
+        }
+    }
+}
@@ -1,14 +1,16 @@
 package gtp.bytebites.auth.service;
 
+import gtp.bytebites.auth.cache.UserCache;
 import gtp.bytebites.auth.dto.response.UserResponse;
 import gtp.bytebites.auth.dto.response.UserSummaryResponse;
 import gtp.bytebites.auth.mapper.UserMapper;
 import gtp.bytebites.auth.model.User;
 import gtp.bytebites.auth.repository.UserRepository;
+import gtp.bytebites.auth.security.jwt.JwtPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
@@ -19,18 +21,21 @@ import java.util.UUID;
 public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserCache userCache;
 
     @Autowired
-    public UserService(UserRepository userRepository,   UserMapper userMapper) {
+    public UserService(UserRepository userRepository,   UserMapper userMapper, UserCache userCache) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
+        this.userCache = userCache;
     }
 
-    @Cacheable("users")
     public User getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Optional<User> user = authentication.getPrincipal() instanceof JwtPrincipal principal
+                ? userCache.findById(principal.userId())
+                : userCache.findByEmail(authentication.getName());
+        return user.orElseThrow(() -> new RuntimeException("User not found"));
     }
 
     public Page<UserSummaryResponse> getAllUsers(Pageable pageable) {
@@ -39,7 +44,7 @@ public class UserService {
     }
 
     public Optional<User> getUserById(UUID id) {
-        return userRepository.findById(id);
+        return userCache.findById(id);
     }
 
     public boolean existsById(UUID userId) {
@@ -0,0 +1,106 @@
+package gtp.auth;
+
+import gtp.bytebites.auth.cache.UserCache;
+import gtp.bytebites.auth.dto.response.JwtResponse;
+import gtp.bytebites.auth.exception.InvalidRefreshTokenException;
+import gtp.bytebites.auth.model.User;
+import gtp.bytebites.auth.repository.UserRepository;
+import gtp.bytebites.auth.security.jwt.JwtProvider;
+import gtp.bytebites.auth.security.refresh.RefreshToken;
+import gtp.bytebites.auth.security.throttle.LoginThrottle;
+import gtp.bytebites.auth.service.AuthServiceImpl;
+import gtp.bytebites.auth.service.RefreshTokenService;
+import gtp.bytebites.auth.service.TokenRevocationService;
+
+import jakarta.validation.Validator;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link AuthServiceImpl}.
+ */
+@ExtendWith(MockitoExtension.class)
+class AuthServiceImplTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserCache userCache;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    @Mock
+    private JwtProvider jwtProvider;
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+    @Mock
+    private LoginThrottle loginThrottle;
+    @Mock
+    private Validator validator;
+
+    private AuthServiceImpl authService;
+
+    @BeforeEach
+    void setUp() {
+        authService = new AuthServiceImpl(authenticationManager, userRepository, userCache, passwordEncoder,
+                jwtProvider, refreshTokenService, tokenRevocationService, loginThrottle, validator);
+    }
+
+    @Test
+    void refresh_shouldSignWithCurrentEmailAndRole() {
+        // Given
+        when(refreshTokenService.rotate("family.old")).thenReturn(rotated());
+        User user = new User("Ama", "new@example.com", null, User.Role.ROLE_RESTAURANT_OWNER);
+        user.setId(USER_ID);
+        when(userCache.findById(USER_ID)).thenReturn(Optional.of(user));
+        when(jwtProvider.generateToken(USER_ID, "new@example.com", List.of("ROLE_RESTAURANT_OWNER")))
+                .thenReturn("access");
+
+        // When
+        JwtResponse response = authService.refresh("family.old");
+
+        // Then
+        assertEquals("access", response.token());
+        assertEquals("family.next", response.refreshToken());
+        assertEquals("new@example.com", response.email());
+        assertEquals("ROLE_RESTAURANT_OWNER", response.role());
+        verify(refreshTokenService, never()).revoke(any());
+    }
+
+    @Test
+    void refresh_shouldRevokeFamilyWhenUserIsGone() {
+        // Given
+        when(refreshTokenService.rotate("family.old")).thenReturn(rotated());
+        when(userCache.findById(USER_ID)).thenReturn(Optional.empty());
+
+        // When/Then
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refresh("family.old"));
+        verify(refreshTokenService).revoke("family.next");
+        verifyNoInteractions(jwtProvider);
+    }
+
+    private static RefreshTokenService.IssuedToken rotated() {
+        return new RefreshTokenService.IssuedToken("family.next", new RefreshToken("next-hash", "family",
+                USER_ID, "old@example.com", List.of("ROLE_CUSTOMER"), Instant.now().plusSeconds(60), false));
+    }
+}
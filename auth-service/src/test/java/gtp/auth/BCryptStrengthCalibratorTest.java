@@ -0,0 +1,48 @@
+package gtp.auth;
+
+import gtp.bytebites.auth.security.hashing.BCryptStrengthCalibrator;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BCryptStrengthCalibrator}.
+ */
+class BCryptStrengthCalibratorTest {
+
+    @Test
+    void calibrate_shouldStayAtMinimumWhenTargetIsTooShort() {
+        // When
+        int strength = BCryptStrengthCalibrator.calibrate(Duration.ofNanos(1), 4, 8);
+
+        // Then
+        assertEquals(4, strength);
+    }
+
+    @Test
+    void calibrate_shouldBeCappedAtMaximum() {
+        // When
+        int strength = BCryptStrengthCalibrator.calibrate(Duration.ofHours(1), 4, 6);
+
+        // Then
+        assertEquals(6, strength);
+    }
+
+    @Test
+    void calibrate_shouldPickStrengthWithinTarget() {
+        // When
+        int strength = BCryptStrengthCalibrator.calibrate(Duration.ofMillis(20), 4, 12);
+
+        // Then
+        assertTrue(strength >= 4 && strength < 12, "strength " + strength);
+    }
+
+    @Test
+    void calibrate_shouldRejectMinAboveMax() {
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> BCryptStrengthCalibrator.calibrate(Duration.ofMillis(100), 10, 8));
+    }
+}
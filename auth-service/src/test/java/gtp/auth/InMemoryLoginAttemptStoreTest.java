@@ -0,0 +1,112 @@
+package gtp.auth;
+
+import gtp.bytebites.auth.security.throttle.InMemoryLoginAttemptStore;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link InMemoryLoginAttemptStore}.
+ */
+class InMemoryLoginAttemptStoreTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(10);
+
+    // The start of a fixed window, so the tests control how far into it they are
+    private final MutableClock clock = new MutableClock(Instant.ofEpochSecond(1_700_000_000));
+    private final InMemoryLoginAttemptStore store = new InMemoryLoginAttemptStore(WINDOW, 4, clock);
+
+    @Test
+    void failures_shouldCountEveryFailureInCurrentWindow() {
+        // Given
+        store.recordFailure("email:ama@example.com");
+        store.recordFailure("email:ama@example.com");
+        clock.advance(Duration.ofSeconds(9));
+        store.recordFailure("email:ama@example.com");
+
+        // When
+        double failures = store.failures("email:ama@example.com");
+
+        // Then
+        assertEquals(3, failures, 0.001);
+        assertEquals(0, store.failures("email:kofi@example.com"));
+    }
+
+    @Test
+    void failures_shouldWeighPreviousWindowByItsOverlap() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            store.recordFailure("address:10.0.0.1");
+        }
+        clock.advance(WINDOW.plusMillis(WINDOW.toMillis() / 4));
+        store.recordFailure("address:10.0.0.1");
+
+        // When
+        double failures = store.failures("address:10.0.0.1");
+
+        // Then
+        assertEquals(1 + 4 * 0.75, failures, 0.001);
+    }
+
+    @Test
+    void failures_shouldForgetFailuresOlderThanTwoWindows() {
+        // Given
+        store.recordFailure("email:ama@example.com");
+        clock.advance(WINDOW.multipliedBy(2));
+
+        // When
+        store.recordFailure("email:kofi@example.com");
+
+        // Then
+        assertEquals(0, store.failures("email:ama@example.com"));
+        assertEquals(1, store.failures("email:kofi@example.com"), 0.001);
+    }
+
+    @Test
+    void reset_shouldForgetEveryFailureOfKey() {
+        // Given
+        store.recordFailure("email:ama@example.com");
+        clock.advance(WINDOW);
+        store.recordFailure("email:ama@example.com");
+
+        // When
+        store.reset("email:ama@example.com");
+
+        // Then
+        assertEquals(0, store.failures("email:ama@example.com"));
+    }
+
+    @Test
+    void recordFailure_shouldCountConcurrentFailures() throws Exception {
+        // Given
+        int threads = 8;
+        int failuresPerThread = 1_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < failuresPerThread; j++) {
+                    store.recordFailure("address:10.0.0.1");
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(threads * failuresPerThread, store.failures("address:10.0.0.1"), 0.001);
+    }
+}
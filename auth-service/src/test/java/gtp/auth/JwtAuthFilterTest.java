@@ -0,0 +1,189 @@
+package gtp.auth;
+
+import gtp.bytebites.auth.model.User;
+import gtp.bytebites.auth.security.config.JwtConfig;
+import gtp.bytebites.auth.security.jwt.JwtAuthFilter;
+import gtp.bytebites.auth.security.jwt.JwtPrincipal;
+import gtp.bytebites.auth.security.jwt.JwtProvider;
+import gtp.bytebites.auth.security.jwt.TokenRevocationChecker;
+import gtp.bytebites.auth.service.UserDetailsImpl;
+import gtp.bytebites.auth.service.UserDetailsServiceImpl;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link JwtAuthFilter}.
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtAuthFilterTest {
+
+    private static final String SECRET = "0123456789012345678901234567890123456789012345678901234567890123";
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final String EMAIL = "ama@example.com";
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+    @Mock
+    private TokenRevocationChecker revocationChecker;
+
+    private JwtConfig jwtConfig;
+    private JwtProvider jwtProvider;
+    private JwtAuthFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(SECRET);
+        jwtConfig.setExpirationMs(60_000);
+        jwtProvider = new JwtProvider(jwtConfig);
+        jwtProvider.init();
+        filter = new JwtAuthFilter(jwtProvider, jwtConfig, userDetailsService, new ObjectProvider<>() {
+            @Override
+            public TokenRevocationChecker getObject() {
+                return revocationChecker;
+            }
+
+            @Override
+            public Stream<TokenRevocationChecker> orderedStream() {
+                return Stream.of(revocationChecker);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_shouldAuthenticateFromClaimsWithoutLoadingUser() throws Exception {
+        // Given
+        MockHttpServletRequest request = request(jwtProvider.generateToken(USER_ID, EMAIL, List.of("ROLE_CUSTOMER")));
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(new JwtPrincipal(USER_ID, EMAIL), authentication.getPrincipal());
+        assertEquals(EMAIL, authentication.getName());
+        assertEquals(List.of("ROLE_CUSTOMER"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void doFilter_shouldLoadUserWhenNotStateless() throws Exception {
+        // Given
+        jwtConfig.setStatelessAuthentication(false);
+        User user = new User("Ama", EMAIL, null, User.Role.ROLE_ADMIN);
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(new UserDetailsImpl(user));
+        MockHttpServletRequest request = request(jwtProvider.generateToken(USER_ID, EMAIL, List.of("ROLE_CUSTOMER")));
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertInstanceOf(UserDetailsImpl.class, authentication.getPrincipal());
+        assertEquals("ROLE_ADMIN", authentication.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void doFilter_shouldRejectRevokedToken() throws Exception {
+        // Given
+        when(revocationChecker.isRevoked(any())).thenReturn(true);
+        MockHttpServletRequest request = request(jwtProvider.generateToken(USER_ID, EMAIL, List.of("ROLE_CUSTOMER")));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(401, response.getStatus());
+        assertEquals("Token has been revoked", response.getErrorMessage());
+        assertNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void doFilter_shouldRejectTokenThatDoesNotVerify() throws Exception {
+        // Given
+        String token = jwtProvider.generateToken(USER_ID, EMAIL, List.of("ROLE_CUSTOMER"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request(token.substring(0, token.length() - 2)), response, new MockFilterChain());
+
+        // Then
+        assertEquals(401, response.getStatus());
+        assertEquals("Invalid token", response.getErrorMessage());
+        verifyNoInteractions(revocationChecker);
+    }
+
+    @Test
+    void doFilter_shouldRejectTokenWithoutUserId() throws Exception {
+        // Given
+        String token = Jwts.builder()
+                .setSubject(EMAIL)
+                .claim("roles", List.of("ROLE_CUSTOMER"))
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request(token), response, new MockFilterChain());
+
+        // Then
+        assertEquals(401, response.getStatus());
+        assertEquals("Missing user id in token", response.getErrorMessage());
+    }
+
+    @Test
+    void doFilter_shouldPassThroughRequestWithoutToken() throws Exception {
+        // Given
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/auth/login"), new MockHttpServletResponse(), chain);
+
+        // Then
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
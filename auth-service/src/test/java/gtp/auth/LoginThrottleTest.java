@@ -0,0 +1,98 @@
+package gtp.auth;
+
+import gtp.bytebites.auth.exception.LoginThrottledException;
+import gtp.bytebites.auth.security.config.LoginThrottleConfig;
+import gtp.bytebites.auth.security.throttle.InMemoryLoginAttemptStore;
+import gtp.bytebites.auth.security.throttle.LoginThrottle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LoginThrottle}.
+ */
+class LoginThrottleTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void check_shouldBlockAccountAfterTooManyFailures() {
+        // Given
+        LoginThrottle throttle = throttle(true);
+        for (int i = 0; i < 3; i++) {
+            throttle.check("ama@example.com", "10.0.0.1");
+            throttle.recordFailure("ama@example.com", "10.0.0.1");
+        }
+
+        // When
+        LoginThrottledException e = assertThrows(LoginThrottledException.class,
+                () -> throttle.check("ama@example.com", "10.0.0.2"));
+
+        // Then
+        assertTrue(e.getRetryAfterSeconds() >= 1 && e.getRetryAfterSeconds() <= 60);
+        throttle.check("kofi@example.com", "10.0.0.1");
+        assertEquals(1, count("blocked", "email"));
+        assertEquals(4, count("admitted", "none"));
+    }
+
+    @Test
+    void check_shouldBlockAddressAfterFailuresAcrossAccounts() {
+        // Given
+        LoginThrottle throttle = throttle(true);
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure("user" + i + "@example.com", "10.0.0.1");
+        }
+
+        // When/Then
+        assertThrows(LoginThrottledException.class, () -> throttle.check("ama@example.com", "10.0.0.1"));
+        throttle.check("ama@example.com", "10.0.0.2");
+        throttle.check("ama@example.com", null);
+        assertEquals(1, count("blocked", "address"));
+    }
+
+    @Test
+    void recordSuccess_shouldClearAccountButNotAddress() {
+        // Given
+        LoginThrottle throttle = throttle(true);
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure("ama@example.com", "10.0.0.1");
+        }
+
+        // When
+        throttle.recordSuccess("ama@example.com");
+
+        // Then
+        throttle.check("ama@example.com", "10.0.0.2");
+        assertThrows(LoginThrottledException.class, () -> throttle.check("ama@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    void check_shouldAdmitEveryLoginWhenDisabled() {
+        // Given
+        LoginThrottle throttle = throttle(false);
+        for (int i = 0; i < 10; i++) {
+            throttle.recordFailure("ama@example.com", "10.0.0.1");
+        }
+
+        // When/Then
+        assertDoesNotThrow(() -> throttle.check("ama@example.com", "10.0.0.1"));
+    }
+
+    private LoginThrottle throttle(boolean enabled) {
+        LoginThrottleConfig config = new LoginThrottleConfig();
+        config.setEnabled(enabled);
+        config.setWindow(Duration.ofMinutes(1));
+        config.setMaxFailuresPerEmail(3);
+        config.setMaxFailuresPerAddress(5);
+        return new LoginThrottle(config, new InMemoryLoginAttemptStore(config.getWindow(), 4), meterRegistry);
+    }
+
+    private double count(String outcome, String limit) {
+        return meterRegistry.counter("auth.login.attempts", "outcome", outcome, "limit", limit).count();
+    }
+}
@@ -0,0 +1,257 @@
+package gtp.auth;
+
+import gtp.bytebites.auth.exception.PasswordHashingRejectedException;
+import gtp.bytebites.auth.security.config.PasswordHashingConfig;
+import gtp.bytebites.auth.security.hashing.PasswordHashingExecutor;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PasswordHashingExecutor}.
+ */
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void execute_shouldReturnResultOfTask() {
+        // Given
+        executor = executor(2, 4, Duration.ofSeconds(5));
+
+        // When
+        String result = executor.execute("login", () -> "hashed");
+
+        // Then
+        assertEquals("hashed", result);
+    }
+
+    @Test
+    void execute_shouldRejectWhenQueueIsFull() throws Exception {
+        // Given
+        executor = executor(1, 1, Duration.ofSeconds(5));
+        CountDownLatch running = new CountDownLatch(1);
+        callers.submit(() -> executor.execute("login", () -> {
+            running.countDown();
+            return await(release);
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> executor.execute("login", () -> true));
+        waitUntil(() -> !executor.hasSpareCapacity());
+
+        // When/Then
+        PasswordHashingRejectedException e = assertThrows(PasswordHashingRejectedException.class,
+                () -> executor.execute("login", () -> true));
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+        assertEquals(1.0, meterRegistry.counter("auth.password.hashing.rejections", "reason", "full").count());
+    }
+
+    @Test
+    void execute_shouldRejectHashThatOutlastsMaxWait() {
+        // Given
+        executor = executor(1, 4, Duration.ofMillis(100));
+
+        // When/Then
+        assertThrows(PasswordHashingRejectedException.class, () -> executor.execute("login", () -> await(release)));
+        assertEquals(1.0, meterRegistry.counter("auth.password.hashing.rejections", "reason", "timeout").count());
+    }
+
+    @Test
+    void execute_shouldRethrowTaskFailure() {
+        // Given
+        executor = executor(1, 4, Duration.ofSeconds(5));
+
+        // When/Then
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> executor.execute("login", () -> {
+                    throw new IllegalArgumentException("bad salt");
+                }));
+        assertEquals("bad salt", e.getMessage());
+    }
+
+    @Test
+    void execute_shouldRecordEachOperationOnOneTimer() {
+        // Given
+        executor = executor(2, 4, Duration.ofSeconds(5));
+
+        // When
+        executor.execute("login", () -> true);
+        executor.execute("login", () -> true);
+        executor.execute("register", () -> true);
+
+        // Then
+        assertEquals(2, meterRegistry.find("auth.password.hashing.duration").timers().size());
+        Timer login = meterRegistry.find("auth.password.hashing.duration").tag("operation", "login").timer();
+        assertNotNull(login);
+        assertEquals(2, login.count());
+    }
+
+    @Test
+    void executeAll_shouldReturnResultsInTaskOrder() {
+        // Given
+        executor = executor(3, 4, Duration.ofSeconds(5));
+        List<Supplier<Integer>> tasks = IntStream.range(0, 10)
+                .<Supplier<Integer>>mapToObj(i -> () -> {
+                    sleep(10 - i);
+                    return i;
+                })
+                .toList();
+
+        // When
+        List<Integer> results = executor.executeAll("encode", tasks);
+
+        // Then
+        assertEquals(IntStream.range(0, 10).boxed().toList(), results);
+    }
+
+    @Test
+    void executeAll_shouldLeaveQueueToOtherCallers() throws Exception {
+        // Given
+        executor = executor(2, 1, Duration.ofSeconds(5));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostRunning = new AtomicInteger();
+        List<Supplier<Boolean>> tasks = IntStream.range(0, 8)
+                .<Supplier<Boolean>>mapToObj(i -> () -> {
+                    mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        return await(release);
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                })
+                .toList();
+        Future<List<Boolean>> batch = callers.submit(() -> executor.executeAll("encode", tasks));
+        waitUntil(() -> running.get() == 2);
+
+        // When
+        Thread.sleep(50);
+        boolean queueEmpty = executor.hasSpareCapacity();
+        Future<Boolean> login = callers.submit(() -> executor.execute("login", () -> true));
+        release.countDown();
+
+        // Then
+        assertTrue(queueEmpty);
+        assertTrue(login.get(5, TimeUnit.SECONDS));
+        assertEquals(8, batch.get(5, TimeUnit.SECONDS).size());
+        assertEquals(2, mostRunning.get());
+    }
+
+    @Test
+    void executeAll_shouldWaitForRoomInsteadOfRejecting() throws Exception {
+        // Given
+        executor = executor(1, 1, Duration.ofSeconds(5));
+        CountDownLatch running = new CountDownLatch(1);
+        callers.submit(() -> executor.execute("login", () -> {
+            running.countDown();
+            return await(release);
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> executor.execute("login", () -> true));
+        waitUntil(() -> !executor.hasSpareCapacity());
+
+        // When
+        Future<List<Integer>> batch = callers.submit(() -> executor.executeAll("encode",
+                List.<Supplier<Integer>>of(() -> 1, () -> 2)));
+        Thread.sleep(50);
+        boolean waiting = !batch.isDone();
+        release.countDown();
+
+        // Then
+        assertTrue(waiting);
+        assertEquals(List.of(1, 2), batch.get(5, TimeUnit.SECONDS));
+        assertEquals(0.0, meterRegistry.counter("auth.password.hashing.rejections", "reason", "full").count());
+    }
+
+    @Test
+    void executeAll_shouldCancelOutstandingTasksWhenOneFails() throws Exception {
+        // Given
+        executor = executor(2, 4, Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        List<Supplier<Boolean>> tasks = List.of(
+                () -> {
+                    await(started);
+                    throw new IllegalStateException("bad salt");
+                },
+                () -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return true;
+                });
+
+        // When
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> executor.executeAll("encode", tasks));
+
+        // Then
+        assertEquals("bad salt", e.getMessage());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    private PasswordHashingExecutor executor(int threads, int queueCapacity, Duration maxWait) {
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        config.setThreads(threads);
+        config.setQueueCapacity(queueCapacity);
+        config.setMaxWait(maxWait);
+        return new PasswordHashingExecutor(config, meterRegistry);
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
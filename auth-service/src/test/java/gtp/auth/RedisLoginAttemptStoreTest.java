@@ -0,0 +1,91 @@
+package gtp.auth;
+
+import gtp.bytebites.auth.security.throttle.RedisLoginAttemptStore;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RedisLoginAttemptStore}, run against a real Redis. Skipped when
+ * Redis is not available.
+ */
+class RedisLoginAttemptStoreTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(10);
+
+    private final MutableClock clock = new MutableClock(Instant.ofEpochSecond(1_700_000_000));
+    private final String key = "email:" + UUID.randomUUID() + "@example.com";
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private RedisLoginAttemptStore store;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = RedisTestSupport.connect();
+        redisTemplate = RedisTestSupport.template(connectionFactory);
+        store = new RedisLoginAttemptStore(redisTemplate, WINDOW, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (connectionFactory == null) {
+            return;
+        }
+        redisTemplate.delete(redisTemplate.keys("auth:login:{" + key + "}:*"));
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void failures_shouldWeighPreviousWindowByItsOverlap() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            store.recordFailure(key);
+        }
+        clock.advance(WINDOW.plusMillis(WINDOW.toMillis() / 4));
+        store.recordFailure(key);
+
+        // When
+        double failures = store.failures(key);
+
+        // Then
+        assertEquals(1 + 4 * 0.75, failures, 0.001);
+    }
+
+    @Test
+    void recordFailure_shouldExpireCounterAfterTwoWindows() {
+        // Given
+        store.recordFailure(key);
+
+        // When
+        Long ttl = redisTemplate.getExpire("auth:login:{" + key + "}:"
+                + clock.millis() / WINDOW.toMillis());
+
+        // Then
+        assertNotNull(ttl);
+        assertTrue(ttl > WINDOW.toSeconds() && ttl <= 2 * WINDOW.toSeconds(), "ttl " + ttl);
+    }
+
+    @Test
+    void reset_shouldForgetEveryFailureOfKey() {
+        // Given
+        store.recordFailure(key);
+        clock.advance(WINDOW);
+        store.recordFailure(key);
+
+        // When
+        store.reset(key);
+
+        // Then
+        assertEquals(0, store.failures(key));
+    }
+}
@@ -0,0 +1,173 @@
+package gtp.auth;
+
+import gtp.bytebites.auth.security.refresh.RedisRefreshTokenStore;
+import gtp.bytebites.auth.security.refresh.RefreshToken;
+import gtp.bytebites.auth.security.refresh.RefreshTokenStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RedisRefreshTokenStore}, run against a real Redis so the Lua
+ * scripts are exercised. Skipped when Redis is not available.
+ */
+class RedisRefreshTokenStoreTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private final List<String> families = new ArrayList<>();
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private RedisRefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = RedisTestSupport.connect();
+        redisTemplate = RedisTestSupport.template(connectionFactory);
+        store = new RedisRefreshTokenStore(redisTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (connectionFactory == null) {
+            return;
+        }
+        families.forEach(store::revokeFamily);
+        redisTemplate.delete("auth:refresh:user:" + USER_ID);
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void rotate_shouldReturnTokenAndStoreSuccessor() {
+        // Given
+        RefreshToken token = save(Instant.now().plus(Duration.ofDays(7)));
+
+        // When
+        RefreshTokenStore.Rotation rotation = store.rotate(token.familyId(), token.id(), "next");
+
+        // Then
+        assertEquals(RefreshTokenStore.Outcome.ROTATED, rotation.outcome());
+        assertEquals(USER_ID, rotation.token().userId());
+        assertEquals("user@example.com", rotation.token().email());
+        assertEquals(List.of("ROLE_CUSTOMER", "ROLE_ADMIN"), rotation.token().roles());
+        assertEquals(token.expiresAt(), rotation.token().expiresAt());
+        assertEquals(RefreshTokenStore.Outcome.ROTATED,
+                store.rotate(token.familyId(), "next", "after-next").outcome());
+    }
+
+    @Test
+    void rotate_shouldRevokeFamilyWhenTokenIsReused() {
+        // Given
+        RefreshToken token = save(Instant.now().plus(Duration.ofDays(7)));
+        store.rotate(token.familyId(), token.id(), "next");
+
+        // When
+        RefreshTokenStore.Rotation reuse = store.rotate(token.familyId(), token.id(), "forked");
+
+        // Then
+        assertEquals(RefreshTokenStore.Outcome.REUSED, reuse.outcome());
+        assertTrue(reuse.token().used());
+        assertEquals(RefreshTokenStore.Outcome.NOT_FOUND,
+                store.rotate(token.familyId(), "next", "after-next").outcome());
+        assertEquals(Boolean.FALSE, redisTemplate.hasKey(familyKey(token.familyId())));
+    }
+
+    @Test
+    void rotate_shouldNotFindExpiredOrUnknownToken() {
+        // Given
+        Instant expiresAt = Instant.now().plus(Duration.ofDays(7)).truncatedTo(ChronoUnit.MILLIS);
+        RefreshToken token = save(expiresAt);
+        RedisRefreshTokenStore later = new RedisRefreshTokenStore(redisTemplate,
+                Clock.fixed(expiresAt, ZoneOffset.UTC));
+
+        // When/Then
+        assertEquals(RefreshTokenStore.Outcome.NOT_FOUND,
+                later.rotate(token.familyId(), token.id(), "next").outcome());
+        assertEquals(RefreshTokenStore.Outcome.NOT_FOUND,
+                store.rotate(token.familyId(), "unknown", "next").outcome());
+    }
+
+    @Test
+    void revokeFamily_shouldDeleteEveryTokenOfFamily() {
+        // Given
+        RefreshToken token = save(Instant.now().plus(Duration.ofDays(7)));
+        store.rotate(token.familyId(), token.id(), "next");
+
+        // When
+        store.revokeFamily(token.familyId());
+
+        // Then
+        assertEquals(RefreshTokenStore.Outcome.NOT_FOUND,
+                store.rotate(token.familyId(), "next", "after-next").outcome());
+        assertEquals(List.of(), List.copyOf(redisTemplate.keys("auth:refresh:{" + token.familyId() + "}:*")));
+    }
+
+    @Test
+    void revokeUser_shouldDeleteEveryFamilyOfUserFromAnyInstance() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        RefreshToken phone = save(userId, Instant.now().plus(Duration.ofDays(7)));
+        RefreshToken laptop = save(userId, Instant.now().plus(Duration.ofDays(7)));
+        RefreshToken other = save(Instant.now().plus(Duration.ofDays(7)));
+        RedisRefreshTokenStore restarted = new RedisRefreshTokenStore(redisTemplate);
+
+        // When
+        restarted.revokeUser(userId);
+
+        // Then
+        assertEquals(RefreshTokenStore.Outcome.NOT_FOUND,
+                store.rotate(phone.familyId(), phone.id(), "next").outcome());
+        assertEquals(RefreshTokenStore.Outcome.NOT_FOUND,
+                store.rotate(laptop.familyId(), laptop.id(), "next").outcome());
+        assertEquals(RefreshTokenStore.Outcome.ROTATED,
+                store.rotate(other.familyId(), other.id(), "next").outcome());
+        assertEquals(Boolean.FALSE, redisTemplate.hasKey("auth:refresh:user:" + userId));
+    }
+
+    @Test
+    void save_shouldExpireKeysWithFamily() {
+        // Given
+        RefreshToken token = save(Instant.now().plus(Duration.ofMinutes(5)));
+
+        // When
+        Long ttl = redisTemplate.getExpire(familyKey(token.familyId()));
+
+        // Then
+        assertNotNull(ttl);
+        assertTrue(ttl > 0 && ttl <= Duration.ofMinutes(5).toSeconds(), "ttl " + ttl);
+        Long userTtl = redisTemplate.getExpire("auth:refresh:user:" + USER_ID);
+        assertTrue(userTtl != null && userTtl > 0, "ttl " + userTtl);
+    }
+
+    private RefreshToken save(Instant expiresAt) {
+        return save(USER_ID, expiresAt);
+    }
+
+    private RefreshToken save(UUID userId, Instant expiresAt) {
+        String familyId = UUID.randomUUID().toString();
+        families.add(familyId);
+        RefreshToken token = new RefreshToken("first", familyId, userId, "user@example.com",
+                List.of("ROLE_CUSTOMER", "ROLE_ADMIN"), expiresAt.truncatedTo(ChronoUnit.MILLIS), false);
+        store.save(token);
+        return token;
+    }
+
+    private static String familyKey(String familyId) {
+        return "auth:refresh:{" + familyId + "}:family";
+    }
+}
@@ -0,0 +1,43 @@
+package gtp.auth;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Connects the Redis backed tests to the server named by {@code spring.data.redis.host} and
+ * {@code spring.data.redis.port}, localhost:6379 by default. Tests are skipped, not
+ * failed, when no server answers.
+ */
+final class RedisTestSupport {
+
+    private RedisTestSupport() {
+    }
+
+    static LettuceConnectionFactory connect() {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+                System.getProperty("spring.data.redis.host", "localhost"),
+                Integer.getInteger("spring.data.redis.port", 6379));
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        boolean available;
+        try (var connection = connectionFactory.getConnection()) {
+            available = "PONG".equals(connection.ping());
+        } catch (RuntimeException e) {
+            available = false;
+        }
+        if (!available) {
+            connectionFactory.destroy();
+        }
+        assumeTrue(available, "Redis is not available");
+        return connectionFactory;
+    }
+
+    static StringRedisTemplate template(LettuceConnectionFactory connectionFactory) {
+        StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+        template.afterPropertiesSet();
+        return template;
+    }
+}
@@ -0,0 +1,153 @@
+package gtp.auth;
+
+import gtp.bytebites.auth.exception.InvalidRefreshTokenException;
+import gtp.bytebites.auth.security.config.JwtConfig;
+import gtp.bytebites.auth.security.refresh.InMemoryRefreshTokenStore;
+import gtp.bytebites.auth.security.revocation.TokenRevocationList;
+import gtp.bytebites.auth.service.RefreshTokenService;
+import gtp.bytebites.events.event.TokenRevokedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RefreshTokenService}.
+ */
+class RefreshTokenServiceTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TokenRevocationList tokenRevocationList;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setExpirationMs(Duration.ofMinutes(15).toMillis());
+        jwtConfig.setRefreshExpirationMs(Duration.ofDays(7).toMillis());
+        tokenRevocationList = new TokenRevocationList(jwtConfig);
+        refreshTokenService = new RefreshTokenService(new InMemoryRefreshTokenStore(4),
+                tokenRevocationList, jwtConfig, meterRegistry);
+    }
+
+    @Test
+    void rotate_shouldIssueSuccessorInSameFamily() {
+        // Given
+        RefreshTokenService.IssuedToken issued = issue();
+
+        // When
+        RefreshTokenService.IssuedToken next = refreshTokenService.rotate(issued.token());
+
+        // Then
+        assertNotEquals(issued.token(), next.token());
+        assertEquals(issued.stored().familyId(), next.stored().familyId());
+        assertTrue(next.token().startsWith(issued.stored().familyId() + "."));
+        assertEquals(USER_ID, next.stored().userId());
+        assertEquals(issued.stored().expiresAt(), next.stored().expiresAt());
+        assertFalse(next.stored().used());
+        assertEquals(1, count("rotated"));
+    }
+
+    @Test
+    void rotate_shouldRejectReusedTokenAndRevokeItsFamily() {
+        // Given
+        RefreshTokenService.IssuedToken issued = issue();
+        RefreshTokenService.IssuedToken next = refreshTokenService.rotate(issued.token());
+
+        // When/Then
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(issued.token()));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(next.token()));
+        assertEquals(1, count("reused"));
+        assertEquals(1, count("not_found"));
+    }
+
+    @Test
+    void rotate_shouldRejectFamilyOfRevokedUser() {
+        // Given
+        RefreshTokenService.IssuedToken issued = issue();
+        tokenRevocationList.apply(TokenRevokedEvent.forUser(USER_ID, Instant.now().plusSeconds(1),
+                Instant.now().plus(Duration.ofDays(7))));
+
+        // When/Then
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(issued.token()));
+        assertEquals(1, count("revoked"));
+    }
+
+    @Test
+    void rotate_shouldAcceptLoginAfterUserWasRevoked() {
+        // Given
+        tokenRevocationList.apply(TokenRevokedEvent.forUser(USER_ID, Instant.now().minusSeconds(60),
+                Instant.now().plus(Duration.ofDays(7))));
+        RefreshTokenService.IssuedToken issued = issue();
+
+        // When
+        RefreshTokenService.IssuedToken next = refreshTokenService.rotate(issued.token());
+
+        // Then
+        assertEquals(USER_ID, next.stored().userId());
+    }
+
+    @Test
+    void rotate_shouldRejectUnknownAndMalformedTokens() {
+        // Given
+        RefreshTokenService.IssuedToken issued = issue();
+        String forged = issued.stored().familyId() + ".forged";
+
+        // When/Then
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(forged));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("no-separator"));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(".secret"));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("family."));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(null));
+        assertNotNull(refreshTokenService.rotate(issued.token()));
+    }
+
+    @Test
+    void revoke_shouldEndEveryTokenOfTheFamily() {
+        // Given
+        RefreshTokenService.IssuedToken issued = issue();
+        RefreshTokenService.IssuedToken next = refreshTokenService.rotate(issued.token());
+
+        // When
+        refreshTokenService.revoke(issued.token());
+
+        // Then
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(next.token()));
+    }
+
+    @Test
+    void revokeUser_shouldEndEveryFamilyOfTheUser() {
+        // Given
+        RefreshTokenService.IssuedToken phone = issue();
+        RefreshTokenService.IssuedToken laptop = issue();
+        RefreshTokenService.IssuedToken other = refreshTokenService.issue(UUID.randomUUID(), "other@example.com",
+                List.of("ROLE_CUSTOMER"));
+
+        // When
+        refreshTokenService.revokeUser(USER_ID);
+
+        // Then
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(phone.token()));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(laptop.token()));
+        assertNotNull(refreshTokenService.rotate(other.token()));
+    }
+
+    private RefreshTokenService.IssuedToken issue() {
+        return refreshTokenService.issue(USER_ID, "user@example.com", List.of("ROLE_CUSTOMER"));
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("auth.refresh.tokens", "outcome", outcome).count();
+    }
+}
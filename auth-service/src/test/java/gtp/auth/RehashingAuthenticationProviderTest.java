@@ -0,0 +1,131 @@
+package gtp.auth;
+
+import gtp.bytebites.auth.exception.PasswordHashingRejectedException;
+import gtp.bytebites.auth.security.hashing.BoundedPasswordEncoder;
+import gtp.bytebites.auth.security.hashing.PasswordHashingExecutor;
+import gtp.bytebites.auth.security.hashing.RehashingAuthenticationProvider;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link RehashingAuthenticationProvider}.
+ */
+@ExtendWith(MockitoExtension.class)
+class RehashingAuthenticationProviderTest {
+
+    private static final String EMAIL = "ama@example.com";
+    private static final String PASSWORD = "correct horse";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+    @Mock
+    private UserDetailsPasswordService userDetailsPasswordService;
+    @Mock
+    private PasswordHashingExecutor executor;
+
+    private RehashingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(5);
+        DelegatingPasswordEncoder delegate = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegate.setDefaultPasswordEncoderForMatches(bcrypt);
+        provider = new RehashingAuthenticationProvider(userDetailsService, userDetailsPasswordService,
+                new BoundedPasswordEncoder(delegate, executor));
+
+        // An unprefixed hash of a lower strength, due for an upgrade
+        UserDetails user = User.withUsername(EMAIL)
+                .password(new BCryptPasswordEncoder(4).encode(PASSWORD))
+                .authorities("ROLE_CUSTOMER")
+                .build();
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(user);
+        // Every hash runs, including the one the provider makes up front to time unknown users
+        when(executor.execute(anyString(), any())).thenAnswer(invocation -> run(invocation.getArgument(1)));
+    }
+
+    @Test
+    void authenticate_shouldUpgradeOutdatedHash() {
+        // Given
+        when(executor.hasSpareCapacity()).thenReturn(true);
+        when(userDetailsPasswordService.updatePassword(any(), anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Authentication authentication = provider.authenticate(login(PASSWORD));
+
+        // Then
+        assertTrue(authentication.isAuthenticated());
+        verify(userDetailsPasswordService).updatePassword(any(), startsWith("{bcrypt}$2a$05$"));
+    }
+
+    @Test
+    void authenticate_shouldSkipUpgradeWhenPoolFillsUp() {
+        // Given
+        when(executor.hasSpareCapacity()).thenReturn(true);
+        doAnswer(invocation -> run(invocation.getArgument(1)))
+                .doThrow(new PasswordHashingRejectedException(1))
+                .when(executor).execute(eq("encode"), any());
+
+        // When
+        Authentication authentication = provider.authenticate(login(PASSWORD));
+
+        // Then
+        assertTrue(authentication.isAuthenticated());
+        assertEquals(EMAIL, ((UserDetails) authentication.getPrincipal()).getUsername());
+        assertEquals("ROLE_CUSTOMER", authentication.getAuthorities().iterator().next().getAuthority());
+        verifyNoInteractions(userDetailsPasswordService);
+    }
+
+    @Test
+    void authenticate_shouldNotAskForUpgradeWithoutSpareCapacity() {
+        // Given
+        when(executor.hasSpareCapacity()).thenReturn(false);
+
+        // When
+        Authentication authentication = provider.authenticate(login(PASSWORD));
+
+        // Then
+        assertTrue(authentication.isAuthenticated());
+        // Only the up-front hash for unknown users
+        verify(executor, times(1)).execute(eq("encode"), any());
+        verifyNoInteractions(userDetailsPasswordService);
+    }
+
+    @Test
+    void authenticate_shouldRejectWrongPassword() {
+        // When/Then
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("wrong")));
+        verifyNoInteractions(userDetailsPasswordService);
+    }
+
+    private static UsernamePasswordAuthenticationToken login(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, password);
+    }
+
+    private static Object run(Supplier<?> task) {
+        return task.get();
+    }
+}
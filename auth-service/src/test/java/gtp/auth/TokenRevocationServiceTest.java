@@ -0,0 +1,151 @@
+package gtp.auth;
+
+import gtp.bytebites.auth.event.TokenEventPublisher;
+import gtp.bytebites.auth.exception.InvalidRefreshTokenException;
+import gtp.bytebites.auth.security.config.JwtConfig;
+import gtp.bytebites.auth.security.refresh.InMemoryRefreshTokenStore;
+import gtp.bytebites.auth.security.revocation.TokenRevocationList;
+import gtp.bytebites.auth.security.revocation.TokenRevocationListener;
+import gtp.bytebites.auth.service.RefreshTokenService;
+import gtp.bytebites.auth.service.TokenRevocationService;
+import gtp.bytebites.events.event.TokenRevokedEvent;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link TokenRevocationService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private TokenEventPublisher tokenEventPublisher;
+
+    private JwtConfig jwtConfig;
+    private TokenRevocationList tokenRevocationList;
+    private RefreshTokenService refreshTokenService;
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = new JwtConfig();
+        jwtConfig.setExpirationMs(Duration.ofMinutes(15).toMillis());
+        jwtConfig.setRefreshExpirationMs(Duration.ofDays(7).toMillis());
+        tokenRevocationList = new TokenRevocationList(jwtConfig);
+        refreshTokenService = refreshTokenService(tokenRevocationList);
+        tokenRevocationService = new TokenRevocationService(tokenRevocationList, tokenEventPublisher,
+                refreshTokenService, jwtConfig, meterRegistry);
+    }
+
+    @Test
+    void revokeToken_shouldRejectTokenAndPublishRevocation() {
+        // Given
+        Claims claims = claims("jti-1", Instant.now().minusSeconds(5));
+
+        // When
+        boolean revoked = tokenRevocationService.revokeToken(claims);
+
+        // Then
+        assertTrue(revoked);
+        assertTrue(tokenRevocationList.isRevoked(claims));
+        assertFalse(tokenRevocationList.isRevoked(claims("jti-2", Instant.now().minusSeconds(5))));
+        verify(tokenEventPublisher).publishTokenRevoked(any(TokenRevokedEvent.class));
+        assertEquals(1, meterRegistry.counter("auth.tokens.revoked", "kind", "token").count());
+    }
+
+    @Test
+    void revokeToken_shouldSkipTokenWithoutId() {
+        // Given
+        Claims claims = claims(null, Instant.now());
+
+        // When/Then
+        assertFalse(tokenRevocationService.revokeToken(claims));
+        verifyNoInteractions(tokenEventPublisher);
+    }
+
+    @Test
+    void revokeUser_shouldRemoveRefreshFamiliesSoRevocationOutlivesRestart() {
+        // Given
+        RefreshTokenService.IssuedToken issued = refreshTokenService.issue(USER_ID, "user@example.com",
+                List.of("ROLE_CUSTOMER"));
+
+        // When
+        tokenRevocationService.revokeUser(USER_ID);
+
+        // Then
+        ArgumentCaptor<TokenRevokedEvent> event = ArgumentCaptor.forClass(TokenRevokedEvent.class);
+        verify(tokenEventPublisher).publishTokenRevoked(event.capture());
+        assertEquals(USER_ID, event.getValue().userId());
+        assertTrue(tokenRevocationList.isRevoked(claims("jti-1", Instant.now().minusSeconds(5))));
+        TokenRevocationList afterRestart = new TokenRevocationList(jwtConfig);
+        assertFalse(afterRestart.isUserRevoked(USER_ID, Instant.now().minusSeconds(5)));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(issued.token()));
+    }
+
+    @Test
+    void revokeUser_shouldAcceptTokenIssuedLaterInTheSameSecond() {
+        // Given
+        tokenRevocationService.revokeUser(USER_ID);
+        ArgumentCaptor<TokenRevokedEvent> event = ArgumentCaptor.forClass(TokenRevokedEvent.class);
+        verify(tokenEventPublisher).publishTokenRevoked(event.capture());
+        Instant cutoff = event.getValue().issuedBefore();
+
+        // When/Then: a token issued later in that second carries iat = cutoff, as in a signed JWT
+        assertEquals(cutoff.truncatedTo(ChronoUnit.SECONDS), cutoff);
+        assertFalse(tokenRevocationList.isRevoked(claims("jti-2", cutoff)));
+        assertTrue(tokenRevocationList.isRevoked(claims("jti-1", cutoff.minusSeconds(1))));
+    }
+
+    @Test
+    void handleTokenRevoked_shouldRemoveFamiliesHeldByThisInstance() {
+        // Given
+        TokenRevocationList otherList = new TokenRevocationList(jwtConfig);
+        RefreshTokenService otherInstance = refreshTokenService(otherList);
+        RefreshTokenService.IssuedToken issued = otherInstance.issue(USER_ID, "user@example.com",
+                List.of("ROLE_CUSTOMER"));
+        TokenRevocationListener listener = new TokenRevocationListener(otherList, otherInstance);
+
+        // When
+        listener.handleTokenRevoked(TokenRevokedEvent.forUser(USER_ID, Instant.now(), Instant.now().plusSeconds(900)));
+
+        // Then
+        assertThrows(InvalidRefreshTokenException.class, () -> otherInstance.rotate(issued.token()));
+    }
+
+    private RefreshTokenService refreshTokenService(TokenRevocationList revocationList) {
+        return new RefreshTokenService(new InMemoryRefreshTokenStore(4), revocationList, jwtConfig, meterRegistry);
+    }
+
+    private static Claims claims(String tokenId, Instant issuedAt) {
+        Claims claims = Jwts.claims();
+        claims.setId(tokenId);
+        claims.setSubject("user@example.com");
+        claims.setIssuedAt(Date.from(issuedAt));
+        claims.setExpiration(Date.from(issuedAt.plusSeconds(900)));
+        claims.put("userId", USER_ID.toString());
+        return claims;
+    }
+}
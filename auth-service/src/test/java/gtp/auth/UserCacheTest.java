@@ -0,0 +1,206 @@
+package gtp.auth;
+
+import gtp.bytebites.auth.cache.UserCache;
+import gtp.bytebites.auth.cache.UserInvalidationListener;
+import gtp.bytebites.auth.config.UserCacheConfig;
+import gtp.bytebites.auth.event.UserEventPublisher;
+import gtp.bytebites.auth.model.User;
+import gtp.bytebites.auth.repository.UserRepository;
+import gtp.bytebites.events.event.UserChangedEvent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link UserCache}.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+    private static final String PASSWORD = "$2a$10$abcdefghijklmnopqrstuvabcdefghijklmnopqrstuvwxyz01234";
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserEventPublisher userEventPublisher;
+
+    @Test
+    void findById_shouldServeRepeatedLookupsFromLocalCache() {
+        // Given
+        User user = user("ama@example.com");
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        UserCache userCache = userCache(null);
+
+        // When
+        User first = userCache.findById(user.getId()).orElseThrow();
+        User second = userCache.findById(user.getId()).orElseThrow();
+
+        // Then
+        assertEquals(user.getEmail(), first.getEmail());
+        assertNotSame(first, second);
+        verify(userRepository, times(1)).findById(user.getId());
+        assertEquals(1, count("local"));
+        assertEquals(1, count("database"));
+    }
+
+    @Test
+    void findById_shouldNotHandOutPassword() {
+        // Given
+        User user = user("ama@example.com");
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        UserCache userCache = userCache(null);
+
+        // When
+        User found = userCache.findById(user.getId()).orElseThrow();
+
+        // Then
+        assertNull(found.getPassword());
+    }
+
+    @Test
+    void findWithPasswordByEmail_shouldServeHashFromLocalCache() {
+        // Given
+        User user = user("ama@example.com");
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        UserCache userCache = userCache(null);
+
+        // When
+        userCache.findWithPasswordByEmail(user.getEmail());
+        User found = userCache.findWithPasswordByEmail(user.getEmail()).orElseThrow();
+
+        // Then
+        assertEquals(PASSWORD, found.getPassword());
+        verify(userRepository, times(1)).findByEmail(user.getEmail());
+    }
+
+    @Test
+    void findByEmail_shouldNotServeUserWhoseEmailChanged() {
+        // Given
+        User user = user("old@example.com");
+        User renamed = user("new@example.com");
+        renamed.setId(user.getId());
+        when(userRepository.findByEmail("old@example.com")).thenReturn(Optional.of(user), Optional.empty());
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(renamed));
+        UserCache userCache = userCache(null);
+        userCache.findByEmail("old@example.com");
+        userCache.evict(user.getId());
+        userCache.findById(user.getId());
+
+        // When
+        Optional<User> found = userCache.findByEmail("old@example.com");
+
+        // Then
+        assertTrue(found.isEmpty());
+        verify(userRepository, times(2)).findByEmail("old@example.com");
+    }
+
+    @Test
+    void invalidate_shouldEvictAndPublishChange() {
+        // Given
+        User user = user("ama@example.com");
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        UserCache userCache = userCache(null);
+        userCache.findById(user.getId());
+
+        // When
+        userCache.invalidate(user.getId());
+        userCache.findById(user.getId());
+
+        // Then
+        verify(userEventPublisher).publishUserChanged(user.getId());
+        verify(userRepository, times(2)).findById(user.getId());
+    }
+
+    @Test
+    void findById_shouldShareUsersThroughRedisWithoutPasswords() {
+        // Given
+        LettuceConnectionFactory connectionFactory = RedisTestSupport.connect();
+        StringRedisTemplate redisTemplate = RedisTestSupport.template(connectionFactory);
+        User user = user(UUID.randomUUID() + "@example.com");
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        UserCache first = userCache(redisTemplate);
+        UserCache second = userCache(redisTemplate);
+        try {
+            // When
+            first.findWithPasswordByEmail(user.getEmail());
+            User shared = second.findById(user.getId()).orElseThrow();
+
+            // Then
+            assertEquals(user.getEmail(), shared.getEmail());
+            assertNull(shared.getPassword());
+            assertEquals(1, count("redis"));
+            assertFalse(redisTemplate.opsForValue().get("auth:user:id:" + user.getId()).contains(PASSWORD));
+            verify(userRepository, never()).findById(user.getId());
+        } finally {
+            redisTemplate.delete("auth:user:id:" + user.getId());
+            redisTemplate.delete("auth:user:email:" + user.getEmail());
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    void invalidate_shouldEvictUserFromRedisAndOtherInstances() {
+        // Given
+        LettuceConnectionFactory connectionFactory = RedisTestSupport.connect();
+        StringRedisTemplate redisTemplate = RedisTestSupport.template(connectionFactory);
+        User user = user(UUID.randomUUID() + "@example.com");
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        UserCache first = userCache(redisTemplate);
+        UserCache second = userCache(redisTemplate);
+        first.findById(user.getId());
+        second.findById(user.getId());
+        try {
+            // When
+            first.invalidate(user.getId());
+            new UserInvalidationListener(second).handleUserChanged(new UserChangedEvent(user.getId()));
+            second.findById(user.getId());
+
+            // Then
+            verify(userEventPublisher).publishUserChanged(user.getId());
+            verify(userRepository, times(2)).findById(user.getId());
+        } finally {
+            redisTemplate.delete("auth:user:id:" + user.getId());
+            redisTemplate.delete("auth:user:email:" + user.getEmail());
+            connectionFactory.destroy();
+        }
+    }
+
+    private UserCache userCache(StringRedisTemplate redisTemplate) {
+        UserCacheConfig config = new UserCacheConfig();
+        config.setRedisEnabled(redisTemplate != null);
+        return new UserCache(config, userRepository, userEventPublisher, new ObjectProvider<>() {
+            @Override
+            public StringRedisTemplate getObject() {
+                return redisTemplate;
+            }
+        }, objectMapper, meterRegistry);
+    }
+
+    private static User user(String email) {
+        User user = new User("Ama", email, PASSWORD, User.Role.ROLE_CUSTOMER);
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+    private double count(String tier) {
+        return meterRegistry.counter("auth.user.cache.requests", "tier", tier).count();
+    }
+}
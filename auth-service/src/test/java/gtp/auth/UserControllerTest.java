@@ -0,0 +1,108 @@
+package gtp.auth;
+
+import gtp.bytebites.auth.controller.UserController;
+import gtp.bytebites.auth.dto.response.UserImportResult;
+import gtp.bytebites.auth.service.TokenRevocationService;
+import gtp.bytebites.auth.service.UserImportService;
+import gtp.bytebites.auth.service.UserService;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Unit tests for {@link UserController}.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserControllerTest {
+
+    private static final MediaType CSV = MediaType.valueOf("text/csv");
+
+    @Mock
+    private UserService userService;
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+    @Mock
+    private UserImportService userImportService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserController(userService, tokenRevocationService,
+                userImportService, new ObjectMapper())).build();
+    }
+
+    @Test
+    void importUsers_shouldStreamOneResultLinePerRow() throws Exception {
+        // Given
+        UUID userId = UUID.randomUUID();
+        doAnswer(invocation -> {
+            Consumer<List<UserImportResult>> results = invocation.getArgument(2);
+            results.accept(List.of(UserImportResult.created(2, "ama@example.com", userId)));
+            results.accept(List.of(UserImportResult.duplicate(3, "kofi@example.com", "Email is already registered")));
+            return null;
+        }).when(userImportService).importUsers(any(), eq(CSV), any());
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/users/admin/users/import")
+                        .contentType(CSV)
+                        .content("email,name,password\n"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, result.getResponse().getContentType());
+        assertEquals(List.of(
+                "{\"line\":2,\"email\":\"ama@example.com\",\"status\":\"CREATED\",\"userId\":\"" + userId + "\"}",
+                "{\"line\":3,\"email\":\"kofi@example.com\",\"status\":\"DUPLICATE\","
+                        + "\"error\":\"Email is already registered\"}"),
+                result.getResponse().getContentAsString().lines().toList());
+    }
+
+    @Test
+    void importUsers_shouldAnswerBadRequestForUnreadableImport() throws Exception {
+        // Given
+        doThrow(new IllegalArgumentException("CSV header must name the email and name columns"))
+                .when(userImportService).importUsers(any(), any(), any());
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/users/admin/users/import")
+                        .contentType(CSV)
+                        .content("password\n"))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        // Then
+        assertEquals("CSV header must name the email and name columns", result.getResponse().getErrorMessage());
+    }
+
+    @Test
+    void importUsers_shouldRefuseOtherContentTypes() throws Exception {
+        // When/Then
+        mockMvc.perform(post("/api/v1/users/admin/users/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+        verifyNoInteractions(userImportService);
+    }
+}
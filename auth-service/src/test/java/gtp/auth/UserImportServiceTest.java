@@ -0,0 +1,337 @@
+package gtp.auth;
+
+import gtp.bytebites.auth.cache.UserCache;
+import gtp.bytebites.auth.config.UserImportConfig;
+import gtp.bytebites.auth.dto.response.UserImportResult;
+import gtp.bytebites.auth.repository.UserRepository;
+import gtp.bytebites.auth.security.config.PasswordHashingConfig;
+import gtp.bytebites.auth.security.hashing.BoundedPasswordEncoder;
+import gtp.bytebites.auth.security.hashing.PasswordHashingExecutor;
+import gtp.bytebites.auth.service.UserImportService;
+import gtp.bytebites.util.deadline.RequestDeadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link UserImportService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    private static final MediaType CSV = MediaType.valueOf("text/csv");
+    private static final String HASH_SUFFIX = "abcdefghijklmnopqrstuvabcdefghijklmnopqrstuvwxyz01234";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<String>> batches = new ArrayList<>();
+    private final List<String> storedPasswords = new ArrayList<>();
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserCache userCache;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PasswordHashingExecutor executor;
+    private UserImportConfig config;
+
+    @BeforeEach
+    void setUp() {
+        PasswordHashingConfig hashingConfig = new PasswordHashingConfig();
+        hashingConfig.setThreads(2);
+        executor = new PasswordHashingExecutor(hashingConfig, meterRegistry);
+        config = new UserImportConfig();
+        config.setChunkSize(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void importUsers_shouldInsertEachChunkAsOneBatch() throws Exception {
+        // Given
+        noneRegistered();
+        recordBatches();
+        String body = """
+                email,name,password
+                ama@example.com,Ama Mensah,password-1
+                kofi@example.com,Kofi Boateng,password-2
+                esi@example.com,Esi Owusu,password-3
+                """;
+
+        // When
+        List<List<UserImportResult>> results = importUsers(body, CSV);
+
+        // Then
+        assertEquals(List.of(2, 1), results.stream().map(List::size).toList());
+        assertEquals(List.of(List.of("ama@example.com", "kofi@example.com"), List.of("esi@example.com")), batches);
+        assertTrue(flatten(results).stream().allMatch(result -> result.status() == UserImportResult.Status.CREATED));
+        assertTrue(storedPasswords.stream().allMatch(password -> password.startsWith("$2a$04$")));
+        verify(userCache, times(3)).invalidate(any());
+        assertEquals(3, meterRegistry.counter("auth.users.imported", "status", "created").count());
+    }
+
+    @Test
+    void importUsers_shouldReportDuplicatesWithinImportAndAlreadyRegistered() throws Exception {
+        // Given
+        when(userRepository.findExistingEmails(any())).thenAnswer(invocation -> {
+            Collection<String> emails = invocation.getArgument(0);
+            return emails.contains("kofi@example.com") ? Set.of("kofi@example.com") : Set.of();
+        });
+        recordBatches();
+        String body = """
+                email,name,password
+                ama@example.com,Ama Mensah,password-1
+                AMA@example.com,Ama Again,password-2
+                kofi@example.com,Kofi Boateng,password-3
+                """;
+
+        // When
+        List<UserImportResult> results = flatten(importUsers(body, CSV));
+
+        // Then
+        assertEquals(List.of(UserImportResult.Status.CREATED, UserImportResult.Status.DUPLICATE,
+                UserImportResult.Status.DUPLICATE), results.stream().map(UserImportResult::status).toList());
+        assertEquals("Email appears earlier in the import", results.get(1).error());
+        assertEquals("Email is already registered", results.get(2).error());
+        assertEquals(List.of(List.of("ama@example.com")), batches);
+    }
+
+    @Test
+    void importUsers_shouldStorePasswordHashWithinCostBounds() throws Exception {
+        // Given
+        noneRegistered();
+        recordBatches();
+        String body = String.join("\n",
+                "email,passwordHash,name",
+                "ama@example.com,$2a$10$" + HASH_SUFFIX + ",Ama Mensah",
+                "kofi@example.com,$2b$31$" + HASH_SUFFIX + ",Kofi Boateng",
+                "esi@example.com,$2a$03$" + HASH_SUFFIX + ",Esi Owusu",
+                "yaw@example.com,{bcrypt}$2y$14$" + HASH_SUFFIX + ",Yaw Asante");
+
+        // When
+        List<UserImportResult> results = flatten(importUsers(body, CSV));
+
+        // Then
+        assertEquals(List.of(UserImportResult.Status.CREATED, UserImportResult.Status.INVALID,
+                UserImportResult.Status.INVALID, UserImportResult.Status.CREATED),
+                results.stream().map(UserImportResult::status).toList());
+        assertEquals("passwordHash must be a BCrypt hash of cost 4 to 14", results.get(1).error());
+        assertEquals(List.of("$2a$10$" + HASH_SUFFIX, "{bcrypt}$2y$14$" + HASH_SUFFIX), storedPasswords);
+    }
+
+    @Test
+    void importUsers_shouldRejectInvalidRows() throws Exception {
+        // Given
+        String body = """
+                {"email":"not-an-email","name":"Ama Mensah","password":"password-1"}
+
+                {"email":"kofi@example.com","name":"Kofi Boateng"}
+                {"email":"esi@example.com","name":"Esi Owusu","password":"password-3","role":"ADMIN"}
+                {"email":
+                """;
+
+        // When
+        List<UserImportResult> results = flatten(importUsers(body, MediaType.APPLICATION_NDJSON));
+
+        // Then
+        assertEquals(List.of(1L, 3L, 4L, 5L), results.stream().map(UserImportResult::line).toList());
+        assertTrue(results.stream().allMatch(result -> result.status() == UserImportResult.Status.INVALID));
+        assertEquals("Invalid email format", results.get(0).error());
+        assertEquals("Exactly one of password and passwordHash is required", results.get(1).error());
+        assertEquals("Role must be CUSTOMER or RESTAURANT_OWNER", results.get(2).error());
+        assertTrue(results.get(3).error().startsWith("Malformed JSON"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void importUsers_shouldReadQuotedCsvFieldsInAnyColumnOrder() throws Exception {
+        // Given
+        noneRegistered();
+        recordBatches();
+        String body = "\uFEFFRole,Name,password_hash,Email,Password\n"
+                + "RESTAURANT_OWNER,\"Mensah, \"\"Ama\"\"\",,ama@example.com,password-1\n"
+                + "CUSTOMER,\"Kofi\n";
+
+        // When
+        List<UserImportResult> results = flatten(importUsers(body, CSV));
+
+        // Then
+        assertEquals(UserImportResult.Status.CREATED, results.get(0).status());
+        assertEquals("ama@example.com", results.get(0).email());
+        assertEquals(UserImportResult.Status.INVALID, results.get(1).status());
+        assertEquals("Unterminated quoted field", results.get(1).error());
+    }
+
+    @Test
+    void importUsers_shouldRejectMissingColumnsAndUnsupportedContentTypes() {
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> importUsers("email,password\n", CSV));
+        assertThrows(IllegalArgumentException.class, () -> importUsers("", CSV));
+        assertThrows(IllegalArgumentException.class, () -> importUsers("{}", MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void importUsers_shouldInsertOneByOneWhenBatchHitsConstraint() throws Exception {
+        // Given
+        noneRegistered();
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any()))
+                .thenThrow(new DataIntegrityViolationException("users_email_key"));
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenReturn(1)
+                .thenThrow(new DuplicateKeyException("users_email_key"));
+        String body = """
+                email,name,password
+                ama@example.com,Ama Mensah,password-1
+                kofi@example.com,Kofi Boateng,password-2
+                """;
+
+        // When
+        List<UserImportResult> results = flatten(importUsers(body, CSV));
+
+        // Then
+        assertEquals(List.of(UserImportResult.Status.CREATED, UserImportResult.Status.DUPLICATE),
+                results.stream().map(UserImportResult::status).toList());
+        verify(userCache, times(1)).invalidate(results.get(0).userId());
+    }
+
+    @Test
+    void importUsers_shouldStopAtMaxRows() throws Exception {
+        // Given
+        config.setMaxRows(2);
+        noneRegistered();
+        recordBatches();
+        String body = """
+                email,name,password
+                ama@example.com,Ama Mensah,password-1
+                kofi@example.com,Kofi Boateng,password-2
+                esi@example.com,Esi Owusu,password-3
+                yaw@example.com,Yaw Asante,password-4
+                """;
+
+        // When
+        List<UserImportResult> results = flatten(importUsers(body, CSV));
+
+        // Then
+        assertEquals(3, results.size());
+        assertEquals("Import is limited to 2 rows, the rest was ignored", results.get(2).error());
+        assertEquals(2, batches.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void importUsers_shouldCompleteWhenImportOutlivesRequestDeadline() throws Exception {
+        // Given
+        config.setChunkTimeout(Duration.ofSeconds(5));
+        when(userRepository.findExistingEmails(any())).thenAnswer(invocation -> {
+            RequestDeadline.requireRemainingMillis();
+            Thread.sleep(150);
+            return Set.of();
+        });
+        recordBatches();
+        String body = """
+                email,name,password
+                ama@example.com,Ama Mensah,password-1
+                kofi@example.com,Kofi Boateng,password-2
+                esi@example.com,Esi Owusu,password-3
+                yaw@example.com,Yaw Asante,password-4
+                """;
+        RequestDeadline.start(100);
+
+        // When
+        List<UserImportResult> results = flatten(importUsers(body, CSV));
+
+        // Then
+        assertEquals(4, results.size());
+        assertTrue(results.stream().allMatch(result -> result.status() == UserImportResult.Status.CREATED));
+        assertFalse(RequestDeadline.isSet());
+    }
+
+    private List<List<UserImportResult>> importUsers(String body, MediaType contentType) throws Exception {
+        UserImportService service = new UserImportService(userRepository, userCache,
+                new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), executor), jdbcTemplate,
+                new TransactionTemplate(transactionManager),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), config,
+                new PasswordHashingConfig(), meterRegistry);
+        List<List<UserImportResult>> results = new ArrayList<>();
+        service.importUsers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), contentType,
+                results::add);
+        return results;
+    }
+
+    private void noneRegistered() {
+        when(userRepository.findExistingEmails(any())).thenReturn(Set.of());
+    }
+
+    /**
+     * Records the email and password every batch binds.
+     */
+    @SuppressWarnings("unchecked")
+    private void recordBatches() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        List<String> batch = new ArrayList<>();
+        doAnswer(invocation -> {
+            int index = invocation.getArgument(0);
+            String value = invocation.getArgument(1);
+            if (index == 3) {
+                batch.add(value);
+            } else if (index == 4) {
+                storedPasswords.add(value);
+            }
+            return null;
+        }).when(statement).setString(anyInt(), any());
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    Collection<Object> users = invocation.getArgument(1);
+                    ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+                    for (Object user : users) {
+                        setter.setValues(statement, user);
+                    }
+                    batches.add(List.copyOf(batch));
+                    batch.clear();
+                    return new int[0][];
+                });
+    }
+
+    private static List<UserImportResult> flatten(List<List<UserImportResult>> results) {
+        return results.stream().flatMap(List::stream).toList();
+    }
+}
@@ -0,0 +1,56 @@
+package gtp.bytebites.order.config;
+
+import gtp.bytebites.util.deadline.RequestDeadline;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.RequestInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps Feign calls within the budget of the request that makes them.
+ */
+@Configuration
+public class FeignDeadlineConfig {
+
+    /**
+     * Passes the remaining budget on, so the called service can stop when it runs out too.
+     */
+    @Bean
+    public RequestInterceptor deadlineRequestInterceptor() {
+        return template -> {
+            if (RequestDeadline.isSet()) {
+                template.removeHeader(RequestDeadline.HEADER);
+                template.header(RequestDeadline.HEADER, Long.toString(Math.max(0L, RequestDeadline.remainingMillis())));
+            }
+        };
+    }
+
+    /**
+     * Caps the connect and read timeouts of each call at the remaining budget, and fails
+     * the call without sending it once the budget is spent.
+     */
+    @Bean
+    public Capability deadlineCapability() {
+        return new Capability() {
+            @Override
+            public Client enrich(Client client) {
+                return (request, options) -> {
+                    if (!RequestDeadline.isSet()) {
+                        return client.execute(request, options);
+                    }
+                    long remainingMillis = RequestDeadline.requireRemainingMillis();
+                    Request.Options bounded = new Request.Options(
+                            Math.min(options.connectTimeoutMillis(), remainingMillis), TimeUnit.MILLISECONDS,
+                            Math.min(options.readTimeoutMillis(), remainingMillis), TimeUnit.MILLISECONDS,
+                            options.isFollowRedirects());
+                    return client.execute(request, bounded);
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package gtp.order;
+
+import gtp.bytebites.order.config.FeignDeadlineConfig;
+import gtp.bytebites.util.deadline.RequestDeadline;
+import gtp.bytebites.util.exception.DeadlineExceededException;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import feign.Response;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FeignDeadlineConfig}.
+ */
+class FeignDeadlineConfigTest {
+
+    private final FeignDeadlineConfig config = new FeignDeadlineConfig();
+    private final Request.Options defaults = new Request.Options(2, TimeUnit.SECONDS, 10, TimeUnit.SECONDS, true);
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void interceptor_shouldReplaceBudgetHeaderWithRemainingBudget() {
+        // Given
+        RequestInterceptor interceptor = config.deadlineRequestInterceptor();
+        RequestTemplate template = new RequestTemplate();
+        template.header(RequestDeadline.HEADER, "60000");
+        RequestDeadline.start(500);
+
+        // When
+        interceptor.apply(template);
+
+        // Then
+        Collection<String> values = template.headers().get(RequestDeadline.HEADER);
+        assertEquals(1, values.size());
+        long forwarded = Long.parseLong(values.iterator().next());
+        assertTrue(forwarded > 0 && forwarded <= 500, "forwarded " + forwarded);
+    }
+
+    @Test
+    void interceptor_shouldNotAddHeaderWithoutDeadline() {
+        // Given
+        RequestTemplate template = new RequestTemplate();
+
+        // When
+        config.deadlineRequestInterceptor().apply(template);
+
+        // Then
+        assertFalse(template.headers().containsKey(RequestDeadline.HEADER));
+    }
+
+    @Test
+    void capability_shouldCapTimeoutsAtRemainingBudget() throws Exception {
+        // Given
+        AtomicReference<Request.Options> sent = new AtomicReference<>();
+        Client client = config.deadlineCapability().enrich(recording(sent));
+        RequestDeadline.start(300);
+
+        // When
+        client.execute(request(), defaults);
+
+        // Then
+        assertTrue(sent.get().connectTimeoutMillis() <= 300, "connect " + sent.get().connectTimeoutMillis());
+        assertTrue(sent.get().readTimeoutMillis() <= 300, "read " + sent.get().readTimeoutMillis());
+        assertTrue(sent.get().isFollowRedirects());
+    }
+
+    @Test
+    void capability_shouldKeepConfiguredTimeoutsWithoutDeadline() throws Exception {
+        // Given
+        AtomicReference<Request.Options> sent = new AtomicReference<>();
+        Client client = config.deadlineCapability().enrich(recording(sent));
+
+        // When
+        client.execute(request(), defaults);
+
+        // Then
+        assertSame(defaults, sent.get());
+    }
+
+    @Test
+    void capability_shouldFailWithoutCallingOnceBudgetIsSpent() {
+        // Given
+        AtomicReference<Request.Options> sent = new AtomicReference<>();
+        Client client = config.deadlineCapability().enrich(recording(sent));
+        RequestDeadline.start(0);
+
+        // When/Then
+        assertThrows(DeadlineExceededException.class, () -> client.execute(request(), defaults));
+        assertNull(sent.get());
+    }
+
+    private Client recording(AtomicReference<Request.Options> sent) {
+        return (request, options) -> {
+            sent.set(options);
+            return Response.builder().status(200).request(request).build();
+        };
+    }
+
+    private Request request() {
+        return Request.create(Request.HttpMethod.GET, "http://restaurant-service/api/v1/restaurants/1",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -41,4 +42,10 @@ public class MenuController {
 
         return ResponseEntity.created(location).body(response);
     }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<MenuDto>>> getMenu(@PathVariable UUID id) {
+        List<MenuDto> menu = menuService.getMenu(id);
+        return ResponseEntity.ok(ApiResponse.success(menu));
+    }
 }
@@ -19,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/restaurants")
@@ -62,4 +63,10 @@ public class RestaurantController {
 
         return ResponseEntity.ok(ApiResponse.success(restaurants));
     }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<RestaurantDto>> getRestaurantById(@PathVariable UUID id) {
+        RestaurantDto restaurant = restaurantService.getRestaurantById(id);
+        return ResponseEntity.ok(ApiResponse.success(restaurant));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package gtp.bytebites.restaurant.event;
+
+import gtp.bytebites.events.config.CatalogEventConfig;
+import gtp.bytebites.events.event.CatalogChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+@Service
+public class CatalogEventPublisher {
+    private static final Logger log = LoggerFactory.getLogger(CatalogEventPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+
+    public CatalogEventPublisher(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    /**
+     * Publishes a CatalogChangedEvent so that caches holding catalog reads
+     * for the restaurant can drop them. When called inside a transaction the
+     * event is only sent once the transaction commits, so consumers never
+     * re-read data that is about to be rolled back or is not yet visible.
+     * @param restaurantId The restaurant whose details or menu changed.
+     */
+    public void publishCatalogChanged(UUID restaurantId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(restaurantId);
+                }
+            });
+        } else {
+            send(restaurantId);
+        }
+    }
+
+    private void send(UUID restaurantId) {
+        log.info("Publishing CatalogChangedEvent for Restaurant ID: {}", restaurantId);
+        try {
+            rabbitTemplate.convertAndSend(
+                    CatalogEventConfig.CATALOG_EXCHANGE,
+                    CatalogEventConfig.CATALOG_CHANGED_ROUTING_KEY,
+                    new CatalogChangedEvent(restaurantId)
+            );
+        } catch (AmqpException e) {
+            // The change is already committed; cached reads fall back to their TTL.
+            log.error("Failed to publish CatalogChangedEvent for Restaurant ID: {}", restaurantId, e);
+        }
+    }
+}
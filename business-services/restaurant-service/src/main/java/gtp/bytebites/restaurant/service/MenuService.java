@@ -3,9 +3,12 @@ package gtp.bytebites.restaurant.service;
 import gtp.bytebites.restaurant.dto.request.CreateMenuRequest;
 import gtp.bytebites.restaurant.dto.response.MenuDto;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface MenuService {
     MenuDto createMenuItem(UUID restaurantId, CreateMenuRequest request);
+
+    List<MenuDto> getMenu(UUID restaurantId);
 }
 
@@ -2,6 +2,7 @@ package gtp.bytebites.restaurant.service;
 
 import gtp.bytebites.restaurant.dto.request.CreateMenuRequest;
 import gtp.bytebites.restaurant.dto.response.MenuDto;
+import gtp.bytebites.restaurant.event.CatalogEventPublisher;
 import gtp.bytebites.restaurant.mapper.MenuMapper;
 import gtp.bytebites.restaurant.model.MenuItem;
 import gtp.bytebites.restaurant.model.Restaurant;
@@ -13,19 +14,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.UUID;
 
 @Service
 public class MenuServiceImpl implements MenuService {
     private final RestaurantRepository restaurantRepository;
     private final MenuItemRepository menuItemRepository;
+    private final RestaurantService restaurantService;
     private final MenuMapper menuMapper;
+    private final CatalogEventPublisher catalogEventPublisher;
 
     @Autowired
-    public MenuServiceImpl(RestaurantRepository restaurantRepository, MenuItemRepository menuItemRepository, MenuMapper menuMapper) {
+    public MenuServiceImpl(RestaurantRepository restaurantRepository, MenuItemRepository menuItemRepository,
+                           RestaurantService restaurantService, MenuMapper menuMapper,
+                           CatalogEventPublisher catalogEventPublisher) {
         this.restaurantRepository = restaurantRepository;
         this.menuItemRepository = menuItemRepository;
+        this.restaurantService = restaurantService;
         this.menuMapper = menuMapper;
+        this.catalogEventPublisher = catalogEventPublisher;
     }
 
     @Override
@@ -49,7 +57,20 @@ public class MenuServiceImpl implements MenuService {
         menuItem.setRestaurant(restaurant);
 
         MenuItem savedMenuItem = menuItemRepository.save(menuItem);
+        catalogEventPublisher.publishCatalogChanged(restaurantId);
 
         return menuMapper.toDto(savedMenuItem);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MenuDto> getMenu(UUID restaurantId) {
+        if (!restaurantRepository.existsById(restaurantId)) {
+            throw new ResourceNotFoundException("Restaurant not found with id: " + restaurantId);
+        }
+
+        return restaurantService.getRestaurantMenu(restaurantId).stream()
+                .map(menuMapper::toDto)
+                .toList();
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package gtp.bytebites.restaurant.service;
 import gtp.bytebites.restaurant.dto.response.MenuDto;
 import gtp.bytebites.restaurant.dto.response.RestaurantDto;
 import gtp.bytebites.restaurant.dto.response.RestaurantSummaryDto;
+import gtp.bytebites.restaurant.event.CatalogEventPublisher;
 import gtp.bytebites.restaurant.mapper.RestaurantMapper;
 import gtp.bytebites.restaurant.mapper.MenuMapper;
 import gtp.bytebites.restaurant.model.MenuItem;
@@ -27,16 +28,19 @@ public class RestaurantServiceImpl implements RestaurantService {
     private final MenuItemRepository menuItemRepository;
     private final RestaurantMapper restaurantMapper;
     private final MenuMapper menuItemMapper;
+    private final CatalogEventPublisher catalogEventPublisher;
 
     @Autowired
     public RestaurantServiceImpl(RestaurantRepository restaurantRepository,
                                  MenuItemRepository menuItemRepository,
                                  RestaurantMapper restaurantMapper,
-                                 MenuMapper menuItemMapper) {
+                                 MenuMapper menuItemMapper,
+                                 CatalogEventPublisher catalogEventPublisher) {
         this.restaurantRepository = restaurantRepository;
         this.menuItemRepository = menuItemRepository;
         this.restaurantMapper = restaurantMapper;
         this.menuItemMapper = menuItemMapper;
+        this.catalogEventPublisher = catalogEventPublisher;
     }
 
     @Transactional
@@ -49,6 +53,7 @@ public class RestaurantServiceImpl implements RestaurantService {
         }
 
         Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        catalogEventPublisher.publishCatalogChanged(savedRestaurant.getId());
         return restaurantMapper.toDto(savedRestaurant);
     }
 
@@ -90,6 +95,8 @@ public class RestaurantServiceImpl implements RestaurantService {
         }
 
         menuItem.setRestaurant(restaurant);
-        return menuItemRepository.save(menuItem);
+        MenuItem savedMenuItem = menuItemRepository.save(menuItem);
+        catalogEventPublisher.publishCatalogChanged(restaurantId);
+        return savedMenuItem;
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package gtp.restaurant;
 
 import gtp.bytebites.restaurant.dto.response.MenuDto;
+import gtp.bytebites.restaurant.event.CatalogEventPublisher;
 import gtp.bytebites.restaurant.dto.response.RestaurantDto;
 import gtp.bytebites.restaurant.dto.response.RestaurantSummaryDto;
 import gtp.bytebites.restaurant.mapper.MenuMapper;
@@ -33,6 +34,9 @@ public abstract class BaseServiceTest {
     @Mock
     protected MenuMapper menuMapper;
 
+    @Mock
+    protected CatalogEventPublisher catalogEventPublisher;
+
     protected Restaurant createTestRestaurant() {
         Restaurant restaurant = Restaurant.builder()
                 .name("Test Restaurant")
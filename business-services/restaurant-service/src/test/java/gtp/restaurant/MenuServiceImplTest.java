@@ -6,8 +6,10 @@ import gtp.bytebites.util.exception.ResourceNotFoundException;
 import gtp.bytebites.restaurant.model.MenuItem;
 import gtp.bytebites.restaurant.model.Restaurant;
 import gtp.bytebites.restaurant.service.MenuServiceImpl;
+import gtp.bytebites.restaurant.service.RestaurantService;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -22,6 +25,9 @@ import static org.mockito.Mockito.*;
 
 class MenuServiceImplTest extends BaseServiceTest {
 
+    @Mock
+    private RestaurantService restaurantService;
+
     @InjectMocks
     private MenuServiceImpl menuService;
 
@@ -133,4 +139,34 @@ class MenuServiceImplTest extends BaseServiceTest {
         assertEquals(price, result.price());
     }
 
+    @Test
+    void getMenu_shouldReturnMappedItemsWhenRestaurantExists() {
+        // Given
+        UUID restaurantId = UUID.randomUUID();
+        MenuItem item = createTestMenuItem(restaurantId);
+        MenuDto dto = new MenuDto(item.getId(), item.getName(), item.getDescription(), item.getPrice(),
+                restaurantId, null, null);
+
+        when(restaurantRepository.existsById(restaurantId)).thenReturn(true);
+        when(restaurantService.getRestaurantMenu(restaurantId)).thenReturn(List.of(item));
+        when(menuMapper.toDto(item)).thenReturn(dto);
+
+        // When
+        List<MenuDto> result = menuService.getMenu(restaurantId);
+
+        // Then
+        assertEquals(List.of(dto), result);
+    }
+
+    @Test
+    void getMenu_shouldThrowWhenRestaurantNotFound() {
+        // Given
+        UUID restaurantId = UUID.randomUUID();
+        when(restaurantRepository.existsById(restaurantId)).thenReturn(false);
+
+        // When/Then
+        assertThrows(ResourceNotFoundException.class, () -> menuService.getMenu(restaurantId));
+        verify(restaurantService, never()).getRestaurantMenu(any());
+    }
+
 }
@@ -63,6 +63,7 @@ class RestaurantServiceImplTest extends BaseServiceTest {
         assertEquals(restaurant.getId(), result.id());
         verify(restaurantRepository).save(restaurant);
         verify(restaurantMapper).toDto(restaurant);
+        verify(catalogEventPublisher).publishCatalogChanged(restaurant.getId());
     }
 
     /**
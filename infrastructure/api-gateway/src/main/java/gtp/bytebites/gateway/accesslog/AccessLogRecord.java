@@ -0,0 +1,76 @@
+package gtp.bytebites.gateway.accesslog;
+
+/**
+ * One request as written to the access log.
+ *
+ * @param timestamp epoch millis when the request arrived
+ * @param requestId the server-assigned request id
+ * @param method HTTP method
+ * @param path request path, without the query string
+ * @param routeId matched gateway route, or {@code null} for requests not routed
+ * @param status response status; {@code 499} when the client went away first
+ * @param durationMicros time from arrival until the response completed
+ * @param userId {@code userId} claim of the caller's token, if any
+ * @param clientAddress remote address of the caller
+ * @param instance upstream instance that served the request, if known
+ * @param reason why the record was kept: {@code error}, {@code slow} or {@code sampled}
+ */
+public record AccessLogRecord(
+        long timestamp,
+        String requestId,
+        String method,
+        String path,
+        String routeId,
+        int status,
+        long durationMicros,
+        String userId,
+        String clientAddress,
+        String instance,
+        String reason
+) {
+    /**
+     * @return the record as a single line of JSON with a fixed field order
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"ts\":").append(timestamp);
+        appendString(json, "requestId", requestId);
+        appendString(json, "method", method);
+        appendString(json, "path", path);
+        appendString(json, "route", routeId);
+        json.append(",\"status\":").append(status);
+        json.append(",\"durationUs\":").append(durationMicros);
+        appendString(json, "userId", userId);
+        appendString(json, "client", clientAddress);
+        appendString(json, "instance", instance);
+        appendString(json, "reason", reason);
+        return json.append('}').toString();
+    }
+
+    private static void appendString(StringBuilder json, String name, String value) {
+        json.append(",\"").append(name).append("\":");
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,74 @@
+package gtp.bytebites.gateway.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free queue for many producers and a single consumer.
+ * <p>
+ * Each slot carries a sequence number telling whether it is free for the producer that
+ * claimed a given position or holds a value for the consumer. Producers claim positions
+ * with a compare-and-set on the tail and never wait: when the buffer is full,
+ * {@link #offer(Object)} returns {@code false} straight away. Only one thread may call
+ * {@link #poll()}.
+ * </p>
+ *
+ * @param <E> the element type
+ */
+public class AccessLogRingBuffer<E> {
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    public AccessLogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(1, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return {@code false} if the buffer is full and the element was not added
+     */
+    public boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return the oldest element, or {@code null} if none is ready
+     */
+    public E poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        E element = elements.get(index);
+        elements.lazySet(index, null);
+        sequences.set(index, head + mask + 1);
+        head++;
+        return element;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
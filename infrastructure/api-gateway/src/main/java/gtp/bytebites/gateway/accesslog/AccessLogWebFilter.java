@@ -0,0 +1,139 @@
+package gtp.bytebites.gateway.accesslog;
+
+import gtp.bytebites.gateway.config.AccessLogConfig;
+import gtp.bytebites.gateway.filters.JwtGlobalFilter;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Records every request handled by the gateway, including those rejected by security and
+ * those served by the gateway's own controllers.
+ * <p>
+ * Failed requests, {@code 5xx} responses and requests slower than
+ * {@code app.gateway.access-log.slow-threshold} are always kept; other requests are kept
+ * at their route's sample rate. The record is only assembled from values already on the
+ * exchange and handed to the {@link AccessLogWriter}, so the event loop never formats or
+ * writes log output.
+ * </p>
+ */
+@Component
+public class AccessLogWebFilter implements WebFilter, Ordered {
+    private static final int CLIENT_CLOSED_REQUEST = 499;
+    private static final int INTERNAL_SERVER_ERROR = 500;
+
+    private final AccessLogConfig config;
+    private final AccessLogWriter writer;
+
+    public AccessLogWebFilter(AccessLogConfig config, AccessLogWriter writer) {
+        this.config = config;
+        this.writer = writer;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!config.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        return chain.filter(exchange)
+                .doOnError(failure::set)
+                .doFinally(signal -> record(exchange, timestamp, System.nanoTime() - start, signal, failure.get()));
+    }
+
+    private void record(ServerWebExchange exchange, long timestamp, long durationNanos,
+                        SignalType signal, Throwable failure) {
+        int status = status(exchange, signal, failure);
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : null;
+
+        String reason;
+        if (failure != null || status >= INTERNAL_SERVER_ERROR) {
+            reason = "error";
+        } else if (durationNanos >= config.getSlowThreshold().toNanos()) {
+            reason = "slow";
+        } else if (ThreadLocalRandom.current().nextDouble() < config.sampleRateFor(routeId)) {
+            reason = "sampled";
+        } else {
+            return;
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        writer.submit(new AccessLogRecord(
+                timestamp,
+                request.getId(),
+                request.getMethod().name(),
+                request.getPath().value(),
+                routeId,
+                status,
+                TimeUnit.NANOSECONDS.toMicros(durationNanos),
+                userId(exchange),
+                clientAddress(request),
+                instance(exchange),
+                reason));
+    }
+
+    private int status(ServerWebExchange exchange, SignalType signal, Throwable failure) {
+        if (signal == SignalType.CANCEL) {
+            return CLIENT_CLOSED_REQUEST;
+        }
+        if (failure != null) {
+            return failure instanceof ResponseStatusException statusException
+                    ? statusException.getStatusCode().value()
+                    : INTERNAL_SERVER_ERROR;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null ? status.value() : 200;
+    }
+
+    private String userId(ServerWebExchange exchange) {
+        Jwt jwt = exchange.getAttribute(JwtGlobalFilter.AUTHENTICATED_JWT_ATTR);
+        Object userId = jwt != null ? jwt.getClaim("userId") : null;
+        return userId != null ? userId.toString() : null;
+    }
+
+    private String clientAddress(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress()
+                : null;
+    }
+
+    private String instance(ServerWebExchange exchange) {
+        Response<ServiceInstance> chosen = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (chosen == null || !chosen.hasServer()) {
+            return null;
+        }
+        ServiceInstance instance = chosen.getServer();
+        return instance.getHost() + ':' + instance.getPort();
+    }
+
+    /**
+     * Runs first so the recorded duration covers security and every gateway filter.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
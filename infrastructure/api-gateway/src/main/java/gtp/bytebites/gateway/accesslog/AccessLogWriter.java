@@ -0,0 +1,102 @@
+package gtp.bytebites.gateway.accesslog;
+
+import gtp.bytebites.gateway.config.AccessLogConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves access log records off the request path.
+ * <p>
+ * Request threads only {@link #submit(AccessLogRecord)} a record into an
+ * {@link AccessLogRingBuffer}, which never blocks. A single background thread formats the
+ * records as JSON and hands them to the {@value #LOGGER_NAME} logger, which
+ * {@code logback-spring.xml} routes to a rolling file. Records that do not fit in the
+ * buffer are dropped and counted as {@code gateway.access.log.dropped}.
+ * </p>
+ */
+@Component
+public class AccessLogWriter {
+    private static final Logger log = LoggerFactory.getLogger(AccessLogWriter.class);
+
+    public static final String LOGGER_NAME = "gateway.access";
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final Logger accessLog = LoggerFactory.getLogger(LOGGER_NAME);
+    private final AccessLogRingBuffer<AccessLogRecord> buffer;
+    private final Counter written;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public AccessLogWriter(AccessLogConfig config, MeterRegistry meterRegistry) {
+        this.buffer = new AccessLogRingBuffer<>(config.getBufferSize());
+        this.written = meterRegistry.counter("gateway.access.log.written");
+        this.dropped = meterRegistry.counter("gateway.access.log.dropped");
+    }
+
+    /**
+     * Queues a record for writing without blocking.
+     *
+     * @return {@code false} if the buffer was full and the record was dropped
+     */
+    public boolean submit(AccessLogRecord record) {
+        if (buffer.offer(record)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        thread = new Thread(this::drainLoop, "access-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Access log writer started with a buffer of {} records", buffer.capacity());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        drain();
+    }
+
+    private int drain() {
+        int count = 0;
+        AccessLogRecord record;
+        while ((record = buffer.poll()) != null) {
+            try {
+                accessLog.info(record.toJson());
+                count++;
+            } catch (RuntimeException e) {
+                log.warn("Failed to write access log record: {}", e.getMessage());
+            }
+        }
+        written.increment(count);
+        return count;
+    }
+}
@@ -0,0 +1,23 @@
+package gtp.bytebites.gateway.aggregation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Everything a client needs to render a restaurant screen.
+ *
+ * @param restaurant the restaurant as returned by restaurant-service
+ * @param menu the restaurant's menu items
+ * @param orders the caller's orders at this restaurant, only for customers
+ * @param unavailable names of the parts that could not be loaded in time
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RestaurantDetails(
+        JsonNode restaurant,
+        JsonNode menu,
+        JsonNode orders,
+        List<String> unavailable
+) {
+}
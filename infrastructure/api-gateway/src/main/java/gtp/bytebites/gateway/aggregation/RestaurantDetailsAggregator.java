@@ -0,0 +1,249 @@
+package gtp.bytebites.gateway.aggregation;
+
+import gtp.bytebites.gateway.concurrency.ConcurrencyLimiterRegistry;
+import gtp.bytebites.gateway.concurrency.GradientLimiter;
+import gtp.bytebites.gateway.config.AggregationConfig;
+import gtp.bytebites.gateway.config.ConcurrencyLimitConfig;
+import gtp.bytebites.gateway.config.DeadlineConfig;
+import gtp.bytebites.gateway.deadline.RequestDeadline;
+import gtp.bytebites.gateway.filters.ConcurrencyLimitGlobalFilter;
+import gtp.bytebites.gateway.security.IdentityHeaders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Loads a restaurant, its menu and the caller's order history in parallel.
+ * <p>
+ * Each leg has its own timeout from {@link AggregationConfig}. A leg that fails or times
+ * out is left out of the result and named in {@link RestaurantDetails#unavailable()}, so
+ * a slow order-service never blocks the restaurant screen. Only the restaurant itself is
+ * required: if it does not exist or cannot be loaded the whole request fails.
+ * </p>
+ * <p>
+ * The endpoint is served by a handler mapping, so none of the gateway's global filters
+ * see it. Each leg therefore holds a permit of its service's route limiter, as
+ * {@link ConcurrencyLimitGlobalFilter} would, and carries what is left of the request's
+ * {@value #ROUTE_ID} deadline in {@code X-Request-Timeout}. A leg turned away by its
+ * limiter counts as unavailable; if that leg is the restaurant, the request fails with
+ * {@code 503}.
+ * </p>
+ */
+@Service
+public class RestaurantDetailsAggregator {
+    private static final Logger log = LoggerFactory.getLogger(RestaurantDetailsAggregator.class);
+
+    private static final String RESTAURANT_URI = "http://restaurant-service/api/v1/restaurants/{id}";
+    private static final String MENU_URI = "http://restaurant-service/api/v1/restaurants/{id}/menu";
+    private static final String MY_ORDERS_URI = "http://order-service/api/v1/orders/me";
+    private static final String RESTAURANT_ROUTE_ID = "restaurant-service";
+    private static final String ORDER_ROUTE_ID = "order-service";
+    private static final String CUSTOMER_ROLE = "ROLE_CUSTOMER";
+
+    /**
+     * Route id the endpoint itself is rate limited and given a deadline under.
+     */
+    public static final String ROUTE_ID = "restaurant-details";
+
+    private final WebClient loadBalancedWebClient;
+    private final AggregationConfig aggregationConfig;
+    private final IdentityHeaders identityHeaders;
+    private final ConcurrencyLimitConfig concurrencyLimitConfig;
+    private final ConcurrencyLimiterRegistry limiterRegistry;
+    private final DeadlineConfig deadlineConfig;
+    private final MeterRegistry meterRegistry;
+
+    public RestaurantDetailsAggregator(WebClient loadBalancedWebClient,
+                                       AggregationConfig aggregationConfig,
+                                       IdentityHeaders identityHeaders,
+                                       ConcurrencyLimitConfig concurrencyLimitConfig,
+                                       ConcurrencyLimiterRegistry limiterRegistry,
+                                       DeadlineConfig deadlineConfig,
+                                       MeterRegistry meterRegistry) {
+        this.loadBalancedWebClient = loadBalancedWebClient;
+        this.aggregationConfig = aggregationConfig;
+        this.identityHeaders = identityHeaders;
+        this.concurrencyLimitConfig = concurrencyLimitConfig;
+        this.limiterRegistry = limiterRegistry;
+        this.deadlineConfig = deadlineConfig;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param requestedTimeoutMillis the budget the client asked for in
+     *                               {@code X-Request-Timeout}, or {@code -1} for none
+     * @throws ResponseStatusException with {@code 404} if the restaurant does not exist,
+     *                                 {@code 503} if restaurant-service is shedding load
+     *                                 and {@code 502} if it could not be loaded otherwise
+     */
+    public Mono<RestaurantDetails> aggregate(UUID restaurantId, Jwt jwt, long requestedTimeoutMillis) {
+        Long deadline = deadline(requestedTimeoutMillis);
+        Mono<Leg> restaurant = leg("restaurant", RESTAURANT_ROUTE_ID, RESTAURANT_URI, restaurantId, jwt,
+                aggregationConfig.getRestaurantTimeout(), deadline);
+        Mono<Leg> menu = leg("menu", RESTAURANT_ROUTE_ID, MENU_URI, restaurantId, jwt,
+                aggregationConfig.getMenuTimeout(), deadline);
+        Mono<Leg> orders = isCustomer(jwt)
+                ? leg("orders", ORDER_ROUTE_ID, MY_ORDERS_URI, null, jwt, aggregationConfig.getOrdersTimeout(), deadline)
+                        .map(leg -> leg.onlyFor(restaurantId))
+                : Mono.just(Leg.skipped("orders"));
+
+        return Mono.zip(restaurant, menu, orders)
+                .map(legs -> {
+                    Leg restaurantLeg = legs.getT1();
+                    if (restaurantLeg.notFound()) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Restaurant not found");
+                    }
+                    if (restaurantLeg.shed()) {
+                        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Restaurant service is overloaded");
+                    }
+                    if (restaurantLeg.failed()) {
+                        throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Restaurant is unavailable");
+                    }
+
+                    List<String> unavailable = new ArrayList<>(2);
+                    for (Leg leg : List.of(legs.getT2(), legs.getT3())) {
+                        if (leg.failed()) {
+                            unavailable.add(leg.name());
+                        }
+                    }
+                    return new RestaurantDetails(restaurantLeg.data(), legs.getT2().data(), legs.getT3().data(),
+                            unavailable.isEmpty() ? null : unavailable);
+                });
+    }
+
+    /**
+     * @return the request's deadline as a {@link System#nanoTime()} value, or {@code null}
+     *         if deadlines are disabled
+     */
+    private Long deadline(long requestedTimeoutMillis) {
+        if (!deadlineConfig.isEnabled()) {
+            return null;
+        }
+        long budgetMillis = deadlineConfig.timeoutFor(ROUTE_ID).toMillis();
+        if (requestedTimeoutMillis >= 0) {
+            budgetMillis = Math.min(budgetMillis, requestedTimeoutMillis);
+        }
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    }
+
+    private Mono<Leg> leg(String name, String routeId, String uri, UUID restaurantId, Jwt jwt,
+                          Duration timeout, Long deadline) {
+        return Mono.defer(() -> {
+                    Duration budget = deadline != null
+                            ? min(timeout, Duration.ofNanos(deadline - System.nanoTime()))
+                            : timeout;
+                    if (budget.toMillis() <= 0) {
+                        return Mono.error(new TimeoutException("Request deadline exceeded"));
+                    }
+                    Mono<Leg> call = loadBalancedWebClient.get()
+                            .uri(uri, restaurantId != null ? new Object[]{restaurantId} : new Object[0])
+                            .headers(headers -> {
+                                identityHeaders.write(jwt, headers);
+                                headers.set(RequestDeadline.HEADER, Long.toString(budget.toMillis()));
+                            })
+                            .retrieve()
+                            .bodyToMono(JsonNode.class)
+                            .map(body -> Leg.loaded(name, body.path("data")))
+                            .timeout(budget);
+                    return withConcurrencyLimit(name, routeId, call);
+                })
+                .onErrorResume(e -> {
+                    boolean notFound = e instanceof WebClientResponseException.NotFound;
+                    if (!notFound) {
+                        log.warn("Aggregation leg '{}' failed: {}", name, e.toString());
+                        meterRegistry.counter("gateway.aggregation.leg.failures", "leg", name).increment();
+                    }
+                    return Mono.just(Leg.failed(name, notFound));
+                })
+                .defaultIfEmpty(Leg.failed(name, false));
+    }
+
+    /**
+     * Holds one of the route's concurrency permits for the duration of the leg, as
+     * {@link ConcurrencyLimitGlobalFilter} does for routed requests.
+     */
+    private Mono<Leg> withConcurrencyLimit(String name, String routeId, Mono<Leg> call) {
+        if (!concurrencyLimitConfig.isEnabled()) {
+            return call;
+        }
+        GradientLimiter.Permit permit = limiterRegistry.limiterFor(routeId).tryAcquire();
+        if (permit == null) {
+            log.debug("Concurrency limit reached for route {}, skipping aggregation leg '{}'", routeId, name);
+            return Mono.just(Leg.shed(name));
+        }
+        return call
+                .doOnNext(leg -> permit.success())
+                .doOnError(e -> {
+                    if (e instanceof TimeoutException
+                            || e instanceof WebClientResponseException response
+                            && ConcurrencyLimitGlobalFilter.isOverloaded(response.getStatusCode().value())) {
+                        permit.dropped();
+                    } else {
+                        permit.ignore();
+                    }
+                })
+                .doFinally(signal -> permit.ignore());
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private boolean isCustomer(Jwt jwt) {
+        List<String> roles = jwt.getClaimAsStringList("roles");
+        return roles != null && roles.contains(CUSTOMER_ROLE);
+    }
+
+    record Leg(String name, JsonNode data, boolean failed, boolean notFound, boolean shed) {
+        static Leg loaded(String name, JsonNode data) {
+            return new Leg(name, data, false, false, false);
+        }
+
+        static Leg failed(String name, boolean notFound) {
+            return new Leg(name, null, true, notFound, false);
+        }
+
+        static Leg shed(String name) {
+            return new Leg(name, null, true, false, true);
+        }
+
+        static Leg skipped(String name) {
+            return new Leg(name, null, false, false, false);
+        }
+
+        /**
+         * Keeps only the orders placed at the given restaurant.
+         */
+        Leg onlyFor(UUID restaurantId) {
+            if (data == null || !data.isArray()) {
+                return this;
+            }
+            ArrayNode filtered = JsonNodeFactory.instance.arrayNode();
+            String id = restaurantId.toString();
+            data.forEach(order -> {
+                if (id.equals(order.path("restaurantId").asText())) {
+                    filtered.add(order);
+                }
+            });
+            return new Leg(name, filtered, failed, notFound, shed);
+        }
+    }
+}
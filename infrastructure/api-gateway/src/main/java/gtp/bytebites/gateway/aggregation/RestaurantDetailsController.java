@@ -0,0 +1,81 @@
+package gtp.bytebites.gateway.aggregation;
+
+import gtp.bytebites.gateway.config.ConcurrencyLimitConfig;
+import gtp.bytebites.gateway.deadline.RequestDeadline;
+import gtp.bytebites.gateway.filters.RateLimitGlobalFilter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Backend-for-frontend endpoints answered by the gateway itself rather than routed.
+ * <p>
+ * Handler mappings take precedence over gateway routes, so these paths are served here
+ * even though they fall under a routed prefix. For the same reason the gateway's global
+ * filters never run for them: callers are rate limited here, under the
+ * {@value RestaurantDetailsAggregator#ROUTE_ID} route id, and answered with {@code 429} or
+ * {@code 503} and a {@code Retry-After} header as a routed request would be.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/v1/restaurants")
+public class RestaurantDetailsController {
+    private final RestaurantDetailsAggregator restaurantDetailsAggregator;
+    private final RateLimitGlobalFilter rateLimitGlobalFilter;
+    private final ConcurrencyLimitConfig concurrencyLimitConfig;
+
+    public RestaurantDetailsController(RestaurantDetailsAggregator restaurantDetailsAggregator,
+                                       RateLimitGlobalFilter rateLimitGlobalFilter,
+                                       ConcurrencyLimitConfig concurrencyLimitConfig) {
+        this.restaurantDetailsAggregator = restaurantDetailsAggregator;
+        this.rateLimitGlobalFilter = rateLimitGlobalFilter;
+        this.concurrencyLimitConfig = concurrencyLimitConfig;
+    }
+
+    @GetMapping("/{id}/details")
+    public Mono<ResponseEntity<RestaurantDetails>> getRestaurantDetails(@PathVariable UUID id,
+                                                                        @AuthenticationPrincipal Jwt jwt,
+                                                                        ServerHttpRequest request) {
+        return rateLimitGlobalFilter.tryConsume(RestaurantDetailsAggregator.ROUTE_ID, jwt, request.getRemoteAddress())
+                .flatMap(decision -> {
+                    if (!decision.allowed()) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER,
+                                        Long.toString(RateLimitGlobalFilter.retryAfterSeconds(decision)))
+                                .<RestaurantDetails>build());
+                    }
+                    long requestedMillis = RequestDeadline.parse(request.getHeaders().getFirst(RequestDeadline.HEADER));
+                    return restaurantDetailsAggregator.aggregate(id, jwt, requestedMillis)
+                            .map(details -> {
+                                ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                                if (decision.remaining() >= 0) {
+                                    response.header(RateLimitGlobalFilter.REMAINING_HEADER,
+                                            Long.toString(decision.remaining()));
+                                }
+                                return response.body(details);
+                            })
+                            .onErrorResume(RestaurantDetailsController::isOverloaded, e -> Mono.just(
+                                    ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                            .header(HttpHeaders.RETRY_AFTER, Long.toString(
+                                                    Math.max(1L, concurrencyLimitConfig.getRetryAfter().toSeconds())))
+                                            .build()));
+                });
+    }
+
+    private static boolean isOverloaded(Throwable error) {
+        return error instanceof ResponseStatusException statusException
+                && statusException.getStatusCode().value() == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+}
@@ -0,0 +1,56 @@
+package gtp.bytebites.gateway.batch;
+
+import gtp.bytebites.gateway.filters.RateLimitGlobalFilter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lets a client send several API calls in one round trip.
+ * <p>
+ * The batch is authenticated once; the responses are streamed back as newline-delimited
+ * JSON in completion order, each tagged with the id of the call it answers. The endpoint is
+ * not a gateway route, so the batch itself is rate limited here, under the
+ * {@value BatchDispatcher#ROUTE_ID} route id.
+ * </p>
+ */
+@RestController
+public class BatchController {
+    private final BatchDispatcher batchDispatcher;
+    private final RateLimitGlobalFilter rateLimitGlobalFilter;
+
+    public BatchController(BatchDispatcher batchDispatcher, RateLimitGlobalFilter rateLimitGlobalFilter) {
+        this.batchDispatcher = batchDispatcher;
+        this.rateLimitGlobalFilter = rateLimitGlobalFilter;
+    }
+
+    @PostMapping(value = "/api/v1/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<BatchResponse>>> batch(@RequestBody BatchRequest batch,
+                                                           @AuthenticationPrincipal Jwt jwt,
+                                                           ServerHttpRequest request) {
+        return rateLimitGlobalFilter.tryConsume(BatchDispatcher.ROUTE_ID, jwt, request.getRemoteAddress())
+                .map(decision -> {
+                    if (!decision.allowed()) {
+                        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER,
+                                        Long.toString(RateLimitGlobalFilter.retryAfterSeconds(decision)))
+                                .build();
+                    }
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (decision.remaining() >= 0) {
+                        response.header(RateLimitGlobalFilter.REMAINING_HEADER, Long.toString(decision.remaining()));
+                    }
+                    return response.body(batchDispatcher.dispatch(batch, jwt, request));
+                });
+    }
+}
@@ -0,0 +1,308 @@
+package gtp.bytebites.gateway.batch;
+
+import gtp.bytebites.gateway.concurrency.ConcurrencyLimiterRegistry;
+import gtp.bytebites.gateway.concurrency.GradientLimiter;
+import gtp.bytebites.gateway.config.BatchConfig;
+import gtp.bytebites.gateway.config.ConcurrencyLimitConfig;
+import gtp.bytebites.gateway.deadline.RequestDeadline;
+import gtp.bytebites.gateway.filters.ConcurrencyLimitGlobalFilter;
+import gtp.bytebites.gateway.filters.RateLimitGlobalFilter;
+import gtp.bytebites.gateway.security.IdentityHeaders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the sub-requests of a batch against the routed services.
+ * <p>
+ * The caller has already been authenticated for the batch as a whole, so every
+ * sub-request is sent straight to its service with the caller's identity headers instead
+ * of passing through the gateway again. Each sub-request still counts against the caller's
+ * rate limit and its route's concurrency limit, exactly as a standalone call would, and
+ * routes that queue callers in a {@code WaitingRoom} cannot be batched at all. The caller's
+ * address is appended to {@code X-Forwarded-For} as the routing filters do.
+ * </p>
+ * <p>
+ * Sub-requests run concurrently, at most {@code maxConcurrency} at a time, and each
+ * response is emitted as soon as it arrives. A sub-request that cannot be routed, is
+ * turned away, fails or times out yields a response with a gateway-chosen status rather
+ * than failing the batch.
+ * </p>
+ */
+@Service
+public class BatchDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(BatchDispatcher.class);
+
+    private static final Set<HttpMethod> METHODS = Set.of(
+            HttpMethod.GET, HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+    private static final Set<String> FORWARDED_HEADERS = Set.of(
+            HttpHeaders.ACCEPT.toLowerCase(),
+            HttpHeaders.ACCEPT_LANGUAGE.toLowerCase(),
+            HttpHeaders.CONTENT_TYPE.toLowerCase(),
+            HttpHeaders.IF_MATCH.toLowerCase(),
+            HttpHeaders.IF_NONE_MATCH.toLowerCase(),
+            "idempotency-key");
+    private static final String PARSE_BASE = "http://batch";
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    /**
+     * Route id the batch endpoint itself is rate limited under.
+     */
+    public static final String ROUTE_ID = "batch";
+
+    private final BatchRouteResolver routeResolver;
+    private final BatchConfig batchConfig;
+    private final WebClient loadBalancedWebClient;
+    private final WebClient webClient;
+    private final IdentityHeaders identityHeaders;
+    private final RateLimitGlobalFilter rateLimitGlobalFilter;
+    private final ConcurrencyLimitConfig concurrencyLimitConfig;
+    private final ConcurrencyLimiterRegistry limiterRegistry;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public BatchDispatcher(BatchRouteResolver routeResolver,
+                           BatchConfig batchConfig,
+                           WebClient loadBalancedWebClient,
+                           WebClient.Builder webClientBuilder,
+                           IdentityHeaders identityHeaders,
+                           RateLimitGlobalFilter rateLimitGlobalFilter,
+                           ConcurrencyLimitConfig concurrencyLimitConfig,
+                           ConcurrencyLimiterRegistry limiterRegistry,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.routeResolver = routeResolver;
+        this.batchConfig = batchConfig;
+        int maxInMemorySize = (int) batchConfig.getMaxResponseSize().toBytes();
+        this.loadBalancedWebClient = loadBalancedWebClient.mutate()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize))
+                .build();
+        this.webClient = webClientBuilder.clone()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize))
+                .build();
+        this.identityHeaders = identityHeaders;
+        this.rateLimitGlobalFilter = rateLimitGlobalFilter;
+        this.concurrencyLimitConfig = concurrencyLimitConfig;
+        this.limiterRegistry = limiterRegistry;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param request the batch request; its {@code Authorization} header is passed on
+     *                unchanged and its client address is forwarded
+     * @throws ResponseStatusException with {@code 400} if the batch is empty or too large
+     */
+    public Flux<BatchResponse> dispatch(BatchRequest batch, Jwt jwt, ServerHttpRequest request) {
+        List<BatchRequest.SubRequest> requests = batch != null ? batch.requests() : null;
+        if (requests == null || requests.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch contains no requests");
+        }
+        if (requests.size() > batchConfig.getMaxRequests()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch contains more than " + batchConfig.getMaxRequests() + " requests");
+        }
+
+        meterRegistry.summary("gateway.batch.size").record(requests.size());
+        Caller caller = new Caller(jwt, request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION),
+                request.getRemoteAddress(), forwardedFor(request));
+        return Flux.range(0, requests.size())
+                .flatMap(index -> execute(requests.get(index), index, caller),
+                        batchConfig.getMaxConcurrency());
+    }
+
+    private Mono<BatchResponse> execute(BatchRequest.SubRequest request, int index, Caller caller) {
+        String id = request != null && request.id() != null ? request.id() : Integer.toString(index);
+        if (request == null || request.path() == null) {
+            return Mono.just(error(id, HttpStatus.BAD_REQUEST, "Sub-request has no path"));
+        }
+        HttpMethod method = request.method() != null
+                ? HttpMethod.valueOf(request.method().toUpperCase())
+                : HttpMethod.GET;
+        if (!METHODS.contains(method)) {
+            return Mono.just(error(id, HttpStatus.METHOD_NOT_ALLOWED, "Method " + method + " is not supported"));
+        }
+        URI relative = parsePath(request.path());
+        if (relative == null) {
+            return Mono.just(error(id, HttpStatus.BAD_REQUEST, "Invalid path"));
+        }
+        BatchRouteResolver.RouteTarget target = routeResolver.resolve(relative.getRawPath());
+        if (target == null) {
+            return Mono.just(error(id, HttpStatus.NOT_FOUND, "No route for path"));
+        }
+        if (!target.batchable()) {
+            return Mono.just(error(id, HttpStatus.BAD_REQUEST, "Path cannot be called in a batch"));
+        }
+
+        URI uri = UriComponentsBuilder.fromUri(target.uri())
+                .scheme(target.isLoadBalanced() ? "http" : target.uri().getScheme())
+                .replacePath(relative.getRawPath())
+                .replaceQuery(relative.getRawQuery())
+                .build(true)
+                .toUri();
+        WebClient client = target.isLoadBalanced() ? loadBalancedWebClient : webClient;
+        WebClient.RequestBodySpec spec = client.method(method)
+                .uri(uri)
+                .headers(headers -> {
+                    if (request.headers() != null) {
+                        request.headers().forEach((name, value) -> {
+                            if (FORWARDED_HEADERS.contains(name.toLowerCase())) {
+                                headers.set(name, value);
+                            }
+                        });
+                    }
+                    if (caller.authorization() != null) {
+                        headers.set(HttpHeaders.AUTHORIZATION, caller.authorization());
+                    }
+                    if (caller.forwardedFor() != null) {
+                        headers.set(FORWARDED_FOR_HEADER, caller.forwardedFor());
+                    }
+                    identityHeaders.write(caller.jwt(), headers);
+                    headers.set(RequestDeadline.HEADER, Long.toString(batchConfig.getTimeout().toMillis()));
+                });
+        WebClient.RequestHeadersSpec<?> call = request.body() != null && !request.body().isNull()
+                ? spec.contentType(MediaType.APPLICATION_JSON).bodyValue(request.body())
+                : spec;
+
+        Mono<BatchResponse> upstream = call.exchangeToMono(response -> toBatchResponse(id, response))
+                .timeout(batchConfig.getTimeout());
+        return rateLimitGlobalFilter.tryConsume(target.routeId(), caller.jwt(), caller.remoteAddress())
+                .flatMap(decision -> decision.allowed()
+                        ? withConcurrencyLimit(target.routeId(), id, upstream)
+                        : Mono.just(error(id, HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded, retry after "
+                                + RateLimitGlobalFilter.retryAfterSeconds(decision) + "s")))
+                .onErrorResume(e -> {
+                    boolean timedOut = e instanceof TimeoutException;
+                    log.debug("Batch sub-request {} {} failed: {}", method, relative.getRawPath(), e.toString());
+                    return Mono.just(timedOut
+                            ? error(id, HttpStatus.GATEWAY_TIMEOUT, "Service did not answer in time")
+                            : error(id, HttpStatus.BAD_GATEWAY, "Service is unavailable"));
+                })
+                .doOnNext(response -> meterRegistry.counter("gateway.batch.subrequests",
+                        "route", target.routeId(),
+                        "status", (response.status() / 100) + "xx").increment());
+    }
+
+    /**
+     * Holds one of the route's concurrency permits for the duration of the call, as
+     * {@link ConcurrencyLimitGlobalFilter} does for routed requests.
+     */
+    private Mono<BatchResponse> withConcurrencyLimit(String routeId, String id, Mono<BatchResponse> upstream) {
+        if (!concurrencyLimitConfig.isEnabled()) {
+            return upstream;
+        }
+        return Mono.defer(() -> {
+            GradientLimiter.Permit permit = limiterRegistry.limiterFor(routeId).tryAcquire();
+            if (permit == null) {
+                return Mono.just(error(id, HttpStatus.SERVICE_UNAVAILABLE, "Service is overloaded"));
+            }
+            return upstream
+                    .doOnNext(response -> {
+                        if (ConcurrencyLimitGlobalFilter.isOverloaded(response.status())) {
+                            permit.dropped();
+                        } else {
+                            permit.success();
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (e instanceof TimeoutException) {
+                            permit.dropped();
+                        } else {
+                            permit.ignore();
+                        }
+                    })
+                    .doFinally(signal -> permit.ignore());
+        });
+    }
+
+    private Mono<BatchResponse> toBatchResponse(String id, ClientResponse response) {
+        MediaType contentType = response.headers().contentType().orElse(null);
+        return response.bodyToMono(byte[].class)
+                .map(bytes -> new BatchResponse(id, response.statusCode().value(), body(bytes, contentType)))
+                .defaultIfEmpty(new BatchResponse(id, response.statusCode().value(), null));
+    }
+
+    private JsonNode body(byte[] bytes, MediaType contentType) {
+        if (bytes.length == 0) {
+            return null;
+        }
+        if (contentType == null || contentType.isCompatibleWith(MediaType.APPLICATION_JSON)
+                || contentType.getSubtype().endsWith("+json")) {
+            try {
+                return objectMapper.readTree(bytes);
+            } catch (IOException e) {
+                log.debug("Batch sub-response is not valid JSON, relaying it as text");
+            }
+        }
+        return JsonNodeFactory.instance.textNode(new String(bytes,
+                contentType != null && contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the path and query of a sub-request, or {@code null} if it is not a plain
+     *         absolute path on this gateway
+     */
+    private static URI parsePath(String path) {
+        if (!path.startsWith("/") || path.startsWith("//")) {
+            return null;
+        }
+        try {
+            URI uri = URI.create(PARSE_BASE + path);
+            if (!"batch".equals(uri.getHost()) || !uri.normalize().getRawPath().equals(uri.getRawPath())) {
+                return null;
+            }
+            return uri;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the batch's {@code X-Forwarded-For} with the caller's address appended, or
+     *         {@code null} if the address is unknown
+     */
+    private static String forwardedFor(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return null;
+        }
+        String address = remoteAddress.getAddress().getHostAddress();
+        List<String> forwarded = request.getHeaders().get(FORWARDED_FOR_HEADER);
+        return forwarded != null && !forwarded.isEmpty()
+                ? String.join(", ", forwarded) + ", " + address
+                : address;
+    }
+
+    private static BatchResponse error(String id, HttpStatus status, String message) {
+        return new BatchResponse(id, status.value(),
+                JsonNodeFactory.instance.objectNode().put("message", message));
+    }
+
+    private record Caller(Jwt jwt, String authorization, InetSocketAddress remoteAddress, String forwardedFor) {
+    }
+}
@@ -0,0 +1,33 @@
+package gtp.bytebites.gateway.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A list of API calls to run on the caller's behalf.
+ *
+ * @param requests the calls, dispatched concurrently and in no particular order
+ */
+public record BatchRequest(List<SubRequest> requests) {
+
+    /**
+     * One API call within a batch.
+     *
+     * @param id echoed on the matching {@link BatchResponse}; defaults to the call's index
+     * @param method HTTP method, {@code GET} when omitted
+     * @param path gateway path including any query string, e.g. {@code /api/v1/orders/42}
+     * @param headers request headers; only content negotiation, conditional and
+     *                {@code Idempotency-Key} headers are passed on
+     * @param body JSON request body, if any
+     */
+    public record SubRequest(
+            String id,
+            String method,
+            String path,
+            Map<String, String> headers,
+            JsonNode body
+    ) {
+    }
+}
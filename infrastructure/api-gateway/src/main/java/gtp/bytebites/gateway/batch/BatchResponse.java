@@ -0,0 +1,20 @@
+package gtp.bytebites.gateway.batch;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * The outcome of one sub-request, streamed back as soon as it completes.
+ *
+ * @param id the sub-request's id
+ * @param status HTTP status returned by the service, or set by the gateway when the call
+ *               could not be made
+ * @param body the response body; JSON bodies are embedded as-is, others as a string
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchResponse(
+        String id,
+        int status,
+        JsonNode body
+) {
+}
@@ -0,0 +1,98 @@
+package gtp.bytebites.gateway.batch;
+
+import gtp.bytebites.gateway.filters.WaitingRoomGatewayFilterFactory;
+
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.support.NameUtils;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the service a batched sub-request belongs to.
+ * <p>
+ * Uses the {@code Path} predicates of the configured gateway routes, in route order, so a
+ * sub-request reaches the same service it would have reached as a standalone call. Routes
+ * with any other kind of predicate cannot be evaluated without a real exchange and are
+ * not available to batches. Routes that queue callers in a {@code WaitingRoom} are
+ * resolved but marked as not batchable, so their admission cannot be bypassed.
+ * </p>
+ */
+@Component
+public class BatchRouteResolver {
+    private static final String PATH_PREDICATE = "Path";
+    private static final String MATCH_TRAILING_SLASH_ARG = "matchTrailingSlash";
+    private static final String WAITING_ROOM_FILTER =
+            NameUtils.normalizeFilterFactoryName(WaitingRoomGatewayFilterFactory.class);
+
+    private final List<RouteTarget> targets;
+
+    public BatchRouteResolver(GatewayProperties gatewayProperties) {
+        this.targets = new ArrayList<>();
+        for (RouteDefinition route : gatewayProperties.getRoutes()) {
+            List<PathPattern> patterns = pathPatterns(route);
+            if (!patterns.isEmpty()) {
+                targets.add(new RouteTarget(route.getId(), route.getUri(), patterns, !hasWaitingRoom(route)));
+            }
+        }
+    }
+
+    /**
+     * @return the route serving the path, or {@code null} if none does
+     */
+    public RouteTarget resolve(String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (RouteTarget target : targets) {
+            for (PathPattern pattern : target.patterns()) {
+                if (pattern.matches(container)) {
+                    return target;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<PathPattern> pathPatterns(RouteDefinition route) {
+        List<PathPattern> patterns = new ArrayList<>();
+        for (PredicateDefinition predicate : route.getPredicates()) {
+            if (!PATH_PREDICATE.equals(predicate.getName())) {
+                return List.of();
+            }
+            for (Map.Entry<String, String> arg : predicate.getArgs().entrySet()) {
+                if (!MATCH_TRAILING_SLASH_ARG.equals(arg.getKey())) {
+                    patterns.add(PathPatternParser.defaultInstance.parse(arg.getValue()));
+                }
+            }
+        }
+        return patterns;
+    }
+
+    private static boolean hasWaitingRoom(RouteDefinition route) {
+        for (FilterDefinition filter : route.getFilters()) {
+            if (WAITING_ROOM_FILTER.equals(filter.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param routeId the gateway route id
+     * @param uri the route's target, {@code lb://service} or a fixed URI
+     * @param batchable whether sub-requests may be sent to the route
+     */
+    public record RouteTarget(String routeId, URI uri, List<PathPattern> patterns, boolean batchable) {
+        public boolean isLoadBalanced() {
+            return "lb".equals(uri.getScheme());
+        }
+    }
+}
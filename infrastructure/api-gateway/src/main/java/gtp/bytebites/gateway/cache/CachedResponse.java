@@ -0,0 +1,50 @@
+package gtp.bytebites.gateway.cache;
+
+import org.springframework.http.MediaType;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An upstream response held by the {@link EdgeResponseCache}.
+ *
+ * @param contentType media type of the body, may be {@code null}
+ * @param body the full response body
+ * @param etag strong entity tag identifying {@code body}
+ * @param storedAt epoch millis when the body was fetched or last confirmed unchanged
+ * @param lifetimeMillis how long the entry may be kept, fresh plus stale-while-revalidate
+ * @param revalidating set while a background refresh of the entry is in flight
+ */
+public record CachedResponse(
+        MediaType contentType,
+        byte[] body,
+        String etag,
+        long storedAt,
+        long lifetimeMillis,
+        AtomicBoolean revalidating
+) {
+    public CachedResponse(MediaType contentType, byte[] body, String etag, long storedAt, long lifetimeMillis) {
+        this(contentType, body, etag, storedAt, lifetimeMillis, new AtomicBoolean());
+    }
+
+    public long ageMillis(long now) {
+        return Math.max(0L, now - storedAt);
+    }
+
+    /**
+     * @return {@code true} if the caller won the right to refresh this entry
+     */
+    public boolean claimRevalidation() {
+        return revalidating.compareAndSet(false, true);
+    }
+
+    public void releaseRevalidation() {
+        revalidating.set(false);
+    }
+
+    /**
+     * @return a copy with a new age, used when the upstream body turned out unchanged
+     */
+    public CachedResponse confirmedAt(long now) {
+        return new CachedResponse(contentType, body, etag, now, lifetimeMillis);
+    }
+}
@@ -0,0 +1,24 @@
+package gtp.bytebites.gateway.cache;
+
+import gtp.bytebites.events.event.CatalogChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CatalogInvalidationListener {
+    private static final Logger log = LoggerFactory.getLogger(CatalogInvalidationListener.class);
+
+    private final EdgeResponseCache edgeResponseCache;
+
+    public CatalogInvalidationListener(EdgeResponseCache edgeResponseCache) {
+        this.edgeResponseCache = edgeResponseCache;
+    }
+
+    @RabbitListener(queues = "#{catalogInvalidationQueue.name}")
+    public void handleCatalogChanged(CatalogChangedEvent event) {
+        log.info("Gateway received catalog change for restaurant: {}", event.restaurantId());
+        edgeResponseCache.invalidateRestaurant(event.restaurantId());
+    }
+}
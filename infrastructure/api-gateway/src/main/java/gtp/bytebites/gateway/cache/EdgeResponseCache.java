@@ -0,0 +1,130 @@
+package gtp.bytebites.gateway.cache;
+
+import gtp.bytebites.gateway.config.EdgeCacheConfig;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Byte-bounded store for responses cached by the {@code EdgeCache} route filter.
+ * <p>
+ * The cache is weighed by body size and capped by {@code app.gateway.edge-cache.max-size}.
+ * Entries are removed once they are older than their route's fresh plus
+ * stale-while-revalidate window; deciding whether an entry is still fresh is left to the
+ * filter. Catalog changes published by restaurant-service drop the affected entries
+ * through {@link #invalidateRestaurant(UUID)}.
+ * </p>
+ */
+@Component
+public class EdgeResponseCache {
+    private static final Logger log = LoggerFactory.getLogger(EdgeResponseCache.class);
+
+    public static final String CACHE_NAME = "gateway.edge.cache";
+
+    private static final Pattern UUID_SEGMENT = Pattern.compile(
+            "/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}(/|$)");
+
+    private final Cache<Key, CachedResponse> cache;
+    private final long maxEntryBytes;
+
+    public EdgeResponseCache(EdgeCacheConfig config, MeterRegistry meterRegistry) {
+        this.maxEntryBytes = config.getMaxEntrySize().toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(config.getMaxSize().toBytes())
+                .weigher((Key key, CachedResponse response) -> key.weight() + response.body().length)
+                .expireAfter(new UntilLifetimeEnds())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public CachedResponse get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Stores a response unless its body exceeds the per-entry limit.
+     *
+     * @return whether the response was stored
+     */
+    public boolean put(Key key, CachedResponse response) {
+        if (response.body().length > maxEntryBytes) {
+            return false;
+        }
+        cache.put(key, response);
+        return true;
+    }
+
+    /**
+     * Drops every entry that could contain data about the given restaurant: reads whose
+     * path names the restaurant, and listings whose path names no restaurant at all.
+     *
+     * @param restaurantId the changed restaurant, or {@code null} to drop everything
+     */
+    public void invalidateRestaurant(UUID restaurantId) {
+        if (restaurantId == null) {
+            invalidateAll();
+            return;
+        }
+        String id = restaurantId.toString();
+        cache.asMap().keySet().removeIf(key ->
+                key.path().contains(id) || !UUID_SEGMENT.matcher(key.path()).find());
+        log.debug("Invalidated edge cache entries for restaurant {}", id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return a strong entity tag derived from the body content
+     */
+    public static String etagFor(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 27) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Identifies a cached read by route, path and raw query string.
+     */
+    public record Key(String routeId, String path, String query) {
+        int weight() {
+            return routeId.length() + path.length() + (query != null ? query.length() : 0);
+        }
+    }
+
+    private static final class UntilLifetimeEnds implements Expiry<Key, CachedResponse> {
+        @Override
+        public long expireAfterCreate(Key key, CachedResponse response, long currentTime) {
+            long remaining = response.lifetimeMillis() - response.ageMillis(System.currentTimeMillis());
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remaining, 0L));
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, CachedResponse response, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, response, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, CachedResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package gtp.bytebites.gateway.concurrency;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Exposes the live concurrency limit, in-flight count and rejections of every route at
+ * {@code /actuator/concurrencylimits}.
+ */
+@Component
+@Endpoint(id = "concurrencylimits")
+public class ConcurrencyLimitEndpoint {
+    private final ConcurrencyLimiterRegistry registry;
+
+    public ConcurrencyLimitEndpoint(ConcurrencyLimiterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, ConcurrencyLimiterRegistry.RouteLimit> limits() {
+        return registry.snapshot();
+    }
+}
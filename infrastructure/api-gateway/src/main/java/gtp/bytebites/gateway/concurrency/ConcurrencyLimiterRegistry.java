@@ -0,0 +1,62 @@
+package gtp.bytebites.gateway.concurrency;
+
+import gtp.bytebites.gateway.config.ConcurrencyLimitConfig;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds one {@link GradientLimiter} per gateway route and publishes its state as
+ * {@code gateway.concurrency.limit}, {@code gateway.concurrency.in.flight} and
+ * {@code gateway.concurrency.rejections}, tagged by route.
+ */
+@Component
+public class ConcurrencyLimiterRegistry {
+    private final ConcurrencyLimitConfig config;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, GradientLimiter> limiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiterRegistry(ConcurrencyLimitConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public GradientLimiter limiterFor(String routeId) {
+        GradientLimiter limiter = limiters.get(routeId);
+        return limiter != null ? limiter : limiters.computeIfAbsent(routeId, this::create);
+    }
+
+    /**
+     * @return the current state of every route that has seen traffic, by route id
+     */
+    public Map<String, RouteLimit> snapshot() {
+        Map<String, RouteLimit> snapshot = new TreeMap<>();
+        limiters.forEach((routeId, limiter) -> snapshot.put(routeId,
+                new RouteLimit(limiter.getLimit(), limiter.getInFlight(), limiter.getRejected())));
+        return snapshot;
+    }
+
+    private GradientLimiter create(String routeId) {
+        GradientLimiter limiter = new GradientLimiter(config.policyFor(routeId), System::nanoTime);
+        Gauge.builder("gateway.concurrency.limit", limiter, GradientLimiter::getLimit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in.flight", limiter, GradientLimiter::getInFlight)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.concurrency.rejections", limiter, GradientLimiter::getRejected)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    public record RouteLimit(int limit, int inFlight, long rejected) {
+    }
+}
@@ -0,0 +1,151 @@
+package gtp.bytebites.gateway.concurrency;
+
+import gtp.bytebites.gateway.config.ConcurrencyLimitConfig;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit for one route that adapts to the latency observed downstream.
+ * <p>
+ * Every completed request contributes its round-trip time. The limit is moved towards
+ * {@code limit * gradient + sqrt(limit)}, where the gradient is the long-term average RTT,
+ * allowing for {@code rttTolerance}, divided by the latest RTT, kept within
+ * {@code [0.5, 1]}. While latency holds steady the limit grows by roughly its square root.
+ * Once queueing inflates latency it shrinks again, before the downstream thread pool
+ * and connection pool are saturated. Timeouts and overload responses cut the limit by
+ * a tenth straight away. Samples taken while less than half the limit was in use do not
+ * raise the limit, so a quiet route cannot build up a limit it never tested.
+ * </p>
+ */
+public class GradientLimiter {
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DROP_FACTOR = 0.9;
+
+    private final ConcurrencyLimitConfig.Policy policy;
+    private final LongSupplier nanoClock;
+    private final double longDecay;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile double limit;
+    private double longRttNanos;
+
+    public GradientLimiter(ConcurrencyLimitConfig.Policy policy, LongSupplier nanoClock) {
+        this.policy = policy;
+        this.nanoClock = nanoClock;
+        this.longDecay = 2.0 / (policy.getLongWindow() + 1);
+        this.limit = clamp(policy.getInitialLimit());
+    }
+
+    /**
+     * @return a permit to release once the request completes, or {@code null} when the
+     *         route is at its limit
+     */
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.increment();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(nanoClock.getAsLong(), current + 1);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) * longDecay;
+        }
+        // After latency has dropped for good, let the long-term average catch up quickly
+        // instead of holding the limit back for a whole window.
+        if (longRttNanos / rttNanos > 2.0) {
+            longRttNanos *= 0.95;
+        }
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT,
+                Math.min(1.0, policy.getRttTolerance() * longRttNanos / rttNanos));
+        double estimate = limit * gradient + Math.sqrt(limit);
+        limit = clamp(limit * (1 - policy.getSmoothing()) + estimate * policy.getSmoothing());
+    }
+
+    private synchronized void onDropped() {
+        limit = clamp(limit * DROP_FACTOR);
+    }
+
+    private double clamp(double value) {
+        return Math.max(policy.getMinLimit(), Math.min(policy.getMaxLimit(), value));
+    }
+
+    /**
+     * One admitted request. Exactly one of the completion methods takes effect.
+     */
+    public final class Permit {
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * The downstream answered; its round-trip time feeds the limit.
+         */
+        public void success() {
+            if (release()) {
+                onSample(nanoClock.getAsLong() - startNanos, inFlightAtStart);
+            }
+        }
+
+        /**
+         * The downstream timed out or reported overload.
+         */
+        public void dropped() {
+            if (release()) {
+                onDropped();
+            }
+        }
+
+        /**
+         * The request ended without telling anything about downstream capacity, for
+         * example because the client went away.
+         */
+        public void ignore() {
+            release();
+        }
+
+        private boolean release() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package gtp.bytebites.gateway.concurrency;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Fair admission queue in front of one route.
+ * <p>
+ * At most {@code capacity} requests are let through at a time. Once they are all taken,
+ * arriving requests wait for a ticket in a bounded queue and are admitted strictly in
+ * arrival order as earlier requests complete: a released slot is handed straight to the
+ * head of the queue, so a newcomer can never overtake a waiting request. A request that
+ * finds the queue full, or is still waiting after {@code maxWait}, is turned away with an
+ * estimate of how long it would have had to wait.
+ * </p>
+ * <p>
+ * Wait estimates assume each slot serves the queue at the average time requests have held
+ * a slot so far, smoothed exponentially.
+ * </p>
+ * <p>
+ * The limits can be changed with {@link #resize} while requests are queued and in
+ * flight, so a route keeps its room, and the slots counted in it, when its configuration
+ * is reloaded.
+ * </p>
+ */
+public class WaitingRoom {
+    private static final double SERVICE_TIME_DECAY = 0.1;
+
+    private int capacity;
+    private int maxQueue;
+    private Duration maxWait;
+    private final LongSupplier nanoClock;
+    private final Scheduler scheduler;
+
+    private final ArrayDeque<Ticket> queue = new ArrayDeque<>();
+    private int inFlight;
+    private double serviceTimeNanos;
+
+    public WaitingRoom(int capacity, int maxQueue, Duration maxWait) {
+        this(capacity, maxQueue, maxWait, System::nanoTime, Schedulers.parallel());
+    }
+
+    public WaitingRoom(int capacity, int maxQueue, Duration maxWait, LongSupplier nanoClock, Scheduler scheduler) {
+        validate(capacity, maxQueue);
+        this.capacity = capacity;
+        this.maxQueue = maxQueue;
+        this.maxWait = maxWait;
+        this.nanoClock = nanoClock;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Changes the room's limits. Requests already admitted keep their slots; if the
+     * capacity grows, queued requests are admitted into the new slots straight away. A
+     * smaller queue only turns away new arrivals, and a new {@code maxWait} applies to
+     * requests queued from now on.
+     */
+    public void resize(int capacity, int maxQueue, Duration maxWait) {
+        validate(capacity, maxQueue);
+        long now = nanoClock.getAsLong();
+        List<Ticket> admitted = new ArrayList<>();
+        synchronized (this) {
+            this.capacity = capacity;
+            this.maxQueue = maxQueue;
+            this.maxWait = maxWait;
+            while (inFlight < capacity && !queue.isEmpty()) {
+                Ticket next = queue.pollFirst();
+                next.admitted = true;
+                next.permit = new Permit(next.enqueuedAt, now);
+                inFlight++;
+                admitted.add(next);
+            }
+        }
+        admitted.forEach(Ticket::admit);
+    }
+
+    private static void validate(int capacity, int maxQueue) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Waiting room capacity must be at least 1: " + capacity);
+        }
+        if (maxQueue < 0) {
+            throw new IllegalArgumentException("Waiting room queue size must not be negative: " + maxQueue);
+        }
+    }
+
+    /**
+     * Waits for a slot.
+     *
+     * @return a permit to {@link #release(Permit) release} once the request completes,
+     *         or an error {@link Rejected} if the request is turned away. Cancelling the
+     *         subscription gives up the ticket.
+     */
+    public Mono<Permit> admit() {
+        return Mono.<Permit>create(this::enqueue).filter(Permit::claim);
+    }
+
+    private void enqueue(MonoSink<Permit> sink) {
+        long now = nanoClock.getAsLong();
+        Ticket ticket = null;
+        Rejected rejected = null;
+        long maxWaitNanos;
+        synchronized (this) {
+            maxWaitNanos = maxWait.toNanos();
+            if (queue.isEmpty() && inFlight < capacity) {
+                inFlight++;
+            } else if (queue.size() >= maxQueue) {
+                rejected = new Rejected(Rejected.Reason.FULL, estimateWaitNanos(queue.size()), 0L);
+            } else {
+                ticket = new Ticket(sink, now);
+                queue.addLast(ticket);
+            }
+        }
+
+        if (rejected != null) {
+            sink.error(rejected);
+        } else if (ticket == null) {
+            sink.success(new Permit(now, now));
+        } else {
+            Ticket queued = ticket;
+            sink.onCancel(() -> abandon(queued));
+            queued.expiry = scheduler.schedule(() -> expire(queued), maxWaitNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Frees the permit's slot, handing it to the longest-waiting request if there is one.
+     */
+    public void release(Permit permit) {
+        long now = nanoClock.getAsLong();
+        Ticket next;
+        synchronized (this) {
+            recordServiceTime(now - permit.admittedAt);
+            next = inFlight <= capacity ? queue.pollFirst() : null;
+            if (next == null) {
+                inFlight--;
+                return;
+            }
+            next.admitted = true;
+            next.permit = new Permit(next.enqueuedAt, now);
+        }
+        next.admit();
+    }
+
+    private void expire(Ticket ticket) {
+        long waited;
+        long estimate;
+        synchronized (this) {
+            if (ticket.admitted || !queue.remove(ticket)) {
+                return;
+            }
+            waited = nanoClock.getAsLong() - ticket.enqueuedAt;
+            estimate = estimateWaitNanos(queue.size());
+        }
+        ticket.sink.error(new Rejected(Rejected.Reason.EXPIRED, estimate, waited));
+    }
+
+    private void abandon(Ticket ticket) {
+        synchronized (this) {
+            if (!ticket.admitted) {
+                queue.remove(ticket);
+                ticket.cancelExpiry();
+                return;
+            }
+        }
+        // Admitted while the caller went away: hand the slot on unless the caller took it
+        if (ticket.permit.claim()) {
+            release(ticket.permit);
+        }
+    }
+
+    private void recordServiceTime(long nanos) {
+        if (serviceTimeNanos == 0) {
+            serviceTimeNanos = nanos;
+        } else {
+            serviceTimeNanos += (nanos - serviceTimeNanos) * SERVICE_TIME_DECAY;
+        }
+    }
+
+    /**
+     * @param ahead requests queued in front of the one being estimated
+     */
+    private long estimateWaitNanos(int ahead) {
+        double perSlot = serviceTimeNanos > 0 ? serviceTimeNanos : maxWait.toNanos();
+        return (long) ((ahead / capacity + 1) * perSlot);
+    }
+
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * A slot held by one request.
+     */
+    public static final class Permit {
+        private final long enqueuedAt;
+        private final long admittedAt;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        Permit(long enqueuedAt, long admittedAt) {
+            this.enqueuedAt = enqueuedAt;
+            this.admittedAt = admittedAt;
+        }
+
+        /**
+         * @return nanoseconds the request spent queued before it was admitted
+         */
+        public long getWaitNanos() {
+            return admittedAt - enqueuedAt;
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Signals a request that was not admitted.
+     */
+    public static final class Rejected extends RuntimeException {
+        public enum Reason { FULL, EXPIRED }
+
+        private final Reason reason;
+        private final long estimatedWaitNanos;
+        private final long waitedNanos;
+
+        Rejected(Reason reason, long estimatedWaitNanos, long waitedNanos) {
+            super("Waiting room " + (reason == Reason.FULL ? "is full" : "wait expired"), null, false, false);
+            this.reason = reason;
+            this.estimatedWaitNanos = estimatedWaitNanos;
+            this.waitedNanos = waitedNanos;
+        }
+
+        public Reason getReason() {
+            return reason;
+        }
+
+        /**
+         * @return how long a request joining the queue now would likely wait
+         */
+        public long getEstimatedWaitNanos() {
+            return estimatedWaitNanos;
+        }
+
+        public long getWaitedNanos() {
+            return waitedNanos;
+        }
+    }
+
+    private static final class Ticket {
+        private final MonoSink<Permit> sink;
+        private final long enqueuedAt;
+        private volatile Disposable expiry;
+        private volatile Permit permit;
+        private boolean admitted;
+
+        Ticket(MonoSink<Permit> sink, long enqueuedAt) {
+            this.sink = sink;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        void admit() {
+            cancelExpiry();
+            sink.success(permit);
+        }
+
+        void cancelExpiry() {
+            Disposable scheduled = expiry;
+            if (scheduled != null) {
+                scheduled.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package gtp.bytebites.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for the gateway access log.
+ *
+ * <p>Properties are bound from the {@code app.gateway.access-log} prefix:</p>
+ * <ul>
+ *   <li><b>enabled</b>: whether requests are recorded at all</li>
+ *   <li><b>bufferSize</b>: records that may wait for the background writer; rounded up to
+ *       a power of two. Records arriving while it is full are dropped and counted</li>
+ *   <li><b>defaultSampleRate</b>: share of ordinary requests that are logged</li>
+ *   <li><b>routes</b>: sample rates keyed by gateway route id</li>
+ *   <li><b>slowThreshold</b>: requests taking at least this long are always logged, as are
+ *       {@code 5xx} responses and failed requests</li>
+ *   <li><b>file</b>: the rolling file records are written to, see {@code logback-spring.xml}.
+ *       Defaults to {@code gateway-access.log} in {@code logging.file.path}, or in the
+ *       temp directory when that is not set</li>
+ * </ul>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.gateway.access-log")
+public class AccessLogConfig {
+    private boolean enabled = true;
+    private int bufferSize = 8192;
+    private double defaultSampleRate = 0.1;
+    private Map<String, Double> routes = new HashMap<>();
+    private Duration slowThreshold = Duration.ofSeconds(1);
+    private String file;
+
+    public double sampleRateFor(String routeId) {
+        return routeId != null ? routes.getOrDefault(routeId, defaultSampleRate) : defaultSampleRate;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        if (bufferSize < 2) {
+            throw new IllegalArgumentException("Access log buffer size must be at least 2: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    public double getDefaultSampleRate() {
+        return defaultSampleRate;
+    }
+
+    public void setDefaultSampleRate(double defaultSampleRate) {
+        if (defaultSampleRate < 0.0 || defaultSampleRate > 1.0) {
+            throw new IllegalArgumentException("Sample rate must be in [0, 1]: " + defaultSampleRate);
+        }
+        this.defaultSampleRate = defaultSampleRate;
+    }
+
+    public Map<String, Double> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Double> routes) {
+        this.routes = routes;
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public void setSlowThreshold(Duration slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+}
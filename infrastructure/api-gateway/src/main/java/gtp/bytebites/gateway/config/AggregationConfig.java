@@ -0,0 +1,51 @@
+package gtp.bytebites.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Per-leg timeouts for the aggregation endpoints served by the gateway itself.
+ *
+ * <p>Properties are bound from the {@code app.gateway.aggregation} prefix:</p>
+ * <ul>
+ *   <li><b>restaurantTimeout</b>: restaurant details from restaurant-service</li>
+ *   <li><b>menuTimeout</b>: the restaurant's menu from restaurant-service</li>
+ *   <li><b>ordersTimeout</b>: the caller's order history from order-service</li>
+ * </ul>
+ *
+ * A leg that does not answer in time is reported as unavailable instead of failing
+ * the whole response.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.gateway.aggregation")
+public class AggregationConfig {
+    private Duration restaurantTimeout = Duration.ofSeconds(2);
+    private Duration menuTimeout = Duration.ofSeconds(2);
+    private Duration ordersTimeout = Duration.ofSeconds(1);
+
+    public Duration getRestaurantTimeout() {
+        return restaurantTimeout;
+    }
+
+    public void setRestaurantTimeout(Duration restaurantTimeout) {
+        this.restaurantTimeout = restaurantTimeout;
+    }
+
+    public Duration getMenuTimeout() {
+        return menuTimeout;
+    }
+
+    public void setMenuTimeout(Duration menuTimeout) {
+        this.menuTimeout = menuTimeout;
+    }
+
+    public Duration getOrdersTimeout() {
+        return ordersTimeout;
+    }
+
+    public void setOrdersTimeout(Duration ordersTimeout) {
+        this.ordersTimeout = ordersTimeout;
+    }
+}
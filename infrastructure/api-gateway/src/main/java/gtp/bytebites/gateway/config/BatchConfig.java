@@ -0,0 +1,67 @@
+package gtp.bytebites.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Limits for the {@code /api/v1/batch} endpoint.
+ *
+ * <p>Properties are bound from the {@code app.gateway.batch} prefix:</p>
+ * <ul>
+ *   <li><b>maxRequests</b>: sub-requests accepted in one batch; larger batches are
+ *       rejected with {@code 400 Bad Request}</li>
+ *   <li><b>maxConcurrency</b>: sub-requests of one batch in flight at the same time</li>
+ *   <li><b>timeout</b>: how long each sub-request may take before it is answered with
+ *       {@code 504 Gateway Timeout}</li>
+ *   <li><b>maxResponseSize</b>: largest sub-request response body that is relayed</li>
+ * </ul>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.gateway.batch")
+public class BatchConfig {
+    private int maxRequests = 20;
+    private int maxConcurrency = 6;
+    private Duration timeout = Duration.ofSeconds(5);
+    private DataSize maxResponseSize = DataSize.ofKilobytes(512);
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public void setMaxRequests(int maxRequests) {
+        if (maxRequests < 1) {
+            throw new IllegalArgumentException("Batch size limit must be at least 1: " + maxRequests);
+        }
+        this.maxRequests = maxRequests;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Batch concurrency must be at least 1: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public DataSize getMaxResponseSize() {
+        return maxResponseSize;
+    }
+
+    public void setMaxResponseSize(DataSize maxResponseSize) {
+        this.maxResponseSize = maxResponseSize;
+    }
+}
@@ -0,0 +1,146 @@
+package gtp.bytebites.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for the adaptive per-route concurrency limiter.
+ *
+ * <p>Properties are bound from the {@code app.gateway.concurrency-limit} prefix:</p>
+ * <ul>
+ *   <li><b>enabled</b>: whether in-flight requests are limited at all</li>
+ *   <li><b>retryAfter</b>: value of the {@code Retry-After} header on shed requests</li>
+ *   <li><b>defaultPolicy</b>: limiter settings for routes without their own policy</li>
+ *   <li><b>routes</b>: limiter settings keyed by gateway route id</li>
+ * </ul>
+ *
+ * A route starts at {@code initialLimit} concurrent requests. The limit then follows the
+ * ratio between the long-term and the latest round-trip time, staying between
+ * {@code minLimit} and {@code maxLimit}. Latency may grow by up to {@code rttTolerance}
+ * times the long-term average before the limit is lowered. {@code smoothing} is the weight
+ * of each new estimate, and {@code longWindow} the number of samples the long-term average
+ * spans.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.gateway.concurrency-limit")
+public class ConcurrencyLimitConfig {
+    private boolean enabled = true;
+    private Duration retryAfter = Duration.ofSeconds(1);
+    private Policy defaultPolicy = new Policy();
+    private Map<String, Policy> routes = new HashMap<>();
+
+    public Policy policyFor(String routeId) {
+        return routeId != null ? routes.getOrDefault(routeId, defaultPolicy) : defaultPolicy;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public Policy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    public void setDefaultPolicy(Policy defaultPolicy) {
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    public Map<String, Policy> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Policy> routes) {
+        this.routes = routes;
+    }
+
+    public static class Policy {
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+        private double rttTolerance = 1.5;
+        private double smoothing = 0.2;
+        private int longWindow = 600;
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            if (initialLimit <= 0) {
+                throw new IllegalArgumentException("Initial limit must be positive: " + initialLimit);
+            }
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            if (minLimit <= 0) {
+                throw new IllegalArgumentException("Minimum limit must be positive: " + minLimit);
+            }
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            if (maxLimit <= 0) {
+                throw new IllegalArgumentException("Maximum limit must be positive: " + maxLimit);
+            }
+            this.maxLimit = maxLimit;
+        }
+
+        public double getRttTolerance() {
+            return rttTolerance;
+        }
+
+        public void setRttTolerance(double rttTolerance) {
+            if (rttTolerance < 1.0) {
+                throw new IllegalArgumentException("RTT tolerance must be at least 1: " + rttTolerance);
+            }
+            this.rttTolerance = rttTolerance;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            if (smoothing <= 0.0 || smoothing > 1.0) {
+                throw new IllegalArgumentException("Smoothing must be in (0, 1]: " + smoothing);
+            }
+            this.smoothing = smoothing;
+        }
+
+        public int getLongWindow() {
+            return longWindow;
+        }
+
+        public void setLongWindow(int longWindow) {
+            if (longWindow <= 0) {
+                throw new IllegalArgumentException("Long window must be positive: " + longWindow);
+            }
+            this.longWindow = longWindow;
+        }
+    }
+}
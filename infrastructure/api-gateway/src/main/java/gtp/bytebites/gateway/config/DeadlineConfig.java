@@ -0,0 +1,60 @@
+package gtp.bytebites.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Time budget stamped on requests forwarded to downstream services.
+ *
+ * <p>Properties are bound from the {@code app.gateway.deadline} prefix:</p>
+ * <ul>
+ *   <li><b>enabled</b>: whether requests are given a deadline at all</li>
+ *   <li><b>defaultTimeout</b>: budget for routes without their own entry</li>
+ *   <li><b>routes</b>: budgets keyed by gateway route id</li>
+ * </ul>
+ *
+ * A client may ask for a shorter budget with the {@code X-Request-Timeout} header, never
+ * a longer one.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.gateway.deadline")
+public class DeadlineConfig {
+    private boolean enabled = true;
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+    private Map<String, Duration> routes = new HashMap<>();
+
+    public Duration timeoutFor(String routeId) {
+        return routeId != null ? routes.getOrDefault(routeId, defaultTimeout) : defaultTimeout;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    public void setDefaultTimeout(Duration defaultTimeout) {
+        if (defaultTimeout.isNegative() || defaultTimeout.isZero()) {
+            throw new IllegalArgumentException("Default request timeout must be positive: " + defaultTimeout);
+        }
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    public Map<String, Duration> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Duration> routes) {
+        this.routes = routes;
+    }
+}
@@ -0,0 +1,38 @@
+package gtp.bytebites.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Global limits for the gateway edge cache shared by every route that enables the
+ * {@code EdgeCache} filter.
+ *
+ * <p>Properties are bound from the {@code app.gateway.edge-cache} prefix:</p>
+ * <ul>
+ *   <li><b>maxSize</b>: total body bytes the cache may hold across all routes</li>
+ *   <li><b>maxEntrySize</b>: responses larger than this are passed through uncached</li>
+ * </ul>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.gateway.edge-cache")
+public class EdgeCacheConfig {
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+    private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public DataSize getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    public void setMaxEntrySize(DataSize maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+}
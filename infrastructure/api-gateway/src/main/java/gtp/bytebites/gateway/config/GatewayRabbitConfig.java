@@ -0,0 +1,67 @@
+package gtp.bytebites.gateway.config;
+
+import gtp.bytebites.events.config.AuthEventConfig;
+import gtp.bytebites.events.config.CatalogEventConfig;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+@Configuration
+@Import({CatalogEventConfig.class, AuthEventConfig.class})
+public class GatewayRabbitConfig {
+
+    /**
+     * Every gateway instance holds its own edge cache, so each one gets a private,
+     * auto-deleted queue and receives every catalog change.
+     */
+    @Bean
+    public Queue catalogInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    /**
+     * Binds this instance's queue to the catalog exchange for change events.
+     * @param catalogInvalidationQueue The queue bean for this instance.
+     * @param catalogExchange The shared exchange bean from CatalogEventConfig.
+     */
+    @Bean
+    public Binding catalogInvalidationBinding(Queue catalogInvalidationQueue, TopicExchange catalogExchange) {
+        return BindingBuilder.bind(catalogInvalidationQueue)
+                .to(catalogExchange)
+                .with(CatalogEventConfig.CATALOG_CHANGED_ROUTING_KEY);
+    }
+
+    /**
+     * Every gateway instance keeps its own token revocation list, so each one gets a
+     * private, auto-deleted queue and receives every revocation.
+     */
+    @Bean
+    public Queue tokenRevocationQueue() {
+        return new AnonymousQueue();
+    }
+
+    /**
+     * Binds this instance's queue to the auth exchange for token revocations.
+     * @param tokenRevocationQueue The queue bean for this instance.
+     * @param authExchange The shared exchange bean from AuthEventConfig.
+     */
+    @Bean
+    public Binding tokenRevocationBinding(Queue tokenRevocationQueue, TopicExchange authExchange) {
+        return BindingBuilder.bind(tokenRevocationQueue)
+                .to(authExchange)
+                .with(AuthEventConfig.TOKEN_REVOKED_ROUTING_KEY);
+    }
+
+    @Bean
+    public MessageConverter jsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+}
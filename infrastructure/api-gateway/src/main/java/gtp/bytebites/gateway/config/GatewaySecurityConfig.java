@@ -1,5 +1,11 @@
 package gtp.bytebites.gateway.config;
 
+import gtp.bytebites.gateway.security.CachingReactiveJwtDecoder;
+import gtp.bytebites.gateway.security.PathWhitelist;
+import gtp.bytebites.gateway.security.RevocationCheckingJwtDecoder;
+import gtp.bytebites.gateway.security.TokenRevocationList;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
@@ -30,9 +36,18 @@ public class GatewaySecurityConfig {
     private static final Logger log = LoggerFactory.getLogger(GatewaySecurityConfig.class);
 
     private final JwtGatewayConfig jwtConfig;
+    private final TokenCacheConfig tokenCacheConfig;
+    private final TokenRevocationConfig tokenRevocationConfig;
+    private final PathWhitelist pathWhitelist;
 
-    public GatewaySecurityConfig(JwtGatewayConfig jwtConfig) {
+    public GatewaySecurityConfig(JwtGatewayConfig jwtConfig,
+                                 TokenCacheConfig tokenCacheConfig,
+                                 TokenRevocationConfig tokenRevocationConfig,
+                                 PathWhitelist pathWhitelist) {
         this.jwtConfig = jwtConfig;
+        this.tokenCacheConfig = tokenCacheConfig;
+        this.tokenRevocationConfig = tokenRevocationConfig;
+        this.pathWhitelist = pathWhitelist;
     }
 
     @Bean
@@ -41,8 +56,7 @@ public class GatewaySecurityConfig {
         http
             .csrf(ServerHttpSecurity.CsrfSpec::disable)
             .authorizeExchange(exchange -> exchange
-                .pathMatchers("/api/v1/auth/**", "/oauth2/**", "/error",
-                              "/v3/api-docs/**", "/swagger-ui/**", "/actuator/**").permitAll()
+                .matchers(pathWhitelist).permitAll()
                 .anyExchange().authenticated()
             )
             .oauth2ResourceServer(oauth2 -> oauth2
@@ -55,17 +69,34 @@ public class GatewaySecurityConfig {
 
 
 
+    /**
+     * Builds the decoder that verifies HS512-signed bearer tokens. Unless disabled through
+     * {@code app.jwt.cache.enabled}, the Nimbus decoder is wrapped in a
+     * {@link CachingReactiveJwtDecoder} so a token is only verified once until it expires.
+     * Unless disabled through {@code app.gateway.revocation.enabled}, the result is wrapped
+     * in a {@link RevocationCheckingJwtDecoder}, outside the cache, so cached tokens are
+     * checked against the revocation list too.
+     */
     @Bean
-    public ReactiveJwtDecoder jwtDecoder() {
+    public ReactiveJwtDecoder jwtDecoder(MeterRegistry meterRegistry, TokenRevocationList revocationList) {
         log.info("Creating ReactiveJwtDecoder bean for JWT validation...");
 
         String secret = jwtConfig.getSecret();
         byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
         SecretKeySpec secretKeySpec = new SecretKeySpec(keyBytes, "HmacSHA512");
 
-        return NimbusReactiveJwtDecoder.withSecretKey(secretKeySpec)
+        ReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withSecretKey(secretKeySpec)
                 .macAlgorithm(MacAlgorithm.HS512)
                 .build();
+
+        if (tokenCacheConfig.isEnabled()) {
+            log.info("Caching verified tokens (max size: {})", tokenCacheConfig.getMaxSize());
+            decoder = new CachingReactiveJwtDecoder(decoder, tokenCacheConfig.getMaxSize(), meterRegistry);
+        }
+        if (!tokenRevocationConfig.isEnabled()) {
+            return decoder;
+        }
+        return new RevocationCheckingJwtDecoder(decoder, revocationList);
     }
 
     /**
@@ -0,0 +1,45 @@
+package gtp.bytebites.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gateway-wide budget for hedged requests sent by the {@code Hedge} route filter.
+ *
+ * <p>Properties are bound from the {@code app.gateway.hedge} prefix:</p>
+ * <ul>
+ *   <li><b>budgetRatio</b>: hedges allowed per hedge-eligible request, across all routes</li>
+ *   <li><b>budgetBurst</b>: hedges that may be saved up while traffic is calm</li>
+ * </ul>
+ *
+ * With the defaults, hedging adds at most about five percent to upstream load however
+ * slow the instances get.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.gateway.hedge")
+public class HedgeConfig {
+    private double budgetRatio = 0.05;
+    private int budgetBurst = 10;
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public void setBudgetRatio(double budgetRatio) {
+        if (budgetRatio < 0.0 || budgetRatio > 1.0) {
+            throw new IllegalArgumentException("Hedge budget ratio must be in [0, 1]: " + budgetRatio);
+        }
+        this.budgetRatio = budgetRatio;
+    }
+
+    public int getBudgetBurst() {
+        return budgetBurst;
+    }
+
+    public void setBudgetBurst(int budgetBurst) {
+        if (budgetBurst < 1) {
+            throw new IllegalArgumentException("Hedge budget burst must be at least 1: " + budgetBurst);
+        }
+        this.budgetBurst = budgetBurst;
+    }
+}
@@ -0,0 +1,52 @@
+package gtp.bytebites.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Signing of the {@code X-User-Identity} header forwarded to downstream services.
+ *
+ * <p>Properties are bound from the {@code app.gateway.identity} prefix:</p>
+ * <ul>
+ *   <li><b>secret</b>: HMAC key shared with the services, at least 32 characters</li>
+ *   <li><b>maxAge</b>: how long a signed header stays valid, capped at the token's own
+ *       expiry</li>
+ * </ul>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.gateway.identity")
+public class IdentityHeaderConfig {
+    private String secret;
+    private Duration maxAge = Duration.ofMinutes(5);
+
+    public byte[] getSecretBytes() {
+        return getSecret().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String getSecret() {
+        if (secret == null || secret.length() < 32) {
+            throw new IllegalStateException(
+                    "Identity header secret must be at least 32 characters long. Current length: " +
+                            (secret != null ? secret.length() : "null"));
+        }
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Duration maxAge) {
+        if (maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("Identity header max age must be positive: " + maxAge);
+        }
+        this.maxAge = maxAge;
+    }
+}
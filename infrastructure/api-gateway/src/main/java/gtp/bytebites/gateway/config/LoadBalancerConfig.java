@@ -0,0 +1,71 @@
+package gtp.bytebites.gateway.config;
+
+import gtp.bytebites.gateway.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Instance selection for {@code lb://} routes and the load-balanced {@code WebClient}.
+ *
+ * <p>Properties are bound from the {@code app.gateway.load-balancer} prefix:</p>
+ * <ul>
+ *   <li><b>strategy</b>: {@code ewma} (latency weighted by in-flight requests),
+ *       {@code least-outstanding} or {@code round-robin}</li>
+ *   <li><b>decay</b>: how quickly old latency samples stop mattering</li>
+ *   <li><b>slowStart</b>: ramp-up period during which a newly seen instance gets a
+ *       growing share of traffic</li>
+ *   <li><b>failurePenalty</b>: latency recorded for a request that failed, so that
+ *       failing instances are avoided like slow ones</li>
+ * </ul>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.gateway.load-balancer")
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+    private Strategy strategy = Strategy.EWMA;
+    private Duration decay = Duration.ofSeconds(10);
+    private Duration slowStart = Duration.ofSeconds(30);
+    private Duration failurePenalty = Duration.ofSeconds(1);
+
+    public enum Strategy {
+        EWMA,
+        LEAST_OUTSTANDING,
+        ROUND_ROBIN
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public Duration getDecay() {
+        return decay;
+    }
+
+    public void setDecay(Duration decay) {
+        this.decay = decay;
+    }
+
+    public Duration getSlowStart() {
+        return slowStart;
+    }
+
+    public void setSlowStart(Duration slowStart) {
+        this.slowStart = slowStart;
+    }
+
+    public Duration getFailurePenalty() {
+        return failurePenalty;
+    }
+
+    public void setFailurePenalty(Duration failurePenalty) {
+        this.failurePenalty = failurePenalty;
+    }
+}
@@ -0,0 +1,93 @@
+package gtp.bytebites.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Passive health tracking of the instances behind {@code lb://} routes.
+ *
+ * <p>Properties are bound from the {@code app.gateway.load-balancer.outlier-detection}
+ * prefix:</p>
+ * <ul>
+ *   <li><b>enabled</b>: whether failing instances are ejected at all</li>
+ *   <li><b>consecutiveFailures</b>: failures in a row that eject an instance</li>
+ *   <li><b>errorRateThreshold</b>: share of failed requests within <b>window</b> that
+ *       ejects an instance, once it has served at least <b>minimumRequests</b></li>
+ *   <li><b>baseEjectionTime</b>: how long a first ejection lasts; it doubles with every
+ *       repeated ejection up to <b>maxEjectionTime</b></li>
+ * </ul>
+ *
+ * A failure is a connection error, a timeout or a {@code 5xx} response.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.gateway.load-balancer.outlier-detection")
+public class OutlierDetectionConfig {
+    private boolean enabled = true;
+    private int consecutiveFailures = 5;
+    private double errorRateThreshold = 0.5;
+    private int minimumRequests = 10;
+    private Duration window = Duration.ofSeconds(10);
+    private Duration baseEjectionTime = Duration.ofSeconds(30);
+    private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public void setConsecutiveFailures(int consecutiveFailures) {
+        this.consecutiveFailures = consecutiveFailures;
+    }
+
+    public double getErrorRateThreshold() {
+        return errorRateThreshold;
+    }
+
+    public void setErrorRateThreshold(double errorRateThreshold) {
+        if (errorRateThreshold <= 0 || errorRateThreshold > 1) {
+            throw new IllegalArgumentException("Error rate threshold must be in (0, 1]: " + errorRateThreshold);
+        }
+        this.errorRateThreshold = errorRateThreshold;
+    }
+
+    public int getMinimumRequests() {
+        return minimumRequests;
+    }
+
+    public void setMinimumRequests(int minimumRequests) {
+        this.minimumRequests = minimumRequests;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public Duration getBaseEjectionTime() {
+        return baseEjectionTime;
+    }
+
+    public void setBaseEjectionTime(Duration baseEjectionTime) {
+        this.baseEjectionTime = baseEjectionTime;
+    }
+
+    public Duration getMaxEjectionTime() {
+        return maxEjectionTime;
+    }
+
+    public void setMaxEjectionTime(Duration maxEjectionTime) {
+        this.maxEjectionTime = maxEjectionTime;
+    }
+}
@@ -0,0 +1,147 @@
+package gtp.bytebites.gateway.config;
+
+import gtp.bytebites.gateway.ratelimit.InMemoryTokenBucketStore;
+import gtp.bytebites.gateway.ratelimit.RedisTokenBucketStore;
+import gtp.bytebites.gateway.ratelimit.TokenBucketStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for the per-caller token-bucket rate limiter.
+ *
+ * <p>Properties are bound from the {@code app.gateway.rate-limit} prefix:</p>
+ * <ul>
+ *   <li><b>enabled</b>: whether requests are rate limited at all</li>
+ *   <li><b>backend</b>: {@code in-memory} (per gateway instance) or {@code redis}
+ *       (shared by every instance)</li>
+ *   <li><b>idleTimeout</b>: in-memory buckets untouched for this long are evicted; keep it
+ *       longer than the slowest bucket takes to refill</li>
+ *   <li><b>defaultPolicy</b>: limits for routes without their own policy</li>
+ *   <li><b>routes</b>: limits keyed by gateway route id</li>
+ * </ul>
+ *
+ * A policy allows {@code burstCapacity} requests at once and refills at
+ * {@code replenishRate} requests per second. A {@code replenishRate} of zero disables
+ * limiting for the route.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.gateway.rate-limit")
+public class RateLimitConfig {
+    private boolean enabled = true;
+    private String backend = "in-memory";
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Policy defaultPolicy = new Policy();
+    private Map<String, Policy> routes = new HashMap<>();
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.gateway.rate-limit", name = "backend",
+            havingValue = "in-memory", matchIfMissing = true)
+    public TokenBucketStore inMemoryTokenBucketStore(MeterRegistry meterRegistry) {
+        return new InMemoryTokenBucketStore(idleTimeout, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.gateway.rate-limit", name = "backend", havingValue = "redis")
+    public TokenBucketStore redisTokenBucketStore(ReactiveStringRedisTemplate redisTemplate) {
+        return new RedisTokenBucketStore(redisTemplate);
+    }
+
+    public Policy policyFor(String routeId) {
+        return routeId != null ? routes.getOrDefault(routeId, defaultPolicy) : defaultPolicy;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    public void setBackend(String backend) {
+        this.backend = backend;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Policy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    public void setDefaultPolicy(Policy defaultPolicy) {
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    public Map<String, Policy> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Policy> routes) {
+        this.routes = routes;
+    }
+
+    public static class Policy {
+        private int replenishRate = 20;
+        private int burstCapacity = 40;
+
+        public Policy() {
+        }
+
+        public Policy(int replenishRate, int burstCapacity) {
+            setReplenishRate(replenishRate);
+            setBurstCapacity(burstCapacity);
+        }
+
+        public boolean isUnlimited() {
+            return replenishRate == 0;
+        }
+
+        /**
+         * @return nanoseconds it takes to earn back one request
+         */
+        public long emissionIntervalNanos() {
+            return 1_000_000_000L / replenishRate;
+        }
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(int replenishRate) {
+            if (replenishRate < 0) {
+                throw new IllegalArgumentException("Replenish rate must not be negative: " + replenishRate);
+            }
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            if (burstCapacity <= 0) {
+                throw new IllegalArgumentException("Burst capacity must be positive: " + burstCapacity);
+            }
+            this.burstCapacity = burstCapacity;
+        }
+    }
+}
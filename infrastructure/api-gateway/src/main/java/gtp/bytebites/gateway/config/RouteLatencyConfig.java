@@ -0,0 +1,92 @@
+package gtp.bytebites.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings for per-route latency histograms.
+ *
+ * <p>Properties are bound from the {@code app.gateway.route-latency} prefix:</p>
+ * <ul>
+ *   <li><b>enabled</b>: whether route latencies are recorded at all</li>
+ *   <li><b>sloBuckets</b>: latency objectives; the timers publish a bucket for each, and
+ *       {@code /actuator/routelatency} reports how many requests met each</li>
+ *   <li><b>window</b>: length of one histogram window</li>
+ *   <li><b>windows</b>: number of completed windows kept per route, instance and outcome</li>
+ *   <li><b>highestTrackable</b>: longest latency the histograms can tell apart; longer
+ *       requests are counted at this value</li>
+ *   <li><b>significantDigits</b>: HdrHistogram value precision, from 1 to 5</li>
+ * </ul>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.gateway.route-latency")
+public class RouteLatencyConfig {
+    private boolean enabled = true;
+    private List<Duration> sloBuckets = List.of(
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250),
+            Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(2));
+    private Duration window = Duration.ofMinutes(1);
+    private int windows = 5;
+    private Duration highestTrackable = Duration.ofMinutes(1);
+    private int significantDigits = 2;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Duration> getSloBuckets() {
+        return sloBuckets;
+    }
+
+    public void setSloBuckets(List<Duration> sloBuckets) {
+        this.sloBuckets = sloBuckets.stream().sorted().toList();
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        if (window.isZero() || window.isNegative()) {
+            throw new IllegalArgumentException("Latency window must be positive: " + window);
+        }
+        this.window = window;
+    }
+
+    public int getWindows() {
+        return windows;
+    }
+
+    public void setWindows(int windows) {
+        if (windows < 1) {
+            throw new IllegalArgumentException("At least one latency window must be kept: " + windows);
+        }
+        this.windows = windows;
+    }
+
+    public Duration getHighestTrackable() {
+        return highestTrackable;
+    }
+
+    public void setHighestTrackable(Duration highestTrackable) {
+        this.highestTrackable = highestTrackable;
+    }
+
+    public int getSignificantDigits() {
+        return significantDigits;
+    }
+
+    public void setSignificantDigits(int significantDigits) {
+        if (significantDigits < 1 || significantDigits > 5) {
+            throw new IllegalArgumentException("Significant digits must be between 1 and 5: " + significantDigits);
+        }
+        this.significantDigits = significantDigits;
+    }
+}
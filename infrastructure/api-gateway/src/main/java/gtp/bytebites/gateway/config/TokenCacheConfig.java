@@ -0,0 +1,42 @@
+package gtp.bytebites.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the verified-token cache that sits in front of the
+ * gateway's {@code ReactiveJwtDecoder}.
+ *
+ * <p>Properties are bound from the {@code app.jwt.cache} prefix:</p>
+ * <ul>
+ *   <li><b>enabled</b>: whether decoded tokens are cached at all</li>
+ *   <li><b>maxSize</b>: upper bound on the number of cached tokens</li>
+ * </ul>
+ *
+ * Entries never outlive the {@code exp} claim of the token they hold.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.jwt.cache")
+public class TokenCacheConfig {
+    private boolean enabled = true;
+    private long maxSize = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Token cache max size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+}
@@ -0,0 +1,70 @@
+package gtp.bytebites.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for rejecting revoked access tokens at the gateway.
+ *
+ * <p>Properties are bound from the {@code app.gateway.revocation} prefix:</p>
+ * <ul>
+ *   <li><b>enabled</b>: whether decoded tokens are checked against the revocation list</li>
+ *   <li><b>expectedInsertions</b>: number of live revocations the Bloom filter is sized
+ *       for; it is rebuilt larger if more arrive</li>
+ *   <li><b>falsePositiveRate</b>: share of valid tokens that fall through to the exact
+ *       set at that size</li>
+ *   <li><b>rebuildInterval</b>: how often expired revocations are dropped and the filter
+ *       rebuilt without them</li>
+ * </ul>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.gateway.revocation")
+public class TokenRevocationConfig {
+    private boolean enabled = true;
+    private int expectedInsertions = 10_000;
+    private double falsePositiveRate = 0.01;
+    private Duration rebuildInterval = Duration.ofMinutes(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public void setExpectedInsertions(int expectedInsertions) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected revocations must be positive: " + expectedInsertions);
+        }
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public Duration getRebuildInterval() {
+        return rebuildInterval;
+    }
+
+    public void setRebuildInterval(Duration rebuildInterval) {
+        if (rebuildInterval.isNegative() || rebuildInterval.isZero()) {
+            throw new IllegalArgumentException("Revocation rebuild interval must be positive: " + rebuildInterval);
+        }
+        this.rebuildInterval = rebuildInterval;
+    }
+}
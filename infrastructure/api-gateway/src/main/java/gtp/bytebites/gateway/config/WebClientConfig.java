@@ -0,0 +1,23 @@
+package gtp.bytebites.gateway.config;
+
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+public class WebClientConfig {
+
+    /**
+     * A WebClient that resolves {@code http://service-name} URIs through the same
+     * Spring Cloud LoadBalancer used by the gateway's {@code lb://} routes. Used for
+     * calls the gateway makes on its own behalf rather than on behalf of a routed request.
+     */
+    @Bean
+    public WebClient loadBalancedWebClient(WebClient.Builder builder,
+                                           ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction) {
+        return builder.clone()
+                .filter(loadBalancerFunction)
+                .build();
+    }
+}
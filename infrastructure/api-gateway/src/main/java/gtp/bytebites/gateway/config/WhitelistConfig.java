@@ -0,0 +1,60 @@
+package gtp.bytebites.gateway.config;
+
+import gtp.bytebites.gateway.security.PathWhitelist;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Owns the single source of public gateway paths, {@code app.security.whitelist}.
+ * <p>
+ * The patterns are compiled into a {@link PathWhitelist} at startup and shared by the
+ * security filter chain and {@link gtp.bytebites.gateway.filters.JwtGlobalFilter}. When the
+ * property changes through a config refresh, the whitelist is recompiled in place.
+ * </p>
+ */
+@Configuration
+public class WhitelistConfig {
+    private static final Logger log = LoggerFactory.getLogger(WhitelistConfig.class);
+
+    static final String WHITELIST_PROPERTY = "app.security.whitelist";
+
+    private final Environment environment;
+    private final PathWhitelist pathWhitelist;
+
+    public WhitelistConfig(Environment environment) {
+        this.environment = environment;
+        this.pathWhitelist = new PathWhitelist(bindPatterns());
+        log.info("Compiled {} whitelist patterns", pathWhitelist.getPatterns().size());
+    }
+
+    @Bean
+    public PathWhitelist pathWhitelist() {
+        return pathWhitelist;
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        boolean whitelistChanged = event.getKeys().stream()
+                .anyMatch(key -> key.startsWith(WHITELIST_PROPERTY));
+        if (whitelistChanged) {
+            pathWhitelist.reload(bindPatterns());
+            log.info("Reloaded whitelist patterns: {}", pathWhitelist.getPatterns());
+        }
+    }
+
+    private List<String> bindPatterns() {
+        return Binder.get(environment)
+                .bind(WHITELIST_PROPERTY, Bindable.listOf(String.class))
+                .orElse(List.of());
+    }
+}
@@ -0,0 +1,29 @@
+package gtp.bytebites.gateway.deadline;
+
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Stamps the remaining time budget on each request as it is sent downstream.
+ * <p>
+ * Headers filters run when the routing filter builds the outgoing request, so the budget
+ * reflects time already spent in the gateway, including any wait for admission, and is
+ * recomputed for every retry.
+ * </p>
+ */
+@Component
+public class DeadlineHttpHeadersFilter implements HttpHeadersFilter {
+
+    @Override
+    public HttpHeaders filter(HttpHeaders input, ServerWebExchange exchange) {
+        if (exchange.getAttribute(RequestDeadline.DEADLINE_ATTR) == null) {
+            return input;
+        }
+        HttpHeaders filtered = new HttpHeaders();
+        filtered.putAll(input);
+        RequestDeadline.write(exchange, filtered);
+        return filtered;
+    }
+}
@@ -0,0 +1,60 @@
+package gtp.bytebites.gateway.deadline;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code X-Request-Timeout} header that carries a request's remaining time budget.
+ * <p>
+ * The header holds the milliseconds left rather than a point in time, so services do not
+ * depend on their clocks agreeing with the gateway's: each hop turns it back into a local
+ * deadline on arrival and stamps what is left of it on the calls it makes in turn.
+ * </p>
+ */
+public final class RequestDeadline {
+    public static final String HEADER = "X-Request-Timeout";
+
+    /**
+     * Exchange attribute holding the request's deadline as a {@link System#nanoTime()} value.
+     */
+    public static final String DEADLINE_ATTR = RequestDeadline.class.getName() + ".deadline";
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Sets the header to the time left before the exchange's deadline, if it has one.
+     *
+     * @throws ResponseStatusException with {@code 504} if the deadline has already passed,
+     *                                 so the request is not sent at all
+     */
+    public static void write(ServerWebExchange exchange, HttpHeaders headers) {
+        Long deadline = exchange.getAttribute(DEADLINE_ATTR);
+        if (deadline == null) {
+            return;
+        }
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMillis <= 0) {
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Request deadline exceeded");
+        }
+        headers.set(HEADER, Long.toString(remainingMillis));
+    }
+
+    /**
+     * @return the budget in milliseconds, or {@code -1} if the value is missing or malformed
+     */
+    public static long parse(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0L, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
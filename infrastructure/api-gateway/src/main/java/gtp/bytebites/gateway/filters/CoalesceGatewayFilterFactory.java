@@ -0,0 +1,281 @@
+package gtp.bytebites.gateway.filters;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collapses concurrent identical {@code GET} requests on a route into one upstream call.
+ * <p>
+ * Enabled per route with the {@code Coalesce} filter:
+ * </p>
+ * <pre>
+ * spring.cloud.gateway.server.webflux.routes[1].filters[1].name=Coalesce
+ * spring.cloud.gateway.server.webflux.routes[1].filters[1].args.max-body-size=1MB
+ * </pre>
+ * <p>
+ * The first request for a route, path, query and set of {@code varyHeaders} is sent
+ * upstream and its response streamed to its caller as usual, while a copy is kept. Requests
+ * for the same key that arrive before that response completes wait for it and are answered
+ * with the same status, headers and body. If the leader fails, is cancelled, sets cookies
+ * or its body exceeds {@code maxBodySize}, every waiting request is sent upstream on its
+ * own instead. Only put this filter on routes whose responses do not depend on the caller.
+ * </p>
+ * <p>
+ * Followers have already been through {@link RateLimitGlobalFilter}, which runs before this
+ * filter, and keep the rate limit headers it set for them rather than the leader's.
+ * </p>
+ */
+@Component
+public class CoalesceGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<CoalesceGatewayFilterFactory.Config> {
+    private static final Logger log = LoggerFactory.getLogger(CoalesceGatewayFilterFactory.class);
+
+    /**
+     * Runs after {@link EdgeCacheGatewayFilterFactory} and before
+     * {@link NettyWriteResponseFilter}, whose write of the upstream body is captured.
+     */
+    private static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private static final Set<String> UNSHARED_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            HttpHeaders.SET_COOKIE.toLowerCase(),
+            HttpHeaders.RETRY_AFTER.toLowerCase(),
+            RateLimitGlobalFilter.REMAINING_HEADER.toLowerCase());
+
+    private final MeterRegistry meterRegistry;
+
+    public CoalesceGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        ConcurrentMap<Key, Flight> inFlight = new ConcurrentHashMap<>();
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config, inFlight), ORDER);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain,
+                              Config config, ConcurrentMap<Key, Flight> inFlight) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        if (inFlight.size() >= config.getMaxInFlight()) {
+            record(exchange, "bypass");
+            return chain.filter(exchange);
+        }
+
+        Key key = Key.of(exchange, config.getVaryHeaders());
+        Flight flight = new Flight();
+        Flight leader = inFlight.putIfAbsent(key, flight);
+
+        if (leader != null) {
+            record(exchange, "follower");
+            return leader.result()
+                    .timeout(config.getMaxWait(), Mono.just(Optional.empty()))
+                    .flatMap(shared -> shared.isPresent()
+                            ? shared.get().writeTo(exchange.getResponse())
+                            : chain.filter(exchange));
+        }
+
+        record(exchange, "leader");
+        return chain.filter(exchange.mutate()
+                        .response(new CapturingResponse(exchange.getResponse(), key, flight, inFlight, config))
+                        .build())
+                .doFinally(signal -> {
+                    inFlight.remove(key, flight);
+                    flight.complete(null);
+                });
+    }
+
+    private void record(ServerWebExchange exchange, String role) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        meterRegistry.counter("gateway.coalescing.requests",
+                "route", route != null ? route.getId() : "unknown",
+                "role", role).increment();
+    }
+
+    /**
+     * Identifies requests that may share one upstream response.
+     */
+    record Key(String routeId, String path, String query, List<String> varyValues) {
+        static Key of(ServerWebExchange exchange, List<String> varyHeaders) {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            ServerHttpRequest request = exchange.getRequest();
+            List<String> varyValues = new ArrayList<>(varyHeaders.size());
+            for (String header : varyHeaders) {
+                List<String> values = request.getHeaders().get(header);
+                varyValues.add(values != null ? String.join(",", values) : "");
+            }
+            return new Key(route != null ? route.getId() : "",
+                    request.getURI().getRawPath(), request.getURI().getRawQuery(), varyValues);
+        }
+    }
+
+    /**
+     * The leader's upstream call, completed once with either its response or
+     * {@code null} when followers must go upstream themselves.
+     */
+    static final class Flight {
+        private final Sinks.One<Optional<SharedResponse>> sink = Sinks.one();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        Mono<Optional<SharedResponse>> result() {
+            return sink.asMono();
+        }
+
+        void complete(SharedResponse response) {
+            if (completed.compareAndSet(false, true)) {
+                sink.tryEmitValue(Optional.ofNullable(response));
+            }
+        }
+    }
+
+    record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+        Mono<Void> writeTo(ServerHttpResponse response) {
+            response.setStatusCode(status);
+            headers.forEach((name, values) -> response.getHeaders().put(name, values));
+            response.getHeaders().setContentLength(body.length);
+            return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+        }
+    }
+
+    /**
+     * Streams the leader's response to its caller while keeping a bounded copy for
+     * the followers.
+     */
+    private static final class CapturingResponse extends ServerHttpResponseDecorator {
+        private final Key key;
+        private final Flight flight;
+        private final ConcurrentMap<Key, Flight> inFlight;
+        private final long maxBodyBytes;
+
+        CapturingResponse(ServerHttpResponse delegate, Key key, Flight flight,
+                          ConcurrentMap<Key, Flight> inFlight, Config config) {
+            super(delegate);
+            this.key = key;
+            this.flight = flight;
+            this.inFlight = inFlight;
+            this.maxBodyBytes = config.getMaxBodySize().toBytes();
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            long contentLength = getHeaders().getContentLength();
+            if (getHeaders().containsKey(HttpHeaders.SET_COOKIE) || contentLength > maxBodyBytes) {
+                release(null);
+                return super.writeWith(body);
+            }
+
+            ByteArrayOutputStream copy = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : 256);
+            AtomicBoolean overflowed = new AtomicBoolean();
+            Flux<? extends DataBuffer> teed = Flux.from(body)
+                    .doOnNext(buffer -> {
+                        int length = buffer.readableByteCount();
+                        if (overflowed.get() || copy.size() + length > maxBodyBytes) {
+                            overflowed.set(true);
+                            return;
+                        }
+                        ByteBuffer bytes = ByteBuffer.allocate(length);
+                        buffer.toByteBuffer(buffer.readPosition(), bytes, 0, length);
+                        copy.writeBytes(bytes.array());
+                    })
+                    .doOnComplete(() -> release(overflowed.get() ? null : snapshot(copy.toByteArray())));
+            return super.writeWith(teed);
+        }
+
+        private SharedResponse snapshot(byte[] body) {
+            HttpHeaders headers = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (!UNSHARED_HEADERS.contains(name.toLowerCase())) {
+                    headers.put(name, List.copyOf(values));
+                }
+            });
+            return new SharedResponse(getStatusCode(), headers, body);
+        }
+
+        private void release(SharedResponse response) {
+            inFlight.remove(key, flight);
+            if (response == null) {
+                log.debug("Response for {} is not shareable, followers go upstream", key);
+            }
+            flight.complete(response);
+        }
+    }
+
+    public static class Config {
+        private DataSize maxBodySize = DataSize.ofMegabytes(1);
+        private int maxInFlight = 1_000;
+        private Duration maxWait = Duration.ofSeconds(10);
+        private List<String> varyHeaders = List.of(
+                HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT_LANGUAGE);
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public List<String> getVaryHeaders() {
+            return varyHeaders;
+        }
+
+        public void setVaryHeaders(List<String> varyHeaders) {
+            this.varyHeaders = varyHeaders;
+        }
+    }
+}
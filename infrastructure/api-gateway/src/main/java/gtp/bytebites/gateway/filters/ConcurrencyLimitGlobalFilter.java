@@ -0,0 +1,126 @@
+package gtp.bytebites.gateway.filters;
+
+import gtp.bytebites.gateway.concurrency.ConcurrencyLimiterRegistry;
+import gtp.bytebites.gateway.concurrency.GradientLimiter;
+import gtp.bytebites.gateway.config.ConcurrencyLimitConfig;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sheds load before it queues up in a downstream service.
+ * <p>
+ * Each route has a {@link GradientLimiter} that caps its in-flight requests and adapts
+ * the cap to the latency the route is showing. Requests over the cap are answered with
+ * {@code 503 Service Unavailable} and a {@code Retry-After} header straight away, so
+ * callers back off instead of waiting on a saturated servlet thread pool. Timeouts and
+ * {@code 429}, {@code 503} or {@code 504} answers from downstream lower the cap.
+ * </p>
+ */
+@Component
+public class ConcurrencyLimitGlobalFilter implements GlobalFilter, Ordered {
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitGlobalFilter.class);
+
+    private final ConcurrencyLimitConfig concurrencyLimitConfig;
+    private final ConcurrencyLimiterRegistry limiterRegistry;
+
+    public ConcurrencyLimitGlobalFilter(ConcurrencyLimitConfig concurrencyLimitConfig,
+                                        ConcurrencyLimiterRegistry limiterRegistry) {
+        this.concurrencyLimitConfig = concurrencyLimitConfig;
+        this.limiterRegistry = limiterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!concurrencyLimitConfig.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "unknown";
+        GradientLimiter limiter = limiterRegistry.limiterFor(routeId);
+        GradientLimiter.Permit permit = limiter.tryAcquire();
+        if (permit == null) {
+            log.debug("Concurrency limit of {} reached for route {}", limiter.getLimit(), routeId);
+            return serviceUnavailable(exchange.getResponse());
+        }
+
+        return chain.filter(exchange)
+                .doOnSuccess(done -> {
+                    if (isOverloaded(exchange.getResponse().getStatusCode())) {
+                        permit.dropped();
+                    } else {
+                        permit.success();
+                    }
+                })
+                .doOnError(error -> {
+                    if (isTimeout(error)) {
+                        permit.dropped();
+                    } else {
+                        permit.ignore();
+                    }
+                })
+                .doFinally(signal -> permit.ignore());
+    }
+
+    private Mono<Void> serviceUnavailable(ServerHttpResponse response) {
+        long retryAfterSeconds = Math.max(1L, concurrencyLimitConfig.getRetryAfter().toSeconds());
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return response.setComplete();
+    }
+
+    private boolean isOverloaded(HttpStatusCode status) {
+        return status != null && isOverloaded(status.value());
+    }
+
+    /**
+     * @return whether a downstream status says the service is saturated and the route's
+     *         limit should come down
+     */
+    public static boolean isOverloaded(int status) {
+        return status == HttpStatus.TOO_MANY_REQUESTS.value()
+                || status == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || status == HttpStatus.GATEWAY_TIMEOUT.value();
+    }
+
+    private boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return true;
+            }
+            if (cause instanceof ResponseStatusException statusException
+                    && statusException.getStatusCode().value() == HttpStatus.GATEWAY_TIMEOUT.value()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs after {@link RateLimitGlobalFilter} and the {@code WaitingRoom} filter, so
+     * rate-limited and queued callers never hold a permit, and before the {@code Retry}
+     * default filter. Retry has no order of its own and takes its position among the
+     * route's filters, starting at 1, so a retry reuses its caller's permit and a shed
+     * request is never retried.
+     */
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+}
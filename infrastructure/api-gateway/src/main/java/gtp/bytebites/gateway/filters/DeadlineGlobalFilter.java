@@ -0,0 +1,59 @@
+package gtp.bytebites.gateway.filters;
+
+import gtp.bytebites.gateway.config.DeadlineConfig;
+import gtp.bytebites.gateway.deadline.RequestDeadline;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives every routed request a deadline when it reaches the gateway.
+ * <p>
+ * The budget is the route's configured timeout, or less if the client asked for less in
+ * the {@code X-Request-Timeout} header. The deadline is kept on the exchange; what is left
+ * of it is sent downstream by {@link gtp.bytebites.gateway.deadline.DeadlineHttpHeadersFilter}
+ * so services can stop working on requests the caller has already given up on.
+ * </p>
+ */
+@Component
+public class DeadlineGlobalFilter implements GlobalFilter, Ordered {
+    private final DeadlineConfig deadlineConfig;
+
+    public DeadlineGlobalFilter(DeadlineConfig deadlineConfig) {
+        this.deadlineConfig = deadlineConfig;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!deadlineConfig.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        long budgetMillis = deadlineConfig.timeoutFor(route != null ? route.getId() : null).toMillis();
+        long requestedMillis = RequestDeadline.parse(exchange.getRequest().getHeaders().getFirst(RequestDeadline.HEADER));
+        if (requestedMillis >= 0) {
+            budgetMillis = Math.min(budgetMillis, requestedMillis);
+        }
+        exchange.getAttributes().put(RequestDeadline.DEADLINE_ATTR,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+        return chain.filter(exchange);
+    }
+
+    /**
+     * Runs right after {@link RouteLatencyGlobalFilter}, so the budget covers all the time
+     * the request spends in the gateway.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+}
@@ -0,0 +1,299 @@
+package gtp.bytebites.gateway.filters;
+
+import gtp.bytebites.gateway.cache.CachedResponse;
+import gtp.bytebites.gateway.cache.EdgeResponseCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Per-route response cache for idempotent catalog reads.
+ * <p>
+ * Enabled on a route with the {@code EdgeCache} filter:
+ * </p>
+ * <pre>
+ * spring.cloud.gateway.server.webflux.routes[1].filters[0].name=EdgeCache
+ * spring.cloud.gateway.server.webflux.routes[1].filters[0].args.ttl=30s
+ * spring.cloud.gateway.server.webflux.routes[1].filters[0].args.stale-while-revalidate=60s
+ * </pre>
+ * <p>
+ * Only {@code GET} requests are considered and responses are shared between callers, so
+ * the filter must only be put on routes whose reads do not depend on the caller. A
+ * successful upstream response is stored unless it sets cookies or is marked
+ * {@code private}/{@code no-store}. Cached entries are served with a strong {@code ETag}
+ * and answer a matching {@code If-None-Match} with {@code 304 Not Modified}.
+ * </p>
+ * <p>
+ * Within {@code ttl} an entry is served as-is. For a further
+ * {@code stale-while-revalidate} it is still served immediately, while a single
+ * background request refreshes it through the route's load-balanced URI. Entries for a
+ * restaurant are dropped early when restaurant-service publishes a catalog change.
+ * </p>
+ */
+@Component
+public class EdgeCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<EdgeCacheGatewayFilterFactory.Config> {
+    private static final Logger log = LoggerFactory.getLogger(EdgeCacheGatewayFilterFactory.class);
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    /**
+     * Runs before {@link NettyWriteResponseFilter} so the decorated response is the one
+     * the upstream body is written to, and before {@link CoalesceGatewayFilterFactory} so
+     * cache hits never wait on an in-flight request.
+     */
+    private static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+    private static final String LOAD_BALANCED_SCHEME = "lb";
+
+    private final EdgeResponseCache cache;
+    private final WebClient loadBalancedWebClient;
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+
+    public EdgeCacheGatewayFilterFactory(EdgeResponseCache cache,
+                                         WebClient loadBalancedWebClient,
+                                         WebClient.Builder webClientBuilder,
+                                         MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.cache = cache;
+        this.loadBalancedWebClient = loadBalancedWebClient;
+        this.webClient = webClientBuilder.build();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl", "staleWhileRevalidate");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config), ORDER);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        EdgeResponseCache.Key key = cacheKey(exchange);
+        CachedResponse cached = cache.get(key);
+        long now = System.currentTimeMillis();
+
+        if (cached != null) {
+            long age = cached.ageMillis(now);
+            if (age < config.getTtl().toMillis()) {
+                return writeCached(exchange, cached, age, "HIT");
+            }
+            if (age < config.lifetime().toMillis()) {
+                if (cached.claimRevalidation()) {
+                    revalidate(exchange, key, cached, config);
+                }
+                return writeCached(exchange, cached, age, "STALE");
+            }
+        }
+
+        record(exchange, "MISS");
+        return chain.filter(exchange.mutate()
+                .response(new CachingResponse(exchange.getResponse(), key, config))
+                .build());
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, long age, String status) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(cached.etag());
+        headers.set(HttpHeaders.AGE, Long.toString(age / 1000));
+        headers.set(CACHE_STATUS_HEADER, status);
+
+        if (matchesIfNoneMatch(exchange.getRequest(), cached.etag())) {
+            record(exchange, "NOT_MODIFIED");
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        record(exchange, status);
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.contentType() != null) {
+            headers.setContentType(cached.contentType());
+        }
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private void revalidate(ServerWebExchange exchange, EdgeResponseCache.Key key,
+                            CachedResponse stale, Config config) {
+        URI uri = upstreamUri(exchange);
+        WebClient client = LOAD_BALANCED_SCHEME.equals(uri.getScheme()) ? loadBalancedWebClient : webClient;
+        URI target = LOAD_BALANCED_SCHEME.equals(uri.getScheme())
+                ? UriComponentsBuilder.fromUri(uri).scheme("http").build(true).toUri()
+                : uri;
+
+        client.get()
+                .uri(target)
+                .headers(headers -> headers.setAccept(exchange.getRequest().getHeaders().getAccept()))
+                .retrieve()
+                .toEntity(byte[].class)
+                .timeout(config.getRevalidateTimeout())
+                .doOnNext(entity -> {
+                    byte[] body = entity.getBody() != null ? entity.getBody() : new byte[0];
+                    if (!entity.getStatusCode().is2xxSuccessful() || !isCacheable(entity.getHeaders())) {
+                        return;
+                    }
+                    String etag = EdgeResponseCache.etagFor(body);
+                    long now = System.currentTimeMillis();
+                    CachedResponse refreshed = etag.equals(stale.etag())
+                            ? stale.confirmedAt(now)
+                            : new CachedResponse(entity.getHeaders().getContentType(), body, etag, now,
+                                    config.lifetime().toMillis());
+                    cache.put(key, refreshed);
+                })
+                .doOnError(e -> log.debug("Background revalidation of {} failed: {}", key, e.getMessage()))
+                .doFinally(signal -> stale.releaseRevalidation())
+                .subscribe(entity -> { }, e -> { });
+    }
+
+    private URI upstreamUri(ServerWebExchange exchange) {
+        Route route = exchange.getRequiredAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI requestUri = exchange.getRequest().getURI();
+        return UriComponentsBuilder.fromUri(route.getUri())
+                .replacePath(requestUri.getRawPath())
+                .replaceQuery(requestUri.getRawQuery())
+                .build(true)
+                .toUri();
+    }
+
+    private EdgeResponseCache.Key cacheKey(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI uri = exchange.getRequest().getURI();
+        return new EdgeResponseCache.Key(route != null ? route.getId() : "", uri.getRawPath(), uri.getRawQuery());
+    }
+
+    private boolean matchesIfNoneMatch(ServerHttpRequest request, String etag) {
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || etag.equals(candidate) || ("W/" + etag).equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isCacheable(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        return cacheControl == null
+                || !(cacheControl.contains("no-store") || cacheControl.contains("private"));
+    }
+
+    private void record(ServerWebExchange exchange, String result) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        meterRegistry.counter("gateway.edge.cache.requests",
+                "route", route != null ? route.getId() : "unknown",
+                "result", result).increment();
+    }
+
+    /**
+     * Captures a cacheable upstream body while passing it through to the client.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+        private final EdgeResponseCache.Key key;
+        private final Config config;
+
+        CachingResponse(ServerHttpResponse delegate, EdgeResponseCache.Key key, Config config) {
+            super(delegate);
+            this.key = key;
+            this.config = config;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            if (status == null || status.value() != HttpStatus.OK.value() || !isCacheable(getHeaders())) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(Flux.from(body))
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        String etag = EdgeResponseCache.etagFor(bytes);
+                        MediaType contentType = getHeaders().getContentType();
+                        cache.put(key, new CachedResponse(contentType, bytes, etag,
+                                System.currentTimeMillis(), config.lifetime().toMillis()));
+
+                        getHeaders().setETag(etag);
+                        getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+    }
+
+    public static class Config {
+        private Duration ttl = Duration.ofSeconds(30);
+        private Duration staleWhileRevalidate = Duration.ofSeconds(30);
+        private Duration revalidateTimeout = Duration.ofSeconds(5);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+
+        public Duration getRevalidateTimeout() {
+            return revalidateTimeout;
+        }
+
+        public void setRevalidateTimeout(Duration revalidateTimeout) {
+            this.revalidateTimeout = revalidateTimeout;
+        }
+
+        Duration lifetime() {
+            return ttl.plus(staleWhileRevalidate);
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package gtp.bytebites.gateway.filters;
+
+import gtp.bytebites.gateway.hedge.HedgeBudget;
+import gtp.bytebites.gateway.hedge.HedgeDelay;
+import gtp.bytebites.gateway.loadbalancer.InstanceStatsRegistry;
+import gtp.bytebites.gateway.loadbalancer.LatencyAwareLoadBalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sends a second copy of a slow {@code GET} to another instance and answers with
+ * whichever copy responds first.
+ * <p>
+ * Enabled per route with the {@code Hedge} filter:
+ * </p>
+ * <pre>
+ * spring.cloud.gateway.server.webflux.routes[2].filters[0].name=Hedge
+ * spring.cloud.gateway.server.webflux.routes[2].filters[0].args.percentile=0.95
+ * </pre>
+ * <p>
+ * The filter takes over from the load balancer and routing filters for {@code GET}
+ * requests on {@code lb://} routes. It picks an instance through the route's load balancer
+ * and calls it. If no response has arrived after the route's current latency
+ * {@code percentile}, bounded by {@code minDelay} and {@code maxDelay}, it picks a
+ * different instance and calls that one too. The first response wins and the other call is
+ * cancelled. Hedges are paid for from the gateway-wide {@link HedgeBudget}; when the
+ * budget is spent the request simply waits for its first call. Both calls are fed into the
+ * {@link InstanceStatsRegistry} like routed requests.
+ * </p>
+ * <p>
+ * Like {@link NettyRoutingFilter}, the filter sends the request headers through the
+ * gateway's {@link HttpHeadersFilter}s and only puts the winning response's status, headers
+ * and connection on the exchange. {@link NettyWriteResponseFilter} streams the body once
+ * every filter has returned, so the {@code Retry} filter still sees a {@code 5xx} before
+ * anything is committed, and retries it like any routed request. Metrics:
+ * {@code gateway.hedge.requests} tagged {@code hedged=true|false}, and
+ * {@code gateway.hedge.wins} and {@code gateway.hedge.budget.exhausted} per route.
+ * </p>
+ */
+@Component
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+    private static final Logger log = LoggerFactory.getLogger(HedgeGatewayFilterFactory.class);
+
+    /**
+     * Runs after the request URL has been resolved and in place of
+     * {@link ReactiveLoadBalancerClientFilter}.
+     */
+    private static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    private static final String LOAD_BALANCED_SCHEME = "lb";
+
+    private final LoadBalancerClientFactory clientFactory;
+    private final InstanceStatsRegistry instanceStatsRegistry;
+    private final HedgeBudget hedgeBudget;
+    private final HttpClient httpClient;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+    private final MeterRegistry meterRegistry;
+
+    private volatile List<HttpHeadersFilter> headersFilters;
+
+    public HedgeGatewayFilterFactory(LoadBalancerClientFactory clientFactory,
+                                     InstanceStatsRegistry instanceStatsRegistry,
+                                     HedgeBudget hedgeBudget,
+                                     HttpClient httpClient,
+                                     ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                     MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.clientFactory = clientFactory;
+        this.instanceStatsRegistry = instanceStatsRegistry;
+        this.hedgeBudget = hedgeBudget;
+        this.httpClient = httpClient;
+        this.headersFiltersProvider = headersFiltersProvider;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        HedgeDelay delay = new HedgeDelay(config.getPercentile(), config.getMinDelay(), config.getMaxDelay(),
+                config.getMinSamples());
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config, delay), ORDER);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config, HedgeDelay delay) {
+        URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (exchange.getRequest().getMethod() != HttpMethod.GET || ServerWebExchangeUtils.isAlreadyRouted(exchange)
+                || url == null || !LOAD_BALANCED_SCHEME.equals(url.getScheme())) {
+            return chain.filter(exchange);
+        }
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = clientFactory.getInstance(url.getHost());
+        if (loadBalancer == null) {
+            return chain.filter(exchange);
+        }
+
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+        String routeId = routeId(exchange);
+        hedgeBudget.deposit();
+        HttpHeaders headers = HttpHeadersFilter.filterRequest(headersFilters(), exchange);
+        AtomicBoolean hedged = new AtomicBoolean();
+        AtomicReference<Attempt> winner = new AtomicReference<>();
+
+        return choose(loadBalancer, exchange)
+                .switchIfEmpty(Mono.error(() -> NotFoundException.create(true,
+                        "Unable to find instance for " + url.getHost())))
+                .flatMap(primary -> {
+                    Mono<Attempt> first = call(primary, false, url, headers, config, delay, winner);
+                    Mono<Attempt> second = Mono.delay(delay.current())
+                            .then(Mono.defer(() -> choose(loadBalancer, exchange)))
+                            .filter(candidate -> !sameInstance(primary, candidate))
+                            .filter(candidate -> withdraw(routeId))
+                            .flatMap(candidate -> {
+                                hedged.set(true);
+                                log.debug("Hedging {} on {} after {}", url, InstanceStatsRegistry.keyOf(candidate),
+                                        delay.current());
+                                return call(candidate, true, url, headers, config, delay, winner);
+                            })
+                            .onErrorResume(e -> Mono.empty())
+                            .switchIfEmpty(Mono.never());
+                    return Mono.firstWithSignal(first, second);
+                })
+                .onErrorMap(TimeoutException.class,
+                        e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, e.getMessage(), e))
+                .doOnNext(attempt -> {
+                    accept(exchange, attempt);
+                    record(routeId, hedged.get(), attempt.hedge());
+                })
+                .then();
+    }
+
+    private Mono<ServiceInstance> choose(ReactiveLoadBalancer<ServiceInstance> loadBalancer,
+                                         ServerWebExchange exchange) {
+        RequestData requestData = new RequestData(exchange.getRequest(), exchange.getAttributes());
+        return Mono.from(loadBalancer.choose(new DefaultRequest<>(new RequestDataContext(requestData))))
+                .filter(Response::hasServer)
+                .map(Response::getServer)
+                .doOnNext(instance -> attempted(exchange).add(InstanceStatsRegistry.keyOf(instance)));
+    }
+
+    /**
+     * Calls one instance and completes with its response once the headers arrive, leaving
+     * the body unread on the connection. Only the first attempt to respond is emitted; a
+     * later one closes its connection and never completes, until the race cancels it.
+     */
+    private Mono<Attempt> call(ServiceInstance instance, boolean hedge, URI url, HttpHeaders headers,
+                               Config config, HedgeDelay delay, AtomicReference<Attempt> winner) {
+        URI target = UriComponentsBuilder.fromUri(instance.getUri())
+                .replacePath(url.getRawPath())
+                .replaceQuery(url.getRawQuery())
+                .build(true)
+                .toUri();
+        AtomicBoolean finished = new AtomicBoolean();
+        return Mono.defer(() -> {
+            long start = instanceStatsRegistry.started(instance);
+            return httpClient
+                    .headers(outbound -> {
+                        headers.forEach(outbound::set);
+                        outbound.remove(HttpHeaders.HOST);
+                    })
+                    .get()
+                    .uri(target)
+                    .responseConnection((response, connection) ->
+                            Mono.just(new Attempt(response, connection, instance, target, hedge)))
+                    .single()
+                    .timeout(config.getTimeout())
+                    .doOnNext(attempt -> {
+                        if (finished.compareAndSet(false, true)) {
+                            delay.record(instanceStatsRegistry.now() - start);
+                            instanceStatsRegistry.finished(instance, start, attempt.response().status().code() >= 500);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (finished.compareAndSet(false, true)) {
+                            instanceStatsRegistry.finished(instance, start, true);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (finished.compareAndSet(false, true)) {
+                            instanceStatsRegistry.abandoned(instance);
+                        }
+                    });
+        }).flatMap(attempt -> {
+            if (winner.compareAndSet(null, attempt)) {
+                return Mono.just(attempt);
+            }
+            attempt.connection().dispose();
+            return Mono.never();
+        });
+    }
+
+    /**
+     * Puts the winning response on the exchange the way {@link NettyRoutingFilter} does,
+     * for {@link NettyWriteResponseFilter} to write and the {@code Retry} filter to reset.
+     */
+    private void accept(ServerWebExchange exchange, Attempt attempt) {
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, attempt.target());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR,
+                new DefaultResponse(attempt.instance()));
+        exchange.getAttributes().put(ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR, attempt.response());
+        exchange.getAttributes().put(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR, attempt.connection());
+
+        HttpHeaders headers = new HttpHeaders();
+        attempt.response().responseHeaders().forEach(entry -> headers.add(entry.getKey(), entry.getValue()));
+        String contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        if (StringUtils.hasLength(contentType)) {
+            exchange.getAttributes().put(ServerWebExchangeUtils.ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR, contentType);
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(attempt.response().status().code()));
+        HttpHeaders filtered = HttpHeadersFilter.filter(headersFilters(), headers, exchange,
+                HttpHeadersFilter.Type.RESPONSE);
+        if (!filtered.containsKey(HttpHeaders.TRANSFER_ENCODING) && filtered.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+            response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        }
+        exchange.getAttributes().put(ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES, filtered.keySet());
+        response.getHeaders().addAll(filtered);
+    }
+
+    /**
+     * Resolved on first use, since some headers filters depend on the gateway's own beans.
+     */
+    private List<HttpHeadersFilter> headersFilters() {
+        if (headersFilters == null) {
+            headersFilters = headersFiltersProvider.getIfAvailable(List::of);
+        }
+        return headersFilters;
+    }
+
+    private boolean withdraw(String routeId) {
+        if (hedgeBudget.tryWithdraw()) {
+            return true;
+        }
+        meterRegistry.counter("gateway.hedge.budget.exhausted", "route", routeId).increment();
+        return false;
+    }
+
+    private void record(String routeId, boolean hedged, boolean hedgeWon) {
+        meterRegistry.counter("gateway.hedge.requests", "route", routeId, "hedged", Boolean.toString(hedged))
+                .increment();
+        if (hedgeWon) {
+            meterRegistry.counter("gateway.hedge.wins", "route", routeId).increment();
+        }
+    }
+
+    private static boolean sameInstance(ServiceInstance first, ServiceInstance second) {
+        return InstanceStatsRegistry.keyOf(first).equals(InstanceStatsRegistry.keyOf(second));
+    }
+
+    private static Set<String> attempted(ServerWebExchange exchange) {
+        exchange.getAttributes()
+                .computeIfAbsent(LatencyAwareLoadBalancer.ATTEMPTED_INSTANCES_ATTR, key -> ConcurrentHashMap.<String>newKeySet());
+        return exchange.getAttribute(LatencyAwareLoadBalancer.ATTEMPTED_INSTANCES_ATTR);
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    private record Attempt(HttpClientResponse response, Connection connection, ServiceInstance instance,
+                           URI target, boolean hedge) {
+    }
+
+    public static class Config {
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(20);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        private int minSamples = 100;
+        private Duration timeout = Duration.ofSeconds(10);
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package gtp.bytebites.gateway.filters;
+
+import gtp.bytebites.gateway.loadbalancer.InstanceStatsRegistry;
+import gtp.bytebites.gateway.loadbalancer.LatencyAwareLoadBalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Feeds the outcome of every load-balanced request into the {@link InstanceStatsRegistry}.
+ * <p>
+ * Runs right after the instance has been chosen and measures the time until the upstream
+ * response headers arrive. Unlike the load balancer lifecycle callbacks, this also sees
+ * requests that are cancelled by the client, so in-flight counts never drift upwards.
+ * Connection errors and {@code 5xx} responses are recorded as failures.
+ * </p>
+ * <p>
+ * The chosen instance is also remembered on the exchange, so that when the request is
+ * retried the load balancer picks a different one.
+ * </p>
+ */
+@Component
+public class InstanceStatsGlobalFilter implements GlobalFilter, Ordered {
+
+    private final InstanceStatsRegistry instanceStatsRegistry;
+
+    public InstanceStatsGlobalFilter(InstanceStatsRegistry instanceStatsRegistry) {
+        this.instanceStatsRegistry = instanceStatsRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> chosen = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (chosen == null || !chosen.hasServer()) {
+            return chain.filter(exchange);
+        }
+
+        ServiceInstance instance = chosen.getServer();
+        exchange.getAttributes()
+                .computeIfAbsent(LatencyAwareLoadBalancer.ATTEMPTED_INSTANCES_ATTR, key -> ConcurrentHashMap.<String>newKeySet());
+        Set<String> attempted = exchange.getAttribute(LatencyAwareLoadBalancer.ATTEMPTED_INSTANCES_ATTR);
+        attempted.add(InstanceStatsRegistry.keyOf(instance));
+
+        long start = instanceStatsRegistry.started(instance);
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        instanceStatsRegistry.abandoned(instance);
+                        return;
+                    }
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                    instanceStatsRegistry.finished(instance, start, failed);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
@@ -1,35 +1,50 @@
 package gtp.bytebites.gateway.filters;
 
+import gtp.bytebites.gateway.security.IdentityHeaders;
+import gtp.bytebites.gateway.security.PathWhitelist;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
-
+import java.util.Optional;
+
+/**
+ * Forwards the caller's identity to downstream services in the signed
+ * {@code X-User-Identity} header written by {@link IdentityHeaders}.
+ * <p>
+ * The bearer token has already been decoded and verified by the resource server in
+ * {@link gtp.bytebites.gateway.config.GatewaySecurityConfig}; this filter reuses the
+ * authenticated {@link Jwt} from the reactive security context instead of decoding the
+ * token a second time. The {@link Jwt} is also exposed on the exchange under
+ * {@link #AUTHENTICATED_JWT_ATTR} for the filters that run after it. Identity headers
+ * sent by the client are removed on every path, whitelisted or not, so a service only
+ * ever sees the ones the gateway wrote.
+ * </p>
+ */
 @Component
 public class JwtGlobalFilter implements GlobalFilter, Ordered {
     private static final Logger log = LoggerFactory.getLogger(JwtGlobalFilter.class);
 
-    private final ReactiveJwtDecoder jwtDecoder;
-    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    public static final String AUTHENTICATED_JWT_ATTR = JwtGlobalFilter.class.getName() + ".jwt";
 
-    @Value("${app.security.whitelist}")
-    private List<String> whitelist;
+    private final PathWhitelist pathWhitelist;
+    private final IdentityHeaders identityHeaders;
 
-    public JwtGlobalFilter(ReactiveJwtDecoder jwtDecoder) {
-        this.jwtDecoder = jwtDecoder;
+    public JwtGlobalFilter(PathWhitelist pathWhitelist, IdentityHeaders identityHeaders) {
+        this.pathWhitelist = pathWhitelist;
+        this.identityHeaders = identityHeaders;
     }
 
     @Override
@@ -37,56 +52,50 @@ public class JwtGlobalFilter implements GlobalFilter, Ordered {
         ServerHttpRequest request = exchange.getRequest();
         String path = request.getPath().value();
 
-        if (isWhitelisted(path)) {
+        if (pathWhitelist.matches(request.getPath().pathWithinApplication())) {
             log.trace("Path is whitelisted, skipping JWT validation: {}", path);
-            return chain.filter(exchange);
+            if (!identityHeaders.isPresent(request.getHeaders())) {
+                return chain.filter(exchange);
+            }
+            ServerHttpRequest stripped = request.mutate()
+                    .headers(identityHeaders::remove)
+                    .build();
+            return chain.filter(exchange.mutate().request(stripped).build());
         }
 
         log.debug("Path is not whitelisted, checking for JWT: {}", path);
-        String token = extractToken(request);
-
-        if (token == null) {
-            log.warn("Missing Authorization Bearer token for non-whitelisted path: {}", path);
-            return unauthorized(exchange);
-        }
 
-        return this.jwtDecoder.decode(token)
-                .flatMap(jwt -> {
+        return authenticatedJwt()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(authenticated -> {
+                    if (authenticated.isEmpty()) {
+                        log.debug("No authenticated JWT for non-whitelisted path: {}", path);
+                        return unauthorized(exchange);
+                    }
+
+                    Jwt jwt = authenticated.get();
+                    exchange.getAttributes().put(AUTHENTICATED_JWT_ATTR, jwt);
                     ServerHttpRequest enrichedRequest = enrichRequest(request, jwt);
-                    log.debug("Token validated successfully. User ID: {}, Roles: {}",
-                            jwt.getClaim("userId"),
-                            jwt.getClaimAsStringList("roles"));
+                    if (log.isDebugEnabled()) {
+                        log.debug("Token validated successfully. User ID: {}, Roles: {}",
+                                jwt.getClaim("userId"),
+                                jwt.getClaimAsStringList("roles"));
+                    }
                     return chain.filter(exchange.mutate().request(enrichedRequest).build());
-                })
-                .onErrorResume(e -> {
-                    log.error("Invalid token: {}", e.getMessage());
-                    return unauthorized(exchange);
                 });
     }
 
-    private String extractToken(ServerHttpRequest request) {
-        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            return authHeader.substring(7);
-        }
-        return null;
-    }
-
-    private boolean isWhitelisted(String path) {
-        return whitelist.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    private Mono<Jwt> authenticatedJwt() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(authentication -> ((JwtAuthenticationToken) authentication).getToken());
     }
 
     private ServerHttpRequest enrichRequest(ServerHttpRequest request, Jwt jwt) {
-        // Get userId from custom claim (not from jwt.getId())
-        String userId = jwt.getClaim("userId"); // This matches your token generation
-        String email = jwt.getSubject();
-        List<String> rolesList = jwt.getClaimAsStringList("roles");
-        String rolesHeader = String.join(",", rolesList != null ? rolesList : List.of());
-
         return request.mutate()
-                .header("X-User-Id", userId)
-                .header("X-User-Email", email)
-                .header("X-User-Roles", rolesHeader)
+                .headers(headers -> identityHeaders.write(jwt, headers))
                 .build();
     }
 
@@ -95,8 +104,11 @@ public class JwtGlobalFilter implements GlobalFilter, Ordered {
         return exchange.getResponse().setComplete();
     }
 
+    /**
+     * Runs before {@link RateLimitGlobalFilter}, which keys callers by the token's user.
+     */
     @Override
     public int getOrder() {
-        return -1;
+        return -5;
     }
 }
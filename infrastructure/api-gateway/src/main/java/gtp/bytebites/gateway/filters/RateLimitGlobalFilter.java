@@ -0,0 +1,134 @@
+package gtp.bytebites.gateway.filters;
+
+import gtp.bytebites.gateway.config.RateLimitConfig;
+import gtp.bytebites.gateway.ratelimit.RateLimitDecision;
+import gtp.bytebites.gateway.ratelimit.TokenBucketStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how often each caller may use a route.
+ * <p>
+ * Authenticated requests are keyed by the {@code userId} claim of the token verified by
+ * {@link JwtGlobalFilter}; whitelisted requests, which carry no token, are keyed by client
+ * address. Buckets are kept per route so that policies from
+ * {@link RateLimitConfig#getRoutes()} apply independently. Rejected requests get
+ * {@code 429 Too Many Requests} with a {@code Retry-After} header.
+ * </p>
+ */
+@Component
+public class RateLimitGlobalFilter implements GlobalFilter, Ordered {
+    private static final Logger log = LoggerFactory.getLogger(RateLimitGlobalFilter.class);
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimitConfig rateLimitConfig;
+    private final TokenBucketStore tokenBucketStore;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitGlobalFilter(RateLimitConfig rateLimitConfig,
+                                 TokenBucketStore tokenBucketStore,
+                                 MeterRegistry meterRegistry) {
+        this.rateLimitConfig = rateLimitConfig;
+        this.tokenBucketStore = tokenBucketStore;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "unknown";
+        Jwt jwt = exchange.getAttribute(JwtGlobalFilter.AUTHENTICATED_JWT_ATTR);
+        return tryConsume(routeId, jwt, exchange.getRequest().getRemoteAddress())
+                .flatMap(decision -> {
+                    ServerHttpResponse response = exchange.getResponse();
+                    if (decision.remaining() >= 0) {
+                        response.getHeaders().set(REMAINING_HEADER, Long.toString(decision.remaining()));
+                    }
+                    if (decision.allowed()) {
+                        return chain.filter(exchange);
+                    }
+                    return tooManyRequests(response, decision);
+                });
+    }
+
+    /**
+     * Takes one request from the caller's bucket for a route. Also used for calls that do
+     * not pass through the route's filters, such as batched sub-requests.
+     *
+     * @param jwt the verified token, or {@code null} to key the caller by address
+     * @return the decision; requests are allowed with no remaining count when rate limiting
+     *         is disabled or the route is unlimited
+     */
+    public Mono<RateLimitDecision> tryConsume(String routeId, Jwt jwt, InetSocketAddress remoteAddress) {
+        RateLimitConfig.Policy policy = rateLimitConfig.policyFor(routeId);
+        if (!rateLimitConfig.isEnabled() || policy.isUnlimited()) {
+            return Mono.just(RateLimitDecision.allowed(-1));
+        }
+
+        String key = routeId + ':' + callerKey(jwt, remoteAddress);
+        return tokenBucketStore.tryConsume(key, policy)
+                .doOnNext(decision -> {
+                    record(routeId, decision.allowed() ? "allowed" : "rejected");
+                    if (!decision.allowed()) {
+                        log.debug("Rate limit exceeded for {}", key);
+                    }
+                });
+    }
+
+    /**
+     * @return the {@code Retry-After} value for a rejected request, in whole seconds
+     */
+    public static long retryAfterSeconds(RateLimitDecision decision) {
+        return Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(decision.retryAfterNanos() + 999_999_999L));
+    }
+
+    private String callerKey(Jwt jwt, InetSocketAddress remoteAddress) {
+        if (jwt != null) {
+            Object userId = jwt.getClaim("userId");
+            if (userId != null) {
+                return "user:" + userId;
+            }
+        }
+        return "ip:" + (remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress()
+                : "unknown");
+    }
+
+    private Mono<Void> tooManyRequests(ServerHttpResponse response, RateLimitDecision decision) {
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds(decision)));
+        return response.setComplete();
+    }
+
+    private void record(String routeId, String result) {
+        meterRegistry.counter("gateway.rate.limit.requests", "route", routeId, "result", result).increment();
+    }
+
+    /**
+     * Runs right after {@link JwtGlobalFilter} so the caller is already known, and before
+     * the {@code EdgeCache} and {@code Coalesce} filters so that requests they answer
+     * without going upstream still count against the caller's limit.
+     */
+    @Override
+    public int getOrder() {
+        return -4;
+    }
+}
@@ -0,0 +1,93 @@
+package gtp.bytebites.gateway.filters;
+
+import gtp.bytebites.gateway.config.RouteLatencyConfig;
+import gtp.bytebites.gateway.latency.RouteLatencyRegistry;
+
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Records how long each routed request takes, from the first gateway filter until the
+ * response completes, in the {@link RouteLatencyRegistry}.
+ * <p>
+ * Requests are tagged with their route id, the upstream instance that answered
+ * ({@code none} for responses served by the gateway itself, such as edge cache hits or
+ * rejections) and their outcome. Requests abandoned by the client are recorded with the
+ * outcome {@code CANCELLED}.
+ * </p>
+ */
+@Component
+public class RouteLatencyGlobalFilter implements GlobalFilter, Ordered {
+    private static final String NO_INSTANCE = "none";
+    private static final String CANCELLED = "CANCELLED";
+
+    private final RouteLatencyConfig routeLatencyConfig;
+    private final RouteLatencyRegistry routeLatencyRegistry;
+
+    public RouteLatencyGlobalFilter(RouteLatencyConfig routeLatencyConfig,
+                                    RouteLatencyRegistry routeLatencyRegistry) {
+        this.routeLatencyConfig = routeLatencyConfig;
+        this.routeLatencyRegistry = routeLatencyRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!routeLatencyConfig.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        long start = System.nanoTime();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        return chain.filter(exchange)
+                .doOnError(failure::set)
+                .doFinally(signal -> {
+                    Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                    routeLatencyRegistry.record(route != null ? route.getId() : "unknown",
+                            instance(exchange), outcome(exchange, signal, failure.get()), System.nanoTime() - start);
+                });
+    }
+
+    private String instance(ServerWebExchange exchange) {
+        Response<ServiceInstance> chosen = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (chosen == null || !chosen.hasServer()) {
+            return NO_INSTANCE;
+        }
+        ServiceInstance instance = chosen.getServer();
+        return instance.getHost() + ':' + instance.getPort();
+    }
+
+    private String outcome(ServerWebExchange exchange, SignalType signal, Throwable failure) {
+        if (signal == SignalType.CANCEL) {
+            return CANCELLED;
+        }
+        if (failure != null) {
+            return failure instanceof ResponseStatusException statusException
+                    ? Outcome.forStatus(statusException.getStatusCode().value()).name()
+                    : Outcome.SERVER_ERROR.name();
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null ? Outcome.forStatus(status.value()).name() : Outcome.SUCCESS.name();
+    }
+
+    /**
+     * Runs before every other gateway filter so the recorded time includes them.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,197 @@
+package gtp.bytebites.gateway.filters;
+
+import gtp.bytebites.gateway.concurrency.WaitingRoom;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Queues requests for a route in a {@link WaitingRoom} instead of letting them pile onto
+ * the service during peaks.
+ * <p>
+ * Enabled per route with the {@code WaitingRoom} filter:
+ * </p>
+ * <pre>
+ * spring.cloud.gateway.server.webflux.routes[2].filters[1].name=WaitingRoom
+ * spring.cloud.gateway.server.webflux.routes[2].filters[1].args.capacity=8
+ * spring.cloud.gateway.server.webflux.routes[2].filters[1].args.max-queue=200
+ * spring.cloud.gateway.server.webflux.routes[2].filters[1].args.max-wait=15s
+ * spring.cloud.gateway.server.webflux.routes[2].filters[1].args.methods=POST
+ * </pre>
+ * <p>
+ * Only requests with one of the configured {@code methods} are queued. Requests turned
+ * away are answered with {@code 503 Service Unavailable} and a {@code Retry-After} header
+ * holding the estimated wait, so clients come back when they are likely to get in rather
+ * than retrying straight away. Keep {@code capacity} below the route's concurrency limit,
+ * otherwise admitted requests can still be shed by {@link ConcurrencyLimitGlobalFilter}.
+ * </p>
+ * <p>
+ * Each route has one room for the life of the gateway. When routes are rebuilt, for
+ * example after a configuration refresh, the new filter shares the route's existing room
+ * and only its limits change.
+ * </p>
+ */
+@Component
+public class WaitingRoomGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<WaitingRoomGatewayFilterFactory.Config> {
+    private static final Logger log = LoggerFactory.getLogger(WaitingRoomGatewayFilterFactory.class);
+
+    /**
+     * Runs after {@link RateLimitGlobalFilter}, so rate-limited callers never take a
+     * ticket; and before
+     * {@link ConcurrencyLimitGlobalFilter}, so queued requests do not hold a permit.
+     */
+    private static final int ORDER = -1;
+
+    private final ConcurrentMap<String, WaitingRoom> rooms = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public WaitingRoomGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        WaitingRoom room = rooms.get(routeId);
+        if (room != null) {
+            // Routes are rebuilt on refresh: keep the slots and queue already counted
+            room.resize(config.getCapacity(), config.getMaxQueue(), config.getMaxWait());
+        } else {
+            room = new WaitingRoom(config.getCapacity(), config.getMaxQueue(), config.getMaxWait());
+            rooms.put(routeId, room);
+            registerGauges(routeId);
+        }
+        WaitingRoom routeRoom = room;
+        Set<String> methods = config.getMethods().stream()
+                .map(String::toUpperCase)
+                .collect(Collectors.toUnmodifiableSet());
+        Timer admitted = waitTimer(routeId, "admitted");
+        Timer expired = waitTimer(routeId, "expired");
+        return new OrderedGatewayFilter((exchange, chain) -> methods.contains(exchange.getRequest().getMethod().name())
+                ? filter(exchange, chain, routeId, routeRoom, admitted, expired)
+                : chain.filter(exchange), ORDER);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, String routeId,
+                              WaitingRoom room, Timer admitted, Timer expired) {
+        return room.admit()
+                .flatMap(permit -> {
+                    admitted.record(permit.getWaitNanos(), TimeUnit.NANOSECONDS);
+                    return chain.filter(exchange).doFinally(signal -> room.release(permit));
+                })
+                .onErrorResume(WaitingRoom.Rejected.class, rejected -> {
+                    if (rejected.getReason() == WaitingRoom.Rejected.Reason.EXPIRED) {
+                        expired.record(rejected.getWaitedNanos(), TimeUnit.NANOSECONDS);
+                    }
+                    meterRegistry.counter("gateway.waiting.room.rejections",
+                            "route", routeId,
+                            "reason", rejected.getReason().name().toLowerCase()).increment();
+                    log.debug("Waiting room for route {} turned a request away: {}", routeId, rejected.getMessage());
+                    return serviceUnavailable(exchange.getResponse(), rejected.getEstimatedWaitNanos());
+                });
+    }
+
+    private Mono<Void> serviceUnavailable(ServerHttpResponse response, long estimatedWaitNanos) {
+        long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(estimatedWaitNanos + 999_999_999L));
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return response.setComplete();
+    }
+
+    private void registerGauges(String routeId) {
+        Gauge.builder("gateway.waiting.room.depth", rooms, current -> {
+                    WaitingRoom room = current.get(routeId);
+                    return room != null ? room.getQueueDepth() : 0;
+                })
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.waiting.room.in.flight", rooms, current -> {
+                    WaitingRoom room = current.get(routeId);
+                    return room != null ? room.getInFlight() : 0;
+                })
+                .tag("route", routeId)
+                .register(meterRegistry);
+    }
+
+    private Timer waitTimer(String routeId, String outcome) {
+        return Timer.builder("gateway.waiting.room.wait")
+                .tag("route", routeId)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private int capacity = 10;
+        private int maxQueue = 100;
+        private Duration maxWait = Duration.ofSeconds(10);
+        private List<String> methods = List.of("POST");
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getMaxQueue() {
+            return maxQueue;
+        }
+
+        public void setMaxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+    }
+}
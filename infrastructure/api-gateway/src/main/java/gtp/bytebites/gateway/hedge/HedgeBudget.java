@@ -0,0 +1,62 @@
+package gtp.bytebites.gateway.hedge;
+
+import gtp.bytebites.gateway.config.HedgeConfig;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps hedged requests to a share of the requests that could be hedged.
+ * <p>
+ * Every eligible request deposits {@code budgetRatio} of a token and every hedge withdraws
+ * a whole one, so the extra load stays proportional to traffic. At most
+ * {@code budgetBurst} tokens are kept. Tokens are held in thousandths so the balance fits
+ * in a single {@link AtomicLong}. The balance is published as
+ * {@code gateway.hedge.budget.available}.
+ * </p>
+ */
+@Component
+public class HedgeBudget {
+    private static final long SCALE = 1_000L;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    public HedgeBudget(HedgeConfig config, MeterRegistry meterRegistry) {
+        this.deposit = Math.round(config.getBudgetRatio() * SCALE);
+        this.capacity = config.getBudgetBurst() * SCALE;
+        this.balance = new AtomicLong(capacity);
+        Gauge.builder("gateway.hedge.budget.available", this, HedgeBudget::available)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Credits the budget for one request that may be hedged.
+     */
+    public void deposit() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+    }
+
+    /**
+     * @return whether a hedge may be sent; if so its token has been spent
+     */
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    public double available() {
+        return (double) balance.get() / SCALE;
+    }
+}
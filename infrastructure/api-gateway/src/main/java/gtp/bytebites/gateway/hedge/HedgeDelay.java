@@ -0,0 +1,59 @@
+package gtp.bytebites.gateway.hedge;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks how long a route's upstream calls take and derives how long to wait before
+ * hedging.
+ * <p>
+ * Latencies go into a ring of the most recent {@value #SAMPLES} calls. Every
+ * {@value #RECOMPUTE_EVERY} samples the configured percentile is recomputed from a sorted
+ * copy, so the request path only ever reads a volatile field. Until {@code minSamples}
+ * calls have been seen the maximum delay is used, which keeps hedging rare on a cold route.
+ * </p>
+ */
+public class HedgeDelay {
+    static final int SAMPLES = 1024;
+    static final int RECOMPUTE_EVERY = 64;
+
+    private final long[] samples = new long[SAMPLES];
+    private final AtomicLong recorded = new AtomicLong();
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final int minSamples;
+
+    private volatile long delayNanos;
+
+    public HedgeDelay(double percentile, Duration minDelay, Duration maxDelay, int minSamples) {
+        if (percentile <= 0.0 || percentile >= 1.0) {
+            throw new IllegalArgumentException("Hedge percentile must be in (0, 1): " + percentile);
+        }
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.minSamples = Math.min(minSamples, SAMPLES);
+        this.delayNanos = maxDelayNanos;
+    }
+
+    public void record(long latencyNanos) {
+        long count = recorded.incrementAndGet();
+        samples[(int) ((count - 1) % SAMPLES)] = latencyNanos;
+        if (count >= minSamples && count % RECOMPUTE_EVERY == 0) {
+            recompute((int) Math.min(count, SAMPLES));
+        }
+    }
+
+    public Duration current() {
+        return Duration.ofNanos(delayNanos);
+    }
+
+    private void recompute(int size) {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        long value = sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+        delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, value));
+    }
+}
@@ -0,0 +1,33 @@
+package gtp.bytebites.gateway.latency;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes recent latency windows of every route at {@code /actuator/routelatency}, or of a
+ * single route at {@code /actuator/routelatency/{routeId}}.
+ */
+@Component
+@Endpoint(id = "routelatency")
+public class RouteLatencyEndpoint {
+    private final RouteLatencyRegistry registry;
+
+    public RouteLatencyEndpoint(RouteLatencyRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, List<RouteLatencyRegistry.SeriesSnapshot>> routes() {
+        return registry.snapshot();
+    }
+
+    @ReadOperation
+    public List<RouteLatencyRegistry.SeriesSnapshot> route(@Selector String routeId) {
+        return registry.snapshot().get(routeId);
+    }
+}
@@ -0,0 +1,122 @@
+package gtp.bytebites.gateway.latency;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Latency distribution of one route, instance and outcome over a few recent windows.
+ * <p>
+ * Values are recorded in microseconds into an HdrHistogram {@link Recorder}, which takes
+ * concurrent writers without locking. When a window ends, the next caller to record or
+ * read swaps out the interval histogram and reduces it to a {@link WindowSnapshot}; only
+ * those summaries are kept, so memory does not grow with the number of windows. Rotation
+ * uses {@link ReentrantLock#tryLock()} so a request thread never waits on it.
+ * </p>
+ */
+public class RouteLatencyHistogram {
+    private final Recorder recorder;
+    private final long highestTrackableMicros;
+    private final long windowMillis;
+    private final int maxWindows;
+    private final List<Duration> sloBuckets;
+    private final ReentrantLock rotation = new ReentrantLock();
+    private final Deque<WindowSnapshot> windows = new ArrayDeque<>();
+
+    private volatile long windowStart;
+    private Histogram recycled;
+
+    public RouteLatencyHistogram(Duration highestTrackable, int significantDigits, Duration window,
+                                 int maxWindows, List<Duration> sloBuckets, long now) {
+        this.highestTrackableMicros = highestTrackable.toNanos() / 1_000;
+        this.recorder = new Recorder(highestTrackableMicros, significantDigits);
+        this.windowMillis = window.toMillis();
+        this.maxWindows = maxWindows;
+        this.sloBuckets = sloBuckets;
+        this.windowStart = now;
+    }
+
+    public void record(long latencyNanos, long now) {
+        rotateIfDue(now);
+        long micros = Math.max(0L, Math.min(highestTrackableMicros, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        recorder.recordValue(micros);
+    }
+
+    /**
+     * @return completed windows, oldest first
+     */
+    public List<WindowSnapshot> snapshot(long now) {
+        rotateIfDue(now);
+        rotation.lock();
+        try {
+            return new ArrayList<>(windows);
+        } finally {
+            rotation.unlock();
+        }
+    }
+
+    private void rotateIfDue(long now) {
+        long start = windowStart;
+        if (now - start < windowMillis || !rotation.tryLock()) {
+            return;
+        }
+        try {
+            start = windowStart;
+            if (now - start < windowMillis) {
+                return;
+            }
+            long end = start + (now - start) / windowMillis * windowMillis;
+            recycled = recorder.getIntervalHistogram(recycled);
+            if (recycled.getTotalCount() > 0) {
+                windows.addLast(WindowSnapshot.of(start, end, recycled, sloBuckets));
+                while (windows.size() > maxWindows) {
+                    windows.removeFirst();
+                }
+            }
+            windowStart = end;
+        } finally {
+            rotation.unlock();
+        }
+    }
+
+    /**
+     * Summary of one window. Latencies are in milliseconds.
+     *
+     * @param start epoch millis the window began
+     * @param end epoch millis the window ended
+     * @param count requests recorded
+     * @param slo for each SLO bucket, how many requests completed within it
+     */
+    public record WindowSnapshot(long start, long end, long count, double mean, double p50, double p90,
+                                 double p99, double p999, double max, Map<String, Long> slo) {
+        static WindowSnapshot of(long start, long end, Histogram histogram, List<Duration> sloBuckets) {
+            Map<String, Long> slo = new LinkedHashMap<>();
+            for (Duration bucket : sloBuckets) {
+                long bucketMicros = bucket.toNanos() / 1_000;
+                long within = histogram.getCountBetweenValues(0, histogram.highestEquivalentValue(bucketMicros));
+                slo.put(bucket.toMillis() + "ms", within);
+            }
+            return new WindowSnapshot(start, end, histogram.getTotalCount(),
+                    millis(histogram.getMean()),
+                    millis(histogram.getValueAtPercentile(50.0)),
+                    millis(histogram.getValueAtPercentile(90.0)),
+                    millis(histogram.getValueAtPercentile(99.0)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    slo);
+        }
+
+        private static double millis(double micros) {
+            return Math.round(micros) / 1_000.0;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package gtp.bytebites.gateway.latency;
+
+import gtp.bytebites.gateway.config.RouteLatencyConfig;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-route latency distributions, split by upstream instance and outcome.
+ * <p>
+ * Each request is recorded twice: into a {@code gateway.route.latency} timer tagged
+ * {@code route}, {@code instance} and {@code outcome} that publishes the configured SLO
+ * buckets, and into a windowed {@link RouteLatencyHistogram} for the same tags plus one
+ * for the route as a whole ({@value #ALL} instance and outcome). The windowed histograms
+ * back {@code /actuator/routelatency}.
+ * </p>
+ */
+@Component
+public class RouteLatencyRegistry {
+    public static final String ALL = "all";
+
+    private final RouteLatencyConfig config;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clock;
+    private final ConcurrentMap<Key, Series> series = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RouteLatencyRegistry(RouteLatencyConfig config, MeterRegistry meterRegistry) {
+        this(config, meterRegistry, System::currentTimeMillis);
+    }
+
+    public RouteLatencyRegistry(RouteLatencyConfig config, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    public void record(String routeId, String instance, String outcome, long latencyNanos) {
+        long now = clock.getAsLong();
+        Series exact = seriesFor(new Key(routeId, instance, outcome));
+        exact.timer().record(latencyNanos, TimeUnit.NANOSECONDS);
+        exact.histogram().record(latencyNanos, now);
+        seriesFor(new Key(routeId, ALL, ALL)).histogram().record(latencyNanos, now);
+    }
+
+    /**
+     * @return recent windows by route id, each route listing its instance and outcome series
+     */
+    public Map<String, List<SeriesSnapshot>> snapshot() {
+        long now = clock.getAsLong();
+        Map<String, List<SeriesSnapshot>> routes = new TreeMap<>();
+        series.forEach((key, value) -> {
+            List<RouteLatencyHistogram.WindowSnapshot> windows = value.histogram().snapshot(now);
+            if (!windows.isEmpty()) {
+                routes.computeIfAbsent(key.routeId(), id -> new ArrayList<>())
+                        .add(new SeriesSnapshot(key.instance(), key.outcome(), windows));
+            }
+        });
+        routes.values().forEach(list -> list.sort((a, b) -> {
+            int byInstance = a.instance().compareTo(b.instance());
+            return byInstance != 0 ? byInstance : a.outcome().compareTo(b.outcome());
+        }));
+        return routes;
+    }
+
+    private Series seriesFor(Key key) {
+        Series existing = series.get(key);
+        return existing != null ? existing : series.computeIfAbsent(key, this::create);
+    }
+
+    private Series create(Key key) {
+        RouteLatencyHistogram histogram = new RouteLatencyHistogram(config.getHighestTrackable(),
+                config.getSignificantDigits(), config.getWindow(), config.getWindows(),
+                config.getSloBuckets(), clock.getAsLong());
+        if (ALL.equals(key.instance()) && ALL.equals(key.outcome())) {
+            return new Series(null, histogram);
+        }
+        Timer timer = Timer.builder("gateway.route.latency")
+                .description("Time from the gateway receiving a routed request until its response completed")
+                .tag("route", key.routeId())
+                .tag("instance", key.instance())
+                .tag("outcome", key.outcome())
+                .serviceLevelObjectives(config.getSloBuckets().toArray(Duration[]::new))
+                .register(meterRegistry);
+        return new Series(timer, histogram);
+    }
+
+    private record Key(String routeId, String instance, String outcome) {
+    }
+
+    private record Series(Timer timer, RouteLatencyHistogram histogram) {
+    }
+
+    public record SeriesSnapshot(String instance, String outcome, List<RouteLatencyHistogram.WindowSnapshot> windows) {
+    }
+}
@@ -0,0 +1,148 @@
+package gtp.bytebites.gateway.loadbalancer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live load figures for one service instance, as seen by this gateway.
+ * <p>
+ * Latency is tracked as a peak-sensitive exponentially weighted moving average: a sample
+ * above the current average replaces it outright, while lower samples pull it down
+ * gradually. An instance that stalls is therefore avoided after one slow response and
+ * only wins traffic back as it proves itself fast again.
+ * </p>
+ * <p>
+ * Outcomes are also counted per second over a sliding window, together with the current
+ * run of consecutive failures, to decide when the instance should be ejected.
+ * </p>
+ */
+public class InstanceStats {
+    private static final int WINDOW_BUCKETS = 10;
+
+    private final long firstSeenNanos;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private double latencyNanos;
+    private long lastSampleNanos;
+    private boolean sampled;
+
+    private final long[] bucketEpochs = new long[WINDOW_BUCKETS];
+    private final int[] bucketRequests = new int[WINDOW_BUCKETS];
+    private final int[] bucketFailures = new int[WINDOW_BUCKETS];
+    private int consecutiveFailures;
+    private int ejections;
+    private volatile long ejectedUntilNanos;
+    private long lastEjectionEndNanos;
+
+    InstanceStats(long firstSeenNanos) {
+        this.firstSeenNanos = firstSeenNanos;
+        Arrays.fill(bucketEpochs, -1L);
+    }
+
+    public void requestStarted() {
+        outstanding.incrementAndGet();
+    }
+
+    public void requestFinished() {
+        outstanding.updateAndGet(current -> current > 0 ? current - 1 : 0);
+    }
+
+    /**
+     * Folds one observed latency into the moving average.
+     *
+     * @param decayNanos time constant after which an old sample weighs about a third
+     */
+    public synchronized void recordLatency(long latency, long now, long decayNanos) {
+        if (!sampled || latency > latencyNanos) {
+            latencyNanos = latency;
+        } else {
+            double weight = Math.exp(-(double) Math.max(0L, now - lastSampleNanos) / decayNanos);
+            latencyNanos = latencyNanos * weight + latency * (1.0 - weight);
+        }
+        sampled = true;
+        lastSampleNanos = now;
+    }
+
+    /**
+     * Counts one request outcome and ejects the instance if it now looks unhealthy.
+     *
+     * @return {@code true} if this outcome caused an ejection
+     */
+    public synchronized boolean recordOutcome(boolean failed, long now, OutlierPolicy policy) {
+        long bucketNanos = Math.max(1L, policy.windowNanos() / WINDOW_BUCKETS);
+        long epoch = now / bucketNanos;
+        int index = (int) (epoch % WINDOW_BUCKETS);
+        if (bucketEpochs[index] != epoch) {
+            bucketEpochs[index] = epoch;
+            bucketRequests[index] = 0;
+            bucketFailures[index] = 0;
+        }
+        bucketRequests[index]++;
+        if (!failed) {
+            consecutiveFailures = 0;
+            return false;
+        }
+        bucketFailures[index]++;
+        consecutiveFailures++;
+
+        if (isEjected(now) || !shouldEject(epoch, policy)) {
+            return false;
+        }
+        eject(now, policy);
+        return true;
+    }
+
+    private boolean shouldEject(long epoch, OutlierPolicy policy) {
+        if (consecutiveFailures >= policy.consecutiveFailures()) {
+            return true;
+        }
+        int requests = 0;
+        int failures = 0;
+        for (int i = 0; i < WINDOW_BUCKETS; i++) {
+            if (bucketEpochs[i] > epoch - WINDOW_BUCKETS) {
+                requests += bucketRequests[i];
+                failures += bucketFailures[i];
+            }
+        }
+        return requests >= policy.minimumRequests()
+                && failures >= policy.errorRateThreshold() * requests;
+    }
+
+    private void eject(long now, OutlierPolicy policy) {
+        // An instance that stayed healthy for a full maximum ejection period starts over
+        if (ejections > 0 && now - lastEjectionEndNanos > policy.maxEjectionNanos()) {
+            ejections = 0;
+        }
+        ejections++;
+        long duration = policy.baseEjectionNanos() << Math.min(ejections - 1, 20);
+        duration = Math.min(duration, policy.maxEjectionNanos());
+
+        ejectedUntilNanos = now + duration;
+        lastEjectionEndNanos = ejectedUntilNanos;
+        consecutiveFailures = 0;
+        Arrays.fill(bucketEpochs, -1L);
+    }
+
+    public boolean isEjected(long now) {
+        return now < ejectedUntilNanos;
+    }
+
+    public long ejectedUntilNanos() {
+        return ejectedUntilNanos;
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * @return the moving average latency, or {@code -1} if no request has completed yet
+     */
+    public synchronized double latencyNanos() {
+        return sampled ? latencyNanos : -1;
+    }
+
+    public long firstSeenNanos() {
+        return firstSeenNanos;
+    }
+}
@@ -0,0 +1,121 @@
+package gtp.bytebites.gateway.loadbalancer;
+
+import gtp.bytebites.gateway.config.LoadBalancerConfig;
+import gtp.bytebites.gateway.config.OutlierDetectionConfig;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds the {@link InstanceStats} of every instance this gateway has talked to.
+ * <p>
+ * Shared by the per-service {@link LatencyAwareLoadBalancer}s, which read it, and
+ * {@link gtp.bytebites.gateway.filters.InstanceStatsGlobalFilter}, which records routed
+ * requests into it. Instances that have not been considered for a while, typically
+ * because they left the registry, are forgotten.
+ * </p>
+ * <p>
+ * Request outcomes also drive passive outlier detection: an instance that fails too often
+ * is ejected, i.e. skipped by the load balancer, for a period that doubles with every
+ * repeated ejection. Ejections are counted in {@code gateway.lb.outlier.ejections} and the
+ * currently ejected instances in {@code gateway.lb.outlier.ejected}.
+ * </p>
+ */
+@Component
+public class InstanceStatsRegistry {
+    private static final Logger log = LoggerFactory.getLogger(InstanceStatsRegistry.class);
+
+    private static final Duration FORGET_AFTER = Duration.ofMinutes(10);
+
+    private final Cache<String, InstanceStats> stats;
+    private final LongSupplier nanoClock;
+    private final MeterRegistry meterRegistry;
+    private final long decayNanos;
+    private final long failurePenaltyNanos;
+    private final OutlierPolicy outlierPolicy;
+
+    @Autowired
+    public InstanceStatsRegistry(LoadBalancerConfig loadBalancerConfig,
+                                 OutlierDetectionConfig outlierDetectionConfig,
+                                 MeterRegistry meterRegistry) {
+        this(loadBalancerConfig, outlierDetectionConfig, meterRegistry, System::nanoTime);
+    }
+
+    public InstanceStatsRegistry(LoadBalancerConfig loadBalancerConfig,
+                                 OutlierDetectionConfig outlierDetectionConfig,
+                                 MeterRegistry meterRegistry,
+                                 LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.meterRegistry = meterRegistry;
+        this.decayNanos = loadBalancerConfig.getDecay().toNanos();
+        this.failurePenaltyNanos = loadBalancerConfig.getFailurePenalty().toNanos();
+        this.outlierPolicy = outlierDetectionConfig.isEnabled() ? OutlierPolicy.from(outlierDetectionConfig) : null;
+        this.stats = Caffeine.newBuilder()
+                .expireAfterAccess(FORGET_AFTER)
+                .build();
+        meterRegistry.gauge("gateway.lb.outlier.ejected", stats, this::countEjected);
+    }
+
+    public InstanceStats statsFor(ServiceInstance instance) {
+        return stats.get(keyOf(instance), key -> new InstanceStats(nanoClock.getAsLong()));
+    }
+
+    /**
+     * Marks the start of a request and returns its start time for {@link #finished}.
+     */
+    public long started(ServiceInstance instance) {
+        statsFor(instance).requestStarted();
+        return nanoClock.getAsLong();
+    }
+
+    public void finished(ServiceInstance instance, long startNanos, boolean failed) {
+        InstanceStats instanceStats = statsFor(instance);
+        long now = nanoClock.getAsLong();
+        long latency = now - startNanos;
+        instanceStats.requestFinished();
+        instanceStats.recordLatency(failed ? Math.max(latency, failurePenaltyNanos) : latency, now, decayNanos);
+
+        if (outlierPolicy != null && instanceStats.recordOutcome(failed, now, outlierPolicy)) {
+            log.warn("Ejecting instance {} for {} ms after repeated failures", keyOf(instance),
+                    TimeUnit.NANOSECONDS.toMillis(instanceStats.ejectedUntilNanos() - now));
+            meterRegistry.counter("gateway.lb.outlier.ejections",
+                    "service", String.valueOf(instance.getServiceId()),
+                    "instance", instance.getHost() + ':' + instance.getPort()).increment();
+        }
+    }
+
+    /**
+     * Ends a request that was abandoned before the instance answered; no latency is
+     * recorded because none was observed.
+     */
+    public void abandoned(ServiceInstance instance) {
+        statsFor(instance).requestFinished();
+    }
+
+    public boolean isEjected(ServiceInstance instance, long now) {
+        return statsFor(instance).isEjected(now);
+    }
+
+    public long now() {
+        return nanoClock.getAsLong();
+    }
+
+    private double countEjected(Cache<String, InstanceStats> cache) {
+        long now = nanoClock.getAsLong();
+        return cache.asMap().values().stream().filter(instanceStats -> instanceStats.isEjected(now)).count();
+    }
+
+    public static String keyOf(ServiceInstance instance) {
+        return instance.getServiceId() + '@' + instance.getHost() + ':' + instance.getPort();
+    }
+}
@@ -0,0 +1,174 @@
+package gtp.bytebites.gateway.loadbalancer;
+
+import gtp.bytebites.gateway.config.LoadBalancerConfig;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks the less loaded of two randomly chosen instances.
+ * <p>
+ * Load is the instance's moving average latency multiplied by its in-flight requests
+ * ({@code ewma}), or just its in-flight requests ({@code least-outstanding}). Comparing two
+ * random candidates instead of scanning for the global minimum keeps selection cheap and
+ * stops every gateway from piling onto the same instance at once.
+ * </p>
+ * <p>
+ * An instance seen for the first time only keeps a comparison it wins with a probability
+ * that grows over the slow-start period, so a freshly started service warms up under a
+ * gradually increasing share of traffic.
+ * </p>
+ * <p>
+ * Instances ejected by outlier detection are skipped, and so are instances the current
+ * request has already been sent to, which makes a gateway {@code Retry} land elsewhere.
+ * </p>
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+    private static final Logger log = LoggerFactory.getLogger(LatencyAwareLoadBalancer.class);
+
+    /**
+     * Exchange attribute holding the keys of the instances a routed request has already
+     * been sent to, so that a retry goes to a different one.
+     */
+    public static final String ATTEMPTED_INSTANCES_ATTR = LatencyAwareLoadBalancer.class.getName() + ".attempted";
+
+    private static final double MIN_SLOW_START_WEIGHT = 0.1;
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final String serviceId;
+    private final InstanceStatsRegistry instanceStatsRegistry;
+    private final LoadBalancerConfig loadBalancerConfig;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                    String serviceId,
+                                    InstanceStatsRegistry instanceStatsRegistry,
+                                    LoadBalancerConfig loadBalancerConfig) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.instanceStatsRegistry = instanceStatsRegistry;
+        this.loadBalancerConfig = loadBalancerConfig;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request)
+                .next()
+                .map(instances -> choose(eligible(instances, attemptedInstances(request))));
+    }
+
+    /**
+     * Drops ejected instances and the ones this request already tried. If that leaves
+     * nothing, the already tried instances come back first and then the ejected ones, so
+     * a request is never refused only because every instance looks unhealthy.
+     */
+    private List<ServiceInstance> eligible(List<ServiceInstance> instances, Set<String> attempted) {
+        long now = instanceStatsRegistry.now();
+        List<ServiceInstance> healthy = new ArrayList<>(instances.size());
+        List<ServiceInstance> untried = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (instanceStatsRegistry.isEjected(instance, now)) {
+                continue;
+            }
+            healthy.add(instance);
+            if (!attempted.contains(InstanceStatsRegistry.keyOf(instance))) {
+                untried.add(instance);
+            }
+        }
+        if (!untried.isEmpty()) {
+            return untried;
+        }
+        return healthy.isEmpty() ? instances : healthy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> attemptedInstances(Request request) {
+        if (request.getContext() instanceof RequestDataContext context && context.getClientRequest() != null) {
+            Map<String, Object> attributes = context.getClientRequest().getAttributes();
+            Object attempted = attributes != null ? attributes.get(ATTEMPTED_INSTANCES_ATTR) : null;
+            if (attempted instanceof Set<?> keys) {
+                return (Set<String>) keys;
+            }
+        }
+        return Set.of();
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            instanceStatsRegistry.statsFor(instances.get(0));
+            return new DefaultResponse(instances.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        InstanceStats statsA = instanceStatsRegistry.statsFor(a);
+        InstanceStats statsB = instanceStatsRegistry.statsFor(b);
+        long now = instanceStatsRegistry.now();
+
+        boolean aWins = cost(statsA, statsB) <= cost(statsB, statsA);
+        ServiceInstance winner = aWins ? a : b;
+        double warmth = slowStartWeight(aWins ? statsA : statsB, now);
+        if (warmth < 1.0 && random.nextDouble() >= warmth) {
+            winner = aWins ? b : a;
+        }
+        return new DefaultResponse(winner);
+    }
+
+    /**
+     * @param other the competing candidate, whose latency stands in for an instance
+     *              that has not answered a request yet
+     */
+    private double cost(InstanceStats stats, InstanceStats other) {
+        double load = stats.outstanding() + 1;
+        if (loadBalancerConfig.getStrategy() == LoadBalancerConfig.Strategy.EWMA) {
+            double latency = stats.latencyNanos();
+            if (latency < 0) {
+                latency = Math.max(other.latencyNanos(), 1);
+            }
+            load *= latency;
+        }
+        return load;
+    }
+
+    /**
+     * @return the probability with which a winning instance is actually used, growing
+     * linearly from {@value #MIN_SLOW_START_WEIGHT} to 1 over the slow-start period
+     */
+    private double slowStartWeight(InstanceStats stats, long now) {
+        long slowStart = loadBalancerConfig.getSlowStart().toNanos();
+        if (slowStart <= 0) {
+            return 1.0;
+        }
+        double warmth = (double) (now - stats.firstSeenNanos()) / slowStart;
+        return Math.min(1.0, Math.max(MIN_SLOW_START_WEIGHT, warmth));
+    }
+}
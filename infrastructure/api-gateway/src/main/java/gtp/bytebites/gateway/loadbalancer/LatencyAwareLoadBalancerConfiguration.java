@@ -0,0 +1,37 @@
+package gtp.bytebites.gateway.loadbalancer;
+
+import gtp.bytebites.gateway.config.LoadBalancerConfig;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-service load balancer configuration, registered for every service through
+ * {@link LoadBalancerConfig}.
+ * <p>
+ * Deliberately not a {@code @Configuration}: it is loaded into each service's child
+ * context by Spring Cloud LoadBalancer and must not be picked up by component scanning.
+ * </p>
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+            Environment environment,
+            LoadBalancerClientFactory loadBalancerClientFactory,
+            InstanceStatsRegistry instanceStatsRegistry,
+            LoadBalancerConfig loadBalancerConfig) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        var suppliers = loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+
+        if (loadBalancerConfig.getStrategy() == LoadBalancerConfig.Strategy.ROUND_ROBIN) {
+            return new RoundRobinLoadBalancer(suppliers, serviceId);
+        }
+        return new LatencyAwareLoadBalancer(suppliers, serviceId, instanceStatsRegistry, loadBalancerConfig);
+    }
+}
@@ -0,0 +1,25 @@
+package gtp.bytebites.gateway.loadbalancer;
+
+import gtp.bytebites.gateway.config.OutlierDetectionConfig;
+
+/**
+ * {@link OutlierDetectionConfig} resolved to the units {@link InstanceStats} works in.
+ */
+public record OutlierPolicy(
+        int consecutiveFailures,
+        double errorRateThreshold,
+        int minimumRequests,
+        long windowNanos,
+        long baseEjectionNanos,
+        long maxEjectionNanos
+) {
+    public static OutlierPolicy from(OutlierDetectionConfig config) {
+        return new OutlierPolicy(
+                config.getConsecutiveFailures(),
+                config.getErrorRateThreshold(),
+                config.getMinimumRequests(),
+                config.getWindow().toNanos(),
+                config.getBaseEjectionTime().toNanos(),
+                config.getMaxEjectionTime().toNanos());
+    }
+}
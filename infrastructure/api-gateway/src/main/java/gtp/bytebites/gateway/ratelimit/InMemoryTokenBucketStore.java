@@ -0,0 +1,69 @@
+package gtp.bytebites.gateway.ratelimit;
+
+import gtp.bytebites.gateway.config.RateLimitConfig;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets local to this gateway instance.
+ * <p>
+ * Each bucket is an {@link AtomicLong} holding the theoretical arrival time of the next
+ * request in {@link System#nanoTime()} units, so consuming a token never takes a lock.
+ * The table itself is a Caffeine cache that evicts buckets which have not been used for
+ * the configured idle timeout.
+ * </p>
+ */
+public class InMemoryTokenBucketStore implements TokenBucketStore {
+    public static final String CACHE_NAME = "gateway.rate.limit.buckets";
+
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier nanoClock;
+
+    public InMemoryTokenBucketStore(Duration idleTimeout, MeterRegistry meterRegistry) {
+        this(idleTimeout, System::nanoTime);
+        meterRegistry.gauge(CACHE_NAME + ".size", buckets, Cache::estimatedSize);
+    }
+
+    public InMemoryTokenBucketStore(Duration idleTimeout, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    @Override
+    public Mono<RateLimitDecision> tryConsume(String key, RateLimitConfig.Policy policy) {
+        return Mono.just(consume(key, policy));
+    }
+
+    public RateLimitDecision consume(String key, RateLimitConfig.Policy policy) {
+        long interval = policy.emissionIntervalNanos();
+        long burstWindow = interval * policy.getBurstCapacity();
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(now));
+
+        while (true) {
+            long theoreticalArrival = bucket.get();
+            long next = Math.max(theoreticalArrival, now) + interval;
+            long backlog = next - now;
+            if (backlog > burstWindow) {
+                return RateLimitDecision.rejected(backlog - burstWindow);
+            }
+            if (bucket.compareAndSet(theoreticalArrival, next)) {
+                return RateLimitDecision.allowed((burstWindow - backlog) / interval);
+            }
+        }
+    }
+
+    public long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,19 @@
+package gtp.bytebites.gateway.ratelimit;
+
+/**
+ * Outcome of asking a {@link TokenBucketStore} for one request.
+ *
+ * @param allowed whether the request may proceed
+ * @param remaining requests still available in the bucket right now
+ * @param retryAfterNanos when rejected, how long until a request would be allowed
+ */
+public record RateLimitDecision(boolean allowed, long remaining, long retryAfterNanos) {
+
+    public static RateLimitDecision allowed(long remaining) {
+        return new RateLimitDecision(true, remaining, 0L);
+    }
+
+    public static RateLimitDecision rejected(long retryAfterNanos) {
+        return new RateLimitDecision(false, 0L, retryAfterNanos);
+    }
+}
@@ -0,0 +1,68 @@
+package gtp.bytebites.gateway.ratelimit;
+
+import gtp.bytebites.gateway.config.RateLimitConfig;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Token buckets shared by every gateway instance through Redis.
+ * <p>
+ * Uses the same algorithm as {@link InMemoryTokenBucketStore}, evaluated atomically by a
+ * Lua script against Redis server time in microseconds. Keys expire as soon as their
+ * bucket would be full again. If Redis cannot be reached the request is allowed, so an
+ * outage of the limiter never takes the API down with it.
+ * </p>
+ */
+public class RedisTokenBucketStore implements TokenBucketStore {
+    private static final Logger log = LoggerFactory.getLogger(RedisTokenBucketStore.class);
+
+    static final String KEY_PREFIX = "gateway:rate-limit:";
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisScript<List<Long>> CONSUME_SCRIPT = (RedisScript) RedisScript.of("""
+            local interval = tonumber(ARGV[1])
+            local burst_window = tonumber(ARGV[2])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local tat = tonumber(redis.call('GET', KEYS[1]))
+            if not tat or tat < now then
+              tat = now
+            end
+            local next = tat + interval
+            local backlog = next - now
+            if backlog > burst_window then
+              return {0, backlog - burst_window}
+            end
+            redis.call('SET', KEYS[1], next, 'PX', math.ceil(backlog / 1000) + 1)
+            return {1, math.floor((burst_window - backlog) / interval)}
+            """, List.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    public RedisTokenBucketStore(ReactiveStringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Mono<RateLimitDecision> tryConsume(String key, RateLimitConfig.Policy policy) {
+        long intervalMicros = Math.max(1L, policy.emissionIntervalNanos() / 1_000L);
+        long burstWindowMicros = intervalMicros * policy.getBurstCapacity();
+
+        return redisTemplate.execute(CONSUME_SCRIPT, List.of(KEY_PREFIX + key),
+                        List.of(Long.toString(intervalMicros), Long.toString(burstWindowMicros)))
+                .next()
+                .map(result -> result.get(0) == 1L
+                        ? RateLimitDecision.allowed(result.get(1))
+                        : RateLimitDecision.rejected(result.get(1) * 1_000L))
+                .onErrorResume(e -> {
+                    log.warn("Redis rate limiter unavailable, allowing request: {}", e.getMessage());
+                    return Mono.just(RateLimitDecision.allowed(-1L));
+                });
+    }
+}
@@ -0,0 +1,22 @@
+package gtp.bytebites.gateway.ratelimit;
+
+import gtp.bytebites.gateway.config.RateLimitConfig;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Holds the token buckets used by {@link gtp.bytebites.gateway.filters.RateLimitGlobalFilter}.
+ * <p>
+ * Buckets are modelled as a generic cell rate algorithm: each bucket stores only the
+ * theoretical arrival time of the next request, which makes an update a single
+ * compare-and-set in memory or a single script call in Redis.
+ * </p>
+ */
+public interface TokenBucketStore {
+
+    /**
+     * Takes one token from the bucket identified by {@code key}, creating a full bucket
+     * if none exists.
+     */
+    Mono<RateLimitDecision> tryConsume(String key, RateLimitConfig.Policy policy);
+}
@@ -0,0 +1,81 @@
+package gtp.bytebites.gateway.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size Bloom filter over 64-bit key hashes.
+ * <p>
+ * Probes are lock-free and allocate nothing: {@link #mightContain(long)} reads at most
+ * {@code k} words of the bit array. Bits are only ever set, never cleared, so dropping
+ * keys means building a new filter. Concurrent {@link #put(long)} calls are safe, and a
+ * bit set by one thread is visible to every probe that starts after it.
+ * </p>
+ */
+public final class BloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.words = new AtomicLongArray(Math.toIntExact((bitCount + 63) / 64));
+        this.bitCount = words.length() * 64L;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * @param expectedInsertions keys the filter should hold at {@code falsePositiveRate}
+     * @param falsePositiveRate share of absent keys reported as present at that size
+     */
+    public static BloomFilter create(int expectedInsertions, double falsePositiveRate) {
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int hashes = (int) Math.max(1, Math.round((double) bits / expectedInsertions * LN2));
+        return new BloomFilter(Math.max(64, bits), hashes);
+    }
+
+    /**
+     * Spreads a key's {@link String#hashCode()} over 64 bits with the MurmurHash3 finalizer.
+     * The string caches its hash code, so hashing a key that was seen before costs a few
+     * multiplications. Different seeds give independent key spaces within the same filter.
+     */
+    public static long hash(long seed, String key) {
+        long h = seed ^ key.hashCode();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public void put(long hash) {
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+            long mask = 1L << bit;
+            words.accumulateAndGet((int) (bit >>> 6), mask, (word, m) -> word | m);
+        }
+    }
+
+    public boolean mightContain(long hash) {
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+}
@@ -0,0 +1,113 @@
+package gtp.bytebites.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A {@link ReactiveJwtDecoder} that remembers tokens it has already verified.
+ * <p>
+ * Signature verification and claim parsing are delegated to the wrapped decoder on the
+ * first sight of a token. The resulting {@link Jwt} is then kept in a size-bounded cache
+ * keyed by the SHA-256 digest of the raw token, so repeat requests carrying the same
+ * bearer token skip the MAC check entirely. The key is only a digest, but each cached
+ * {@link Jwt} still carries the raw token in {@link Jwt#getTokenValue()}, so the cache
+ * holds live bearer tokens for as long as they remain valid.
+ * </p>
+ * <p>
+ * Each entry expires at the token's {@code exp} claim, so a cached token is never
+ * accepted for longer than the delegate would have accepted it. Failed decodes are not
+ * cached. Hit, miss and eviction counts are published under {@code gateway.jwt.cache}.
+ * </p>
+ */
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+    public static final String CACHE_NAME = "gateway.jwt.cache";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final ReactiveJwtDecoder delegate;
+    private final Cache<TokenKey, Jwt> cache;
+
+    public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, long maxSize, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        return Mono.defer(() -> {
+            TokenKey key = TokenKey.of(token);
+            Jwt cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return delegate.decode(token)
+                    .doOnNext(jwt -> {
+                        if (jwt.getExpiresAt() != null) {
+                            cache.put(key, jwt);
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Drops every cached token; subsequent requests are verified by the delegate again.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Compact, content-comparable cache key built from a SHA-256 digest.
+     */
+    record TokenKey(long a, long b, long c, long d) {
+        static TokenKey of(String token) {
+            MessageDigest digest = SHA_256.get();
+            ByteBuffer hash = ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenKey(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<TokenKey, Jwt> {
+        @Override
+        public long expireAfterCreate(TokenKey key, Jwt jwt, long currentTime) {
+            Instant expiresAt = jwt.getExpiresAt();
+            long remaining = Duration.between(Instant.now(), expiresAt).toNanos();
+            return Math.max(remaining, 0L);
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenKey key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenKey key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
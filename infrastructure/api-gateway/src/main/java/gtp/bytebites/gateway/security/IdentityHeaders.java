@@ -0,0 +1,116 @@
+package gtp.bytebites.gateway.security;
+
+import gtp.bytebites.gateway.config.IdentityHeaderConfig;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Writes the signed {@code X-User-Identity} header downstream services read the caller's
+ * identity from.
+ * <p>
+ * The header is a single compact string:
+ * </p>
+ * <pre>
+ * v1.&lt;userId&gt;.&lt;email&gt;.&lt;roles&gt;.&lt;expiresAt&gt;.&lt;signature&gt;
+ * </pre>
+ * <p>
+ * {@code userId}, {@code email} and the comma-separated {@code roles} are base64url encoded
+ * without padding, {@code expiresAt} is in epoch seconds, and {@code signature} is the
+ * base64url HMAC-SHA256 of everything before it under the secret shared with the services.
+ * {@code ServiceSecurityFilter} in common-security verifies it; the two must agree on this
+ * format. The plain {@code X-User-*} headers are no longer trusted downstream and are
+ * removed.
+ * </p>
+ */
+@Component
+public class IdentityHeaders {
+    public static final String USER_IDENTITY = "X-User-Identity";
+    public static final String USER_ID = "X-User-Id";
+    public static final String USER_EMAIL = "X-User-Email";
+    public static final String USER_ROLES = "X-User-Roles";
+
+    private static final List<String> CLIENT_SUPPLIED = List.of(USER_IDENTITY, USER_ID, USER_EMAIL, USER_ROLES);
+
+    private static final String VERSION = "v1";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final IdentityHeaderConfig identityHeaderConfig;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public IdentityHeaders(IdentityHeaderConfig identityHeaderConfig) {
+        this.identityHeaderConfig = identityHeaderConfig;
+        this.key = new SecretKeySpec(identityHeaderConfig.getSecretBytes(), HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Sets the identity header from a verified token, replacing any sent by the client.
+     */
+    public void write(Jwt jwt, HttpHeaders headers) {
+        remove(headers);
+        headers.set(USER_IDENTITY, sign(jwt));
+    }
+
+    /**
+     * @return whether the headers carry any identity header, signed or plain
+     */
+    public boolean isPresent(HttpHeaders headers) {
+        for (String name : CLIENT_SUPPLIED) {
+            if (headers.containsKey(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes every identity header, for requests forwarded without a verified caller.
+     */
+    public void remove(HttpHeaders headers) {
+        CLIENT_SUPPLIED.forEach(headers::remove);
+    }
+
+    private String sign(Jwt jwt) {
+        // Get userId from custom claim (not from jwt.getId())
+        String userId = jwt.getClaim("userId"); // This matches your token generation
+        List<String> rolesList = jwt.getClaimAsStringList("roles");
+        Instant expiresAt = Instant.now().plus(identityHeaderConfig.getMaxAge());
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isBefore(expiresAt)) {
+            expiresAt = jwt.getExpiresAt();
+        }
+
+        String payload = VERSION
+                + '.' + encode(userId)
+                + '.' + encode(jwt.getSubject())
+                + '.' + encode(String.join(",", rolesList != null ? rolesList : List.of()))
+                + '.' + expiresAt.getEpochSecond();
+        byte[] signature = macs.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        return payload + '.' + ENCODER.encodeToString(signature);
+    }
+
+    private static String encode(String value) {
+        return ENCODER.encodeToString((value != null ? value : "").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise " + HMAC_ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package gtp.bytebites.gateway.security;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The set of public paths that bypass authentication at the gateway.
+ * <p>
+ * Patterns use {@link PathPattern} syntax and are compiled once into a trie keyed by their
+ * leading literal segments. A request path is matched by walking its already-parsed
+ * segments down the trie, so the cost depends on the depth of the path rather than on the
+ * number of patterns. The two common shapes, exact paths ({@code /error}) and literal
+ * prefixes ending in {@code /**} ({@code /api/v1/auth/**}), are answered by the trie
+ * alone without allocating; any other pattern is kept at its deepest literal node and
+ * checked with {@link PathPattern#matches(PathContainer)} only when the walk reaches it.
+ * </p>
+ * <p>
+ * {@link #reload(List)} swaps in a freshly compiled trie, so concurrent readers always see
+ * either the old or the new whitelist in full.
+ * </p>
+ */
+public class PathWhitelist implements ServerWebExchangeMatcher {
+    private static final String MATCH_ALL_SEGMENTS = "**";
+
+    private volatile Node root;
+    private volatile List<String> patterns;
+
+    public PathWhitelist(List<String> patterns) {
+        reload(patterns);
+    }
+
+    /**
+     * Replaces the current whitelist with the given patterns.
+     *
+     * @param patterns path patterns in {@link PathPattern} syntax
+     * @throws org.springframework.web.util.pattern.PatternParseException if a pattern is invalid
+     */
+    public void reload(List<String> patterns) {
+        Node compiled = new Node();
+        for (String pattern : patterns) {
+            add(compiled, pattern.trim());
+        }
+        this.patterns = List.copyOf(patterns);
+        this.root = compiled;
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * @param path the parsed request path, typically {@code request.getPath().pathWithinApplication()}
+     * @return whether any whitelisted pattern matches the path
+     */
+    public boolean matches(PathContainer path) {
+        Node node = root;
+        if (node.matchesSubtree || node.matchesPattern(path)) {
+            return true;
+        }
+
+        List<PathContainer.Element> elements = path.elements();
+        int last = elements.size() - 1;
+        for (int i = 0; i <= last; i++) {
+            if (!(elements.get(i) instanceof PathContainer.PathSegment segment)) {
+                continue;
+            }
+            node = node.children.get(segment.valueToMatch());
+            if (node == null) {
+                return false;
+            }
+            if (node.matchesSubtree || (node.matchesExactly && i == last) || node.matchesPattern(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Mono<MatchResult> matches(ServerWebExchange exchange) {
+        return matches(exchange.getRequest().getPath().pathWithinApplication())
+                ? MatchResult.match()
+                : MatchResult.notMatch();
+    }
+
+    private static void add(Node root, String pattern) {
+        if (pattern.isEmpty()) {
+            return;
+        }
+        PathPattern parsed = PathPatternParser.defaultInstance.parse(pattern);
+
+        String[] segments = pattern.split("/");
+        Node node = root;
+        int i = pattern.startsWith("/") ? 1 : 0;
+        for (; i < segments.length && isLiteral(segments[i]); i++) {
+            node = node.children.computeIfAbsent(segments[i], key -> new Node());
+        }
+
+        if (i == segments.length) {
+            node.matchesExactly = true;
+        } else if (i == segments.length - 1 && MATCH_ALL_SEGMENTS.equals(segments[i])) {
+            node.matchesSubtree = true;
+        } else {
+            node.patterns.add(parsed);
+        }
+    }
+
+    private static boolean isLiteral(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '*' || c == '?' || c == '{' || c == '}') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<PathPattern> patterns = new ArrayList<>(0);
+        private boolean matchesExactly;
+        private boolean matchesSubtree;
+
+        private boolean matchesPattern(PathContainer path) {
+            for (int i = 0; i < patterns.size(); i++) {
+                if (patterns.get(i).matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
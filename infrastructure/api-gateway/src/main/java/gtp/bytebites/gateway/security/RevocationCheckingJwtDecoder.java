@@ -0,0 +1,37 @@
+package gtp.bytebites.gateway.security;
+
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * A {@link ReactiveJwtDecoder} that rejects tokens on the {@link TokenRevocationList}.
+ * <p>
+ * The check runs on every decode, after the wrapped decoder, so a token served from the
+ * {@link CachingReactiveJwtDecoder} is checked as well and a revocation takes effect on
+ * the next request. A revoked token fails as a {@link BadJwtException}, which the resource
+ * server answers with 401 like any other invalid token.
+ * </p>
+ */
+public class RevocationCheckingJwtDecoder implements ReactiveJwtDecoder {
+    private final ReactiveJwtDecoder delegate;
+    private final TokenRevocationList revocationList;
+
+    public RevocationCheckingJwtDecoder(ReactiveJwtDecoder delegate, TokenRevocationList revocationList) {
+        this.delegate = delegate;
+        this.revocationList = revocationList;
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        return delegate.decode(token).handle((jwt, sink) -> {
+            if (revocationList.isRevoked(jwt)) {
+                sink.error(new BadJwtException("Token has been revoked"));
+            } else {
+                sink.next(jwt);
+            }
+        });
+    }
+}
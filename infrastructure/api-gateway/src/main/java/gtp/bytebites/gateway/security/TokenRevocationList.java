@@ -0,0 +1,175 @@
+package gtp.bytebites.gateway.security;
+
+import gtp.bytebites.events.event.TokenRevokedEvent;
+import gtp.bytebites.gateway.config.TokenRevocationConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The access tokens and users auth-service has revoked, as pushed to this gateway in
+ * {@link TokenRevokedEvent}s.
+ * <p>
+ * Revocations are kept in exact sets, each entry until every token it covers has expired,
+ * and fronted by a {@link BloomFilter} over the same keys. A token that is not revoked, the
+ * common case, is answered by the filter alone: one probe for its {@code jti} and one for
+ * its {@code userId}, with no locking, allocation or I/O. Only a filter hit consults the
+ * exact sets, so a false positive costs a map lookup, never a wrongly rejected token.
+ * </p>
+ * <p>
+ * Bits cannot be removed from a Bloom filter, so every
+ * {@code app.gateway.revocation.rebuild-interval} the expired entries are dropped and a new
+ * filter built from the rest replaces the old one. A filter that fills past its sizing is
+ * rebuilt larger straight away. Revocations live only in memory: a gateway that starts up
+ * knows of those pushed since, which leaves tokens revoked before it started valid there
+ * for at most their remaining lifetime.
+ * </p>
+ * <p>
+ * Filter hits are counted as {@code gateway.token.revocation.hits}, tagged by whether the
+ * token was revoked or the hit was a false positive.
+ * </p>
+ */
+@Component
+public class TokenRevocationList {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private static final long TOKEN_SEED = 0x9e3779b97f4a7c15L;
+    private static final long USER_SEED = 0xbf58476d1ce4e5b9L;
+    private static final String USER_ID_CLAIM = "userId";
+
+    private final TokenRevocationConfig config;
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, UserRevocation> revokedUsers = new ConcurrentHashMap<>();
+    private final Counter revokedHits;
+    private final Counter falsePositives;
+
+    private volatile BloomFilter filter;
+    private int capacity;
+    private int insertions;
+    private Disposable rebuildTask;
+
+    public TokenRevocationList(TokenRevocationConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.capacity = config.getExpectedInsertions();
+        this.filter = BloomFilter.create(capacity, config.getFalsePositiveRate());
+        this.revokedHits = meterRegistry.counter("gateway.token.revocation.hits", "result", "revoked");
+        this.falsePositives = meterRegistry.counter("gateway.token.revocation.hits", "result", "false-positive");
+        meterRegistry.gauge("gateway.token.revocation.entries", this, TokenRevocationList::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        long interval = config.getRebuildInterval().toMillis();
+        rebuildTask = Schedulers.boundedElastic()
+                .schedulePeriodically(this::rebuild, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (rebuildTask != null) {
+            rebuildTask.dispose();
+        }
+    }
+
+    public boolean isRevoked(Jwt jwt) {
+        return isRevoked(jwt.getId(), jwt.getClaimAsString(USER_ID_CLAIM), jwt.getIssuedAt());
+    }
+
+    /**
+     * @param tokenId the token's {@code jti}, if it has one
+     * @param userId the token's {@code userId} claim, if it has one
+     * @param issuedAt the token's {@code iat}; a token without one counts as issued before
+     *        any revocation of its user, one issued in the cutoff's own second as after it
+     */
+    public boolean isRevoked(String tokenId, String userId, Instant issuedAt) {
+        BloomFilter current = filter;
+        if (tokenId != null && current.mightContain(BloomFilter.hash(TOKEN_SEED, tokenId))) {
+            if (revokedTokens.containsKey(tokenId)) {
+                revokedHits.increment();
+                return true;
+            }
+            falsePositives.increment();
+        }
+        if (userId != null && current.mightContain(BloomFilter.hash(USER_SEED, userId))) {
+            UserRevocation revocation = revokedUsers.get(userId);
+            if (revocation != null && (issuedAt == null || issuedAt.isBefore(revocation.issuedBefore()))) {
+                revokedHits.increment();
+                return true;
+            }
+            falsePositives.increment();
+        }
+        return false;
+    }
+
+    public synchronized void apply(TokenRevokedEvent event) {
+        if (!event.expiresAt().isAfter(Instant.now())) {
+            return;
+        }
+        if (event.tokenId() != null) {
+            revokedTokens.merge(event.tokenId(), event.expiresAt(), TokenRevocationList::later);
+            add(BloomFilter.hash(TOKEN_SEED, event.tokenId()));
+        }
+        if (event.userId() != null) {
+            String userId = event.userId().toString();
+            revokedUsers.merge(userId, new UserRevocation(event.issuedBefore(), event.expiresAt()),
+                    UserRevocation::merge);
+            add(BloomFilter.hash(USER_SEED, userId));
+        }
+    }
+
+    /**
+     * Drops expired revocations and replaces the filter with one holding only the rest.
+     */
+    public synchronized void rebuild() {
+        Instant now = Instant.now();
+        revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        revokedUsers.values().removeIf(revocation -> !revocation.expiresAt().isAfter(now));
+
+        int size = size();
+        capacity = Math.max(config.getExpectedInsertions(), 2 * size);
+        BloomFilter rebuilt = BloomFilter.create(capacity, config.getFalsePositiveRate());
+        revokedTokens.keySet().forEach(tokenId -> rebuilt.put(BloomFilter.hash(TOKEN_SEED, tokenId)));
+        revokedUsers.keySet().forEach(userId -> rebuilt.put(BloomFilter.hash(USER_SEED, userId)));
+        insertions = size;
+        filter = rebuilt;
+        log.debug("Rebuilt token revocation filter with {} entries ({} bits)", size, rebuilt.bitCount());
+    }
+
+    public int size() {
+        return revokedTokens.size() + revokedUsers.size();
+    }
+
+    /**
+     * Must be called after the key is in its exact set, so a probe that sees the new bits
+     * also finds the entry behind them.
+     */
+    private void add(long hash) {
+        filter.put(hash);
+        if (++insertions > capacity) {
+            rebuild();
+        }
+    }
+
+    private static Instant later(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private record UserRevocation(Instant issuedBefore, Instant expiresAt) {
+        UserRevocation merge(UserRevocation other) {
+            return new UserRevocation(later(issuedBefore, other.issuedBefore), later(expiresAt, other.expiresAt));
+        }
+    }
+}
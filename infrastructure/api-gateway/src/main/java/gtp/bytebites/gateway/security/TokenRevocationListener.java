@@ -0,0 +1,24 @@
+package gtp.bytebites.gateway.security;
+
+import gtp.bytebites.events.event.TokenRevokedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TokenRevocationListener {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationListener.class);
+
+    private final TokenRevocationList tokenRevocationList;
+
+    public TokenRevocationListener(TokenRevocationList tokenRevocationList) {
+        this.tokenRevocationList = tokenRevocationList;
+    }
+
+    @RabbitListener(queues = "#{tokenRevocationQueue.name}")
+    public void handleTokenRevoked(TokenRevokedEvent event) {
+        log.info("Gateway received token revocation: token {}, user {}", event.tokenId(), event.userId());
+        tokenRevocationList.apply(event);
+    }
+}
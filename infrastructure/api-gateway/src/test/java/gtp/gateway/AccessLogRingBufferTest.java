@@ -0,0 +1,88 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.accesslog.AccessLogRingBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link AccessLogRingBuffer}.
+ */
+class AccessLogRingBufferTest {
+
+    @Test
+    void offer_shouldRejectWhenFullAndAcceptAgainOncePolled() {
+        // Given
+        AccessLogRingBuffer<Integer> buffer = new AccessLogRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        // When
+        boolean acceptedWhileFull = buffer.offer(4);
+        Integer oldest = buffer.poll();
+        boolean acceptedAfterPoll = buffer.offer(5);
+
+        // Then
+        assertFalse(acceptedWhileFull);
+        assertEquals(0, oldest);
+        assertTrue(acceptedAfterPoll);
+        assertEquals(1, buffer.poll());
+        assertEquals(2, buffer.poll());
+        assertEquals(3, buffer.poll());
+        assertEquals(5, buffer.poll());
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void constructor_shouldRoundCapacityUpToPowerOfTwo() {
+        assertEquals(8, new AccessLogRingBuffer<>(5).capacity());
+        assertEquals(8192, new AccessLogRingBuffer<>(8192).capacity());
+    }
+
+    @Test
+    void offer_shouldNotLoseElementsFromConcurrentProducers() throws InterruptedException {
+        // Given
+        int producers = 4;
+        int perProducer = 50_000;
+        AccessLogRingBuffer<Integer> buffer = new AccessLogRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        Set<Integer> received = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received.size() < producers * perProducer && System.nanoTime() < deadline) {
+            Integer value = buffer.poll();
+            if (value != null) {
+                assertTrue(received.add(value), "duplicate " + value);
+            }
+        }
+        executor.shutdownNow();
+
+        // Then
+        assertEquals(producers * perProducer, received.size());
+        assertNull(buffer.poll());
+    }
+}
@@ -0,0 +1,231 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.batch.BatchDispatcher;
+import gtp.bytebites.gateway.batch.BatchRequest;
+import gtp.bytebites.gateway.batch.BatchResponse;
+import gtp.bytebites.gateway.batch.BatchRouteResolver;
+import gtp.bytebites.gateway.concurrency.ConcurrencyLimiterRegistry;
+import gtp.bytebites.gateway.config.BatchConfig;
+import gtp.bytebites.gateway.config.ConcurrencyLimitConfig;
+import gtp.bytebites.gateway.config.IdentityHeaderConfig;
+import gtp.bytebites.gateway.config.RateLimitConfig;
+import gtp.bytebites.gateway.filters.RateLimitGlobalFilter;
+import gtp.bytebites.gateway.ratelimit.InMemoryTokenBucketStore;
+import gtp.bytebites.gateway.security.IdentityHeaders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BatchDispatcher}.
+ */
+class BatchDispatcherTest {
+
+    @Test
+    void dispatch_shouldRouteEachSubRequestAndForwardIdentity() {
+        // Given
+        List<ClientRequest> sent = Collections.synchronizedList(new ArrayList<>());
+        BatchDispatcher dispatcher = dispatcher(request -> {
+            sent.add(request);
+            return ok("{\"data\":\"" + request.url().getPath() + "\"}");
+        });
+        BatchRequest batch = new BatchRequest(List.of(
+                new BatchRequest.SubRequest("orders", null, "/api/v1/orders/me?page=1",
+                        Map.of("X-User-Id", "spoofed", "Accept", "application/json"), null),
+                new BatchRequest.SubRequest(null, "get", "/api/v1/restaurants/7", null, null)));
+
+        // When
+        Map<String, BatchResponse> responses = collect(dispatcher.dispatch(batch, customer(), batchRequest()).collectList().block());
+
+        // Then
+        assertEquals(2, responses.size());
+        assertEquals(200, responses.get("orders").status());
+        assertEquals("/api/v1/orders/me", responses.get("orders").body().path("data").asText());
+        assertEquals("/api/v1/restaurants/7", responses.get("1").body().path("data").asText());
+        ClientRequest orders = sent.stream().filter(r -> r.url().getPath().startsWith("/api/v1/orders")).findFirst().orElseThrow();
+        assertEquals("order-service", orders.url().getHost());
+        assertEquals("page=1", orders.url().getQuery());
+        assertNotNull(orders.headers().getFirst(IdentityHeaders.USER_IDENTITY));
+        assertNull(orders.headers().getFirst("X-User-Id"));
+        assertEquals("Bearer token", orders.headers().getFirst(HttpHeaders.AUTHORIZATION));
+        assertEquals("application/json", orders.headers().getFirst(HttpHeaders.ACCEPT));
+        assertEquals("198.51.100.1, 203.0.113.7", orders.headers().getFirst("X-Forwarded-For"));
+    }
+
+    @Test
+    void dispatch_shouldCountEachSubRequestAgainstTheCallersRateLimit() {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        RateLimitConfig rateLimitConfig = new RateLimitConfig();
+        rateLimitConfig.setRoutes(Map.of("order-service", new RateLimitConfig.Policy(1, 2)));
+        BatchDispatcher dispatcher = dispatcher(request -> {
+            upstreamCalls.incrementAndGet();
+            return ok("{}");
+        }, rateLimitConfig);
+        BatchRequest batch = new BatchRequest(IntStream.range(0, 5)
+                .mapToObj(i -> new BatchRequest.SubRequest("order-" + i, "POST", "/api/v1/orders", null, null))
+                .toList());
+
+        // When
+        List<BatchResponse> responses = dispatcher.dispatch(batch, customer(), batchRequest()).collectList().block();
+
+        // Then
+        assertNotNull(responses);
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(2, responses.stream().filter(response -> response.status() == 200).count());
+        assertEquals(3, responses.stream().filter(response -> response.status() == 429).count());
+    }
+
+    @Test
+    void dispatch_shouldRefuseRoutesBehindAWaitingRoom() {
+        // Given
+        BatchDispatcher dispatcher = dispatcher(request -> fail("Unexpected upstream call to " + request.url()));
+        BatchRequest batch = new BatchRequest(List.of(
+                new BatchRequest.SubRequest("checkout", "POST", "/api/v1/checkout", null, null)));
+
+        // When
+        Map<String, BatchResponse> responses = collect(dispatcher.dispatch(batch, customer(), batchRequest()).collectList().block());
+
+        // Then
+        assertEquals(400, responses.get("checkout").status());
+    }
+
+    @Test
+    void dispatch_shouldAnswerUnroutableSubRequestsWithoutCallingUpstream() {
+        // Given
+        BatchDispatcher dispatcher = dispatcher(request -> fail("Unexpected upstream call to " + request.url()));
+        BatchRequest batch = new BatchRequest(List.of(
+                new BatchRequest.SubRequest("unknown", null, "/api/v1/unknown", null, null),
+                new BatchRequest.SubRequest("escape", null, "/api/v1/orders/../../actuator", null, null),
+                new BatchRequest.SubRequest("authority", null, "//evil.example/api/v1/orders", null, null)));
+
+        // When
+        Map<String, BatchResponse> responses = collect(dispatcher.dispatch(batch, customer(), batchRequest()).collectList().block());
+
+        // Then
+        assertEquals(404, responses.get("unknown").status());
+        assertEquals(400, responses.get("escape").status());
+        assertEquals(400, responses.get("authority").status());
+    }
+
+    @Test
+    void dispatch_shouldReportTimedOutSubRequestWithoutFailingTheBatch() {
+        // Given
+        BatchDispatcher dispatcher = dispatcher(request -> request.url().getPath().startsWith("/api/v1/orders")
+                ? Mono.never()
+                : ok("{}"));
+        BatchRequest batch = new BatchRequest(List.of(
+                new BatchRequest.SubRequest("slow", null, "/api/v1/orders/me", null, null),
+                new BatchRequest.SubRequest("fast", null, "/api/v1/restaurants", null, null)));
+
+        // When
+        List<BatchResponse> responses = dispatcher.dispatch(batch, customer(), batchRequest())
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertNotNull(responses);
+        assertEquals("fast", responses.get(0).id());
+        assertEquals(504, collect(responses).get("slow").status());
+    }
+
+    @Test
+    void dispatch_shouldRejectOversizedBatch() {
+        // Given
+        BatchDispatcher dispatcher = dispatcher(request -> ok("{}"));
+        BatchRequest batch = new BatchRequest(IntStream.range(0, 21)
+                .mapToObj(i -> new BatchRequest.SubRequest(null, null, "/api/v1/restaurants", null, null))
+                .toList());
+
+        // When/Then
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> dispatcher.dispatch(batch, customer(), batchRequest()));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    private BatchDispatcher dispatcher(Function<ClientRequest, Mono<ClientResponse>> upstream) {
+        return dispatcher(upstream, new RateLimitConfig());
+    }
+
+    private BatchDispatcher dispatcher(Function<ClientRequest, Mono<ClientResponse>> upstream,
+                                       RateLimitConfig rateLimitConfig) {
+        RouteDefinition checkout = new RouteDefinition("checkout-service=lb://order-service,Path=/api/v1/checkout/**");
+        checkout.setFilters(List.of(new FilterDefinition("WaitingRoom=8")));
+        GatewayProperties gatewayProperties = new GatewayProperties();
+        gatewayProperties.setRoutes(List.of(
+                new RouteDefinition("order-service=lb://order-service,Path=/api/v1/orders/**"),
+                new RouteDefinition("restaurant-service=lb://restaurant-service,Path=/api/v1/restaurants/**"),
+                checkout));
+        BatchConfig config = new BatchConfig();
+        config.setTimeout(Duration.ofMillis(200));
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(upstream::apply)
+                .build();
+        IdentityHeaderConfig identityHeaderConfig = new IdentityHeaderConfig();
+        identityHeaderConfig.setSecret("identity-secret-identity-secret-identity");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RateLimitGlobalFilter rateLimiter = new RateLimitGlobalFilter(rateLimitConfig,
+                new InMemoryTokenBucketStore(Duration.ofMinutes(10), meterRegistry), meterRegistry);
+        ConcurrencyLimitConfig concurrencyLimitConfig = new ConcurrencyLimitConfig();
+        return new BatchDispatcher(new BatchRouteResolver(gatewayProperties), config, webClient,
+                WebClient.builder().exchangeFunction(upstream::apply), new IdentityHeaders(identityHeaderConfig),
+                rateLimiter, concurrencyLimitConfig,
+                new ConcurrencyLimiterRegistry(concurrencyLimitConfig, meterRegistry),
+                new ObjectMapper(), meterRegistry);
+    }
+
+    private ServerHttpRequest batchRequest() {
+        return MockServerHttpRequest.post("/api/v1/batch")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .header("X-Forwarded-For", "198.51.100.1")
+                .remoteAddress(new InetSocketAddress("203.0.113.7", 40000))
+                .build();
+    }
+
+    private Map<String, BatchResponse> collect(List<BatchResponse> responses) {
+        assertNotNull(responses);
+        return responses.stream().collect(Collectors.toMap(BatchResponse::id, Function.identity()));
+    }
+
+    private Mono<ClientResponse> ok(String body) {
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+
+    private Jwt customer() {
+        return new Jwt("token", Instant.now(), Instant.now().plusSeconds(60), Map.of("alg", "HS512"),
+                Map.of("sub", "ama@example.com", "userId", "42", "roles", List.of("ROLE_CUSTOMER")));
+    }
+}
@@ -0,0 +1,82 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.security.CachingReactiveJwtDecoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link CachingReactiveJwtDecoder}.
+ */
+class CachingReactiveJwtDecoderTest {
+
+    private ReactiveJwtDecoder delegate;
+    private MeterRegistry meterRegistry;
+    private CachingReactiveJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(ReactiveJwtDecoder.class);
+        meterRegistry = new SimpleMeterRegistry();
+        decoder = new CachingReactiveJwtDecoder(delegate, 100, meterRegistry);
+    }
+
+    @Test
+    void decode_shouldVerifyTokenOnlyOnceWhileItIsValid() {
+        Jwt jwt = createJwt(Instant.now().plusSeconds(300));
+        when(delegate.decode("token")).thenReturn(Mono.just(jwt));
+
+        StepVerifier.create(decoder.decode("token")).expectNext(jwt).verifyComplete();
+        StepVerifier.create(decoder.decode("token")).expectNext(jwt).verifyComplete();
+
+        verify(delegate, times(1)).decode("token");
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void decode_shouldNotServeExpiredTokensFromCache() {
+        Jwt jwt = createJwt(Instant.now().minusSeconds(1));
+        when(delegate.decode("token")).thenReturn(Mono.just(jwt));
+
+        decoder.decode("token").block();
+        decoder.decode("token").block();
+
+        verify(delegate, times(2)).decode("token");
+    }
+
+    @Test
+    void decode_shouldNotCacheFailures() {
+        when(delegate.decode("bad")).thenReturn(Mono.error(new BadJwtException("bad signature")));
+
+        StepVerifier.create(decoder.decode("bad")).expectError(BadJwtException.class).verify();
+        StepVerifier.create(decoder.decode("bad")).expectError(BadJwtException.class).verify();
+
+        verify(delegate, times(2)).decode("bad");
+    }
+
+    private Jwt createJwt(Instant expiresAt) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS512")
+                .subject("user@example.com")
+                .claim("userId", "42")
+                .claim("roles", List.of("ROLE_CUSTOMER"))
+                .issuedAt(expiresAt.minusSeconds(900))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
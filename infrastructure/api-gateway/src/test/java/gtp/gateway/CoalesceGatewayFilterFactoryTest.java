@@ -0,0 +1,128 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.filters.CoalesceGatewayFilterFactory;
+import gtp.bytebites.gateway.filters.RateLimitGlobalFilter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CoalesceGatewayFilterFactory}.
+ */
+class CoalesceGatewayFilterFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CoalesceGatewayFilterFactory factory = new CoalesceGatewayFilterFactory(meterRegistry);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void filter_shouldShareOneUpstreamCallBetweenConcurrentRequests() {
+        // Given
+        GatewayFilter filter = factory.apply(new CoalesceGatewayFilterFactory.Config());
+        MockServerWebExchange first = exchange("/api/v1/restaurants");
+        MockServerWebExchange second = exchange("/api/v1/restaurants");
+
+        // When
+        Mono.when(filter.filter(first, upstream("[\"Chez\"]")), filter.filter(second, upstream("[\"Chez\"]")))
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("[\"Chez\"]", first.getResponse().getBodyAsString().block());
+        assertEquals("[\"Chez\"]", second.getResponse().getBodyAsString().block());
+        assertEquals(HttpStatus.OK, second.getResponse().getStatusCode());
+        assertEquals(1.0, meterRegistry.counter("gateway.coalescing.requests",
+                "route", "unknown", "role", "follower").count());
+    }
+
+    @Test
+    void filter_shouldNotCoalesceDifferentQueries() {
+        // Given
+        GatewayFilter filter = factory.apply(new CoalesceGatewayFilterFactory.Config());
+
+        // When
+        Mono.when(filter.filter(exchange("/api/v1/restaurants?page=0"), upstream("[]")),
+                        filter.filter(exchange("/api/v1/restaurants?page=1"), upstream("[]")))
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void filter_shouldSendFollowersUpstreamWhenBodyIsTooLarge() {
+        // Given
+        CoalesceGatewayFilterFactory.Config config = new CoalesceGatewayFilterFactory.Config();
+        config.setMaxBodySize(DataSize.ofBytes(4));
+        GatewayFilter filter = factory.apply(config);
+        MockServerWebExchange first = exchange("/api/v1/restaurants");
+        MockServerWebExchange second = exchange("/api/v1/restaurants");
+
+        // When
+        Mono.when(filter.filter(first, upstream("too large")), filter.filter(second, upstream("too large")))
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("too large", second.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void filter_shouldKeepEachFollowersRateLimitHeaders() {
+        // Given
+        GatewayFilter filter = factory.apply(new CoalesceGatewayFilterFactory.Config());
+        MockServerWebExchange first = exchange("/api/v1/restaurants");
+        MockServerWebExchange second = exchange("/api/v1/restaurants");
+        first.getResponse().getHeaders().set(RateLimitGlobalFilter.REMAINING_HEADER, "9");
+        second.getResponse().getHeaders().set(RateLimitGlobalFilter.REMAINING_HEADER, "3");
+
+        // When
+        Mono.when(filter.filter(first, upstream("[]")), filter.filter(second, upstream("[]")))
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("9", first.getResponse().getHeaders().getFirst(RateLimitGlobalFilter.REMAINING_HEADER));
+        assertEquals("3", second.getResponse().getHeaders().getFirst(RateLimitGlobalFilter.REMAINING_HEADER));
+    }
+
+    @Test
+    void apply_shouldRunAfterRateLimiting() {
+        // Given
+        GatewayFilter filter = factory.apply(new CoalesceGatewayFilterFactory.Config());
+        RateLimitGlobalFilter rateLimitFilter = new RateLimitGlobalFilter(null, null, meterRegistry);
+
+        // Then
+        assertTrue(((Ordered) filter).getOrder() > rateLimitFilter.getOrder());
+    }
+
+    private MockServerWebExchange exchange(String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(uri).build());
+    }
+
+    private GatewayFilterChain upstream(String body) {
+        return exchange -> Mono.delay(Duration.ofMillis(100))
+                .then(Mono.defer(() -> {
+                    upstreamCalls.incrementAndGet();
+                    exchange.getResponse().setStatusCode(HttpStatus.OK);
+                    return exchange.getResponse().writeWith(Mono.just(DefaultDataBufferFactory.sharedInstance
+                            .wrap(body.getBytes(StandardCharsets.UTF_8))));
+                }));
+    }
+}
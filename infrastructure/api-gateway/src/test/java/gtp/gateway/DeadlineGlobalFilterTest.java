@@ -0,0 +1,86 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.config.DeadlineConfig;
+import gtp.bytebites.gateway.deadline.DeadlineHttpHeadersFilter;
+import gtp.bytebites.gateway.deadline.RequestDeadline;
+import gtp.bytebites.gateway.filters.DeadlineGlobalFilter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link DeadlineGlobalFilter} and {@link DeadlineHttpHeadersFilter}.
+ */
+class DeadlineGlobalFilterTest {
+
+    private DeadlineGlobalFilter filter;
+    private DeadlineHttpHeadersFilter headersFilter;
+    private AtomicReference<HttpHeaders> forwarded;
+    private GatewayFilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        DeadlineConfig config = new DeadlineConfig();
+        config.setDefaultTimeout(Duration.ofSeconds(10));
+        filter = new DeadlineGlobalFilter(config);
+        headersFilter = new DeadlineHttpHeadersFilter();
+        forwarded = new AtomicReference<>();
+        chain = exchange -> {
+            forwarded.set(headersFilter.filter(exchange.getRequest().getHeaders(), exchange));
+            return Mono.empty();
+        };
+    }
+
+    @Test
+    void filter_shouldStampRemainingRouteBudget() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/orders/me"));
+
+        // When
+        filter.filter(exchange, chain).block();
+
+        // Then
+        long budget = Long.parseLong(forwarded.get().getFirst(RequestDeadline.HEADER));
+        assertTrue(budget > 9_000 && budget <= 10_000, "budget was " + budget);
+    }
+
+    @Test
+    void filter_shouldHonourShorterBudgetRequestedByClient() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/orders/me")
+                .header(RequestDeadline.HEADER, "1500"));
+
+        // When
+        filter.filter(exchange, chain).block();
+
+        // Then
+        long budget = Long.parseLong(forwarded.get().getFirst(RequestDeadline.HEADER));
+        assertTrue(budget > 500 && budget <= 1_500, "budget was " + budget);
+    }
+
+    @Test
+    void filter_shouldNotForwardRequestWhoseBudgetIsSpent() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/orders/me")
+                .header(RequestDeadline.HEADER, "0"));
+
+        // When/Then
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> filter.filter(exchange, chain).block());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, e.getStatusCode());
+        assertNull(forwarded.get());
+    }
+}
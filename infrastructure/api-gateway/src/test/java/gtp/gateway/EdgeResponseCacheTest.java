@@ -0,0 +1,86 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.cache.CachedResponse;
+import gtp.bytebites.gateway.cache.EdgeResponseCache;
+import gtp.bytebites.gateway.config.EdgeCacheConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link EdgeResponseCache}.
+ */
+class EdgeResponseCacheTest {
+
+    private static final UUID RESTAURANT_ID = UUID.randomUUID();
+    private static final UUID OTHER_RESTAURANT_ID = UUID.randomUUID();
+
+    private EdgeResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        EdgeCacheConfig config = new EdgeCacheConfig();
+        config.setMaxEntrySize(DataSize.ofBytes(64));
+        cache = new EdgeResponseCache(config, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void put_shouldRejectBodiesOverTheEntryLimit() {
+        // Given
+        EdgeResponseCache.Key key = key("/api/v1/restaurants");
+
+        // When
+        boolean stored = cache.put(key, response(new byte[65]));
+
+        // Then
+        assertFalse(stored);
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void invalidateRestaurant_shouldDropTheRestaurantAndListingsOnly() {
+        // Given
+        EdgeResponseCache.Key listing = key("/api/v1/restaurants");
+        EdgeResponseCache.Key detail = key("/api/v1/restaurants/" + RESTAURANT_ID);
+        EdgeResponseCache.Key menu = key("/api/v1/restaurants/" + RESTAURANT_ID + "/menu");
+        EdgeResponseCache.Key other = key("/api/v1/restaurants/" + OTHER_RESTAURANT_ID);
+        for (EdgeResponseCache.Key key : new EdgeResponseCache.Key[]{listing, detail, menu, other}) {
+            cache.put(key, response("[]".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        // When
+        cache.invalidateRestaurant(RESTAURANT_ID);
+
+        // Then
+        assertNull(cache.get(listing));
+        assertNull(cache.get(detail));
+        assertNull(cache.get(menu));
+        assertNotNull(cache.get(other));
+    }
+
+    @Test
+    void etagFor_shouldDependOnlyOnTheBody() {
+        byte[] body = "{\"name\":\"Chez\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(EdgeResponseCache.etagFor(body), EdgeResponseCache.etagFor(body.clone()));
+        assertNotEquals(EdgeResponseCache.etagFor(body), EdgeResponseCache.etagFor(new byte[0]));
+    }
+
+    private EdgeResponseCache.Key key(String path) {
+        return new EdgeResponseCache.Key("restaurant-service", path, null);
+    }
+
+    private CachedResponse response(byte[] body) {
+        return new CachedResponse(MediaType.APPLICATION_JSON, body, EdgeResponseCache.etagFor(body),
+                System.currentTimeMillis(), 60_000);
+    }
+}
@@ -0,0 +1,54 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.filters.ConcurrencyLimitGlobalFilter;
+import gtp.bytebites.gateway.filters.JwtGlobalFilter;
+import gtp.bytebites.gateway.filters.RateLimitGlobalFilter;
+import gtp.bytebites.gateway.filters.WaitingRoomGatewayFilterFactory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory;
+import org.springframework.core.Ordered;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pins the relative order of the gateway's admission filters and the {@code Retry}
+ * default filter.
+ */
+class GatewayFilterOrderTest {
+
+    /**
+     * Order the gateway gives the first default filter when it has no order of its own.
+     */
+    private static final int FIRST_DEFAULT_FILTER_ORDER = 1;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void retry_shouldTakeItsPositionAsOrder() {
+        // When
+        GatewayFilter retry = new RetryGatewayFilterFactory().apply(new RetryGatewayFilterFactory.RetryConfig());
+
+        // Then
+        assertFalse(retry instanceof Ordered);
+    }
+
+    @Test
+    void admissionFilters_shouldRunInOrderAndBeforeRetry() {
+        // Given
+        int jwt = new JwtGlobalFilter(null, null).getOrder();
+        int rateLimit = new RateLimitGlobalFilter(null, null, meterRegistry).getOrder();
+        int waitingRoom = ((Ordered) new WaitingRoomGatewayFilterFactory(meterRegistry)
+                .apply(new WaitingRoomGatewayFilterFactory.Config())).getOrder();
+        int concurrencyLimit = new ConcurrencyLimitGlobalFilter(null, null).getOrder();
+
+        // Then
+        assertTrue(jwt < rateLimit);
+        assertTrue(rateLimit < waitingRoom);
+        assertTrue(waitingRoom < concurrencyLimit);
+        assertTrue(concurrencyLimit < FIRST_DEFAULT_FILTER_ORDER);
+    }
+}
@@ -0,0 +1,108 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.concurrency.GradientLimiter;
+import gtp.bytebites.gateway.config.ConcurrencyLimitConfig;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link GradientLimiter}.
+ */
+class GradientLimiterTest {
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+    private ConcurrencyLimitConfig.Policy policy;
+    private GradientLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        policy = new ConcurrencyLimitConfig.Policy();
+        policy.setInitialLimit(20);
+        policy.setMinLimit(4);
+        policy.setMaxLimit(200);
+        limiter = new GradientLimiter(policy, clock::get);
+    }
+
+    @Test
+    void tryAcquire_shouldRejectOnceLimitIsInFlight() {
+        // Given
+        List<GradientLimiter.Permit> permits = acquire(20);
+
+        // When
+        GradientLimiter.Permit rejected = limiter.tryAcquire();
+        permits.get(0).ignore();
+        GradientLimiter.Permit admitted = limiter.tryAcquire();
+
+        // Then
+        assertNull(rejected);
+        assertNotNull(admitted);
+        assertEquals(1, limiter.getRejected());
+        assertEquals(20, limiter.getInFlight());
+    }
+
+    @Test
+    void permit_shouldGrowLimitWhileLatencyHoldsSteady() {
+        // When
+        for (int round = 0; round < 20; round++) {
+            completeAll(acquire(limiter.getLimit()), 10);
+        }
+
+        // Then
+        assertTrue(limiter.getLimit() > 40, "limit was " + limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void permit_shouldShrinkLimitWhenLatencyRises() {
+        // Given
+        for (int round = 0; round < 20; round++) {
+            completeAll(acquire(limiter.getLimit()), 10);
+        }
+        int before = limiter.getLimit();
+
+        // When
+        completeAll(acquire(before), 60);
+
+        // Then
+        assertTrue(limiter.getLimit() < before / 2, before + " -> " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= policy.getMinLimit());
+    }
+
+    @Test
+    void permit_shouldCutLimitOnDropAndNotGrowWhenMostlyIdle() {
+        // When
+        limiter.tryAcquire().dropped();
+        int afterDrop = limiter.getLimit();
+        for (int i = 0; i < 50; i++) {
+            completeAll(acquire(1), 10);
+        }
+
+        // Then
+        assertEquals(18, afterDrop);
+        assertEquals(18, limiter.getLimit());
+    }
+
+    private List<GradientLimiter.Permit> acquire(int count) {
+        List<GradientLimiter.Permit> permits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            GradientLimiter.Permit permit = limiter.tryAcquire();
+            assertNotNull(permit);
+            permits.add(permit);
+        }
+        return permits;
+    }
+
+    private void completeAll(List<GradientLimiter.Permit> permits, long latencyMillis) {
+        clock.addAndGet(latencyMillis * MILLIS);
+        permits.forEach(GradientLimiter.Permit::success);
+    }
+}
@@ -0,0 +1,73 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.config.HedgeConfig;
+import gtp.bytebites.gateway.hedge.HedgeBudget;
+import gtp.bytebites.gateway.hedge.HedgeDelay;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link HedgeDelay} and {@link HedgeBudget}.
+ */
+class HedgeDelayTest {
+
+    @Test
+    void current_shouldUseMaxDelayUntilEnoughSamples() {
+        // Given
+        HedgeDelay delay = new HedgeDelay(0.95, Duration.ofMillis(20), Duration.ofSeconds(1), 100);
+
+        // When
+        for (int i = 0; i < 63; i++) {
+            delay.record(Duration.ofMillis(5).toNanos());
+        }
+
+        // Then
+        assertEquals(Duration.ofSeconds(1), delay.current());
+    }
+
+    @Test
+    void current_shouldFollowPercentileWithinBounds() {
+        // Given
+        HedgeDelay delay = new HedgeDelay(0.95, Duration.ofMillis(20), Duration.ofSeconds(1), 100);
+
+        // When
+        for (int i = 1; i <= 1024; i++) {
+            delay.record(Duration.ofMillis(i % 100 + 1).toNanos());
+        }
+        Duration tracked = delay.current();
+        for (int i = 0; i < 1024; i++) {
+            delay.record(Duration.ofMillis(1).toNanos());
+        }
+
+        // Then
+        assertEquals(Duration.ofMillis(95), tracked);
+        assertEquals(Duration.ofMillis(20), delay.current());
+    }
+
+    @Test
+    void tryWithdraw_shouldAllowOnlyBudgetRatioOfRequestsOnceBurstIsSpent() {
+        // Given
+        HedgeConfig config = new HedgeConfig();
+        config.setBudgetRatio(0.05);
+        config.setBudgetBurst(2);
+        HedgeBudget budget = new HedgeBudget(config, new SimpleMeterRegistry());
+
+        // When
+        int hedges = 0;
+        for (int i = 0; i < 200; i++) {
+            budget.deposit();
+            if (budget.tryWithdraw()) {
+                hedges++;
+            }
+        }
+
+        // Then
+        assertEquals(11, hedges);
+        assertFalse(budget.tryWithdraw());
+    }
+}
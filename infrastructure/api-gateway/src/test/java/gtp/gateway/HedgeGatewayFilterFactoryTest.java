@@ -0,0 +1,237 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.config.HedgeConfig;
+import gtp.bytebites.gateway.config.LoadBalancerConfig;
+import gtp.bytebites.gateway.config.OutlierDetectionConfig;
+import gtp.bytebites.gateway.filters.HedgeGatewayFilterFactory;
+import gtp.bytebites.gateway.hedge.HedgeBudget;
+import gtp.bytebites.gateway.loadbalancer.InstanceStatsRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClientsProperties;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.filter.headers.XForwardedHeadersFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link HedgeGatewayFilterFactory}, run against stub upstream servers
+ * behind {@link NettyWriteResponseFilter} and the {@code Retry} filter, as in the gateway.
+ */
+class HedgeGatewayFilterFactoryTest {
+
+    private static final URI ROUTE_URL = URI.create("lb://order-service/api/v1/orders");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<DisposableServer> servers = new ArrayList<>();
+    private final List<ServiceInstance> instances = new ArrayList<>();
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private final Map<String, String> forwardedFor = new ConcurrentHashMap<>();
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(DisposableServer::disposeNow);
+    }
+
+    @Test
+    void filter_shouldAnswerWithFirstResponseAndCancelTheOther() throws InterruptedException {
+        // Given
+        CountDownLatch slowClosed = new CountDownLatch(1);
+        addSlowServer("slow", Duration.ofSeconds(5), slowClosed);
+        addServer("fast", 200);
+        MockServerWebExchange exchange = exchange();
+
+        // When
+        chain(hedge(Duration.ofMillis(50), List.of())).filter(exchange).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("fast", exchange.getResponse().getBodyAsString().block(Duration.ofSeconds(1)));
+        assertTrue(slowClosed.await(2, TimeUnit.SECONDS), "losing call should be cancelled");
+        assertEquals(1.0, meterRegistry.counter("gateway.hedge.wins", "route", "unknown").count());
+    }
+
+    @Test
+    void filter_shouldLetRetryRepeatServerError() {
+        // Given
+        addServer("failing", 503);
+        addServer("healthy", 200);
+        MockServerWebExchange exchange = exchange();
+
+        // When
+        chain(hedge(Duration.ofSeconds(2), List.of())).filter(exchange).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("healthy", exchange.getResponse().getBodyAsString().block(Duration.ofSeconds(1)));
+        assertEquals(1, hits.get("failing").get());
+        assertEquals(1, hits.get("healthy").get());
+    }
+
+    @Test
+    void filter_shouldWriteOnlyLastServerErrorWhenRetriesRunOut() {
+        // Given
+        addServer("failing-1", 503);
+        addServer("failing-2", 503);
+        MockServerWebExchange exchange = exchange();
+
+        // When
+        chain(hedge(Duration.ofSeconds(2), List.of())).filter(exchange).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+        assertEquals("failing-2", exchange.getResponse().getBodyAsString().block(Duration.ofSeconds(1)));
+        assertEquals(1, hits.get("failing-1").get());
+        assertEquals(1, hits.get("failing-2").get());
+    }
+
+    @Test
+    void filter_shouldSendRequestHeadersThroughHeadersFilters() {
+        // Given
+        addServer("upstream", 200);
+        MockServerWebExchange exchange = exchange();
+
+        // When
+        chain(hedge(Duration.ofSeconds(2), List.of(new XForwardedHeadersFilter())))
+                .filter(exchange).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("203.0.113.7", forwardedFor.get("upstream"));
+    }
+
+    private GatewayFilter hedge(Duration delay, List<HttpHeadersFilter> headersFilters) {
+        ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider = new ObjectProvider<>() {
+            @Override
+            public List<HttpHeadersFilter> getObject() {
+                return headersFilters;
+            }
+        };
+        HedgeGatewayFilterFactory factory = new HedgeGatewayFilterFactory(new StubLoadBalancerClientFactory(),
+                new InstanceStatsRegistry(new LoadBalancerConfig(), new OutlierDetectionConfig(), meterRegistry),
+                new HedgeBudget(new HedgeConfig(), meterRegistry), HttpClient.create(), headersFiltersProvider,
+                meterRegistry);
+        HedgeGatewayFilterFactory.Config config = new HedgeGatewayFilterFactory.Config();
+        config.setMinDelay(delay);
+        config.setMaxDelay(delay);
+        return factory.apply(config);
+    }
+
+    private GatewayFilterChain chain(GatewayFilter hedge) {
+        RetryGatewayFilterFactory.RetryConfig retry = new RetryGatewayFilterFactory.RetryConfig();
+        retry.setRetries(1);
+        retry.setSeries(HttpStatus.Series.SERVER_ERROR);
+        retry.setMethods(HttpMethod.GET);
+        // Stands in for RouteToRequestUrlFilter, which runs after Retry on every attempt
+        GatewayFilter routeToRequestUrl = (exchange, next) -> {
+            exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, ROUTE_URL);
+            return next.filter(exchange);
+        };
+        List<GatewayFilter> filters = List.of(new NettyWriteResponseFilter(List.of())::filter,
+                new RetryGatewayFilterFactory().apply(retry), routeToRequestUrl, hedge);
+        return new Chain(filters, 0);
+    }
+
+    private MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/orders")
+                .remoteAddress(new InetSocketAddress("203.0.113.7", 40000))
+                .build());
+    }
+
+    private void addServer(String name, int status) {
+        start(name, HttpServer.create().port(0).handle((request, response) -> {
+            hits.computeIfAbsent(name, key -> new AtomicInteger()).incrementAndGet();
+            String header = request.requestHeaders().get("X-Forwarded-For");
+            if (header != null) {
+                forwardedFor.put(name, header);
+            }
+            return response.status(status).sendString(Mono.just(name));
+        }));
+    }
+
+    private void addSlowServer(String name, Duration delay, CountDownLatch closed) {
+        start(name, HttpServer.create().port(0).handle((request, response) -> {
+            hits.computeIfAbsent(name, key -> new AtomicInteger()).incrementAndGet();
+            request.withConnection(connection -> connection.onDispose(closed::countDown));
+            return response.sendString(Mono.delay(delay).thenReturn(name));
+        }));
+    }
+
+    private void start(String name, HttpServer server) {
+        DisposableServer disposable = server.bindNow();
+        servers.add(disposable);
+        instances.add(new DefaultServiceInstance(name, "order-service", "localhost", disposable.port(), false));
+    }
+
+    /**
+     * Hands out the instances in the order they were added, like a round robin.
+     */
+    private class StubLoadBalancerClientFactory extends LoadBalancerClientFactory {
+        private final AtomicInteger next = new AtomicInteger();
+
+        StubLoadBalancerClientFactory() {
+            super(new LoadBalancerClientsProperties());
+        }
+
+        @Override
+        public ReactiveLoadBalancer<ServiceInstance> getInstance(String serviceId) {
+            return new ReactiveLoadBalancer<>() {
+                @Override
+                public Mono<Response<ServiceInstance>> choose(Request request) {
+                    return Mono.fromSupplier(() ->
+                            new DefaultResponse(instances.get(next.getAndIncrement() % instances.size())));
+                }
+
+                @Override
+                public Mono<Response<ServiceInstance>> choose() {
+                    return choose(null);
+                }
+            };
+        }
+    }
+
+    private record Chain(List<GatewayFilter> filters, int index) implements GatewayFilterChain {
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            return Mono.defer(() -> index < filters.size()
+                    ? filters.get(index).filter(exchange, new Chain(filters, index + 1))
+                    : Mono.empty());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.config.RateLimitConfig;
+import gtp.bytebites.gateway.ratelimit.InMemoryTokenBucketStore;
+import gtp.bytebites.gateway.ratelimit.RateLimitDecision;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link InMemoryTokenBucketStore}.
+ */
+class InMemoryTokenBucketStoreTest {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(ONE_SECOND);
+    private final InMemoryTokenBucketStore store = new InMemoryTokenBucketStore(Duration.ofMinutes(10), clock::get);
+
+    @Test
+    void consume_shouldAllowBurstThenReject() {
+        // Given
+        RateLimitConfig.Policy policy = new RateLimitConfig.Policy(1, 3);
+
+        // When
+        RateLimitDecision first = store.consume("user:1", policy);
+        store.consume("user:1", policy);
+        RateLimitDecision third = store.consume("user:1", policy);
+        RateLimitDecision fourth = store.consume("user:1", policy);
+
+        // Then
+        assertTrue(first.allowed());
+        assertEquals(2, first.remaining());
+        assertTrue(third.allowed());
+        assertEquals(0, third.remaining());
+        assertFalse(fourth.allowed());
+        assertEquals(ONE_SECOND, fourth.retryAfterNanos());
+    }
+
+    @Test
+    void consume_shouldRefillAtReplenishRate() {
+        // Given
+        RateLimitConfig.Policy policy = new RateLimitConfig.Policy(2, 2);
+        store.consume("user:1", policy);
+        store.consume("user:1", policy);
+        assertFalse(store.consume("user:1", policy).allowed());
+
+        // When
+        clock.addAndGet(ONE_SECOND / 2);
+
+        // Then
+        assertTrue(store.consume("user:1", policy).allowed());
+        assertFalse(store.consume("user:1", policy).allowed());
+    }
+
+    @Test
+    void consume_shouldKeepCallersIndependent() {
+        RateLimitConfig.Policy policy = new RateLimitConfig.Policy(1, 1);
+
+        assertTrue(store.consume("user:1", policy).allowed());
+        assertFalse(store.consume("user:1", policy).allowed());
+        assertTrue(store.consume("user:2", policy).allowed());
+    }
+
+    @Test
+    void consume_shouldNeverOverAdmitUnderContention() throws InterruptedException {
+        // Given
+        RateLimitConfig.Policy policy = new RateLimitConfig.Policy(1, 100);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(8);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    if (store.consume("user:1", policy).allowed()) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        done.await(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then
+        assertEquals(100, allowed.get());
+    }
+}
@@ -0,0 +1,131 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.config.IdentityHeaderConfig;
+import gtp.bytebites.gateway.filters.JwtGlobalFilter;
+import gtp.bytebites.gateway.security.IdentityHeaders;
+import gtp.bytebites.gateway.security.PathWhitelist;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link JwtGlobalFilter}.
+ */
+class JwtGlobalFilterTest {
+
+    private static final String SECRET = "identity-secret-identity-secret-identity";
+
+    private JwtGlobalFilter filter;
+    private AtomicReference<ServerWebExchange> forwarded;
+    private GatewayFilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        IdentityHeaderConfig identityHeaderConfig = new IdentityHeaderConfig();
+        identityHeaderConfig.setSecret(SECRET);
+        filter = new JwtGlobalFilter(new PathWhitelist(List.of("/api/v1/auth/**")),
+                new IdentityHeaders(identityHeaderConfig));
+        forwarded = new AtomicReference<>();
+        chain = exchange -> {
+            forwarded.set(exchange);
+            return Mono.empty();
+        };
+    }
+
+    @Test
+    void filter_shouldEnrichRequestFromAuthenticatedJwt() throws Exception {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "HS512")
+                .subject("user@example.com")
+                .claim("userId", "42")
+                .claim("roles", List.of("ROLE_CUSTOMER", "ROLE_ADMIN"))
+                .expiresAt(Instant.now().plusSeconds(300))
+                .build();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/orders/me")
+                .header("X-User-Id", "spoofed"));
+
+        StepVerifier.create(filter.filter(exchange, chain)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(new JwtAuthenticationToken(jwt))))
+                .verifyComplete();
+
+        ServerHttpRequest request = forwarded.get().getRequest();
+        String identity = request.getHeaders().getFirst(IdentityHeaders.USER_IDENTITY);
+        String[] parts = identity.split("\\.");
+        assertThat(parts).hasSize(6);
+        assertThat(parts[0]).isEqualTo("v1");
+        assertThat(decode(parts[1])).isEqualTo("42");
+        assertThat(decode(parts[2])).isEqualTo("user@example.com");
+        assertThat(decode(parts[3])).isEqualTo("ROLE_CUSTOMER,ROLE_ADMIN");
+        assertThat(Long.parseLong(parts[4])).isBetween(Instant.now().getEpochSecond(), jwt.getExpiresAt().getEpochSecond());
+        assertThat(parts[5]).isEqualTo(sign(identity.substring(0, identity.lastIndexOf('.'))));
+        assertThat(request.getHeaders().containsKey("X-User-Id")).isFalse();
+        assertThat((Jwt) exchange.getAttribute(JwtGlobalFilter.AUTHENTICATED_JWT_ATTR)).isSameAs(jwt);
+    }
+
+    @Test
+    void filter_shouldRejectWhenNoJwtIsAuthenticated() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/orders/me"));
+
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        assertThat(forwarded.get()).isNull();
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void filter_shouldPassWhitelistedPathsThrough() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/auth/login"));
+
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        assertThat(forwarded.get()).isSameAs(exchange);
+    }
+
+    @Test
+    void filter_shouldStripClientIdentityHeadersOnWhitelistedPaths() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/auth/login")
+                .header(IdentityHeaders.USER_IDENTITY, "v1.forged")
+                .header(IdentityHeaders.USER_ID, "42")
+                .header(IdentityHeaders.USER_EMAIL, "admin@example.com")
+                .header(IdentityHeaders.USER_ROLES, "ROLE_ADMIN")
+                .header("Content-Type", "application/json"));
+
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        ServerHttpRequest request = forwarded.get().getRequest();
+        assertThat(request.getHeaders().keySet()).containsExactly("Content-Type");
+    }
+
+    private static String decode(String part) {
+        return new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8);
+    }
+
+    private static String sign(String payload) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
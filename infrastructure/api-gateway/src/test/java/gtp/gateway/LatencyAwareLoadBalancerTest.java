@@ -0,0 +1,251 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.config.LoadBalancerConfig;
+import gtp.bytebites.gateway.config.OutlierDetectionConfig;
+import gtp.bytebites.gateway.loadbalancer.InstanceStatsRegistry;
+import gtp.bytebites.gateway.loadbalancer.LatencyAwareLoadBalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedMultiValueMap;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LatencyAwareLoadBalancer}, driven by stub instances with injected
+ * latency and a simulated clock.
+ */
+class LatencyAwareLoadBalancerTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final List<ServiceInstance> instances = new ArrayList<>();
+    private final Map<String, Long> latencyMillis = new HashMap<>();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoadBalancerConfig config;
+    private InstanceStatsRegistry registry;
+    private LatencyAwareLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() {
+        config = new LoadBalancerConfig();
+        config.setSlowStart(Duration.ofSeconds(30));
+        registry = new InstanceStatsRegistry(config, new OutlierDetectionConfig(), meterRegistry, clock::get);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("supplier", new ListSupplier());
+        loadBalancer = new LatencyAwareLoadBalancer(beanFactory.getBeanProvider(ServiceInstanceListSupplier.class),
+                "order-service", registry, config);
+    }
+
+    @Test
+    void choose_shouldAvoidSlowInstance() {
+        // Given
+        addInstance("order-1", 10);
+        addInstance("order-2", 10);
+        addInstance("order-3", 250);
+        warmUp();
+
+        // When
+        Map<String, Integer> picks = simulate(3_000);
+
+        // Then
+        assertTrue(picks.getOrDefault("order-3", 0) < 150, "slow instance picked " + picks);
+        assertTrue(picks.getOrDefault("order-1", 0) > 1_000, "fast instance picked " + picks);
+    }
+
+    @Test
+    void choose_shouldPreferInstanceWithFewerRequestsInFlight() {
+        // Given
+        config.setStrategy(LoadBalancerConfig.Strategy.LEAST_OUTSTANDING);
+        addInstance("order-1", 10);
+        addInstance("order-2", 10);
+        warmUp();
+        for (int i = 0; i < 5; i++) {
+            registry.started(instances.get(0));
+        }
+
+        // When
+        ServiceInstance chosen = choose();
+
+        // Then
+        assertEquals("order-2", chosen.getInstanceId());
+    }
+
+    @Test
+    void choose_shouldRampUpNewInstanceDuringSlowStart() {
+        // Given
+        addInstance("order-1", 2);
+        addInstance("order-2", 2);
+        warmUp();
+        addInstance("order-3", 1);
+
+        // When
+        int coldShare = simulate(1_000).getOrDefault("order-3", 0);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        int warmShare = simulate(1_000).getOrDefault("order-3", 0);
+
+        // Then
+        assertTrue(coldShare < 150, "cold instance picked " + coldShare);
+        assertTrue(warmShare > 250, "warm instance picked " + warmShare);
+    }
+
+    @Test
+    void choose_shouldSkipInstanceEjectedAfterConsecutiveFailures() {
+        // Given
+        addInstance("order-1", 10);
+        addInstance("order-2", 10);
+        warmUp();
+        for (int i = 0; i < 5; i++) {
+            fail(instances.get(0));
+        }
+
+        // When
+        Map<String, Integer> picks = simulate(200);
+
+        // Then
+        assertEquals(200, picks.get("order-2"));
+        assertEquals(1.0, meterRegistry.get("gateway.lb.outlier.ejections").counter().count());
+        assertEquals(1.0, meterRegistry.get("gateway.lb.outlier.ejected").gauge().value());
+    }
+
+    @Test
+    void choose_shouldEjectOnErrorRateAndBackOffOnRepeatedEjection() {
+        // Given
+        addInstance("order-1", 10);
+        addInstance("order-2", 10);
+        warmUp();
+        ServiceInstance flaky = instances.get(0);
+        for (int i = 0; !registry.isEjected(flaky, clock.get()); i++) {
+            assertTrue(i < 10, "instance failing half its requests was not ejected");
+            if (i % 2 == 0) {
+                fail(flaky);
+            } else {
+                serve(flaky);
+            }
+        }
+        long firstEjection = registry.statsFor(flaky).ejectedUntilNanos() - clock.get();
+
+        // When
+        clock.set(registry.statsFor(flaky).ejectedUntilNanos());
+        for (int i = 0; i < 5; i++) {
+            fail(flaky);
+        }
+        long secondEjection = registry.statsFor(flaky).ejectedUntilNanos() - clock.get();
+
+        // Then
+        assertEquals(TimeUnit.SECONDS.toNanos(30), firstEjection);
+        assertEquals(TimeUnit.SECONDS.toNanos(60), secondEjection);
+    }
+
+    @Test
+    void choose_shouldStillAnswerWhenEveryInstanceIsEjected() {
+        // Given
+        addInstance("order-1", 10);
+        warmUp();
+        for (int i = 0; i < 5; i++) {
+            fail(instances.get(0));
+        }
+
+        // When/Then
+        assertEquals("order-1", choose().getInstanceId());
+    }
+
+    @Test
+    void choose_shouldRetryOnInstanceNotTriedYet() {
+        // Given
+        addInstance("order-1", 10);
+        addInstance("order-2", 10);
+        warmUp();
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(LatencyAwareLoadBalancer.ATTEMPTED_INSTANCES_ATTR,
+                Set.of(InstanceStatsRegistry.keyOf(instances.get(0))));
+        RequestData requestData = new RequestData(HttpMethod.GET, URI.create("http://order-service/api/v1/orders/1"),
+                new HttpHeaders(), new LinkedMultiValueMap<>(), attributes);
+
+        // When
+        ServiceInstance chosen = loadBalancer.choose(new DefaultRequest<>(new RequestDataContext(requestData)))
+                .block().getServer();
+
+        // Then
+        assertEquals("order-2", chosen.getInstanceId());
+    }
+
+    private void addInstance(String id, long latency) {
+        instances.add(new DefaultServiceInstance(id, "order-service", id, 8080, false));
+        latencyMillis.put(id, latency);
+    }
+
+    /**
+     * Lets every current instance finish its slow start and answer once.
+     */
+    private void warmUp() {
+        instances.forEach(registry::statsFor);
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        for (ServiceInstance instance : instances) {
+            serve(instance);
+        }
+    }
+
+    private Map<String, Integer> simulate(int requests) {
+        Map<String, Integer> picks = new HashMap<>();
+        for (int i = 0; i < requests; i++) {
+            ServiceInstance chosen = choose();
+            picks.merge(chosen.getInstanceId(), 1, Integer::sum);
+            serve(chosen);
+        }
+        return picks;
+    }
+
+    private void serve(ServiceInstance instance) {
+        long start = registry.started(instance);
+        clock.addAndGet(latencyMillis.get(instance.getInstanceId()) * MILLIS);
+        registry.finished(instance, start, false);
+    }
+
+    private void fail(ServiceInstance instance) {
+        long start = registry.started(instance);
+        clock.addAndGet(MILLIS);
+        registry.finished(instance, start, true);
+    }
+
+    private ServiceInstance choose() {
+        return loadBalancer.choose(new DefaultRequest<>()).block().getServer();
+    }
+
+    private class ListSupplier implements ServiceInstanceListSupplier {
+        @Override
+        public String getServiceId() {
+            return "order-service";
+        }
+
+        @Override
+        public Flux<List<ServiceInstance>> get() {
+            return Flux.just(List.copyOf(instances));
+        }
+    }
+}
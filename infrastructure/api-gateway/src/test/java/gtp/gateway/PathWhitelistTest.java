@@ -0,0 +1,75 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.security.PathWhitelist;
+
+import org.springframework.http.server.PathContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PathWhitelist}.
+ */
+class PathWhitelistTest {
+
+    private static final List<String> GATEWAY_WHITELIST = List.of(
+            "/api/v1/auth/**", "/oauth2/**", "/error", "/v3/api-docs/**", "/swagger-ui/**", "/actuator/**");
+
+    private final PathWhitelist whitelist = new PathWhitelist(GATEWAY_WHITELIST);
+
+    @Test
+    void matches_shouldAcceptPathsUnderWhitelistedPrefixes() {
+        assertTrue(matches(whitelist, "/api/v1/auth/login"));
+        assertTrue(matches(whitelist, "/api/v1/auth"));
+        assertTrue(matches(whitelist, "/actuator/health/liveness"));
+        assertTrue(matches(whitelist, "/error"));
+    }
+
+    @Test
+    void matches_shouldRejectProtectedPaths() {
+        assertFalse(matches(whitelist, "/api/v1/orders/me"));
+        assertFalse(matches(whitelist, "/api/v1/authx/login"));
+        assertFalse(matches(whitelist, "/error/details"));
+        assertFalse(matches(whitelist, "/"));
+    }
+
+    @Test
+    void matches_shouldFallBackToPathPatternsForWildcardSegments() {
+        PathWhitelist patterns = new PathWhitelist(List.of("/api/v1/restaurants/*/menu", "/public/{file}.js"));
+
+        assertTrue(matches(patterns, "/api/v1/restaurants/42/menu"));
+        assertTrue(matches(patterns, "/public/app.js"));
+        assertFalse(matches(patterns, "/api/v1/restaurants/42/orders"));
+        assertFalse(matches(patterns, "/public/app.css"));
+    }
+
+    @Test
+    void matches_shouldHandleLargeWhitelists() {
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            patterns.add("/api/v1/partners/partner-" + i + "/**");
+        }
+        PathWhitelist large = new PathWhitelist(patterns);
+
+        assertTrue(matches(large, "/api/v1/partners/partner-999/catalog"));
+        assertFalse(matches(large, "/api/v1/partners/partner-1000/catalog"));
+    }
+
+    @Test
+    void reload_shouldReplaceAllPatterns() {
+        PathWhitelist reloadable = new PathWhitelist(GATEWAY_WHITELIST);
+
+        reloadable.reload(List.of("/api/v1/restaurants/**"));
+
+        assertTrue(matches(reloadable, "/api/v1/restaurants"));
+        assertFalse(matches(reloadable, "/api/v1/auth/login"));
+    }
+
+    private boolean matches(PathWhitelist pathWhitelist, String path) {
+        return pathWhitelist.matches(PathContainer.parsePath(path));
+    }
+}
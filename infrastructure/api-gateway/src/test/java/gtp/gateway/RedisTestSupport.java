@@ -0,0 +1,46 @@
+package gtp.gateway;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Connects the Redis backed tests to the server named by {@code spring.data.redis.host} and
+ * {@code spring.data.redis.port}, localhost:6379 by default. Tests are skipped, not
+ * failed, when no server answers.
+ */
+final class RedisTestSupport {
+
+    private RedisTestSupport() {
+    }
+
+    static LettuceConnectionFactory connect() {
+        LettuceConnectionFactory connectionFactory = connectionFactory(
+                System.getProperty("spring.data.redis.host", "localhost"),
+                Integer.getInteger("spring.data.redis.port", 6379));
+        boolean available;
+        try (var connection = connectionFactory.getConnection()) {
+            available = "PONG".equals(connection.ping());
+        } catch (RuntimeException e) {
+            available = false;
+        }
+        if (!available) {
+            connectionFactory.destroy();
+        }
+        assumeTrue(available, "Redis is not available");
+        return connectionFactory;
+    }
+
+    static LettuceConnectionFactory connectionFactory(String host, int port) {
+        LettuceConnectionFactory connectionFactory =
+                new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+        return connectionFactory;
+    }
+
+    static ReactiveStringRedisTemplate template(LettuceConnectionFactory connectionFactory) {
+        return new ReactiveStringRedisTemplate(connectionFactory);
+    }
+}
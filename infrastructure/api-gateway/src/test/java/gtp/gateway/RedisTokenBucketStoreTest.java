@@ -0,0 +1,134 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.config.RateLimitConfig;
+import gtp.bytebites.gateway.ratelimit.RateLimitDecision;
+import gtp.bytebites.gateway.ratelimit.RedisTokenBucketStore;
+
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link RedisTokenBucketStore} against a local Redis server.
+ */
+class RedisTokenBucketStoreTest {
+
+    private static final String KEY_PREFIX = "gateway:rate-limit:";
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private LettuceConnectionFactory connectionFactory;
+    private ReactiveStringRedisTemplate redisTemplate;
+    private RedisTokenBucketStore store;
+    private final String key = "user:" + UUID.randomUUID();
+
+    private void connect() {
+        connectionFactory = RedisTestSupport.connect();
+        redisTemplate = RedisTestSupport.template(connectionFactory);
+        store = new RedisTokenBucketStore(redisTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (connectionFactory == null) {
+            return;
+        }
+        redisTemplate.delete(KEY_PREFIX + key).block(TIMEOUT);
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void tryConsume_shouldAllowBurstThenReject() {
+        // Given
+        connect();
+        RateLimitConfig.Policy policy = new RateLimitConfig.Policy(1, 3);
+
+        // When
+        RateLimitDecision first = consume(policy);
+        consume(policy);
+        RateLimitDecision third = consume(policy);
+        RateLimitDecision fourth = consume(policy);
+
+        // Then
+        assertTrue(first.allowed());
+        assertEquals(2, first.remaining());
+        assertTrue(third.allowed());
+        assertEquals(0, third.remaining());
+        assertFalse(fourth.allowed());
+        assertTrue(fourth.retryAfterNanos() > TimeUnit.MILLISECONDS.toNanos(900),
+                "retry after " + fourth.retryAfterNanos());
+        assertTrue(fourth.retryAfterNanos() <= TimeUnit.SECONDS.toNanos(1),
+                "retry after " + fourth.retryAfterNanos());
+    }
+
+    @Test
+    void tryConsume_shouldRefillAtReplenishRate() throws InterruptedException {
+        // Given
+        connect();
+        RateLimitConfig.Policy policy = new RateLimitConfig.Policy(20, 1);
+        assertTrue(consume(policy).allowed());
+        assertFalse(consume(policy).allowed());
+
+        // When
+        Thread.sleep(60);
+
+        // Then
+        assertTrue(consume(policy).allowed());
+    }
+
+    @Test
+    void tryConsume_shouldExpireKeyOnceBucketIsFull() throws InterruptedException {
+        // Given
+        connect();
+        RateLimitConfig.Policy slow = new RateLimitConfig.Policy(1, 3);
+        consume(slow);
+
+        // When
+        Long ttlMillis = redisTemplate.getExpire(KEY_PREFIX + key).map(Duration::toMillis).block(TIMEOUT);
+
+        // Then
+        assertNotNull(ttlMillis);
+        assertTrue(ttlMillis > 0 && ttlMillis <= 1_001, "ttl " + ttlMillis);
+
+        // Given
+        redisTemplate.delete(KEY_PREFIX + key).block(TIMEOUT);
+        RateLimitConfig.Policy fast = new RateLimitConfig.Policy(100, 2);
+        consume(fast);
+
+        // When
+        Thread.sleep(100);
+
+        // Then
+        assertEquals(Boolean.FALSE, redisTemplate.hasKey(KEY_PREFIX + key).block(TIMEOUT));
+    }
+
+    @Test
+    void tryConsume_shouldAllowWhenRedisIsUnreachable() {
+        // Given
+        LettuceConnectionFactory unreachable = RedisTestSupport.connectionFactory("localhost", 1);
+        RedisTokenBucketStore failOpen = new RedisTokenBucketStore(RedisTestSupport.template(unreachable));
+
+        try {
+            // When
+            RateLimitDecision decision = failOpen.tryConsume(key, new RateLimitConfig.Policy(1, 1)).block(TIMEOUT);
+
+            // Then
+            assertNotNull(decision);
+            assertTrue(decision.allowed());
+            assertEquals(-1L, decision.remaining());
+        } finally {
+            unreachable.destroy();
+        }
+    }
+
+    private RateLimitDecision consume(RateLimitConfig.Policy policy) {
+        return store.tryConsume(key, policy).block(TIMEOUT);
+    }
+}
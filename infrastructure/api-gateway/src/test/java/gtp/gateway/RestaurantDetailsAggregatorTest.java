@@ -0,0 +1,205 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.aggregation.RestaurantDetails;
+import gtp.bytebites.gateway.aggregation.RestaurantDetailsAggregator;
+import gtp.bytebites.gateway.concurrency.ConcurrencyLimiterRegistry;
+import gtp.bytebites.gateway.concurrency.GradientLimiter;
+import gtp.bytebites.gateway.config.AggregationConfig;
+import gtp.bytebites.gateway.config.ConcurrencyLimitConfig;
+import gtp.bytebites.gateway.config.DeadlineConfig;
+import gtp.bytebites.gateway.config.IdentityHeaderConfig;
+import gtp.bytebites.gateway.deadline.RequestDeadline;
+import gtp.bytebites.gateway.security.IdentityHeaders;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RestaurantDetailsAggregator}.
+ */
+class RestaurantDetailsAggregatorTest {
+
+    private static final UUID RESTAURANT_ID = UUID.randomUUID();
+
+    private final ConcurrencyLimitConfig concurrencyLimitConfig = new ConcurrencyLimitConfig();
+    private final ConcurrencyLimiterRegistry limiterRegistry =
+            new ConcurrencyLimiterRegistry(concurrencyLimitConfig, new SimpleMeterRegistry());
+
+    @Test
+    void aggregate_shouldMergeAllLegs() {
+        // Given
+        RestaurantDetailsAggregator aggregator = aggregator(path -> {
+            if (path.endsWith("/menu")) {
+                return ok("{\"data\":[{\"name\":\"Jollof\"}]}");
+            }
+            if (path.endsWith("/me")) {
+                return ok("{\"data\":[{\"restaurantId\":\"" + RESTAURANT_ID + "\"},{\"restaurantId\":\"other\"}]}");
+            }
+            return ok("{\"data\":{\"name\":\"Chez\"}}");
+        });
+
+        // When
+        RestaurantDetails details = aggregator.aggregate(RESTAURANT_ID, customer(), -1).block();
+
+        // Then
+        assertNotNull(details);
+        assertEquals("Chez", details.restaurant().path("name").asText());
+        assertEquals("Jollof", details.menu().path(0).path("name").asText());
+        assertEquals(1, details.orders().size());
+        assertNull(details.unavailable());
+    }
+
+    @Test
+    void aggregate_shouldReturnPartialResultWhenLegTimesOut() {
+        // Given
+        RestaurantDetailsAggregator aggregator = aggregator(path -> path.endsWith("/me")
+                ? Mono.never()
+                : ok("{\"data\":{\"name\":\"Chez\"}}"));
+
+        // When
+        RestaurantDetails details = aggregator.aggregate(RESTAURANT_ID, customer(), -1).block(Duration.ofSeconds(5));
+
+        // Then
+        assertNotNull(details);
+        assertEquals("Chez", details.restaurant().path("name").asText());
+        assertNull(details.orders());
+        assertEquals(List.of("orders"), details.unavailable());
+    }
+
+    @Test
+    void aggregate_shouldFailWhenRestaurantDoesNotExist() {
+        // Given
+        RestaurantDetailsAggregator aggregator = aggregator(path -> path.endsWith("/menu") || path.endsWith("/me")
+                ? ok("{\"data\":[]}")
+                : Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build()));
+
+        // When/Then
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> aggregator.aggregate(RESTAURANT_ID, customer(), -1).block());
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+    }
+
+    @Test
+    void aggregate_shouldFailWhenRestaurantIsUnavailable() {
+        // Given
+        RestaurantDetailsAggregator aggregator = aggregator(path -> path.endsWith("/menu") || path.endsWith("/me")
+                ? ok("{\"data\":[]}")
+                : Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build()));
+
+        // When/Then
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> aggregator.aggregate(RESTAURANT_ID, customer(), -1).block());
+        assertEquals(HttpStatus.BAD_GATEWAY, e.getStatusCode());
+    }
+
+    @Test
+    void aggregate_shouldSendWhatIsLeftOfTheDeadlineOnEachLeg() {
+        // Given
+        List<ClientRequest> sent = Collections.synchronizedList(new ArrayList<>());
+        RestaurantDetailsAggregator aggregator = exchangingWith(request -> {
+            sent.add(request);
+            return ok("{\"data\":[]}");
+        });
+
+        // When
+        aggregator.aggregate(RESTAURANT_ID, customer(), 500).block();
+
+        // Then
+        assertEquals(3, sent.size());
+        for (ClientRequest request : sent) {
+            long budget = Long.parseLong(request.headers().getFirst(RequestDeadline.HEADER));
+            long legTimeout = request.url().getPath().endsWith("/me") ? 200 : 500;
+            assertTrue(budget > 0 && budget <= legTimeout, request.url() + " got " + budget + "ms");
+        }
+    }
+
+    @Test
+    void aggregate_shouldReportLegTurnedAwayByItsRouteLimiter() {
+        // Given
+        List<String> paths = Collections.synchronizedList(new ArrayList<>());
+        RestaurantDetailsAggregator aggregator = exchangingWith(request -> {
+            paths.add(request.url().getPath());
+            return ok("{\"data\":{\"name\":\"Chez\"}}");
+        });
+        List<GradientLimiter.Permit> held = saturate("order-service");
+
+        // When
+        RestaurantDetails details = aggregator.aggregate(RESTAURANT_ID, customer(), -1).block();
+
+        // Then
+        assertNotNull(details);
+        assertEquals(List.of("orders"), details.unavailable());
+        assertTrue(paths.stream().noneMatch(path -> path.endsWith("/me")));
+        held.forEach(GradientLimiter.Permit::ignore);
+    }
+
+    @Test
+    void aggregate_shouldFailWith503WhenRestaurantRouteIsSaturated() {
+        // Given
+        RestaurantDetailsAggregator aggregator = exchangingWith(request -> ok("{\"data\":[]}"));
+        saturate("restaurant-service");
+
+        // When/Then
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> aggregator.aggregate(RESTAURANT_ID, customer(), -1).block());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+    }
+
+    private List<GradientLimiter.Permit> saturate(String routeId) {
+        List<GradientLimiter.Permit> held = new ArrayList<>();
+        GradientLimiter limiter = limiterRegistry.limiterFor(routeId);
+        for (GradientLimiter.Permit permit = limiter.tryAcquire(); permit != null; permit = limiter.tryAcquire()) {
+            held.add(permit);
+        }
+        return held;
+    }
+
+    private RestaurantDetailsAggregator aggregator(Function<String, Mono<ClientResponse>> upstream) {
+        return exchangingWith(request -> upstream.apply(request.url().getPath()));
+    }
+
+    private RestaurantDetailsAggregator exchangingWith(Function<ClientRequest, Mono<ClientResponse>> upstream) {
+        AggregationConfig config = new AggregationConfig();
+        config.setOrdersTimeout(Duration.ofMillis(200));
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(upstream::apply)
+                .build();
+        IdentityHeaderConfig identityHeaderConfig = new IdentityHeaderConfig();
+        identityHeaderConfig.setSecret("identity-secret-identity-secret-identity");
+        return new RestaurantDetailsAggregator(webClient, config, new IdentityHeaders(identityHeaderConfig),
+                concurrencyLimitConfig, limiterRegistry, new DeadlineConfig(), new SimpleMeterRegistry());
+    }
+
+    private Mono<ClientResponse> ok(String body) {
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+
+    private Jwt customer() {
+        return new Jwt("token", Instant.now(), Instant.now().plusSeconds(60), Map.of("alg", "HS512"),
+                Map.of("sub", "ama@example.com", "userId", "42", "roles", List.of("ROLE_CUSTOMER")));
+    }
+}
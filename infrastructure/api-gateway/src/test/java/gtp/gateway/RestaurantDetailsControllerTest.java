@@ -0,0 +1,125 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.aggregation.RestaurantDetails;
+import gtp.bytebites.gateway.aggregation.RestaurantDetailsAggregator;
+import gtp.bytebites.gateway.aggregation.RestaurantDetailsController;
+import gtp.bytebites.gateway.concurrency.ConcurrencyLimiterRegistry;
+import gtp.bytebites.gateway.concurrency.GradientLimiter;
+import gtp.bytebites.gateway.config.AggregationConfig;
+import gtp.bytebites.gateway.config.ConcurrencyLimitConfig;
+import gtp.bytebites.gateway.config.DeadlineConfig;
+import gtp.bytebites.gateway.config.IdentityHeaderConfig;
+import gtp.bytebites.gateway.config.RateLimitConfig;
+import gtp.bytebites.gateway.filters.RateLimitGlobalFilter;
+import gtp.bytebites.gateway.ratelimit.InMemoryTokenBucketStore;
+import gtp.bytebites.gateway.security.IdentityHeaders;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RestaurantDetailsController}.
+ */
+class RestaurantDetailsControllerTest {
+
+    private static final UUID RESTAURANT_ID = UUID.randomUUID();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitConfig rateLimitConfig = new RateLimitConfig();
+    private final ConcurrencyLimitConfig concurrencyLimitConfig = new ConcurrencyLimitConfig();
+    private final ConcurrencyLimiterRegistry limiterRegistry =
+            new ConcurrencyLimiterRegistry(concurrencyLimitConfig, meterRegistry);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void getRestaurantDetails_shouldAnswer429OnceCallerExceedsRateLimit() {
+        // Given
+        rateLimitConfig.setRoutes(Map.of(RestaurantDetailsAggregator.ROUTE_ID, new RateLimitConfig.Policy(1, 1)));
+        RestaurantDetailsController controller = controller();
+
+        // When
+        ResponseEntity<RestaurantDetails> first = controller.getRestaurantDetails(RESTAURANT_ID, customer(), request()).block();
+        ResponseEntity<RestaurantDetails> second = controller.getRestaurantDetails(RESTAURANT_ID, customer(), request()).block();
+
+        // Then
+        assertNotNull(first);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals("0", first.getHeaders().getFirst(RateLimitGlobalFilter.REMAINING_HEADER));
+        assertNotNull(second);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, second.getStatusCode());
+        assertEquals("1", second.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(3, upstreamCalls.get());
+    }
+
+    @Test
+    void getRestaurantDetails_shouldAnswer503WhenRestaurantRouteIsSaturated() {
+        // Given
+        concurrencyLimitConfig.setRetryAfter(Duration.ofSeconds(2));
+        RestaurantDetailsController controller = controller();
+        GradientLimiter limiter = limiterRegistry.limiterFor("restaurant-service");
+        while (limiter.tryAcquire() != null) {
+            // hold every permit
+        }
+
+        // When
+        ResponseEntity<RestaurantDetails> response = controller.getRestaurantDetails(RESTAURANT_ID, customer(), request()).block();
+
+        // Then
+        assertNotNull(response);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNull(response.getBody());
+    }
+
+    private RestaurantDetailsController controller() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    upstreamCalls.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("{\"data\":[]}")
+                            .build());
+                })
+                .build();
+        IdentityHeaderConfig identityHeaderConfig = new IdentityHeaderConfig();
+        identityHeaderConfig.setSecret("identity-secret-identity-secret-identity");
+        RestaurantDetailsAggregator aggregator = new RestaurantDetailsAggregator(webClient, new AggregationConfig(),
+                new IdentityHeaders(identityHeaderConfig), concurrencyLimitConfig, limiterRegistry,
+                new DeadlineConfig(), meterRegistry);
+        RateLimitGlobalFilter rateLimiter = new RateLimitGlobalFilter(rateLimitConfig,
+                new InMemoryTokenBucketStore(Duration.ofMinutes(10), meterRegistry), meterRegistry);
+        return new RestaurantDetailsController(aggregator, rateLimiter, concurrencyLimitConfig);
+    }
+
+    private ServerHttpRequest request() {
+        return MockServerHttpRequest.get("/api/v1/restaurants/" + RESTAURANT_ID + "/details")
+                .remoteAddress(new InetSocketAddress("203.0.113.7", 40000))
+                .build();
+    }
+
+    private Jwt customer() {
+        return new Jwt("token", Instant.now(), Instant.now().plusSeconds(60), Map.of("alg", "HS512"),
+                Map.of("sub", "ama@example.com", "userId", "42", "roles", List.of("ROLE_CUSTOMER")));
+    }
+}
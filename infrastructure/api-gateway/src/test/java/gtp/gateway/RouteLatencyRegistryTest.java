@@ -0,0 +1,115 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.config.RouteLatencyConfig;
+import gtp.bytebites.gateway.latency.RouteLatencyHistogram;
+import gtp.bytebites.gateway.latency.RouteLatencyRegistry;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RouteLatencyRegistry}.
+ */
+class RouteLatencyRegistryTest {
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RouteLatencyRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        RouteLatencyConfig config = new RouteLatencyConfig();
+        config.setSloBuckets(List.of(Duration.ofMillis(100), Duration.ofMillis(50)));
+        config.setWindows(2);
+        registry = new RouteLatencyRegistry(config, meterRegistry, clock::get);
+    }
+
+    @Test
+    void snapshot_shouldSummariseCompletedWindowPerSeriesAndRoute() {
+        // Given
+        for (int i = 1; i <= 100; i++) {
+            record("order-service", "10.0.0.1:8080", "SUCCESS", i);
+        }
+        record("order-service", "10.0.0.2:8080", "SERVER_ERROR", 900);
+
+        // When
+        Map<String, List<RouteLatencyRegistry.SeriesSnapshot>> beforeWindowEnds = registry.snapshot();
+        clock.addAndGet(MINUTE);
+        List<RouteLatencyRegistry.SeriesSnapshot> series = registry.snapshot().get("order-service");
+
+        // Then
+        assertTrue(beforeWindowEnds.isEmpty());
+        assertEquals(3, series.size());
+        RouteLatencyHistogram.WindowSnapshot success = only(series, "10.0.0.1:8080", "SUCCESS");
+        assertEquals(100, success.count());
+        assertEquals(50.0, success.p50(), 1.0);
+        assertEquals(99.0, success.p99(), 1.0);
+        assertEquals(Map.of("50ms", 50L, "100ms", 100L), success.slo());
+        assertEquals(List.of("50ms", "100ms"), List.copyOf(success.slo().keySet()));
+
+        RouteLatencyHistogram.WindowSnapshot all = only(series, RouteLatencyRegistry.ALL, RouteLatencyRegistry.ALL);
+        assertEquals(101, all.count());
+        assertEquals(900.0, all.max(), 9.0);
+    }
+
+    @Test
+    void snapshot_shouldKeepOnlyConfiguredNumberOfWindows() {
+        // Given
+        for (int window = 1; window <= 3; window++) {
+            record("restaurant-service", "10.0.0.1:8081", "SUCCESS", window * 10L);
+            clock.addAndGet(MINUTE);
+        }
+
+        // When
+        List<RouteLatencyHistogram.WindowSnapshot> windows =
+                only(registry.snapshot().get("restaurant-service"), "10.0.0.1:8081", "SUCCESS", 2);
+
+        // Then
+        assertEquals(20.0, windows.get(0).max(), 0.5);
+        assertEquals(30.0, windows.get(1).max(), 0.5);
+        assertEquals(MINUTE, windows.get(1).end() - windows.get(1).start());
+    }
+
+    @Test
+    void record_shouldPublishTimerWithSloBuckets() {
+        // When
+        record("order-service", "10.0.0.1:8080", "SUCCESS", 75);
+
+        // Then
+        Timer timer = meterRegistry.get("gateway.route.latency")
+                .tags("route", "order-service", "instance", "10.0.0.1:8080", "outcome", "SUCCESS")
+                .timer();
+        assertEquals(1, timer.count());
+        assertEquals(2, timer.takeSnapshot().histogramCounts().length);
+    }
+
+    private void record(String route, String instance, String outcome, long millis) {
+        registry.record(route, instance, outcome, TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private RouteLatencyHistogram.WindowSnapshot only(List<RouteLatencyRegistry.SeriesSnapshot> series,
+                                                      String instance, String outcome) {
+        return only(series, instance, outcome, 1).get(0);
+    }
+
+    private List<RouteLatencyHistogram.WindowSnapshot> only(List<RouteLatencyRegistry.SeriesSnapshot> series,
+                                                            String instance, String outcome, int windows) {
+        RouteLatencyRegistry.SeriesSnapshot match = series.stream()
+                .filter(s -> s.instance().equals(instance) && s.outcome().equals(outcome))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(windows, match.windows().size());
+        return match.windows();
+    }
+}
@@ -0,0 +1,68 @@
+package gtp.gateway;
+
+import gtp.bytebites.events.event.TokenRevokedEvent;
+import gtp.bytebites.gateway.config.TokenRevocationConfig;
+import gtp.bytebites.gateway.security.TokenRevocationList;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Measures what {@link TokenRevocationList#isRevoked(String, String, Instant)} adds to a
+ * request whose token is not revoked, with a given number of live revocations.
+ * <p>
+ * Excluded from surefire in this module's pom, so the build never runs it. Run
+ * {@link #main(String[])} from the test classpath, for example:
+ * </p>
+ * <pre>
+ * mvn -pl infrastructure/api-gateway test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=gtp.gateway.TokenRevocationListBenchmark
+ * </pre>
+ * <p>
+ * The first pass over the tokens warms up the JIT and is not timed.
+ * </p>
+ */
+public final class TokenRevocationListBenchmark {
+    private static final int TOKENS = 4_096;
+    private static final int ROUNDS = 2_000;
+
+    public static void main(String[] args) {
+        for (int revocations : new int[] {0, 1_000, 10_000}) {
+            TokenRevocationList revocationList = new TokenRevocationList(new TokenRevocationConfig(), new SimpleMeterRegistry());
+            Instant expiresAt = Instant.now().plusSeconds(3_600);
+            for (int i = 0; i < revocations; i++) {
+                revocationList.apply(i % 10 == 0
+                        ? TokenRevokedEvent.forUser(UUID.randomUUID(), Instant.now(), expiresAt)
+                        : TokenRevokedEvent.forToken(UUID.randomUUID().toString(), expiresAt));
+            }
+
+            String[] tokenIds = new String[TOKENS];
+            String[] userIds = new String[TOKENS];
+            for (int i = 0; i < TOKENS; i++) {
+                tokenIds[i] = UUID.randomUUID().toString();
+                userIds[i] = UUID.randomUUID().toString();
+            }
+            Instant issuedAt = Instant.now();
+
+            run(revocationList, tokenIds, userIds, issuedAt);
+            long start = System.nanoTime();
+            int revoked = run(revocationList, tokenIds, userIds, issuedAt);
+            double nanos = (double) (System.nanoTime() - start) / ((long) TOKENS * ROUNDS);
+            System.out.printf("%,6d revocations: %.1f ns per check (%d revoked)%n", revocations, nanos, revoked);
+        }
+    }
+
+    private static int run(TokenRevocationList revocationList, String[] tokenIds, String[] userIds, Instant issuedAt) {
+        int revoked = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < TOKENS; i++) {
+                if (revocationList.isRevoked(tokenIds[i], userIds[i], issuedAt)) {
+                    revoked++;
+                }
+            }
+        }
+        return revoked;
+    }
+}
@@ -0,0 +1,132 @@
+package gtp.gateway;
+
+import gtp.bytebites.events.event.TokenRevokedEvent;
+import gtp.bytebites.gateway.config.TokenRevocationConfig;
+import gtp.bytebites.gateway.security.BloomFilter;
+import gtp.bytebites.gateway.security.TokenRevocationList;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TokenRevocationList} and its {@link BloomFilter}.
+ */
+class TokenRevocationListTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TokenRevocationList revocationList = new TokenRevocationList(config(16), meterRegistry);
+
+    @Test
+    void isRevoked_shouldRejectRevokedTokenOnly() {
+        // Given
+        Instant now = Instant.now();
+        revocationList.apply(TokenRevokedEvent.forToken("jti-1", now.plusSeconds(60)));
+
+        // When / Then
+        assertTrue(revocationList.isRevoked("jti-1", "user-1", now));
+        assertFalse(revocationList.isRevoked("jti-2", "user-1", now));
+    }
+
+    @Test
+    void isRevoked_shouldRejectUserTokensIssuedBeforeRevocation() {
+        // Given
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        UUID userId = UUID.randomUUID();
+        revocationList.apply(TokenRevokedEvent.forUser(userId, now, now.plusSeconds(60)));
+
+        // When / Then
+        assertTrue(revocationList.isRevoked("jti-1", userId.toString(), now.minusSeconds(30)));
+        assertTrue(revocationList.isRevoked("jti-2", userId.toString(), now.minusSeconds(1)));
+        assertFalse(revocationList.isRevoked("jti-3", userId.toString(), now.plusSeconds(1)));
+        assertFalse(revocationList.isRevoked("jti-1", UUID.randomUUID().toString(), now.minusSeconds(30)));
+    }
+
+    @Test
+    void isRevoked_shouldAcceptTokenIssuedInTheSecondOfTheRevocation() {
+        // Given
+        Instant revokedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        UUID userId = UUID.randomUUID();
+        revocationList.apply(TokenRevokedEvent.forUser(userId, revokedAt, revokedAt.plusSeconds(60)));
+
+        // When / Then: a token issued 400ms after the revocation carries iat = revokedAt
+        assertFalse(revocationList.isRevoked("jti-1", userId.toString(), revokedAt));
+    }
+
+    @Test
+    void apply_shouldIgnoreRevocationsThatAlreadyExpired() {
+        // When
+        revocationList.apply(TokenRevokedEvent.forToken("jti-1", Instant.now().minusSeconds(1)));
+
+        // Then
+        assertEquals(0, revocationList.size());
+        assertFalse(revocationList.isRevoked("jti-1", null, Instant.now()));
+    }
+
+    @Test
+    void apply_shouldGrowFilterPastItsSizingWithoutLosingEntries() {
+        // Given
+        Instant expiresAt = Instant.now().plusSeconds(60);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            revocationList.apply(TokenRevokedEvent.forToken("jti-" + i, expiresAt));
+        }
+
+        // Then
+        assertEquals(100, revocationList.size());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(revocationList.isRevoked("jti-" + i, null, Instant.now()));
+        }
+    }
+
+    @Test
+    void rebuild_shouldDropExpiredRevocations() throws InterruptedException {
+        // Given
+        Instant now = Instant.now();
+        revocationList.apply(TokenRevokedEvent.forToken("short-lived", now.plusMillis(50)));
+        revocationList.apply(TokenRevokedEvent.forToken("long-lived", now.plusSeconds(60)));
+        Thread.sleep(100);
+
+        // When
+        revocationList.rebuild();
+
+        // Then
+        assertEquals(1, revocationList.size());
+        assertFalse(revocationList.isRevoked("short-lived", null, now));
+        assertTrue(revocationList.isRevoked("long-lived", null, now));
+    }
+
+    @Test
+    void bloomFilter_shouldStayNearItsFalsePositiveRate() {
+        // Given
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(BloomFilter.hash(1, UUID.randomUUID().toString()));
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(BloomFilter.hash(1, UUID.randomUUID().toString()))) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    private static TokenRevocationConfig config(int expectedInsertions) {
+        TokenRevocationConfig config = new TokenRevocationConfig();
+        config.setExpectedInsertions(expectedInsertions);
+        return config;
+    }
+}
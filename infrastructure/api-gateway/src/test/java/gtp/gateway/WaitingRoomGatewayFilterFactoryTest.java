@@ -0,0 +1,83 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.filters.WaitingRoomGatewayFilterFactory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link WaitingRoomGatewayFilterFactory}.
+ */
+class WaitingRoomGatewayFilterFactoryTest {
+
+    private final WaitingRoomGatewayFilterFactory factory = new WaitingRoomGatewayFilterFactory(new SimpleMeterRegistry());
+
+    @Test
+    void apply_shouldKeepCountingSlotsHeldBeforeRoutesWereRebuilt() {
+        // Given
+        GatewayFilter before = factory.apply(config(1, 0));
+        Sinks.Empty<Void> upstream = Sinks.empty();
+        Disposable inFlight = before.filter(exchange(), exchange -> upstream.asMono()).subscribe();
+
+        // When
+        GatewayFilter after = factory.apply(config(1, 0));
+        MockServerWebExchange turnedAway = exchange();
+        after.filter(turnedAway, exchange -> Mono.empty()).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, turnedAway.getResponse().getStatusCode());
+        assertNotNull(turnedAway.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        upstream.tryEmitEmpty();
+        inFlight.dispose();
+    }
+
+    @Test
+    void apply_shouldAdmitRequestsQueuedBeforeRebuildWhenCapacityGrows() {
+        // Given
+        GatewayFilter before = factory.apply(config(1, 10));
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Sinks.Empty<Void> upstream = Sinks.empty();
+        before.filter(exchange(), exchange -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        }).subscribe();
+        before.filter(exchange(), exchange -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        }).subscribe();
+        assertEquals(1, upstreamCalls.get());
+
+        // When
+        factory.apply(config(2, 10));
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+        upstream.tryEmitEmpty();
+    }
+
+    private WaitingRoomGatewayFilterFactory.Config config(int capacity, int maxQueue) {
+        WaitingRoomGatewayFilterFactory.Config config = new WaitingRoomGatewayFilterFactory.Config();
+        config.setRouteId("order-service");
+        config.setCapacity(capacity);
+        config.setMaxQueue(maxQueue);
+        return config;
+    }
+
+    private MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/orders"));
+    }
+}
@@ -0,0 +1,160 @@
+package gtp.gateway;
+
+import gtp.bytebites.gateway.concurrency.WaitingRoom;
+
+import reactor.core.Disposable;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link WaitingRoom}.
+ */
+class WaitingRoomTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+
+    @Test
+    void admit_shouldAdmitQueuedRequestsInArrivalOrder() {
+        // Given
+        WaitingRoom room = room(2, 10);
+        WaitingRoom.Permit first = room.admit().block();
+        WaitingRoom.Permit second = room.admit().block();
+        List<Integer> admitted = new ArrayList<>();
+        List<WaitingRoom.Permit> waiting = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int position = i;
+            room.admit().subscribe(permit -> {
+                admitted.add(position);
+                waiting.add(permit);
+            });
+        }
+        assertEquals(3, room.getQueueDepth());
+
+        // When
+        clock.addAndGet(1_000_000L);
+        room.release(second);
+        room.release(first);
+        room.release(waiting.get(0));
+
+        // Then
+        assertEquals(List.of(0, 1, 2), admitted);
+        assertEquals(0, room.getQueueDepth());
+        assertEquals(2, room.getInFlight());
+        assertEquals(1_000_000L, waiting.get(0).getWaitNanos());
+    }
+
+    @Test
+    void admit_shouldRejectWithWaitEstimateWhenQueueIsFull() {
+        // Given
+        WaitingRoom room = room(1, 1);
+        WaitingRoom.Permit holder = room.admit().block();
+        clock.addAndGet(200_000_000L);
+        room.release(holder);
+        room.admit().block();
+        room.admit().subscribe();
+
+        // When
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        room.admit().subscribe(permit -> fail("Request should not be admitted"), error::set);
+
+        // Then
+        WaitingRoom.Rejected rejected = assertInstanceOf(WaitingRoom.Rejected.class, error.get());
+        assertEquals(WaitingRoom.Rejected.Reason.FULL, rejected.getReason());
+        assertEquals(400_000_000L, rejected.getEstimatedWaitNanos());
+    }
+
+    @Test
+    void admit_shouldRejectRequestStillWaitingAfterMaxWait() {
+        // Given
+        WaitingRoom room = room(1, 10);
+        WaitingRoom.Permit holder = room.admit().block();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        room.admit().subscribe(permit -> fail("Request should not be admitted"), error::set);
+
+        // When
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        scheduler.advanceTimeBy(Duration.ofSeconds(5));
+
+        // Then
+        WaitingRoom.Rejected rejected = assertInstanceOf(WaitingRoom.Rejected.class, error.get());
+        assertEquals(WaitingRoom.Rejected.Reason.EXPIRED, rejected.getReason());
+        assertEquals(Duration.ofSeconds(5).toNanos(), rejected.getWaitedNanos());
+        assertEquals(0, room.getQueueDepth());
+        room.release(holder);
+        assertEquals(0, room.getInFlight());
+    }
+
+    @Test
+    void admit_shouldSkipRequestsThatGaveUpWaiting() {
+        // Given
+        WaitingRoom room = room(1, 10);
+        WaitingRoom.Permit holder = room.admit().block();
+        Disposable gaveUp = room.admit().subscribe(permit -> fail("Cancelled request should not be admitted"));
+        AtomicReference<WaitingRoom.Permit> next = new AtomicReference<>();
+        room.admit().subscribe(next::set);
+
+        // When
+        gaveUp.dispose();
+        room.release(holder);
+
+        // Then
+        assertNotNull(next.get());
+        assertEquals(0, room.getQueueDepth());
+        assertEquals(1, room.getInFlight());
+    }
+
+    @Test
+    void resize_shouldAdmitQueuedRequestsIntoNewSlots() {
+        // Given
+        WaitingRoom room = room(1, 10);
+        WaitingRoom.Permit holder = room.admit().block();
+        List<WaitingRoom.Permit> admitted = new ArrayList<>();
+        room.admit().subscribe(admitted::add);
+        room.admit().subscribe(admitted::add);
+
+        // When
+        room.resize(2, 10, Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(1, admitted.size());
+        assertEquals(2, room.getInFlight());
+        assertEquals(1, room.getQueueDepth());
+        room.release(holder);
+        assertEquals(2, admitted.size());
+    }
+
+    @Test
+    void resize_shouldNotHandOnSlotsAboveSmallerCapacity() {
+        // Given
+        WaitingRoom room = room(2, 10);
+        WaitingRoom.Permit first = room.admit().block();
+        WaitingRoom.Permit second = room.admit().block();
+        AtomicReference<WaitingRoom.Permit> queued = new AtomicReference<>();
+        room.admit().subscribe(queued::set);
+
+        // When
+        room.resize(1, 10, Duration.ofSeconds(5));
+        room.release(first);
+
+        // Then
+        assertNull(queued.get());
+        assertEquals(1, room.getInFlight());
+        room.release(second);
+        assertNotNull(queued.get());
+        assertEquals(1, room.getInFlight());
+    }
+
+    private WaitingRoom room(int capacity, int maxQueue) {
+        return new WaitingRoom(capacity, maxQueue, Duration.ofSeconds(5), clock::get, scheduler);
+    }
+}
@@ -0,0 +1,16 @@
+package gtp.bytebites.events.config;
+
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AuthEventConfig {
+    public static final String AUTH_EXCHANGE = "auth.events";
+    public static final String TOKEN_REVOKED_ROUTING_KEY = "token.revoked";
+
+    @Bean
+    public TopicExchange authExchange() {
+        return new TopicExchange(AUTH_EXCHANGE, true, false);
+    }
+}
@@ -0,0 +1,16 @@
+package gtp.bytebites.events.config;
+
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CatalogEventConfig {
+    public static final String CATALOG_EXCHANGE = "catalog.events";
+    public static final String CATALOG_CHANGED_ROUTING_KEY = "catalog.changed";
+
+    @Bean
+    public TopicExchange catalogExchange() {
+        return new TopicExchange(CATALOG_EXCHANGE, true, false);
+    }
+}
@@ -0,0 +1,16 @@
+package gtp.bytebites.events.config;
+
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UserEventConfig {
+    public static final String USER_EXCHANGE = "user.events";
+    public static final String USER_CHANGED_ROUTING_KEY = "user.changed";
+
+    @Bean
+    public TopicExchange userExchange() {
+        return new TopicExchange(USER_EXCHANGE, true, false);
+    }
+}
@@ -0,0 +1,12 @@
+package gtp.bytebites.events.event;
+
+import java.util.UUID;
+
+/**
+ * Signals that a restaurant or its menu changed, so cached catalog reads
+ * for that restaurant (and any restaurant listings) are no longer current.
+ */
+public record CatalogChangedEvent(
+        UUID restaurantId
+) {
+}
@@ -0,0 +1,29 @@
+package gtp.bytebites.events.event;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Signals that access tokens issued by auth-service may no longer be used.
+ * <p>
+ * Either a single token is revoked, identified by its {@code jti} in {@code tokenId}, or
+ * every token of {@code userId} issued before {@code issuedBefore}, a whole second since
+ * token issue times are kept in seconds. Either way the
+ * revocation only matters until {@code expiresAt}, after which every token it covers has
+ * expired on its own.
+ * </p>
+ */
+public record TokenRevokedEvent(
+        String tokenId,
+        UUID userId,
+        Instant issuedBefore,
+        Instant expiresAt
+) {
+    public static TokenRevokedEvent forToken(String tokenId, Instant expiresAt) {
+        return new TokenRevokedEvent(tokenId, null, null, expiresAt);
+    }
+
+    public static TokenRevokedEvent forUser(UUID userId, Instant issuedBefore, Instant expiresAt) {
+        return new TokenRevokedEvent(null, userId, issuedBefore, expiresAt);
+    }
+}
@@ -0,0 +1,12 @@
+package gtp.bytebites.events.event;
+
+import java.util.UUID;
+
+/**
+ * Signals that a user's account changed, so cached copies of that user
+ * held by any auth-service instance are no longer current.
+ */
+public record UserChangedEvent(
+        UUID userId
+) {
+}
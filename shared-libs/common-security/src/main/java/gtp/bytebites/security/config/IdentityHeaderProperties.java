@@ -0,0 +1,53 @@
+package gtp.bytebites.security.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Configuration for verifying the signed identity header set by the API gateway.
+ *
+ * <p>Properties are bound from the {@code app.security.identity} prefix:</p>
+ * <ul>
+ *     <li><b>secret</b>: key shared with the gateway's {@code app.gateway.identity.secret},
+ *     at least 32 characters</li>
+ *     <li><b>max-cached-role-sets</b>: distinct role combinations whose authorities are
+ *     kept for reuse, defaults to 256</li>
+ * </ul>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.security.identity")
+public class IdentityHeaderProperties {
+    private static final int MIN_SECRET_LENGTH = 32;
+
+    private String secret;
+    private int maxCachedRoleSets = 256;
+
+    public String getSecret() {
+        if (secret == null || secret.length() < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException(
+                    "app.security.identity.secret must be at least " + MIN_SECRET_LENGTH + " characters");
+        }
+        return secret;
+    }
+
+    public byte[] getSecretBytes() {
+        return getSecret().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public int getMaxCachedRoleSets() {
+        return maxCachedRoleSets;
+    }
+
+    public void setMaxCachedRoleSets(int maxCachedRoleSets) {
+        if (maxCachedRoleSets < 0) {
+            throw new IllegalArgumentException("max-cached-role-sets must not be negative");
+        }
+        this.maxCachedRoleSets = maxCachedRoleSets;
+    }
+}
@@ -1,40 +1,158 @@
 package gtp.bytebites.security.filter;
 
+import gtp.bytebites.security.config.IdentityHeaderProperties;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Authenticates requests from the signed {@code X-User-Identity} header set by the API
+ * gateway.
+ * <p>
+ * The header reads {@code v1.<userId>.<email>.<roles>.<expiresAt>.<signature>}, with the
+ * first three values base64url encoded, {@code expiresAt} in epoch seconds and
+ * {@code signature} the base64url HMAC-SHA256 of everything before it. Requests whose
+ * header is missing, forged or expired are passed on unauthenticated. Callers share a
+ * handful of role combinations, so the authorities for each are built once and reused.
+ * </p>
+ */
 @Component
 public class ServiceSecurityFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(ServiceSecurityFilter.class);
+
+    public static final String USER_IDENTITY = "X-User-Identity";
+
+    private static final String VERSION_PREFIX = "v1.";
+    private static final int FIELD_COUNT = 4;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+    private final int maxCachedRoleSets;
+    private final ConcurrentMap<String, List<GrantedAuthority>> authoritiesByRoles = new ConcurrentHashMap<>();
+
+    public ServiceSecurityFilter(IdentityHeaderProperties identityHeaderProperties) {
+        this.key = new SecretKeySpec(identityHeaderProperties.getSecretBytes(), HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        this.maxCachedRoleSets = identityHeaderProperties.getMaxCachedRoleSets();
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        String userId = request.getHeader("X-User-Id");
-        String userRoles = request.getHeader("X-User-Roles");
+        String identity = request.getHeader(USER_IDENTITY);
+        if (identity != null) {
+            UsernamePasswordAuthenticationToken authentication = authenticate(identity);
+            if (authentication != null) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            } else {
+                // Debug only: the header comes from the client, so each bad one must not cost a WARN line
+                log.debug("Rejected invalid {} header on {} {}", USER_IDENTITY, request.getMethod(),
+                        request.getRequestURI());
+            }
+        }
 
-        if (userId != null && userRoles != null) {
-            List<SimpleGrantedAuthority> authorities = Arrays.stream(userRoles.split(","))
-                    .map(SimpleGrantedAuthority::new)
-                    .collect(Collectors.toList());
+        filterChain.doFilter(request, response);
+    }
 
+    /**
+     * @return the caller, or {@code null} if the header is malformed, forged or expired
+     */
+    private UsernamePasswordAuthenticationToken authenticate(String identity) {
+        int signatureStart = identity.lastIndexOf('.');
+        if (!identity.startsWith(VERSION_PREFIX) || signatureStart < 0) {
+            return null;
+        }
+        String[] fields = new String[FIELD_COUNT];
+        int start = VERSION_PREFIX.length();
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            int end = identity.indexOf('.', start);
+            if (end < 0) {
+                return null;
+            }
+            fields[i] = identity.substring(start, end);
+            start = end + 1;
+        }
+        if (start != signatureStart + 1) {
+            return null;
+        }
+
+        try {
+            byte[] expected = macs.get().doFinal(
+                    identity.substring(0, signatureStart).getBytes(StandardCharsets.US_ASCII));
+            byte[] actual = DECODER.decode(identity.substring(start));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return null;
+            }
+            if (Long.parseLong(fields[3]) < System.currentTimeMillis() / 1000) {
+                return null;
+            }
+            String userId = decode(fields[0]);
+            if (userId.isEmpty()) {
+                return null;
+            }
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    userId, null, authorities);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+                    userId, null, authorities(fields[2]));
+            authentication.setDetails(decode(fields[1]));
+            return authentication;
+        } catch (IllegalArgumentException e) {
+            return null;
         }
+    }
 
-        filterChain.doFilter(request, response);
+    private List<GrantedAuthority> authorities(String encodedRoles) {
+        List<GrantedAuthority> authorities = authoritiesByRoles.get(encodedRoles);
+        if (authorities != null) {
+            return authorities;
+        }
+        String roles = decode(encodedRoles);
+        authorities = roles.isEmpty()
+                ? List.of()
+                : Arrays.stream(roles.split(","))
+                        .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                        .toList();
+        // Bounded so a flood of unusual role combinations cannot grow the map without limit
+        if (authoritiesByRoles.size() < maxCachedRoleSets) {
+            List<GrantedAuthority> existing = authoritiesByRoles.putIfAbsent(encodedRoles, authorities);
+            return existing != null ? existing : authorities;
+        }
+        return authorities;
+    }
+
+    private static String decode(String value) {
+        return new String(DECODER.decode(value), StandardCharsets.UTF_8);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise " + HMAC_ALGORITHM, e);
+        }
     }
 }
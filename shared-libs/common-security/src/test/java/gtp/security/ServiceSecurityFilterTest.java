@@ -0,0 +1,189 @@
+package gtp.security;
+
+import gtp.bytebites.security.config.IdentityHeaderProperties;
+import gtp.bytebites.security.filter.ServiceSecurityFilter;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ServiceSecurityFilter}, with headers signed in the format the
+ * gateway's {@code IdentityHeaders} writes.
+ */
+class ServiceSecurityFilterTest {
+
+    private static final String SECRET = "identity-secret-identity-secret-identity";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_shouldAuthenticateCallerFromSignedHeader() throws Exception {
+        // Given
+        String header = sign("v1", encode("42"), encode("ama@example.com"), encode("ROLE_CUSTOMER,ROLE_ADMIN"),
+                inOneMinute());
+
+        // When
+        Authentication authentication = authenticate(filter(256), header);
+
+        // Then
+        assertNotNull(authentication);
+        assertEquals("42", authentication.getPrincipal());
+        assertEquals("ama@example.com", authentication.getDetails());
+        assertEquals(List.of("ROLE_CUSTOMER", "ROLE_ADMIN"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    void doFilter_shouldIgnoreHeaderWithTamperedField() throws Exception {
+        // Given
+        String header = sign("v1", encode("42"), encode("ama@example.com"), encode("ROLE_CUSTOMER"), inOneMinute());
+        String tampered = header.replace(encode("ROLE_CUSTOMER"), encode("ROLE_ADMIN"));
+
+        // When/Then
+        assertNull(authenticate(filter(256), tampered));
+    }
+
+    @Test
+    void doFilter_shouldIgnoreHeaderWithTamperedSignature() throws Exception {
+        // Given
+        String header = sign("v1", encode("42"), encode("ama@example.com"), encode("ROLE_CUSTOMER"), inOneMinute());
+        String payload = header.substring(0, header.lastIndexOf('.') + 1);
+        char first = header.charAt(payload.length());
+
+        // When/Then
+        assertNull(authenticate(filter(256), payload + ENCODER.encodeToString(new byte[32])));
+        assertNull(authenticate(filter(256), payload + (first == 'A' ? 'B' : 'A') + header.substring(payload.length() + 1)));
+        assertNull(authenticate(filter(256), payload + "not*base64"));
+    }
+
+    @Test
+    void doFilter_shouldIgnoreExpiredHeader() throws Exception {
+        // Given
+        String header = sign("v1", encode("42"), encode("ama@example.com"), encode("ROLE_CUSTOMER"),
+                Instant.now().minusSeconds(1).getEpochSecond());
+
+        // When/Then
+        assertNull(authenticate(filter(256), header));
+    }
+
+    @Test
+    void doFilter_shouldIgnoreHeaderWithWrongVersionOrFieldCount() throws Exception {
+        ServiceSecurityFilter filter = filter(256);
+        long expiresAt = inOneMinute();
+
+        assertNull(authenticate(filter, sign("v2", encode("42"), encode("ama@example.com"), encode("ROLE_CUSTOMER"),
+                expiresAt)));
+        assertNull(authenticate(filter, sign("v1", encode("42"), encode("ama@example.com"), expiresAt)));
+        assertNull(authenticate(filter, sign("v1", encode("42"), encode("ama@example.com"), encode("ROLE_CUSTOMER"),
+                encode("extra"), expiresAt)));
+        assertNull(authenticate(filter, "v1"));
+    }
+
+    @Test
+    void doFilter_shouldIgnoreSignedHeaderThatIsNotBase64() throws Exception {
+        // Given
+        ServiceSecurityFilter filter = filter(256);
+
+        // When/Then
+        assertNull(authenticate(filter, sign("v1", "4*2", encode("ama@example.com"), encode("ROLE_CUSTOMER"),
+                inOneMinute())));
+        assertNull(authenticate(filter, sign("v1", encode("42"), encode("ama@example.com"), encode("ROLE_CUSTOMER"),
+                "soon")));
+    }
+
+    @Test
+    void doFilter_shouldIgnoreHeaderWithoutUserId() throws Exception {
+        // Given
+        String header = sign("v1", encode(""), encode("ama@example.com"), encode("ROLE_CUSTOMER"), inOneMinute());
+
+        // When/Then
+        assertNull(authenticate(filter(256), header));
+    }
+
+    @Test
+    void doFilter_shouldOnlyReuseAuthoritiesForCachedRoleSets() throws Exception {
+        // Given
+        ServiceSecurityFilter filter = filter(1);
+        String customer = sign("v1", encode("42"), encode("ama@example.com"), encode("ROLE_CUSTOMER"), inOneMinute());
+        String admin = sign("v1", encode("7"), encode("kofi@example.com"), encode("ROLE_ADMIN"), inOneMinute());
+
+        // When
+        GrantedAuthority firstCustomer = onlyAuthority(authenticate(filter, customer));
+        GrantedAuthority secondCustomer = onlyAuthority(authenticate(filter, customer));
+        GrantedAuthority firstAdmin = onlyAuthority(authenticate(filter, admin));
+        GrantedAuthority secondAdmin = onlyAuthority(authenticate(filter, admin));
+
+        // Then
+        assertSame(firstCustomer, secondCustomer);
+        assertEquals(firstAdmin, secondAdmin);
+        assertNotSame(firstAdmin, secondAdmin);
+    }
+
+    private Authentication authenticate(ServiceSecurityFilter filter, String header) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+        request.addHeader(ServiceSecurityFilter.USER_IDENTITY, header);
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> authentication.set(SecurityContextHolder.getContext().getAuthentication()));
+        return authentication.get();
+    }
+
+    private static GrantedAuthority onlyAuthority(Authentication authentication) {
+        assertNotNull(authentication);
+        assertEquals(1, authentication.getAuthorities().size());
+        return authentication.getAuthorities().iterator().next();
+    }
+
+    private static ServiceSecurityFilter filter(int maxCachedRoleSets) {
+        IdentityHeaderProperties properties = new IdentityHeaderProperties();
+        properties.setSecret(SECRET);
+        properties.setMaxCachedRoleSets(maxCachedRoleSets);
+        return new ServiceSecurityFilter(properties);
+    }
+
+    /**
+     * Joins the fields with dots and appends their signature, as the gateway does.
+     */
+    private static String sign(Object... fields) throws Exception {
+        StringBuilder payload = new StringBuilder();
+        for (Object field : fields) {
+            if (!payload.isEmpty()) {
+                payload.append('.');
+            }
+            payload.append(field);
+        }
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] signature = mac.doFinal(payload.toString().getBytes(StandardCharsets.US_ASCII));
+        return payload + "." + ENCODER.encodeToString(signature);
+    }
+
+    private static String encode(String value) {
+        return ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long inOneMinute() {
+        return Instant.now().plusSeconds(60).getEpochSecond();
+    }
+}
@@ -0,0 +1,62 @@
+package gtp.bytebites.util.deadline;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Wraps a {@link DataSource} so statements cannot run past the current request's deadline.
+ * <p>
+ * Every statement created while a {@link RequestDeadline} is set gets a JDBC query timeout
+ * of the budget left, rounded up to whole seconds, the driver's granularity. Statements
+ * are not even prepared once the budget is spent. Statements created outside a request
+ * with a deadline are left alone, as are timeouts Hibernate sets from query hints, which
+ * are applied after this one.
+ * </p>
+ */
+public final class DeadlineAwareDataSource {
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    private DeadlineAwareDataSource() {
+    }
+
+    public static DataSource wrap(DataSource dataSource) {
+        Class<?>[] interfaces = dataSource instanceof AutoCloseable
+                ? new Class<?>[] {DataSource.class, AutoCloseable.class}
+                : new Class<?>[] {DataSource.class};
+        return (DataSource) Proxy.newProxyInstance(DeadlineAwareDataSource.class.getClassLoader(), interfaces,
+                (proxy, method, args) -> {
+                    Object result = invoke(dataSource, method, args);
+                    return result instanceof Connection connection ? wrap(connection) : result;
+                });
+    }
+
+    private static Connection wrap(Connection connection) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (!STATEMENT_FACTORIES.contains(method.getName()) || !RequestDeadline.isSet()) {
+                return invoke(connection, method, args);
+            }
+            RequestDeadline.requireRemainingMillis();
+            Statement statement = (Statement) invoke(connection, method, args);
+            long remainingMillis = RequestDeadline.requireRemainingMillis();
+            statement.setQueryTimeout((int) Math.min(Integer.MAX_VALUE, (remainingMillis + 999) / 1000));
+            return statement;
+        };
+        return (Connection) Proxy.newProxyInstance(DeadlineAwareDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package gtp.bytebites.util.deadline;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Applies {@link DeadlineAwareDataSource} to the services' data sources, so JPA queries
+ * get a statement timeout matching the request's remaining budget.
+ */
+@Component
+public class DeadlineDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof DataSource dataSource ? DeadlineAwareDataSource.wrap(dataSource) : bean;
+    }
+}
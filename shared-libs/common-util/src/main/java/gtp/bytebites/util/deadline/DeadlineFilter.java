@@ -0,0 +1,50 @@
+package gtp.bytebites.util.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the {@code X-Request-Timeout} budget sent by the gateway to the request thread.
+ * <p>
+ * A request whose budget is already spent when it arrives is answered with
+ * {@code 504 Gateway Timeout} without reaching any controller.
+ * </p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long budgetMillis = RequestDeadline.parse(request.getHeader(RequestDeadline.HEADER));
+        if (budgetMillis < 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (budgetMillis == 0) {
+            response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"success\":false,\"message\":\"Request deadline exceeded\"}");
+            return;
+        }
+
+        RequestDeadline.start(budgetMillis);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+}
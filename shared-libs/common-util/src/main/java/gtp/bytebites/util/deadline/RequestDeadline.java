@@ -0,0 +1,75 @@
+package gtp.bytebites.util.deadline;
+
+import gtp.bytebites.util.exception.DeadlineExceededException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time budget of the request being handled on the current thread.
+ * <p>
+ * The gateway sends the milliseconds a request has left in the {@code X-Request-Timeout}
+ * header; {@link DeadlineFilter} turns it into a local deadline for the duration of the
+ * request. Outgoing calls and database statements read the remaining budget from here so
+ * they never outlive the caller. Requests without the header have no deadline.
+ * </p>
+ */
+public final class RequestDeadline {
+    public static final String HEADER = "X-Request-Timeout";
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Starts the budget for the current thread.
+     */
+    public static void start(long budgetMillis) {
+        DEADLINE.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    public static boolean isSet() {
+        return DEADLINE.get() != null;
+    }
+
+    /**
+     * @return milliseconds left, negative once the deadline has passed, or
+     *         {@link Long#MAX_VALUE} if the current request has no deadline
+     */
+    public static long remainingMillis() {
+        Long deadline = DEADLINE.get();
+        return deadline != null
+                ? TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())
+                : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return milliseconds left, at least one
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public static long requireRemainingMillis() {
+        long remaining = remainingMillis();
+        if (remaining <= 0) {
+            throw new DeadlineExceededException("Request deadline exceeded");
+        }
+        return remaining;
+    }
+
+    /**
+     * @return the budget in milliseconds, or {@code -1} if the value is missing or malformed
+     */
+    public static long parse(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0L, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
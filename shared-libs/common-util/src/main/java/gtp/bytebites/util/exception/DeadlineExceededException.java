@@ -0,0 +1,15 @@
+package gtp.bytebites.util.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the time budget of the current request runs out before its work is done.
+ */
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -37,6 +37,11 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage()));
     }
 
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ApiResponse<String>> handleDeadlineExceededException(DeadlineExceededException ex) {
+        return new ResponseEntity<>(ApiResponse.error(ex.getMessage()), HttpStatus.GATEWAY_TIMEOUT);
+    }
+
     @ExceptionHandler(AuthorizationDeniedException.class)
     public ResponseEntity<ApiResponse<String>> handleAuthorizationDeniedException(AuthorizationDeniedException ex) {
         return new ResponseEntity<>(ApiResponse.error("Access Denied"), HttpStatus.FORBIDDEN);
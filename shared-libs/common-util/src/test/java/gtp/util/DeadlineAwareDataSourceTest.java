@@ -0,0 +1,117 @@
+package gtp.util;
+
+import gtp.bytebites.util.deadline.DeadlineAwareDataSource;
+import gtp.bytebites.util.deadline.RequestDeadline;
+import gtp.bytebites.util.exception.DeadlineExceededException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link DeadlineAwareDataSource}.
+ */
+@ExtendWith(MockitoExtension.class)
+class DeadlineAwareDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = DeadlineAwareDataSource.wrap(target);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void prepareStatement_shouldSetQueryTimeoutFromRemainingBudget() throws Exception {
+        // Given
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        RequestDeadline.start(2_500);
+
+        // When
+        PreparedStatement statement = dataSource.getConnection().prepareStatement("select 1");
+
+        // Then
+        assertSame(preparedStatement, statement);
+        ArgumentCaptor<Integer> seconds = ArgumentCaptor.forClass(Integer.class);
+        verify(preparedStatement).setQueryTimeout(seconds.capture());
+        assertTrue(seconds.getValue() == 2 || seconds.getValue() == 3, "timeout " + seconds.getValue());
+    }
+
+    @Test
+    void createStatement_shouldRoundShortBudgetUpToOneSecond() throws Exception {
+        // Given
+        Statement created = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(created);
+        RequestDeadline.start(200);
+
+        // When
+        dataSource.getConnection().createStatement();
+
+        // Then
+        verify(created).setQueryTimeout(1);
+    }
+
+    @Test
+    void prepareStatement_shouldLeaveTimeoutAloneWithoutDeadline() throws Exception {
+        // Given
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+
+        // When
+        dataSource.getConnection().prepareStatement("select 1");
+
+        // Then
+        verify(preparedStatement, never()).setQueryTimeout(anyInt());
+    }
+
+    @Test
+    void prepareStatement_shouldFailWithoutPreparingOnceBudgetIsSpent() throws Exception {
+        // Given
+        RequestDeadline.start(0);
+        Connection wrapped = dataSource.getConnection();
+
+        // When/Then
+        assertThrows(DeadlineExceededException.class, () -> wrapped.prepareStatement("select 1"));
+        verify(connection, never()).prepareStatement(anyString());
+    }
+
+    @Test
+    void connection_shouldPassOtherCallsThrough() throws Exception {
+        // Given
+        RequestDeadline.start(0);
+
+        // When
+        dataSource.getConnection().commit();
+
+        // Then
+        verify(connection).commit();
+    }
+}
@@ -0,0 +1,76 @@
+package gtp.util;
+
+import gtp.bytebites.util.deadline.DeadlineFilter;
+import gtp.bytebites.util.deadline.RequestDeadline;
+
+import jakarta.servlet.FilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link DeadlineFilter}.
+ */
+class DeadlineFilterTest {
+
+    private final DeadlineFilter filter = new DeadlineFilter();
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void doFilter_shouldBindBudgetForTheRequestOnly() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+        request.addHeader(RequestDeadline.HEADER, "800");
+        AtomicLong remaining = new AtomicLong(-1);
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> remaining.set(RequestDeadline.remainingMillis()));
+
+        // Then
+        assertTrue(remaining.get() > 0 && remaining.get() <= 800, "remaining " + remaining.get());
+        assertFalse(RequestDeadline.isSet());
+    }
+
+    @Test
+    void doFilter_shouldAnswer504WhenBudgetIsAlreadySpent() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+        request.addHeader(RequestDeadline.HEADER, "0");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> fail("Request should not reach the controller");
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(504, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertTrue(response.getContentAsString().contains("Request deadline exceeded"));
+    }
+
+    @Test
+    void doFilter_shouldIgnoreMissingOrMalformedBudget() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+        request.addHeader(RequestDeadline.HEADER, "soon");
+        AtomicReference<Boolean> deadlineSet = new AtomicReference<>();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> deadlineSet.set(RequestDeadline.isSet()));
+
+        // Then
+        assertEquals(Boolean.FALSE, deadlineSet.get());
+    }
+}
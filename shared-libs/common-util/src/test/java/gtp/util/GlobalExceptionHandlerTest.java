@@ -0,0 +1,32 @@
+package gtp.util;
+
+import gtp.bytebites.util.dto.ApiResponse;
+import gtp.bytebites.util.exception.DeadlineExceededException;
+import gtp.bytebites.util.exception.GlobalExceptionHandler;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link GlobalExceptionHandler}.
+ */
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void handleDeadlineExceededException_shouldAnswer504() {
+        // When
+        ResponseEntity<ApiResponse<String>> response =
+                handler.handleDeadlineExceededException(new DeadlineExceededException("Request deadline exceeded"));
+
+        // Then
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Request deadline exceeded", response.getBody().getMessage());
+    }
+}